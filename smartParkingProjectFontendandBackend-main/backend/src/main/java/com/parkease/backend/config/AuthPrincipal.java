@@ -0,0 +1,23 @@
+package com.parkease.backend.config;
+
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Slim, immutable view of the logged-in user kept in the SecurityContext
+ * instead of the full entity. getName() is the email, so
+ * Authentication#getName() resolves to it as controllers expect.
+ */
+public record AuthPrincipal(Long id, String email, Role role, boolean enabled, boolean approved)
+        implements AuthenticatedPrincipal {
+
+    public static AuthPrincipal from(User user) {
+        return new AuthPrincipal(user.getId(), user.getEmail(), user.getRole(), user.isEnabled(), user.isApproved());
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
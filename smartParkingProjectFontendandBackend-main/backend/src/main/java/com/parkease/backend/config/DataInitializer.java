@@ -68,4 +68,17 @@ public class DataInitializer {
             }
         };
     }
+
+    @Bean
+    public CommandLineRunner backfillProviderIds(com.parkease.backend.repository.BookingRepository bookingRepository,
+            com.parkease.backend.repository.PaymentRepository paymentRepository) {
+        return args -> {
+            // bookings first: payments copy the value from their booking
+            int bookings = bookingRepository.backfillProviderIds();
+            int payments = paymentRepository.backfillProviderIds();
+            if (bookings > 0 || payments > 0) {
+                System.out.println("Backfilled provider_id on " + bookings + " bookings, " + payments + " payments");
+            }
+        };
+    }
 }
@@ -0,0 +1,186 @@
+package com.parkease.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Honours an Idempotency-Key header on the money-moving POSTs. Runs after
+ * {@link JwtAuthenticationFilter}, so keys are scoped to the authenticated
+ * user; the first request executes and its response is captured, retries
+ * with the same key and payload get that response replayed.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+        public static final String HEADER = "Idempotency-Key";
+        private static final int MAX_KEY_LENGTH = 128;
+
+        private static final Set<String> PATHS = Set.of(
+                        "/api/driver/bookings",
+                        "/api/driver/dashboard/add-money",
+                        "/api/provider/withdraw",
+                        "/api/provider/add-money");
+
+        @Autowired
+        private IdempotencyStore idempotencyStore;
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !"POST".equalsIgnoreCase(request.getMethod())
+                                || request.getHeader(HEADER) == null
+                                || !PATHS.contains(request.getRequestURI());
+        }
+
+        @Override
+        protected void doFilterInternal(
+                        HttpServletRequest request,
+                        HttpServletResponse response,
+                        FilterChain filterChain) throws ServletException, IOException {
+
+                String key = request.getHeader(HEADER).trim();
+                if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+                        reject(response, 400, "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+                        return;
+                }
+
+                // unauthenticated: leave it to the security chain to refuse
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                if (auth == null || !auth.isAuthenticated()) {
+                        filterChain.doFilter(request, response);
+                        return;
+                }
+
+                byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+                String requestHash = hash(request.getMethod(), request.getRequestURI(), body);
+
+                IdempotencyStore.Claim claim = idempotencyStore.begin(auth.getName(), key, requestHash);
+                switch (claim.outcome()) {
+                        case REPLAY -> {
+                                IdempotencyStore.StoredResponse stored = claim.response();
+                                response.setStatus(stored.status());
+                                response.setHeader("Idempotent-Replayed", "true");
+                                if (stored.contentType() != null) {
+                                        response.setContentType(stored.contentType());
+                                }
+                                response.getOutputStream().write(stored.body());
+                                return;
+                        }
+                        case CONFLICT -> {
+                                reject(response, 422, "Idempotency-Key was already used for a different request");
+                                return;
+                        }
+                        case IN_PROGRESS -> {
+                                response.setHeader("Retry-After", "1");
+                                reject(response, 409, "A request with this Idempotency-Key is still being processed");
+                                return;
+                        }
+                        case EXECUTE -> {
+                                // fall through to the handler
+                        }
+                }
+
+                ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+                boolean completed = false;
+                try {
+                        filterChain.doFilter(new CachedBodyRequest(request, body), captured);
+                        idempotencyStore.complete(claim, new IdempotencyStore.StoredResponse(requestHash,
+                                        captured.getStatus(), captured.getContentType(),
+                                        captured.getContentAsByteArray()));
+                        completed = true;
+                } finally {
+                        if (!completed) {
+                                idempotencyStore.abandon(claim);
+                        }
+                }
+                captured.copyBodyToResponse();
+        }
+
+        private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+                response.setStatus(status);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"status\":" + status + ",\"message\":\"" + message + "\"}");
+        }
+
+        private static String hash(String method, String uri, byte[] body) {
+                try {
+                        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                        digest.update((method + ' ' + uri + '\n').getBytes(StandardCharsets.UTF_8));
+                        digest.update(body);
+                        return HexFormat.of().formatHex(digest.digest());
+                } catch (NoSuchAlgorithmException e) {
+                        throw new IllegalStateException("SHA-256 not available", e);
+                }
+        }
+
+        // the body was consumed for hashing; hand the controller a fresh copy
+        private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+                private final byte[] body;
+
+                CachedBodyRequest(HttpServletRequest request, byte[] body) {
+                        super(request);
+                        this.body = body;
+                }
+
+                @Override
+                public ServletInputStream getInputStream() {
+                        ByteArrayInputStream in = new ByteArrayInputStream(body);
+                        return new ServletInputStream() {
+                                @Override
+                                public int read() {
+                                        return in.read();
+                                }
+
+                                @Override
+                                public int read(byte[] b, int off, int len) {
+                                        return in.read(b, off, len);
+                                }
+
+                                @Override
+                                public boolean isFinished() {
+                                        return in.available() == 0;
+                                }
+
+                                @Override
+                                public boolean isReady() {
+                                        return true;
+                                }
+
+                                @Override
+                                public void setReadListener(ReadListener listener) {
+                                        throw new UnsupportedOperationException();
+                                }
+                        };
+                }
+
+                @Override
+                public BufferedReader getReader() {
+                        String encoding = getCharacterEncoding();
+                        return new BufferedReader(new InputStreamReader(getInputStream(),
+                                        encoding != null ? java.nio.charset.Charset.forName(encoding)
+                                                        : StandardCharsets.UTF_8));
+                }
+        }
+}
@@ -0,0 +1,239 @@
+package com.parkease.backend.config;
+
+import com.parkease.backend.entity.IdempotencyRecord;
+import com.parkease.backend.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * (caller, Idempotency-Key) -> outcome of the first execution. Recent keys,
+ * in-flight ones included, sit in an LRU in memory; completed outcomes are
+ * also written to {@code idempotency_keys} so they survive eviction.
+ *
+ * A duplicate that arrives while the first request is still running waits
+ * for its result instead of executing again.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public enum Outcome {
+        EXECUTE, // caller is first: run the request, then complete() or abandon()
+        REPLAY, // stored response of the same request
+        CONFLICT, // key already used for a different request
+        IN_PROGRESS // first execution did not finish in time
+    }
+
+    public record StoredResponse(String requestHash, int status, String contentType, byte[] body) {
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response, String owner, String key) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long waitMillis;
+
+    // access-ordered, so iteration starts at the least recently used key
+    private final LinkedHashMap<String, Execution> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private static final class Execution {
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        private final long createdAt = System.currentTimeMillis();
+    }
+
+    public IdempotencyStore(
+            IdempotencyRecordRepository repository,
+            @Value("${parkease.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${parkease.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${parkease.idempotency.wait-ms:10000}") long waitMillis) {
+        this.repository = repository;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.maxEntries = maxEntries;
+        this.waitMillis = waitMillis;
+    }
+
+    /* ================= CLAIM ================= */
+
+    public Claim begin(String owner, String key, String requestHash) {
+        String id = owner + '\n' + key;
+
+        while (true) {
+            Execution execution;
+            boolean first = false;
+            synchronized (entries) {
+                execution = entries.get(id);
+                if (execution != null && execution.result.isDone()
+                        && execution.createdAt + ttlMillis < System.currentTimeMillis()) {
+                    entries.remove(id);
+                    execution = null;
+                }
+                if (execution == null) {
+                    execution = new Execution();
+                    entries.put(id, execution);
+                    first = true;
+                    trim();
+                }
+            }
+
+            if (first) {
+                // not in memory, but it may have completed before an eviction or restart
+                Optional<IdempotencyRecord> stored = repository.findByOwnerAndIdemKey(owner, key)
+                        .filter(r -> r.getCreatedAt().isAfter(cutoff()));
+                if (stored.isEmpty()) {
+                    executed.increment();
+                    return new Claim(Outcome.EXECUTE, null, owner, key);
+                }
+                IdempotencyRecord r = stored.get();
+                StoredResponse response = new StoredResponse(r.getRequestHash(), r.getStatus(), r.getContentType(),
+                        r.getBody() != null ? r.getBody().getBytes(StandardCharsets.UTF_8) : new byte[0]);
+                execution.result.complete(response);
+                return replay(owner, key, requestHash, response);
+            }
+
+            if (!execution.result.isDone()) {
+                coalesced.increment();
+            }
+            try {
+                return replay(owner, key, requestHash, execution.result.get(waitMillis, TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                return new Claim(Outcome.IN_PROGRESS, null, owner, key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, null, owner, key);
+            } catch (ExecutionException e) {
+                // the first execution failed without a response; the key is free again
+            }
+        }
+    }
+
+    /**
+     * Publishes the outcome to waiting duplicates and stores it if it is
+     * final (see {@link #isFinal}). Other outcomes are handed to the
+     * waiters but not kept, so a later retry runs.
+     */
+    public void complete(Claim claim, StoredResponse response) {
+        String id = claim.owner() + '\n' + claim.key();
+        boolean keep = isFinal(response.status());
+
+        if (keep) {
+            String body = new String(response.body(), StandardCharsets.UTF_8);
+            if (body.length() <= IdempotencyRecord.MAX_BODY_LENGTH) {
+                try {
+                    repository.save(new IdempotencyRecord(claim.owner(), claim.key(), response.requestHash(),
+                            response.status(), response.contentType(), body));
+                } catch (DataIntegrityViolationException e) {
+                    // stored concurrently by another node, memory still has ours
+                } catch (RuntimeException e) {
+                    log.warn("Idempotency record not stored for key {}", claim.key(), e);
+                }
+            }
+        }
+
+        Execution execution;
+        synchronized (entries) {
+            execution = keep ? entries.get(id) : entries.remove(id);
+        }
+        if (execution != null) {
+            execution.result.complete(response);
+        }
+    }
+
+    /**
+     * The request failed without producing a response: forget the key and
+     * let waiting duplicates try again.
+     */
+    public void abandon(Claim claim) {
+        Execution execution;
+        synchronized (entries) {
+            execution = entries.remove(claim.owner() + '\n' + claim.key());
+        }
+        if (execution != null) {
+            execution.result.completeExceptionally(new IllegalStateException("Request abandoned"));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return Map.of(
+                "size", size,
+                "executed", executed.sum(),
+                "replayed", replayed.sum(),
+                "coalesced", coalesced.sum());
+    }
+
+    /**
+     * Whether repeating the request would give the same answer: success,
+     * or a client error about the request itself (validation, short
+     * wallet, unknown lot). Timeouts, conflicts, locks, rate limits and
+     * server errors are transient and must not be replayed for the TTL.
+     */
+    static boolean isFinal(int status) {
+        if (status >= 200 && status < 300) {
+            return true;
+        }
+        if (status < 400 || status >= 500) {
+            return false;
+        }
+        return switch (status) {
+            case 408, 409, 423, 425, 429 -> false;
+            default -> true;
+        };
+    }
+
+    /* ================= EXPIRY ================= */
+
+    @Scheduled(fixedDelayString = "${parkease.idempotency.purge-ms:3600000}")
+    public void purgeExpired() {
+        repository.deleteOlderThan(cutoff());
+    }
+
+    /* ================= HELPERS ================= */
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(Duration.ofMillis(ttlMillis));
+    }
+
+    private Claim replay(String owner, String key, String requestHash, StoredResponse response) {
+        if (!response.requestHash().equals(requestHash)) {
+            return new Claim(Outcome.CONFLICT, null, owner, key);
+        }
+        replayed.increment();
+        return new Claim(Outcome.REPLAY, response, owner, key);
+    }
+
+    // caller holds the lock; in-flight keys are never evicted
+    private void trim() {
+        Iterator<Execution> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (it.next().result.isDone()) {
+                it.remove();
+            }
+        }
+    }
+}
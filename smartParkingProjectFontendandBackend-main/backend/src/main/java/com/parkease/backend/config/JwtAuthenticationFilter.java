@@ -1,11 +1,11 @@
 package com.parkease.backend.config;
 
-import com.parkease.backend.entity.User;
-import com.parkease.backend.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -20,11 +20,13 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+        private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
         @Autowired
         private JwtService jwtService;
 
         @Autowired
-        private UserRepository userRepository;
+        private PrincipalCache principalCache;
 
         @Override
         protected void doFilterInternal(
@@ -40,22 +42,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
 
                 String jwt = authHeader.substring(7);
-                String userEmail = jwtService.extractUsername(jwt);
+
+                // one parse + signature check per token, reused below
+                JwtService.VerifiedToken token = jwtService.verify(jwt).orElse(null);
+                String userEmail = token != null ? token.username() : null;
 
                 if (userEmail != null &&
                                 SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                        User user = userRepository.findByEmail(userEmail).orElse(null);
+                        AuthPrincipal user = principalCache.get(userEmail).orElse(null);
 
                         if (user == null) {
-                                System.out.println("❌ JWT Filter: User not found in DB for email: " + userEmail);
-                        } else if (jwtService.isTokenValid(jwt, user)) {
+                                log.debug("JWT filter: user not found for email {}", userEmail);
+                        } else if (jwtService.isTokenValid(token, user)) {
 
                                 // ✅ ROLE RESOLUTION
-                                String role = "ROLE_" + user.getRole().name();
+                                String role = "ROLE_" + user.role().name();
 
-                                // 🔥 DEBUG (THIS IS THE IMPORTANT ADDITION)
-                                System.out.println("✅ JWT Filter: Authorized " + userEmail + " with role " + role);
+                                // debug only: this runs on every authenticated request
+                                log.debug("JWT filter: authorized {} with role {}", userEmail, role);
 
                                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                                                 user,
@@ -2,53 +2,112 @@ package com.parkease.backend.config;
 
 import com.parkease.backend.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class JwtService {
 
     private static final String SECRET_KEY = "PARKEASE_SUPER_SECRET_KEY_1234567890123456";
 
+    private static final int VERIFIED_CACHE_LIMIT = 10_000;
+
+    // built once; both are immutable and thread-safe
+    private final Key signKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signKey)
+            .build();
+
+    // sha-256(token) -> claims already verified, reused until the token expires
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    /**
+     * Claims of a token whose signature and expiry have been checked.
+     */
+    public record VerifiedToken(String username, String role, Date expiresAt) {
+
+        public boolean isExpired() {
+            return !expiresAt.after(new Date());
+        }
+    }
+
     public String generateToken(User user) {
+        return generateToken(user, 86400000);
+    }
+
+    // package-private so tests can mint short-lived tokens
+    String generateToken(User user, long validityMillis) {
         return Jwts.builder()
                 .setSubject(user.getEmail())
                 .claim("role", "ROLE_" + user.getRole().name()) // ✅ ONLY HERE
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 86400000))
-                .signWith(getSignKey())
+                .setExpiration(new Date(System.currentTimeMillis() + validityMillis))
+                .signWith(signKey)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
-    }
+    /**
+     * Parses and verifies the token once. Empty when the signature is bad,
+     * the token is malformed or it has expired.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String key = hash(token);
 
-    public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
-    }
+        VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return Optional.of(cached);
+            }
+            verified.remove(key);
+            return Optional.empty();
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        VerifiedToken result = new VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration());
 
-    public boolean isTokenValid(String token, User user) {
-        return extractUsername(token).equals(user.getEmail())
-                && extractAllClaims(token)
-                        .getExpiration()
-                        .after(new Date());
+        if (verified.size() >= VERIFIED_CACHE_LIMIT) {
+            verified.values().removeIf(VerifiedToken::isExpired);
+            if (verified.size() >= VERIFIED_CACHE_LIMIT) {
+                verified.clear();
+            }
+        }
+        verified.put(key, result);
+        return Optional.of(result);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public boolean isTokenValid(VerifiedToken token, AuthPrincipal user) {
+        return token.username().equals(user.email()) && !token.isExpired();
     }
 
-    private Key getSignKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // mandated by the JDK spec
+        }
     }
 }
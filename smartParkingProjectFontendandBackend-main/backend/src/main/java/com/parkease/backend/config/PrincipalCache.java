@@ -0,0 +1,92 @@
+package com.parkease.backend.config;
+
+import com.parkease.backend.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * email -> {@link AuthPrincipal}, so an authenticated request does not need a
+ * user lookup. Entries live for a short TTL; code that changes a user's
+ * email, role, enabled or approved state (or deletes the user) evicts it.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final long TTL_MILLIS = 5 * 60 * 1000;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Entry(AuthPrincipal principal, long expiresAt) {
+    }
+
+    public PrincipalCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Optional<AuthPrincipal> get(String email) {
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return Optional.of(entry.principal());
+        }
+
+        misses.increment();
+        Optional<AuthPrincipal> loaded = userRepository.findByEmail(email).map(AuthPrincipal::from);
+
+        if (loaded.isPresent()) {
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.values().removeIf(e -> e.expiresAt() <= now);
+                if (entries.size() >= MAX_ENTRIES) {
+                    entries.clear();
+                }
+            }
+            entries.put(email, new Entry(loaded.get(), now + TTL_MILLIS));
+        } else {
+            entries.remove(email);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the entry now and, inside a transaction, again after commit so a
+     * request racing the write cannot re-cache the old state.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.remove(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(email);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return Map.of(
+                "hits", h,
+                "misses", m,
+                "hitRate", h + m > 0 ? (double) h / (h + m) : 0.0,
+                "size", entries.size());
+    }
+}
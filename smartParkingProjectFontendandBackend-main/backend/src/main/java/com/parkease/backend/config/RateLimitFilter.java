@@ -0,0 +1,89 @@
+package com.parkease.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs ahead of {@link JwtAuthenticationFilter}. Authenticated callers are
+ * limited per user, everyone else per client address; the bucket is also
+ * split by endpoint group so a burst on one group does not starve another.
+ *
+ * The client address is getRemoteAddr(). Behind a load balancer that would be
+ * the balancer itself, so all anonymous traffic would share one bucket;
+ * server.forward-headers-strategy=native makes Tomcat replace it with the
+ * X-Forwarded-For client, trusting the header only from internal proxies so
+ * a caller cannot pick its own bucket.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+        @Autowired
+        private RateLimiter rateLimiter;
+
+        @Autowired
+        private JwtService jwtService;
+
+        @Value("${parkease.ratelimit.enabled:true}")
+        private boolean enabled;
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !enabled || "OPTIONS".equalsIgnoreCase(request.getMethod());
+        }
+
+        @Override
+        protected void doFilterInternal(
+                        HttpServletRequest request,
+                        HttpServletResponse response,
+                        FilterChain filterChain) throws ServletException, IOException {
+
+                String caller = request.getRemoteAddr();
+                String role = null;
+
+                // verify() is cached, so this costs the JWT filter nothing extra
+                String authHeader = request.getHeader("Authorization");
+                if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                        JwtService.VerifiedToken token = jwtService.verify(authHeader.substring(7)).orElse(null);
+                        if (token != null) {
+                                caller = token.username();
+                                role = token.role();
+                        }
+                }
+
+                RateLimiter.Decision decision = rateLimiter.tryAcquire(groupOf(request.getRequestURI()), caller, role);
+
+                if (!decision.allowed()) {
+                        response.setStatus(429);
+                        response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+                        response.setContentType("application/json");
+                        response.getWriter().write(
+                                        "{\"status\":429,\"message\":\"Too many requests, retry in "
+                                                        + decision.retryAfterSeconds() + "s\"}");
+                        return;
+                }
+
+                response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+                filterChain.doFilter(request, response);
+        }
+
+        static RateLimiter.EndpointGroup groupOf(String uri) {
+                if (uri.startsWith("/api/auth/")) {
+                        return RateLimiter.EndpointGroup.AUTH;
+                }
+                if (uri.startsWith("/api/driver/bookings")) {
+                        return RateLimiter.EndpointGroup.BOOKING;
+                }
+                if (uri.startsWith("/api/admin/analytics")) {
+                        return RateLimiter.EndpointGroup.ANALYTICS;
+                }
+                return RateLimiter.EndpointGroup.DEFAULT;
+        }
+}
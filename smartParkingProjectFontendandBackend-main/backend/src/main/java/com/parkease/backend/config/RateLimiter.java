@@ -0,0 +1,151 @@
+package com.parkease.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by endpoint group + caller. Each bucket guards its own
+ * state, so callers only contend with requests for the same key. Idle or
+ * refilled buckets carry no state worth keeping and are swept to keep the
+ * table bounded.
+ */
+@Component
+public class RateLimiter {
+
+    public enum EndpointGroup {
+        AUTH, BOOKING, ANALYTICS, DEFAULT
+    }
+
+    /**
+     * Outcome of a check. retryAfterSeconds is only meaningful when denied.
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterSeconds) {
+    }
+
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int SWEEP_EVERY = 4096;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private final Map<EndpointGroup, Integer> perMinute;
+    private final Map<String, Double> roleMultiplier;
+    private final int maxKeys;
+
+    public RateLimiter(
+            @Value("${parkease.ratelimit.auth.per-minute:10}") int authPerMinute,
+            @Value("${parkease.ratelimit.booking.per-minute:30}") int bookingPerMinute,
+            @Value("${parkease.ratelimit.analytics.per-minute:20}") int analyticsPerMinute,
+            @Value("${parkease.ratelimit.default.per-minute:300}") int defaultPerMinute,
+            @Value("${parkease.ratelimit.role.admin:2.0}") double adminMultiplier,
+            @Value("${parkease.ratelimit.role.provider:1.0}") double providerMultiplier,
+            @Value("${parkease.ratelimit.role.driver:1.0}") double driverMultiplier,
+            @Value("${parkease.ratelimit.role.anonymous:1.0}") double anonymousMultiplier,
+            @Value("${parkease.ratelimit.max-keys:200000}") int maxKeys) {
+        this.perMinute = Map.of(
+                EndpointGroup.AUTH, authPerMinute,
+                EndpointGroup.BOOKING, bookingPerMinute,
+                EndpointGroup.ANALYTICS, analyticsPerMinute,
+                EndpointGroup.DEFAULT, defaultPerMinute);
+        this.roleMultiplier = Map.of(
+                "ROLE_ADMIN", adminMultiplier,
+                "ROLE_PROVIDER", providerMultiplier,
+                "ROLE_DRIVER", driverMultiplier,
+                "ANONYMOUS", anonymousMultiplier);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes one token from the caller's bucket for the group.
+     *
+     * @param caller user email or client address
+     * @param role   role claim of the token, or null for anonymous callers
+     */
+    public Decision tryAcquire(EndpointGroup group, String caller, String role) {
+        long now = System.nanoTime();
+
+        if (checks.incrementAndGet() % SWEEP_EVERY == 0 || buckets.size() > maxKeys) {
+            sweep(now);
+        }
+
+        double multiplier = roleMultiplier.getOrDefault(role != null ? role : "ANONYMOUS", 1.0);
+        long capacity = Math.max(1, Math.round(perMinute.get(group) * multiplier));
+
+        Bucket bucket = buckets.computeIfAbsent(group.name() + '|' + caller, k -> new Bucket(capacity, now));
+        return bucket.tryAcquire(capacity, now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return; // another thread is already on it
+        }
+        try {
+            buckets.values().removeIf(b -> b.isIdle(now));
+            if (buckets.size() > maxKeys) {
+                // a full bucket behaves exactly like a new one
+                buckets.values().removeIf(b -> b.isFull(now));
+            }
+            if (buckets.size() > maxKeys) {
+                buckets.clear();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /* ===== BUCKET ===== */
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long lastRefill;
+        private long capacity;
+
+        Bucket(long capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.capacity = capacity;
+        }
+
+        // capacity tokens refill over one minute
+        private void refill(long capacity, long now) {
+            this.capacity = capacity;
+            double perNano = capacity / (double) TimeUnit.MINUTES.toNanos(1);
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * perNano);
+            lastRefill = now;
+        }
+
+        synchronized Decision tryAcquire(long capacity, long now) {
+            refill(capacity, now);
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return new Decision(true, (long) tokens, 0);
+            }
+
+            double perNano = capacity / (double) TimeUnit.MINUTES.toNanos(1);
+            long waitNanos = (long) Math.ceil((1 - tokens) / perNano);
+            return new Decision(false, 0, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - lastRefill > IDLE_NANOS;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(capacity, now);
+            return tokens >= capacity;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.parkease.backend.controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.parkease.backend.dto.AdminAnalyticsResponse;
+import com.parkease.backend.dto.OccupancyCurveResponse;
 import com.parkease.backend.dto.ParkingDurationResponse;
 import com.parkease.backend.service.AdminAnalyticsService;
 
@@ -25,8 +32,23 @@ public class AdminAnalyticsController {
         return service.getAnalytics(range);
     }
 
+    // peak / average cars parked per bucket; optional lot, ISO date-time window (default today), bucket size
+    @GetMapping("/occupancy")
+    public OccupancyCurveResponse occupancy(
+            @RequestParam(required = false) Long lotId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer bucketMinutes) {
+        return service.getOccupancyCurve(lotId, from, to, bucketMinutes);
+    }
+
+    // optional lot, start-day range (ISO dates) and bucket upper bounds in minutes, e.g. bounds=15,45,90
     @GetMapping("/parking-duration")
-    public ParkingDurationResponse parkingDuration() {
-        return service.getParkingDurationAnalytics();
+    public ParkingDurationResponse parkingDuration(
+            @RequestParam(required = false) Long lotId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Long> bounds) {
+        return service.getParkingDurationAnalytics(lotId, from, to, bounds);
     }
 }
@@ -1,12 +1,12 @@
 package com.parkease.backend.controller;
 
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.Complaint;
 import com.parkease.backend.enumtype.ComplaintStatus;
 import com.parkease.backend.service.ComplaintService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin/complaints")
@@ -20,13 +20,18 @@ public class AdminComplaintController {
     }
 
     @GetMapping
-    public List<Complaint> all() {
-        return service.getAll();
+    public CursorPage<Complaint> all(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return service.getPage(null, cursor, limit);
     }
 
     @GetMapping("/status/{status}")
-    public List<Complaint> byStatus(@PathVariable ComplaintStatus status) {
-        return service.getByStatus(status);
+    public CursorPage<Complaint> byStatus(
+            @PathVariable ComplaintStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return service.getPage(status, cursor, limit);
     }
 
     @PostMapping("/{id}/resolve")
@@ -1,11 +1,8 @@
 package com.parkease.backend.controller;
 
-import java.util.List;
-
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import com.parkease.backend.dto.AdminDriverResponse;
 import com.parkease.backend.service.AdminDriverService;
 
 @RestController
@@ -20,8 +17,19 @@ public class AdminDriverController {
     }
 
     @GetMapping
-    public List<AdminDriverResponse> getDrivers(@RequestParam(required = false) String status) {
-        return service.getDrivers(status);
+    public Object getDrivers(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (q != null && !q.isBlank()) {
+            return service.searchDrivers(q, status, limit);
+        }
+        // the admin screen still takes the whole list; paging is opt-in
+        if (cursor == null && limit == null) {
+            return service.getDrivers(status);
+        }
+        return service.getDrivers(status, cursor, limit);
     }
 
     @PutMapping("/{id}/approve")
@@ -0,0 +1,66 @@
+package com.parkease.backend.controller;
+
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.parkease.backend.config.IdempotencyStore;
+import com.parkease.backend.config.PrincipalCache;
+import com.parkease.backend.config.RateLimiter;
+import com.parkease.backend.service.AdminUserIndex;
+import com.parkease.backend.service.BookingLifecycleScheduler;
+import com.parkease.backend.service.DurationStatsService;
+import com.parkease.backend.service.LiveStatusHub;
+import com.parkease.backend.service.LotGeoIndex;
+import com.parkease.backend.service.LotSearchIndex;
+import com.parkease.backend.service.RatingSummaryService;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+public class AdminMetricsController {
+
+    private final PrincipalCache principalCache;
+    private final RateLimiter rateLimiter;
+    private final LiveStatusHub liveStatusHub;
+    private final BookingLifecycleScheduler bookingLifecycle;
+    private final IdempotencyStore idempotencyStore;
+    private final LotGeoIndex lotGeoIndex;
+    private final LotSearchIndex lotSearchIndex;
+    private final AdminUserIndex adminUserIndex;
+    private final RatingSummaryService ratingSummaryService;
+    private final DurationStatsService durationStatsService;
+
+    public AdminMetricsController(PrincipalCache principalCache, RateLimiter rateLimiter,
+            LiveStatusHub liveStatusHub, BookingLifecycleScheduler bookingLifecycle,
+            IdempotencyStore idempotencyStore, LotGeoIndex lotGeoIndex, LotSearchIndex lotSearchIndex,
+            AdminUserIndex adminUserIndex, RatingSummaryService ratingSummaryService,
+            DurationStatsService durationStatsService) {
+        this.principalCache = principalCache;
+        this.rateLimiter = rateLimiter;
+        this.liveStatusHub = liveStatusHub;
+        this.bookingLifecycle = bookingLifecycle;
+        this.idempotencyStore = idempotencyStore;
+        this.lotGeoIndex = lotGeoIndex;
+        this.lotSearchIndex = lotSearchIndex;
+        this.adminUserIndex = adminUserIndex;
+        this.ratingSummaryService = ratingSummaryService;
+        this.durationStatsService = durationStatsService;
+    }
+
+    @GetMapping
+    public Map<String, Object> metrics() {
+        return Map.of(
+                "principalCache", principalCache.stats(),
+                "rateLimiter", Map.of("buckets", rateLimiter.size()),
+                "liveStatus", liveStatusHub.stats(),
+                "bookingLifecycle", Map.of("pendingTimers", bookingLifecycle.pending()),
+                "idempotency", idempotencyStore.stats(),
+                "lotGeoIndex", Map.of("lots", lotGeoIndex.size()),
+                "lotSearchIndex", lotSearchIndex.stats(),
+                "adminUserIndex", adminUserIndex.stats(),
+                "ratingSummaries", ratingSummaryService.stats(),
+                "durationSketches", durationStatsService.stats());
+    }
+}
@@ -16,8 +16,14 @@ public class AdminNotificationController {
     }
 
     @GetMapping
-    public java.util.List<com.parkease.backend.entity.Notification> getNotifications() {
-        return service.getNotifications();
+    public Object getNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        // the notification bell still takes the whole list; paging is opt-in
+        if (cursor == null && limit == null) {
+            return service.getNotifications();
+        }
+        return service.getNotifications(cursor, limit);
     }
 
     @PutMapping("/{id}/read")
@@ -1,12 +1,9 @@
 package com.parkease.backend.controller;
 
-import java.util.List;
-
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import com.parkease.backend.dto.AdminProviderResponse;
 import com.parkease.backend.service.AdminProviderService;
 
 @RestController
@@ -26,9 +23,19 @@ public class AdminProviderController {
      * =====================================================
      */
     @GetMapping
-    public ResponseEntity<List<AdminProviderResponse>> getProviders(
-            @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(service.getProviders(status));
+    public ResponseEntity<?> getProviders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (q != null && !q.isBlank()) {
+            return ResponseEntity.ok(service.searchProviders(q, status, limit));
+        }
+        // the admin screen still takes the whole list; paging is opt-in
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(service.getProviders(status));
+        }
+        return ResponseEntity.ok(service.getProviders(status, cursor, limit));
     }
 
     /*
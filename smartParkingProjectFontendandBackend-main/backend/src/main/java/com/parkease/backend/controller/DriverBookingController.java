@@ -1,5 +1,6 @@
 package com.parkease.backend.controller;
 
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.Booking;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.BookingRepository;
@@ -9,6 +10,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -17,72 +19,139 @@ import java.util.List;
 @RequestMapping("/api/driver/bookings")
 public class DriverBookingController {
 
+    private static final long DEFAULT_DURATION_MINUTES = 60;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
-    private final com.parkease.backend.service.BookingService bookingService;
-    private final com.parkease.backend.service.PaymentService paymentService;
+    private final com.parkease.backend.service.CheckoutService checkoutService;
     private final com.parkease.backend.repository.ParkingLotRepository parkingLotRepository;
     private final com.parkease.backend.repository.ParkingSlotRepository parkingSlotRepository;
 
     public DriverBookingController(BookingRepository bookingRepository,
             UserRepository userRepository,
-            com.parkease.backend.service.BookingService bookingService,
-            com.parkease.backend.service.PaymentService paymentService,
+            com.parkease.backend.service.CheckoutService checkoutService,
             com.parkease.backend.repository.ParkingLotRepository parkingLotRepository,
             com.parkease.backend.repository.ParkingSlotRepository parkingSlotRepository) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
-        this.bookingService = bookingService;
-        this.paymentService = paymentService;
+        this.checkoutService = checkoutService;
         this.parkingLotRepository = parkingLotRepository;
         this.parkingSlotRepository = parkingSlotRepository;
     }
 
     @GetMapping
-    public ResponseEntity<?> getMyBookings(Authentication auth) {
-        String email = auth.getName();
-        User driver = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("Driver not found"));
-        List<Booking> bookings = bookingRepository.findByDriver(driver);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<?> getMyBookings(Authentication auth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long driverId = ((com.parkease.backend.config.AuthPrincipal) auth.getPrincipal()).id();
+        // the driver app still takes the whole list; paging is opt-in
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(bookingRepository.findPageByDriver(driverId,
+                    CursorPage.Cursor.START.createdAt(), CursorPage.Cursor.START.id(),
+                    org.springframework.data.domain.Pageable.unpaged())
+                    .stream().map(this::toResponse).toList());
+        }
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int size = CursorPage.clampLimit(limit);
+
+        List<Booking> rows = bookingRepository.findPageByDriver(driverId, after.createdAt(), after.id(),
+                CursorPage.probe(size));
+        return ResponseEntity.ok(CursorPage.of(rows, size, Booking::getCreatedAt, Booking::getId, this::toResponse));
     }
 
+    /**
+     * Client mistakes (bad or missing fields, short wallet) answer 400 and
+     * an unknown lot 404; the idempotency filter keeps those for replay. A
+     * lost race for the last slot answers 409 and anything unexpected falls
+     * through to the global 500, neither of which is kept, so a retry with
+     * the same key runs again.
+     */
     @org.springframework.web.bind.annotation.PostMapping
     public ResponseEntity<?> createBooking(@RequestBody java.util.Map<String, Object> payload, Authentication auth) {
+        for (String field : java.util.List.of("parkingLotId", "totalAmount", "vehicleNumber")) {
+            if (payload.get(field) == null) {
+                return ResponseEntity.badRequest().body(java.util.Map.of("message", field + " is required"));
+            }
+        }
+
         try {
             String email = auth.getName();
             User driver = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("Driver not found"));
 
             Long lotId = Long.parseLong(payload.get("parkingLotId").toString());
-            com.parkease.backend.entity.ParkingLot lot = parkingLotRepository.findById(lotId)
-                    .orElseThrow(() -> new RuntimeException("Parking Lot not found"));
+            com.parkease.backend.entity.ParkingLot lot = parkingLotRepository.findWithProviderById(lotId)
+                    .orElse(null);
+            if (lot == null) {
+                return ResponseEntity.status(org.springframework.http.HttpStatus.NOT_FOUND)
+                        .body(java.util.Map.of("message", "Parking Lot not found"));
+            }
 
             double totalAmount = Double.parseDouble(payload.get("totalAmount").toString());
 
-            // Check balance
-            if (driver.getWalletBalance() < totalAmount) {
-                return ResponseEntity.badRequest().body(java.util.Map.of("message", "Insufficient wallet balance"));
-            }
+            // the conditional debit in the checkout rejects a short wallet (InsufficientBalanceException)
+            // Claim a slot, book, pay and move both wallets in one transaction
+            com.parkease.backend.enumtype.VehicleType vehicleType = parseVehicleType(payload.get("vehicleType"));
+            Booking booking = checkoutService.checkout(driver, lot, vehicleType,
+                    payload.get("vehicleNumber").toString(), parseEndTime(payload),
+                    totalAmount, totalAmount * 0.1, "WALLET");
 
-            // Find first available slot in this lot
-            com.parkease.backend.entity.ParkingSlot slot = parkingSlotRepository.findByParkingLot(lot)
-                    .stream()
-                    .filter(s -> !s.isOccupied())
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("No available slots found in this lot"));
+            return ResponseEntity.ok(toResponse(booking));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException
+                | com.parkease.backend.exception.InsufficientBalanceException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // no free slot, or the claimed one was taken: may succeed on retry
+            return ResponseEntity.status(org.springframework.http.HttpStatus.CONFLICT)
+                    .body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
 
-            // 1. Create Booking
-            Booking booking = bookingService.startBooking(driver, lot, slot);
-            booking.setVehicleNumber(payload.get("vehicleNumber").toString());
-            // booking.setTotalAmount(totalAmount); // Removed - field does not exist in Booking entity
-            bookingRepository.save(booking);
+    // flat view; associations are lazy and the entity graph is not meant for JSON
+    private java.util.Map<String, Object> toResponse(Booking b) {
+        java.util.Map<String, Object> map = new java.util.HashMap<>();
+        map.put("id", b.getId());
+        map.put("parkingLotId", b.getParkingLot().getId());
+        map.put("parkingLotName", b.getParkingLot().getName());
+        map.put("slotNumber", b.getParkingSlot().getSlotNumber());
+        // nested shape the bookings screen reads (booking.parkingLot.name, booking.parkingSlot.slotNumber)
+        map.put("parkingLot", java.util.Map.of("id", b.getParkingLot().getId(), "name", b.getParkingLot().getName()));
+        map.put("parkingSlot", java.util.Map.of("id", b.getParkingSlot().getId(),
+                "slotNumber", b.getParkingSlot().getSlotNumber()));
+        map.put("vehicleNumber", b.getVehicleNumber());
+        map.put("startTime", b.getStartTime());
+        map.put("endTime", b.getEndTime());
+        map.put("status", b.getStatus());
+        map.put("createdAt", b.getCreatedAt());
+        return map;
+    }
 
-            // 2. Process Payment (Deductions & Graph Tracking)
-            paymentService.createPayment(booking, totalAmount, totalAmount * 0.1, "WALLET");
+    // explicit "endTime" (ISO) wins, then "durationMinutes", else one hour
+    private java.time.LocalDateTime parseEndTime(java.util.Map<String, Object> payload) {
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        if (payload.get("endTime") != null) {
+            java.time.LocalDateTime endTime = java.time.LocalDateTime.parse(payload.get("endTime").toString());
+            if (!endTime.isAfter(now)) {
+                throw new IllegalArgumentException("End time must be in the future");
+            }
+            return endTime;
+        }
+        long minutes = payload.get("durationMinutes") != null
+                ? Long.parseLong(payload.get("durationMinutes").toString())
+                : DEFAULT_DURATION_MINUTES;
+        if (minutes <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        return now.plusMinutes(minutes);
+    }
 
-            return ResponseEntity.ok(booking);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(java.util.Map.of("message", e.getMessage()));
+    private com.parkease.backend.enumtype.VehicleType parseVehicleType(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return com.parkease.backend.enumtype.VehicleType.valueOf(value.toString().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null; // unknown type -> any free slot
         }
     }
 }
-
@@ -3,6 +3,7 @@ package com.parkease.backend.controller;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.http.ResponseEntity;
@@ -11,13 +12,23 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.parkease.backend.config.AuthPrincipal;
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.DailyRollup;
 import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.LedgerAccountType;
+import com.parkease.backend.enumtype.RollupScope;
 import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.PaymentRepository;
 import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.DashboardComposer;
+import com.parkease.backend.service.LedgerService;
+import com.parkease.backend.service.RollupService;
+import com.parkease.backend.service.TrendBuckets;
 
 @RestController
 @RequestMapping("/api/driver/dashboard")
@@ -27,32 +38,72 @@ public class DriverDashboardController {
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
     private final com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository;
+    private final RollupService rollupService;
+    private final DashboardComposer dashboardComposer;
+    private final LedgerService ledgerService;
 
     public DriverDashboardController(UserRepository userRepository, BookingRepository bookingRepository,
             PaymentRepository paymentRepository,
-            com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository) {
+            com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository,
+            RollupService rollupService,
+            DashboardComposer dashboardComposer,
+            LedgerService ledgerService) {
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.paymentRepository = paymentRepository;
         this.walletTransactionRepository = walletTransactionRepository;
+        this.rollupService = rollupService;
+        this.dashboardComposer = dashboardComposer;
+        this.ledgerService = ledgerService;
     }
 
     @GetMapping
     public ResponseEntity<?> getDashboard(Authentication auth,
             @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "MONTH") String range) {
-        User principal = (User) auth.getPrincipal();
-        User driver = userRepository.findById(principal.getId())
+        AuthPrincipal principal = (AuthPrincipal) auth.getPrincipal();
+        User driver = userRepository.findById(principal.id())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Map<String, Object> response = new HashMap<>();
 
+        Long driverId = driver.getId();
+        LocalDate today = LocalDate.now();
+        TrendBuckets trendBuckets = "WEEK".equalsIgnoreCase(range)
+                ? TrendBuckets.last(TrendBuckets.Granularity.DAY, 7, today)
+                : "YEAR".equalsIgnoreCase(range)
+                        ? TrendBuckets.last(TrendBuckets.Granularity.YEAR, 5, today)
+                        : TrendBuckets.last(TrendBuckets.Granularity.MONTH, 7, today); // DEFAULT: MONTH
+        TrendBuckets weekBuckets = TrendBuckets.last(TrendBuckets.Granularity.DAY, 7, today);
+
+        // independent reads, run concurrently; a slow one degrades to its default
+        DashboardComposer.Composition widgets = dashboardComposer.start();
+
+        CompletableFuture<List<Booking>> bookingsF = widgets.widget("bookings",
+                () -> bookingRepository.findByDriver(driver), List.of());
+        CompletableFuture<Double> totalSpentF = widgets.widget("totalSpent",
+                () -> paymentRepository.sumTotalSpentByDriver(driverId), 0.0);
+        double legacyBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
+        CompletableFuture<Double> balanceF = widgets.widget("balance",
+                () -> ledgerService.balance(LedgerAccountType.DRIVER_WALLET, driverId), legacyBalance);
+        // balance at each bucket end: latest snapshot before it plus a short tail each
+        CompletableFuture<double[]> balanceTrendF = widgets.widget("walletTrend",
+                () -> trendBuckets.buckets().stream()
+                        .mapToDouble(b -> ledgerService.balanceAt(LedgerAccountType.DRIVER_WALLET, driverId,
+                                b.end().atTime(LocalTime.MAX)))
+                        .toArray(),
+                new double[trendBuckets.size()]);
+        CompletableFuture<Map<LocalDate, DailyRollup>> rollupsF = widgets.widget("usageIntensity",
+                () -> rollupService.range(RollupScope.DRIVER, driverId, weekBuckets.start(), today), Map.of());
+
+        List<String> degraded = widgets.await();
+
         // 1. Total Trips
-        List<Booking> bookings = bookingRepository.findByDriver(driver);
+        List<Booking> bookings = bookingsF.join();
         long totalTrips = bookings.size();
 
-        // 2. Balance (Actual Wallet Balance)
-        double walletBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
-        double totalSpent = paymentRepository.sumTotalSpentByDriver(driver.getId());
+        // 2. Balance (from the ledger)
+        double walletBalance = balanceF.join();
+        double totalSpent = totalSpentF.join();
 
         // 3. Eco Points (10 points per trip)
         long ecoPoints = totalTrips * 10;
@@ -70,81 +121,15 @@ public class DriverDashboardController {
                 })
                 .collect(Collectors.toList());
 
-        // 5. Running Balance Trend (Reflects true balance evolution)
-        List<Map<String, Object>> spendingTrendList = new ArrayList<>();
-        java.time.LocalDateTime now = java.time.LocalDateTime.now();
-        double runningBalanceTrend = walletBalance; // Start from current real-time balance
-
-        if ("WEEK".equalsIgnoreCase(range)) {
-            String[] dayNames = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
-            for (int i = 0; i <= 6; i++) {
-                LocalDateTime start = now.minusDays(i).with(LocalTime.MIN);
-                LocalDateTime end = now.minusDays(i).with(LocalTime.MAX);
-
-                Map<String, Object> map = new HashMap<>();
-                map.put("label", dayNames[start.getDayOfWeek().getValue() % 7]);
-                map.put("value", (int) runningBalanceTrend);
-                spendingTrendList.add(map);
-
-                // Subtract this day's net change to get previous day's balance
-                Double credits = walletTransactionRepository.sumCreditsBetween(driver.getId(), start, end);
-                Double debits = walletTransactionRepository.sumDebitsBetween(driver.getId(), start, end);
-                double netChange = (credits != null ? credits : 0.0) - (debits != null ? debits : 0.0);
-                runningBalanceTrend -= netChange;
-            }
-        } else if ("YEAR".equalsIgnoreCase(range)) {
-            for (int i = 0; i <= 4; i++) {
-                LocalDate yearDate = LocalDate.now().minusYears(i);
-                LocalDateTime yearStart = yearDate.withDayOfYear(1).atStartOfDay();
-                LocalDateTime yearEnd = yearDate.withDayOfYear(yearDate.lengthOfYear()).atTime(23, 59, 59);
-
-                Map<String, Object> map = new HashMap<>();
-                map.put("label", String.valueOf(yearDate.getYear()));
-                map.put("value", (int) runningBalanceTrend);
-                spendingTrendList.add(map);
-
-                Double credits = walletTransactionRepository.sumCreditsBetween(driver.getId(), yearStart, yearEnd);
-                Double debits = walletTransactionRepository.sumDebitsBetween(driver.getId(), yearStart, yearEnd);
-                double netChange = (credits != null ? credits : 0.0) - (debits != null ? debits : 0.0);
-                runningBalanceTrend -= netChange;
-            }
-        } else { // DEFAULT: MONTH
-            String[] monthLabels = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov",
-                    "Dec" };
-            for (int i = 0; i <= 6; i++) {
-                LocalDate monthDate = LocalDate.now().minusMonths(i);
-                LocalDateTime monthStart = monthDate.withDayOfMonth(1).atStartOfDay();
-                LocalDateTime monthEnd = monthDate.withDayOfMonth(monthDate.lengthOfMonth()).atTime(23, 59, 59);
-
-                Map<String, Object> map = new HashMap<>();
-                map.put("label", monthLabels[monthDate.getMonthValue() - 1]);
-                map.put("value", (int) runningBalanceTrend);
-                spendingTrendList.add(map);
-
-                Double credits = walletTransactionRepository.sumCreditsBetween(driver.getId(), monthStart, monthEnd);
-                Double debits = walletTransactionRepository.sumDebitsBetween(driver.getId(), monthStart, monthEnd);
-                double netChange = (credits != null ? credits : 0.0) - (debits != null ? debits : 0.0);
-                runningBalanceTrend -= netChange;
-            }
-        }
-        // Reverse so it's chronological (Past -> Present)
-        Collections.reverse(spendingTrendList);
-        List<Map<String, Object>> spendingTrend = spendingTrendList;
+        // 5. Running Balance Trend (ledger balance at the end of each bucket)
+        List<Map<String, Object>> spendingTrend = trendBuckets.series(balanceTrendF.join());
+        Map<LocalDate, DailyRollup> rollups = rollupsF.join();
 
         // 6. Usage Intensity (Real based on wallet activity - can remain same or use
         // range too)
         // Let's keep one dedicated Weekly view for Intensity as it was
-        List<Map<String, Object>> usageIntensity = new ArrayList<>();
-        String[] intensityDayNames = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
-        for (int i = 6; i >= 0; i--) {
-            java.time.LocalDateTime start = now.minusDays(i).with(java.time.LocalTime.MIN);
-            java.time.LocalDateTime end = now.minusDays(i).with(java.time.LocalTime.MAX);
-            Double dayCredit = walletTransactionRepository.sumCreditsBetween(driver.getId(), start, end);
-            Map<String, Object> map = new HashMap<>();
-            map.put("label", intensityDayNames[start.getDayOfWeek().getValue() % 7]);
-            map.put("value", dayCredit != null ? dayCredit.intValue() : 0);
-            usageIntensity.add(map);
-        }
+        List<Map<String, Object>> usageIntensity = weekBuckets.series(
+                weekBuckets.fold(rollups, DailyRollup::getCredits));
 
         // 7. Parking Type Distribution (Mocked)
         List<Map<String, Object>> parkingType = new ArrayList<>();
@@ -163,53 +148,70 @@ public class DriverDashboardController {
         response.put("parkingType", parkingType);
         response.put("userName", driver.getFullName());
         response.put("phone", driver.getPhoneNumber());
+        response.put("degraded", degraded);
 
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/add-money")
+    @org.springframework.transaction.annotation.Transactional
     public ResponseEntity<?> addMoney(@RequestBody Map<String, Object> payload,
             Authentication auth) {
-        User principal = (User) auth.getPrincipal();
-        User driver = userRepository.findById(principal.getId())
+        AuthPrincipal principal = (AuthPrincipal) auth.getPrincipal();
+        User driver = userRepository.findById(principal.id())
                 .orElseThrow(() -> new RuntimeException(
-                        "User account not found (ID: " + principal.getId() + "). Please re-login."));
+                        "User account not found (ID: " + principal.id() + "). Please re-login."));
 
         if (!payload.containsKey("amount")) {
             return ResponseEntity.badRequest().body(Map.of("message", "Amount is required"));
         }
 
         double amount = Double.parseDouble(payload.get("amount").toString());
-        double currentBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
-        driver.setWalletBalance(currentBalance + amount);
-        userRepository.save(driver);
+        // atomic, so a checkout debiting the same wallet is not overwritten
+        userRepository.creditWallet(driver.getId(), amount);
 
         // Record Transaction for Graphs
         com.parkease.backend.entity.WalletTransaction txt = new com.parkease.backend.entity.WalletTransaction(
                 driver, amount, "CREDIT", "Wallet Top-up");
         walletTransactionRepository.save(txt);
+        rollupService.recordWalletTransaction(txt);
+        ledgerService.recordTopUp(driver, amount);
 
-        return ResponseEntity.ok(Map.of("message", "Success", "newBalance", driver.getWalletBalance()));
+        return ResponseEntity.ok(Map.of("message", "Success",
+                "newBalance", userRepository.findWalletBalanceById(driver.getId())));
     }
 
     @GetMapping("/transactions")
-    public ResponseEntity<?> getTransactions(Authentication auth) {
-        User principal = (User) auth.getPrincipal();
-        User driver = userRepository.findById(principal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> getTransactions(Authentication auth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        AuthPrincipal principal = (AuthPrincipal) auth.getPrincipal();
+        // the payments screen still takes the whole list; paging is opt-in
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(walletTransactionRepository
+                    .findPageByUser(principal.id(), CursorPage.Cursor.START.createdAt(), CursorPage.Cursor.START.id(),
+                            org.springframework.data.domain.Pageable.unpaged())
+                    .stream().map(this::toTransactionResponse).toList());
+        }
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int size = CursorPage.clampLimit(limit);
+
         List<com.parkease.backend.entity.WalletTransaction> txns = walletTransactionRepository
-                .findByUserOrderByCreatedAtDesc(driver);
-
-        List<Map<String, Object>> response = txns.stream().map(t -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", t.getId());
-            map.put("type", t.getType());
-            map.put("title", t.getDescription());
-            map.put("amount", t.getAmount());
-            map.put("date", t.getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, hh:mm a")));
-            return map;
-        }).collect(Collectors.toList());
+                .findPageByUser(principal.id(), after.createdAt(), after.id(), CursorPage.probe(size));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(CursorPage.of(txns, size,
+                com.parkease.backend.entity.WalletTransaction::getCreatedAt,
+                com.parkease.backend.entity.WalletTransaction::getId,
+                this::toTransactionResponse));
+    }
+
+    private Map<String, Object> toTransactionResponse(com.parkease.backend.entity.WalletTransaction t) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", t.getId());
+        map.put("type", t.getType());
+        map.put("title", t.getDescription());
+        map.put("amount", t.getAmount());
+        map.put("date", t.getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, hh:mm a")));
+        return map;
     }
 }
@@ -0,0 +1,119 @@
+package com.parkease.backend.controller;
+
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.service.LotGeoIndex;
+import com.parkease.backend.service.LotSearchIndex;
+import com.parkease.backend.service.OccupancyCounters;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/driver/lots")
+public class DriverLotController {
+
+    private static final double MAX_RADIUS_KM = 50;
+    private static final int MAX_RESULTS = 50;
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final LotGeoIndex lotGeoIndex;
+    private final LotSearchIndex lotSearchIndex;
+    private final OccupancyCounters occupancyCounters;
+
+    public DriverLotController(LotGeoIndex lotGeoIndex, LotSearchIndex lotSearchIndex,
+            OccupancyCounters occupancyCounters) {
+        this.lotGeoIndex = lotGeoIndex;
+        this.lotSearchIndex = lotSearchIndex;
+        this.occupancyCounters = occupancyCounters;
+    }
+
+    /**
+     * Type-ahead lot suggestions ("sector 18", "noida mall"), best match
+     * first.
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        int k = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+
+        List<Map<String, Object>> response = lotSearchIndex.search(q, k).stream().map(match -> {
+            LotSearchIndex.Doc lot = match.lot();
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", lot.id());
+            map.put("name", lot.name());
+            map.put("address", lot.address());
+            map.put("city", lot.city());
+            map.put("state", lot.state());
+            map.put("availableSlots", occupancyCounters.lot(lot.id()).available());
+            return map;
+        }).toList();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Nearest active lots, closest first, with live availability from the
+     * occupancy counters. vehicleType keeps lots that have slots of that
+     * type (and reports availability for it); availableOnly drops full lots.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> nearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Boolean ev,
+            @RequestParam(required = false) VehicleType vehicleType,
+            @RequestParam(defaultValue = "false") boolean availableOnly) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("lat must be between -90 and 90, lng between -180 and 180");
+        }
+        double radius = Math.min(Math.max(radiusKm, 0), MAX_RADIUS_KM);
+        int k = Math.min(Math.max(limit, 1), MAX_RESULTS);
+
+        List<LotGeoIndex.Hit> hits = lotGeoIndex.nearest(lat, lng, radius, k, lot -> {
+            if (ev != null && lot.evSupported() != ev) {
+                return false;
+            }
+            OccupancyCounters.Counts counts = counts(lot.id(), vehicleType);
+            if (vehicleType != null && counts.total() == 0) {
+                return false;
+            }
+            return !availableOnly || counts.available() > 0;
+        });
+
+        List<Map<String, Object>> response = hits.stream().map(hit -> {
+            LotGeoIndex.Entry lot = hit.lot();
+            OccupancyCounters.Counts counts = counts(lot.id(), vehicleType);
+
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", lot.id());
+            map.put("name", lot.name());
+            map.put("address", lot.address());
+            map.put("city", lot.city());
+            map.put("latitude", lot.latitude());
+            map.put("longitude", lot.longitude());
+            map.put("evSupported", lot.evSupported());
+            map.put("distanceKm", Math.round(hit.distanceKm() * 100) / 100.0);
+            map.put("availableSlots", counts.available());
+            map.put("occupiedSlots", counts.occupied());
+            map.put("occupancyPercent", counts.occupancyPercent());
+            return map;
+        }).toList();
+
+        return ResponseEntity.ok(response);
+    }
+
+    private OccupancyCounters.Counts counts(Long lotId, VehicleType vehicleType) {
+        return vehicleType != null
+                ? occupancyCounters.lot(lotId, vehicleType)
+                : occupancyCounters.lot(lotId);
+    }
+}
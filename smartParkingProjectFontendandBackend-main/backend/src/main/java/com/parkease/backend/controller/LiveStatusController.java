@@ -2,8 +2,10 @@ package com.parkease.backend.controller;
 
 import com.parkease.backend.dto.LiveStatusResponse;
 import com.parkease.backend.service.LiveStatusService;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/provider/live-status")
@@ -20,4 +22,10 @@ public class LiveStatusController {
     public LiveStatusResponse getLiveStatus(Authentication auth) {
         return service.getLiveStatus(auth.getName());
     }
+
+    // replaces polling: one snapshot, then slot / booking deltas as they commit
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication auth) {
+        return service.subscribe(auth.getName());
+    }
 }
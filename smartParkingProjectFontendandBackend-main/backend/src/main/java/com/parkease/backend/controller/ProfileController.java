@@ -15,13 +15,22 @@ public class ProfileController {
     private final UserRepository userRepository;
     private final com.parkease.backend.repository.BookingRepository bookingRepository;
     private final com.parkease.backend.repository.PaymentRepository paymentRepository;
+    private final com.parkease.backend.config.PrincipalCache principalCache;
+    private final com.parkease.backend.service.AdminUserIndex adminUserIndex;
+    private final com.parkease.backend.service.RatingSummaryService ratingSummaryService;
 
     public ProfileController(UserRepository userRepository,
             com.parkease.backend.repository.BookingRepository bookingRepository,
-            com.parkease.backend.repository.PaymentRepository paymentRepository) {
+            com.parkease.backend.repository.PaymentRepository paymentRepository,
+            com.parkease.backend.config.PrincipalCache principalCache,
+            com.parkease.backend.service.AdminUserIndex adminUserIndex,
+            com.parkease.backend.service.RatingSummaryService ratingSummaryService) {
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.paymentRepository = paymentRepository;
+        this.principalCache = principalCache;
+        this.adminUserIndex = adminUserIndex;
+        this.ratingSummaryService = ratingSummaryService;
     }
 
     @GetMapping
@@ -59,7 +68,7 @@ public class ProfileController {
             long totalBookings = bookingRepository.countByProvider(user.getId());
             profile.put("totalEarnings", totalEarnings);
             profile.put("totalBookings", totalBookings);
-            profile.put("rating", 4.8);
+            profile.put("rating", ratingSummaryService.summary(user.getId()).average());
 
             // Add Provider Info
             profile.put("parkingAreaName", user.getParkingAreaName());
@@ -106,6 +115,8 @@ public class ProfileController {
             user.setVehicleType((String) updates.get("vehicleType"));
 
         userRepository.save(user);
+        principalCache.evict(email);
+        adminUserIndex.sync(user);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -11,15 +11,22 @@ import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.PaymentRepository;
 
-import com.parkease.backend.repository.WalletTransactionRepository; // Added missing import
-import com.parkease.backend.entity.Booking;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.PageRequest;
-import com.parkease.backend.entity.Payment;
 import com.parkease.backend.entity.Withdrawal;
 import com.parkease.backend.repository.WithdrawalRepository;
+import com.parkease.backend.entity.DailyRollup;
+import com.parkease.backend.enumtype.RollupScope;
+import com.parkease.backend.enumtype.LedgerAccountType;
+import com.parkease.backend.service.DashboardComposer;
+import com.parkease.backend.service.LedgerService;
+import com.parkease.backend.service.OccupancyCounters;
+import com.parkease.backend.service.OccupancyCurveService;
+import com.parkease.backend.service.OccupancySweep;
+import com.parkease.backend.service.RollupService;
+import com.parkease.backend.service.TrendBuckets;
 
 @RestController
 @RequestMapping("/api/provider")
@@ -31,8 +38,14 @@ public class ProviderDashboardController {
         private final PaymentRepository paymentRepository;
         private final ParkingLotRepository parkingLotRepository;
         private final WithdrawalRepository withdrawalRepository;
-        private final WalletTransactionRepository walletTransactionRepository;
-        private final com.parkease.backend.repository.ReviewRepository reviewRepository;
+        private final com.parkease.backend.service.RatingSummaryService ratingSummaryService;
+        private final RollupService rollupService;
+        private final com.parkease.backend.config.PrincipalCache principalCache;
+        private final DashboardComposer dashboardComposer;
+        private final OccupancyCounters occupancyCounters;
+        private final LedgerService ledgerService;
+        private final com.parkease.backend.service.AdminUserIndex adminUserIndex;
+        private final OccupancyCurveService occupancyCurveService;
 
         public ProviderDashboardController(
                         UserRepository userRepository,
@@ -40,15 +53,27 @@ public class ProviderDashboardController {
                         PaymentRepository paymentRepository,
                         ParkingLotRepository parkingLotRepository,
                         WithdrawalRepository withdrawalRepository,
-                        WalletTransactionRepository walletTransactionRepository,
-                        com.parkease.backend.repository.ReviewRepository reviewRepository) {
+                        com.parkease.backend.service.RatingSummaryService ratingSummaryService,
+                        RollupService rollupService,
+                        com.parkease.backend.config.PrincipalCache principalCache,
+                        DashboardComposer dashboardComposer,
+                        OccupancyCounters occupancyCounters,
+                        LedgerService ledgerService,
+                        com.parkease.backend.service.AdminUserIndex adminUserIndex,
+                        OccupancyCurveService occupancyCurveService) {
                 this.userRepository = userRepository;
                 this.bookingRepository = bookingRepository;
                 this.paymentRepository = paymentRepository;
                 this.parkingLotRepository = parkingLotRepository;
                 this.withdrawalRepository = withdrawalRepository;
-                this.walletTransactionRepository = walletTransactionRepository;
-                this.reviewRepository = reviewRepository;
+                this.ratingSummaryService = ratingSummaryService;
+                this.rollupService = rollupService;
+                this.principalCache = principalCache;
+                this.dashboardComposer = dashboardComposer;
+                this.occupancyCounters = occupancyCounters;
+                this.ledgerService = ledgerService;
+                this.adminUserIndex = adminUserIndex;
+                this.occupancyCurveService = occupancyCurveService;
         }
 
         /*
@@ -65,95 +90,67 @@ public class ProviderDashboardController {
                                 .orElseThrow(() -> new RuntimeException("Account not found for: " + email
                                                 + ". Since the database was reset, please Register again."));
 
-                // 1. Total Revenue
-                double totalRevenue = paymentRepository.sumTotalEarningsByProvider(provider.getId());
+                Long providerId = provider.getId();
+                java.time.LocalDate today = java.time.LocalDate.now();
 
-                // 2. Active Cars (Active Bookings)
-                long activeCars = bookingRepository.countActiveBookingsByProvider(provider.getId());
+                TrendBuckets trendBuckets = "YEAR".equalsIgnoreCase(timeframe)
+                                ? TrendBuckets.last(TrendBuckets.Granularity.YEAR, 5, today)
+                                : "MONTH".equalsIgnoreCase(timeframe)
+                                                ? TrendBuckets.last(TrendBuckets.Granularity.MONTH, 6, today)
+                                                : TrendBuckets.last(TrendBuckets.Granularity.DAY, 7, today);
 
-                // 3. Total Slots
-                int totalSlots = parkingLotRepository.sumTotalSlotsByProvider(provider.getId());
+                // independent reads, run concurrently; a slow one degrades to its default
+                DashboardComposer.Composition widgets = dashboardComposer.start();
 
-                // 4. Occupancy Rate
-                long occupancyRate = (totalSlots > 0) ? (activeCars * 100) / totalSlots : 0;
+                // 1. Total Revenue
+                CompletableFuture<Double> totalRevenueF = widgets.widget("totalRevenue",
+                                () -> paymentRepository.sumTotalEarningsByProvider(providerId), 0.0);
 
                 // 5. Recent Activity
-                List<Map<String, Object>> recentActivity = bookingRepository
-                                .findRecentBookingsByProvider(provider.getId(), PageRequest.of(0, 5))
-                                .stream()
-                                .map(b -> {
-                                        Map<String, Object> map = new HashMap<>();
-                                        map.put("type", b.getEndTime() == null ? "check-in" : "check-out");
-                                        map.put("slotCode", b.getParkingSlot().getSlotNumber());
-                                        map.put("time", b.getCreatedAt()
-                                                        .format(DateTimeFormatter.ofPattern("hh:mm a")));
-                                        map.put("customerName", b.getDriver().getFullName());
-                                        return map;
-                                })
-                                .collect(Collectors.toList());
+                CompletableFuture<List<Map<String, Object>>> recentActivityF = widgets.widget("recentActivity",
+                                () -> bookingRepository
+                                                .findRecentBookingRowsByProvider(providerId, PageRequest.of(0, 5))
+                                                .stream()
+                                                .map(b -> {
+                                                        Map<String, Object> map = new HashMap<>();
+                                                        map.put("type", b.getEndTime() == null ? "check-in" : "check-out");
+                                                        map.put("slotCode", b.getSlotNumber());
+                                                        map.put("time", b.getCreatedAt()
+                                                                        .format(DateTimeFormatter.ofPattern("hh:mm a")));
+                                                        map.put("customerName", b.getCustomer());
+                                                        return map;
+                                                })
+                                                .collect(Collectors.toList()),
+                                List.of());
 
                 // 6. Revenue Trend (Based on timeframe)
-                List<Map<String, Object>> revenueTrend = new ArrayList<>();
-                java.time.LocalDateTime now = java.time.LocalDateTime.now();
-
-                if ("YEAR".equalsIgnoreCase(timeframe)) {
-                        for (int i = 4; i >= 0; i--) {
-                                java.time.LocalDate yearDate = java.time.LocalDate.now().minusYears(i);
-                                java.time.LocalDateTime yearStart = yearDate.withDayOfYear(1).atStartOfDay();
-                                java.time.LocalDateTime yearEnd = yearDate.withDayOfYear(yearDate.lengthOfYear())
-                                                .atTime(23, 59, 59);
-
-                                Double yearCredit = walletTransactionRepository.sumCreditsBetween(provider.getId(),
-                                                yearStart, yearEnd);
-                                Map<String, Object> map = new HashMap<>();
-                                map.put("label", String.valueOf(yearDate.getYear()));
-                                map.put("value", yearCredit != null ? yearCredit.intValue() : 0);
-                                revenueTrend.add(map);
-                        }
-                } else if ("MONTH".equalsIgnoreCase(timeframe)) {
-                        String[] monthLabels = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct",
-                                        "Nov", "Dec" };
-                        for (int i = 5; i >= 0; i--) {
-                                java.time.LocalDate monthDate = java.time.LocalDate.now().minusMonths(i);
-                                java.time.LocalDateTime monthStart = monthDate.withDayOfMonth(1).atStartOfDay();
-                                java.time.LocalDateTime monthEnd = monthDate.withDayOfMonth(monthDate.lengthOfMonth())
-                                                .atTime(23, 59, 59);
-
-                                Double monthCredit = walletTransactionRepository.sumCreditsBetween(provider.getId(),
-                                                monthStart, monthEnd);
-                                Map<String, Object> map = new HashMap<>();
-                                map.put("label", monthLabels[monthDate.getMonthValue() - 1]);
-                                map.put("value", monthCredit != null ? monthCredit.intValue() : 0);
-                                revenueTrend.add(map);
-                        }
-                } else {
-                        // Week (Default)
-                        String[] dayLabels = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
-                        for (int i = 6; i >= 0; i--) {
-                                java.time.LocalDateTime dayStart = now.minusDays(i).with(java.time.LocalTime.MIN);
-                                java.time.LocalDateTime dayEnd = now.minusDays(i).with(java.time.LocalTime.MAX);
-
-                                Double dayCredit = walletTransactionRepository.sumCreditsBetween(provider.getId(),
-                                                dayStart, dayEnd);
-                                Map<String, Object> map = new HashMap<>();
-                                map.put("label", dayLabels[dayStart.getDayOfWeek().getValue() % 7]);
-                                map.put("value", dayCredit != null ? dayCredit.intValue() : 0);
-                                revenueTrend.add(map);
-                        }
-                }
+                // single range scan of this provider's daily rollups
+                CompletableFuture<List<Map<String, Object>>> revenueTrendF = widgets.widget("revenueTrend",
+                                () -> trendBuckets.series(trendBuckets.fold(
+                                                rollupService.range(RollupScope.PROVIDER, providerId,
+                                                                trendBuckets.start(), today),
+                                                DailyRollup::getCredits)),
+                                List.of());
+
+                List<String> degraded = widgets.await();
+
+                double totalRevenue = totalRevenueF.join();
+
+                // 2-4. Active Cars, Total Slots, Occupancy Rate (in-memory counters)
+                OccupancyCounters.Counts occupancy = occupancyCounters.provider(providerId);
+                long activeCars = occupancy.occupied();
+                long totalSlots = occupancy.total();
+                long occupancyRate = (totalSlots > 0) ? (activeCars * 100) / totalSlots : 0;
 
                 Map<String, Object> summary = new HashMap<>();
                 summary.put("totalRevenue", totalRevenue);
                 summary.put("occupancyRate", occupancyRate);
                 summary.put("activeCars", activeCars);
                 summary.put("totalSlots", totalSlots);
+                summary.put("rating", ratingSummaryService.summary(providerId).average());
 
-                // Real Rating calculation
-                List<com.parkease.backend.entity.Review> reviews = reviewRepository
-                                .findByProviderOrderByCreatedAtDesc(provider);
-                double avgRating = reviews.stream().mapToInt(com.parkease.backend.entity.Review::getRating).average()
-                                .orElse(0.0);
-                summary.put("rating", Math.round(avgRating * 10.0) / 10.0);
+                List<Map<String, Object>> recentActivity = recentActivityF.join();
+                List<Map<String, Object>> revenueTrend = revenueTrendF.join();
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("summary", summary);
@@ -161,6 +158,7 @@ public class ProviderDashboardController {
                 response.put("revenueTrend", revenueTrend);
                 response.put("online", provider.isEnabled());
                 response.put("providerName", provider.getFullName() != null ? provider.getFullName() : "Provider");
+                response.put("degraded", degraded);
 
                 return ResponseEntity.ok(response);
         }
@@ -181,6 +179,8 @@ public class ProviderDashboardController {
                 Boolean online = payload.get("online");
                 provider.setEnabled(online != null ? online : true);
                 userRepository.save(provider);
+                principalCache.evict(email);
+                adminUserIndex.sync(provider);
 
                 return ResponseEntity.ok(Map.of("message", "Status updated", "online", provider.isEnabled()));
         }
@@ -196,27 +196,25 @@ public class ProviderDashboardController {
                 User provider = userRepository.findByEmail(email)
                                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-                long activeCars = bookingRepository.countActiveBookingsByProvider(provider.getId());
-                int totalSlots = parkingLotRepository.sumTotalSlotsByProvider(provider.getId());
+                OccupancyCounters.Counts occupancy = occupancyCounters.provider(provider.getId());
+                long activeCars = occupancy.occupied();
+                long totalSlots = occupancy.total();
                 long occupancyRate = (totalSlots > 0) ? (activeCars * 100) / totalSlots : 0;
 
                 Map<String, Object> current = new HashMap<>();
                 current.put("totalSlots", totalSlots);
                 current.put("occupied", activeCars);
-                current.put("available", Math.max(0, totalSlots - activeCars));
+                current.put("available", occupancy.available());
                 current.put("occupancyRate", occupancyRate);
 
-                // Real Hourly Data & Peak Hours
+                // Today's load: cars parked at once, swept over 15-minute buckets
                 java.time.LocalDateTime startOfDay = java.time.LocalDate.now().atStartOfDay();
-                java.time.LocalDateTime endOfDay = java.time.LocalDate.now().atTime(java.time.LocalTime.MAX);
+                OccupancySweep.Curve load = occupancyCurveService.provider(provider.getId(), startOfDay,
+                                startOfDay.plusDays(1), OccupancyCurveService.DEFAULT_BUCKET_MINUTES);
 
-                List<Booking> todayBookings = bookingRepository.findByParkingLot_Provider_IdAndStartTimeBetween(
-                                provider.getId(), startOfDay, endOfDay);
-
-                Map<Integer, Integer> hourCounts = new HashMap<>();
-                for (Booking b : todayBookings) {
-                        int hour = b.getStartTime().getHour();
-                        hourCounts.put(hour, hourCounts.getOrDefault(hour, 0) + 1);
+                int[] peakByHour = new int[24];
+                for (OccupancyCurveService.HourLoad hour : occupancyCurveService.hourly(load)) {
+                        peakByHour[hour.hour()] = hour.peak();
                 }
 
                 List<Map<String, Object>> hourlyData = new ArrayList<>();
@@ -225,34 +223,22 @@ public class ProviderDashboardController {
                 for (int h : hoursToCheck) {
                         Map<String, Object> map = new HashMap<>();
                         map.put("label", (h > 12 ? (h - 12) + "PM" : h + "AM"));
-                        // Sum previous hour and current hour for a 2-hour block logic or just take
-                        // current
-                        int count = hourCounts.getOrDefault(h, 0) + hourCounts.getOrDefault(h + 1, 0);
-                        map.put("value", count);
+                        // most cars parked at once during the 2-hour block
+                        map.put("value", Math.max(peakByHour[h], peakByHour[h + 1]));
                         hourlyData.add(map);
                 }
 
-                // Calculate Real Peak Hours
+                // Peak hour: highest average occupancy
                 List<Map<String, Object>> peakHours = new ArrayList<>();
+                List<OccupancyCurveService.HourLoad> busiest = occupancyCurveService.busiestHours(load, 1);
 
-                // Find max hour
-                int maxHour = -1;
-                int maxCount = -1;
-
-                for (Map.Entry<Integer, Integer> entry : hourCounts.entrySet()) {
-                        if (entry.getValue() > maxCount) {
-                                maxCount = entry.getValue();
-                                maxHour = entry.getKey();
-                        }
-                }
-
-                if (maxHour != -1) {
+                if (!busiest.isEmpty()) {
+                        OccupancyCurveService.HourLoad peak = busiest.get(0);
+                        long peakRate = totalSlots > 0 ? (peak.peak() * 100L) / totalSlots : 0;
                         Map<String, Object> p1 = new HashMap<>();
-                        String timeLabel = (maxHour > 12 ? (maxHour - 12) + " PM" : maxHour + " AM") + " - " +
-                                        ((maxHour + 1) > 12 ? ((maxHour + 1) - 12) + " PM" : (maxHour + 1) + " AM");
-                        p1.put("timeRange", timeLabel);
-                        p1.put("bookings", maxCount);
-                        p1.put("load", maxCount > 5 ? "High" : "Medium"); // Threshold logic
+                        p1.put("timeRange", peak.label());
+                        p1.put("bookings", peak.peak());
+                        p1.put("load", peakRate >= 80 ? "High" : peakRate >= 40 ? "Medium" : "Low");
                         peakHours.add(p1);
                 } else {
                         // Fallback if no bookings yet
@@ -283,20 +269,16 @@ public class ProviderDashboardController {
                                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
                 List<Map<String, Object>> bookings = bookingRepository
-                                .findRecentBookingsByProvider(provider.getId(), PageRequest.of(0, 50))
+                                .findBookingRowsByProviderSince(provider.getId(),
+                                                java.time.LocalDate.now().atStartOfDay(), PageRequest.of(0, 50))
                                 .stream()
-                                .filter(b -> b.getCreatedAt().toLocalDate().isEqual(java.time.LocalDate.now()))
                                 .map(b -> {
                                         Map<String, Object> map = new HashMap<>();
                                         map.put("id", b.getId().toString());
-                                        map.put("slot", b.getParkingSlot().getSlotNumber());
+                                        map.put("slot", b.getSlotNumber());
                                         map.put("time", b.getCreatedAt()
                                                         .format(DateTimeFormatter.ofPattern("hh:mm a")));
-
-                                        double earnings = paymentRepository.findByBooking(b)
-                                                        .map(Payment::getProviderEarning)
-                                                        .orElse(0.0);
-                                        map.put("earnings", earnings);
+                                        map.put("earnings", b.getProviderEarning());
 
                                         map.put("status", b.getStatus());
                                         return map;
@@ -333,11 +315,9 @@ public class ProviderDashboardController {
 
                 double growth = (lastMonth > 0) ? ((thisMonth - lastMonth) / lastMonth) * 100 : 100;
 
-                // Balance calculations
-                double processedWithdrawals = withdrawalRepository.sumProcessedWithdrawalsByProvider(provider.getId());
-                double pendingWithdrawals = withdrawalRepository.sumPendingWithdrawalsByProvider(provider.getId());
-                double availableBalance = totalEarnings + provider.getWalletBalance() - processedWithdrawals
-                                - pendingWithdrawals;
+                // Balances straight from the ledger (snapshot + tail, no history scans)
+                double pendingWithdrawals = ledgerService.balance(LedgerAccountType.PAYOUTS, provider.getId());
+                double availableBalance = ledgerService.balance(LedgerAccountType.PROVIDER_PAYABLE, provider.getId());
 
                 Map<String, Object> summary = new HashMap<>();
                 summary.put("totalEarnings", totalEarnings);
@@ -348,56 +328,31 @@ public class ProviderDashboardController {
                 summary.put("availableBalance", availableBalance);
 
                 // 2. Weekly Data (Real from Wallet Transactions)
-                List<Map<String, Object>> weeklyData = new ArrayList<>();
-                java.time.LocalDateTime now = java.time.LocalDateTime.now();
-                String[] dayLabels = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
-                for (int i = 6; i >= 0; i--) {
-                        java.time.LocalDateTime dayStart = now.minusDays(i).with(java.time.LocalTime.MIN);
-                        java.time.LocalDateTime dayEnd = now.minusDays(i).with(java.time.LocalTime.MAX);
-
-                        Double dayCredit = walletTransactionRepository.sumCreditsBetween(provider.getId(), dayStart,
-                                        dayEnd);
-                        if (dayCredit == null)
-                                dayCredit = 0.0;
+                java.time.LocalDate today = java.time.LocalDate.now();
+                TrendBuckets weekBuckets = TrendBuckets.last(TrendBuckets.Granularity.DAY, 7, today);
+                TrendBuckets monthBuckets = TrendBuckets.last(TrendBuckets.Granularity.MONTH, 5, today);
 
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("label", dayLabels[dayStart.getDayOfWeek().getValue() % 7]);
-                        map.put("value", dayCredit.intValue());
-                        weeklyData.add(map);
-                }
+                // weekly and monthly series both come from one rollup range scan
+                Map<java.time.LocalDate, DailyRollup> rollups = rollupService.range(RollupScope.PROVIDER,
+                                provider.getId(), monthBuckets.start(), today);
 
-                // 3. Monthly Trend (Real from Wallet Transactions)
-                List<Map<String, Object>> monthlyTrend = new ArrayList<>();
-                String[] monthLabels = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov",
-                                "Dec" };
-                for (int i = 4; i >= 0; i--) {
-                        java.time.LocalDate monthDate = java.time.LocalDate.now().minusMonths(i);
-                        java.time.LocalDateTime monthStart = monthDate.withDayOfMonth(1).atStartOfDay();
-                        java.time.LocalDateTime monthEnd = monthDate.withDayOfMonth(monthDate.lengthOfMonth())
-                                        .atTime(23, 59, 59);
-
-                        Double monthCredit = walletTransactionRepository.sumCreditsBetween(provider.getId(), monthStart,
-                                        monthEnd);
-                        if (monthCredit == null)
-                                monthCredit = 0.0;
+                List<Map<String, Object>> weeklyData = weekBuckets.series(
+                                weekBuckets.fold(rollups, DailyRollup::getCredits));
 
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("label", monthLabels[monthDate.getMonthValue() - 1]);
-                        map.put("value", monthCredit.intValue());
-                        monthlyTrend.add(map);
-                }
+                // 3. Monthly Trend (Real from Wallet Transactions)
+                List<Map<String, Object>> monthlyTrend = monthBuckets.series(
+                                monthBuckets.fold(rollups, DailyRollup::getCredits));
 
                 // 4. Transactions (Real)
                 List<Map<String, Object>> transactions = paymentRepository
-                                .findRecentPaymentsByProvider(provider.getId())
+                                .findRecentTransactionRowsByProvider(provider.getId(), PageRequest.of(0, 10))
                                 .stream()
-                                .limit(10)
                                 .map(p -> {
                                         Map<String, Object> map = new HashMap<>();
-                                        map.put("id", "TXN" + p.getId());
+                                        map.put("id", "TXN" + p.getPaymentId());
                                         map.put("date", p.getPaidAt().toLocalDate().toString());
                                         map.put("amount", p.getProviderEarning());
-                                        map.put("slot", p.getBooking().getParkingSlot().getSlotNumber());
+                                        map.put("slot", p.getSlotNumber());
                                         map.put("status", "completed");
                                         return map;
                                 })
@@ -425,22 +380,17 @@ public class ProviderDashboardController {
                                                 + ". Since the database was reset, please Register again."));
 
                 List<Map<String, Object>> history = bookingRepository
-                                .findRecentBookingsByProvider(provider.getId(), PageRequest.of(0, 100))
+                                .findRecentBookingRowsByProvider(provider.getId(), PageRequest.of(0, 100))
                                 .stream()
                                 .map(b -> {
                                         Map<String, Object> map = new HashMap<>();
                                         map.put("id", "BK-" + b.getId());
                                         map.put("date", b.getCreatedAt().toLocalDate().toString());
-                                        map.put("slot", b.getParkingSlot().getSlotNumber());
-
-                                        double amount = paymentRepository.findByBooking(b)
-                                                        .map(Payment::getTotalAmount)
-                                                        .orElse(0.0);
-                                        map.put("amount", amount);
-
-                                        map.put("customer", b.getDriver().getFullName());
-                                        map.put("vehicleNumber", b.getDriver().getVehicleNumber());
-                                        map.put("vehicleType", b.getDriver().getVehicleType());
+                                        map.put("slot", b.getSlotNumber());
+                                        map.put("amount", b.getTotalAmount());
+                                        map.put("customer", b.getCustomer());
+                                        map.put("vehicleNumber", b.getVehicleNumber());
+                                        map.put("vehicleType", b.getVehicleType());
 
                                         // Calculate duration
                                         String duration = "N/A";
@@ -467,6 +417,7 @@ public class ProviderDashboardController {
          * =====================================================
          */
         @PostMapping("/withdraw")
+        @org.springframework.transaction.annotation.Transactional
         public ResponseEntity<?> requestWithdrawal(@RequestBody Map<String, Object> payload, Authentication auth) {
                 String email = auth.getName();
                 User provider = userRepository.findByEmail(email)
@@ -487,10 +438,7 @@ public class ProviderDashboardController {
                 String upiId = payload.get("upiId").toString();
 
                 // Check balance
-                double totalEarnings = paymentRepository.sumTotalEarningsByProvider(provider.getId());
-                double processed = withdrawalRepository.sumProcessedWithdrawalsByProvider(provider.getId());
-                double pending = withdrawalRepository.sumPendingWithdrawalsByProvider(provider.getId());
-                double available = totalEarnings - processed - pending;
+                double available = ledgerService.balance(LedgerAccountType.PROVIDER_PAYABLE, provider.getId());
 
                 if (amount <= 0) {
                         return ResponseEntity.badRequest().body(Map.of("message", "Amount must be positive"));
@@ -507,6 +455,7 @@ public class ProviderDashboardController {
                 withdrawal.setStatus("PENDING");
                 withdrawal.setRequestedAt(java.time.LocalDateTime.now());
                 withdrawalRepository.save(withdrawal);
+                ledgerService.recordWithdrawalRequest(withdrawal.getId(), provider.getId(), amount);
 
                 return ResponseEntity.ok(Map.of("message", "Withdrawal requested successfully", "remainingBalance",
                                 available - amount));
@@ -518,6 +467,7 @@ public class ProviderDashboardController {
          * =====================================================
          */
         @PostMapping("/add-money")
+        @org.springframework.transaction.annotation.Transactional
         public ResponseEntity<?> addMoney(@RequestBody Map<String, Object> payload, Authentication auth) {
                 String email = auth.getName();
                 User provider = userRepository.findByEmail(email)
@@ -539,11 +489,16 @@ public class ProviderDashboardController {
                         return ResponseEntity.badRequest().body(Map.of("message", "Amount must be positive"));
                 }
 
-                provider.setWalletBalance(provider.getWalletBalance() + amount);
-                userRepository.save(provider);
+                userRepository.creditWallet(provider.getId(), amount);
+                // PROVIDER_WALLET, not PROVIDER_PAYABLE: added money is not withdrawable
+                ledgerService.recordTopUp(provider, amount);
 
+                // earnings plus added money, what the users row held before the ledger
                 return ResponseEntity.ok(Map.of(
                                 "message", "Money added successfully",
-                                "newWalletBalance", provider.getWalletBalance()));
+                                "newWalletBalance",
+                                ledgerService.balance(LedgerAccountType.PROVIDER_PAYABLE, provider.getId())
+                                                + ledgerService.balance(LedgerAccountType.PROVIDER_WALLET,
+                                                                provider.getId())));
         }
 }
@@ -14,13 +14,16 @@ public class ProviderEVStationController {
     private final com.parkease.backend.repository.UserRepository userRepository;
     private final com.parkease.backend.repository.ParkingSlotRepository parkingSlotRepository;
     private final com.parkease.backend.repository.BookingRepository bookingRepository;
+    private final com.parkease.backend.repository.ParkingLotRepository parkingLotRepository;
 
     public ProviderEVStationController(com.parkease.backend.repository.UserRepository userRepository,
             com.parkease.backend.repository.ParkingSlotRepository parkingSlotRepository,
-            com.parkease.backend.repository.BookingRepository bookingRepository) {
+            com.parkease.backend.repository.BookingRepository bookingRepository,
+            com.parkease.backend.repository.ParkingLotRepository parkingLotRepository) {
         this.userRepository = userRepository;
         this.parkingSlotRepository = parkingSlotRepository;
         this.bookingRepository = bookingRepository;
+        this.parkingLotRepository = parkingLotRepository;
     }
 
     @GetMapping
@@ -29,7 +32,7 @@ public class ProviderEVStationController {
         com.parkease.backend.entity.User provider = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-        List<com.parkease.backend.entity.ParkingLot> lots = provider.getParkingLots();
+        List<com.parkease.backend.entity.ParkingLot> lots = parkingLotRepository.findByProvider(provider);
 
         long totalChargers = 0;
         long activeChargers = 0; // Occupied
@@ -66,7 +69,7 @@ public class ProviderEVStationController {
         }
 
         // Total historical sessions
-        totalSessions = bookingRepository.countByParkingLot_Provider_IdAndParkingSlot_VehicleType(provider.getId(),
+        totalSessions = bookingRepository.countByProviderIdAndParkingSlot_VehicleType(provider.getId(),
                 com.parkease.backend.enumtype.VehicleType.EV);
         energyDelivered = totalSessions * 15; // Estimating 15kWh per session average
 
@@ -85,7 +88,7 @@ public class ProviderEVStationController {
         java.time.LocalDateTime weekAgo = now.minusDays(6).with(java.time.LocalTime.MIN);
 
         List<com.parkease.backend.entity.Booking> recentBookings = bookingRepository
-                .findByParkingLot_Provider_IdAndStartTimeBetween(provider.getId(), weekAgo, now);
+                .findByProviderIdAndStartTimeBetween(provider.getId(), weekAgo, now);
 
         String[] dayLabels = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
 
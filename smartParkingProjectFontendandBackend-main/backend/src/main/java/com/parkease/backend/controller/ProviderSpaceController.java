@@ -8,9 +8,14 @@ import com.parkease.backend.enumtype.VehicleType;
 import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.ParkingSlotRepository;
 import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.LotGeoIndex;
+import com.parkease.backend.service.LotSearchIndex;
+import com.parkease.backend.service.OccupancyCounters;
+import com.parkease.backend.service.SlotAvailabilityIndex;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -23,12 +28,21 @@ public class ProviderSpaceController {
     private final UserRepository userRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final OccupancyCounters occupancyCounters;
+    private final LotGeoIndex lotGeoIndex;
+    private final LotSearchIndex lotSearchIndex;
 
     public ProviderSpaceController(UserRepository userRepository, ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository) {
+            ParkingSlotRepository parkingSlotRepository, SlotAvailabilityIndex slotAvailabilityIndex,
+            OccupancyCounters occupancyCounters, LotGeoIndex lotGeoIndex, LotSearchIndex lotSearchIndex) {
         this.userRepository = userRepository;
         this.parkingLotRepository = parkingLotRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.occupancyCounters = occupancyCounters;
+        this.lotGeoIndex = lotGeoIndex;
+        this.lotSearchIndex = lotSearchIndex;
     }
 
     private ParkingLot getOrCreateMainLot(User provider) {
@@ -43,7 +57,82 @@ public class ProviderSpaceController {
         lot.setAddress(provider.getLocation() != null ? provider.getLocation() : "Unknown Location");
         lot.setTotalSlots(0);
         lot.setEvSupported(false);
-        return parkingLotRepository.save(lot);
+        lot = parkingLotRepository.save(lot);
+        lotGeoIndex.sync(lot);
+        lotSearchIndex.sync(lot);
+        return lot;
+    }
+
+    @GetMapping("/lot")
+    public ResponseEntity<?> getLot(Authentication auth) {
+        User provider = userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("Provider not found"));
+        return ResponseEntity.ok(toLotResponse(getOrCreateMainLot(provider)));
+    }
+
+    /**
+     * Updates lot details, location and the active flag; the geo and search
+     * indexes follow once the change commits.
+     */
+    @PutMapping("/lot")
+    @Transactional
+    public ResponseEntity<?> updateLot(@RequestBody Map<String, Object> payload, Authentication auth) {
+        User provider = userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new RuntimeException("Provider not found"));
+        ParkingLot lot = getOrCreateMainLot(provider);
+
+        if (payload.containsKey("name"))
+            lot.setName(String.valueOf(payload.get("name")));
+        if (payload.containsKey("address"))
+            lot.setAddress(String.valueOf(payload.get("address")));
+        if (payload.containsKey("city"))
+            lot.setCity((String) payload.get("city"));
+        if (payload.containsKey("state"))
+            lot.setState((String) payload.get("state"));
+        if (payload.containsKey("evSupported"))
+            lot.setEvSupported(Boolean.parseBoolean(String.valueOf(payload.get("evSupported"))));
+        if (payload.containsKey("active"))
+            lot.setActive(Boolean.parseBoolean(String.valueOf(payload.get("active"))));
+        if (payload.containsKey("latitude") || payload.containsKey("longitude")) {
+            Double latitude = coordinate(payload.get("latitude"), 90, "latitude");
+            Double longitude = coordinate(payload.get("longitude"), 180, "longitude");
+            if ((latitude == null) != (longitude == null)) {
+                throw new IllegalArgumentException("latitude and longitude must be set together");
+            }
+            lot.setLatitude(latitude);
+            lot.setLongitude(longitude);
+        }
+
+        parkingLotRepository.save(lot);
+        lotGeoIndex.sync(lot);
+        lotSearchIndex.sync(lot);
+        return ResponseEntity.ok(toLotResponse(lot));
+    }
+
+    private Map<String, Object> toLotResponse(ParkingLot lot) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", lot.getId());
+        map.put("name", lot.getName());
+        map.put("address", lot.getAddress());
+        map.put("city", lot.getCity());
+        map.put("state", lot.getState());
+        map.put("latitude", lot.getLatitude());
+        map.put("longitude", lot.getLongitude());
+        map.put("evSupported", lot.isEvSupported());
+        map.put("active", lot.isActive());
+        map.put("totalSlots", lot.getTotalSlots());
+        return map;
+    }
+
+    private static Double coordinate(Object value, double bound, String name) {
+        if (value == null) {
+            return null;
+        }
+        double degrees = Double.parseDouble(value.toString());
+        if (Double.isNaN(degrees) || degrees < -bound || degrees > bound) {
+            throw new IllegalArgumentException(name + " must be between -" + (int) bound + " and " + (int) bound);
+        }
+        return degrees;
     }
 
     @GetMapping
@@ -70,6 +159,7 @@ public class ProviderSpaceController {
     }
 
     @PostMapping
+    @Transactional // slot row and occupancy counter commit together
     public ResponseEntity<?> addSlot(@RequestBody Map<String, String> payload, Authentication auth) {
         String email = auth.getName();
         User provider = userRepository.findByEmail(email)
@@ -84,6 +174,8 @@ public class ProviderSpaceController {
         slot.setStatus(SlotStatus.AVAILABLE);
 
         parkingSlotRepository.save(slot);
+        slotAvailabilityIndex.markFree(slot);
+        occupancyCounters.slotChanged(lot, slot.getVehicleType(), null, OccupancyCounters.SlotState.of(slot));
 
         // Update lot totals
         long count = parkingSlotRepository.countByParkingLot(lot);
@@ -94,9 +186,11 @@ public class ProviderSpaceController {
     }
 
     @PatchMapping("/{id}/toggle")
+    @Transactional
     public ResponseEntity<?> toggleSlot(@PathVariable Long id) {
-        ParkingSlot slot = parkingSlotRepository.findById(id)
+        ParkingSlot slot = parkingSlotRepository.findWithLotById(id)
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
+        OccupancyCounters.SlotState before = OccupancyCounters.SlotState.of(slot);
 
         if (slot.getStatus() == SlotStatus.AVAILABLE) {
             slot.setStatus(SlotStatus.INACTIVE);
@@ -105,16 +199,27 @@ public class ProviderSpaceController {
         }
 
         parkingSlotRepository.save(slot);
+        occupancyCounters.slotChanged(slot.getParkingLot(), slot.getVehicleType(),
+                before, OccupancyCounters.SlotState.of(slot));
+
+        if (slot.isActive()) {
+            slotAvailabilityIndex.markFree(slot);
+        } else {
+            slotAvailabilityIndex.evict(slot);
+        }
         return ResponseEntity.ok(Map.of("message", "Slot toggled", "status", slot.getStatus()));
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteSlot(@PathVariable Long id) {
-        ParkingSlot slot = parkingSlotRepository.findById(id)
+        ParkingSlot slot = parkingSlotRepository.findWithLotById(id)
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
 
         ParkingLot lot = slot.getParkingLot();
         parkingSlotRepository.delete(slot);
+        slotAvailabilityIndex.evict(slot);
+        occupancyCounters.slotChanged(lot, slot.getVehicleType(), OccupancyCounters.SlotState.of(slot), null);
 
         // Update lot totals
         long count = parkingSlotRepository.countByParkingLot(lot);
@@ -1,11 +1,14 @@
 package com.parkease.backend.controller;
 
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.Review;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.ReviewRepository;
 import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.RatingSummaryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -17,66 +20,62 @@ public class ReviewController {
 
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
+    private final RatingSummaryService ratingSummaryService;
 
-    public ReviewController(ReviewRepository reviewRepository, UserRepository userRepository) {
+    public ReviewController(ReviewRepository reviewRepository, UserRepository userRepository,
+            RatingSummaryService ratingSummaryService) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
+        this.ratingSummaryService = ratingSummaryService;
     }
 
     @GetMapping("/provider/reviews")
-    public ResponseEntity<?> getProviderReviews(Authentication auth) {
-        String email = auth.getName();
-        User provider = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Provider not found"));
-
-        List<Review> reviewsList = reviewRepository.findByProviderOrderByCreatedAtDesc(provider);
-
-        // Calculate Summary
-        double totalRating = 0;
-        int count5 = 0, count4 = 0, count3 = 0, count2 = 0, count1 = 0;
-
-        List<Map<String, Object>> reviewsData = new ArrayList<>();
-        for (Review r : reviewsList) {
-            totalRating += r.getRating();
-            if (r.getRating() == 5)
-                count5++;
-            else if (r.getRating() == 4)
-                count4++;
-            else if (r.getRating() == 3)
-                count3++;
-            else if (r.getRating() == 2)
-                count2++;
-            else if (r.getRating() == 1)
-                count1++;
-
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", r.getId());
-            map.put("rating", r.getRating());
-            map.put("comment", r.getComment());
-            map.put("customer", r.getDriver().getFullName());
-            map.put("date", r.getCreatedAt().toLocalDate().toString());
-            reviewsData.add(map);
-        }
-
-        double avg = reviewsList.isEmpty() ? 0 : Math.round((totalRating / reviewsList.size()) * 10.0) / 10.0;
+    public ResponseEntity<?> getProviderReviews(Authentication auth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long providerId = ((com.parkease.backend.config.AuthPrincipal) auth.getPrincipal()).id();
+
+        // Summary from the provider's rating row, so it does not need every review loaded
+        RatingSummaryService.Summary rating = ratingSummaryService.summary(providerId);
+
+        // Reviews one keyset page at a time when asked; the provider screen still takes them all
+        boolean paged = cursor != null || limit != null;
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int size = paged ? CursorPage.clampLimit(limit) : Integer.MAX_VALUE - 1;
+        CursorPage<Map<String, Object>> reviews = CursorPage.of(
+                reviewRepository.findPageByProvider(providerId, after.createdAt(), after.id(),
+                        paged ? CursorPage.probe(size) : org.springframework.data.domain.Pageable.unpaged()),
+                size, Review::getCreatedAt, Review::getId, r -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", r.getId());
+                    map.put("rating", r.getRating());
+                    map.put("comment", r.getComment());
+                    map.put("customer", r.getDriver().getFullName());
+                    map.put("date", r.getCreatedAt().toLocalDate().toString());
+                    return map;
+                });
 
         Map<String, Object> summary = new HashMap<>();
-        summary.put("averageRating", avg);
-        summary.put("totalReviews", reviewsList.size());
-        summary.put("fiveStars", count5);
-        summary.put("fourStars", count4);
-        summary.put("threeStars", count3);
-        summary.put("twoStars", count2);
-        summary.put("oneStars", count1);
+        summary.put("averageRating", rating.average());
+        summary.put("totalReviews", rating.count());
+        summary.put("fiveStars", rating.fiveStars());
+        summary.put("fourStars", rating.fourStars());
+        summary.put("threeStars", rating.threeStars());
+        summary.put("twoStars", rating.twoStars());
+        summary.put("oneStars", rating.oneStar());
 
         Map<String, Object> response = new HashMap<>();
         response.put("summary", summary);
-        response.put("reviews", reviewsData);
+        response.put("reviews", reviews.items());
+        if (paged) {
+            response.put("nextCursor", reviews.nextCursor());
+        }
 
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/reviews")
+    @Transactional // review row and rating summary commit together
     public ResponseEntity<?> submitReview(@RequestBody Map<String, Object> payload, Authentication auth) {
         String driverEmail = auth.getName();
         User driver = userRepository.findByEmail(driverEmail)
@@ -101,6 +100,7 @@ public class ReviewController {
         review.setCreatedAt(LocalDateTime.now());
 
         reviewRepository.save(review);
+        ratingSummaryService.record(providerId, rating);
 
         return ResponseEntity.ok(Map.of("message", "Review submitted successfully"));
     }
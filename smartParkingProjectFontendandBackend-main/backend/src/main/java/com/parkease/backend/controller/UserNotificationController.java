@@ -4,6 +4,7 @@ import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.Notification;
 import com.parkease.backend.repository.NotificationRepository;
 
@@ -18,12 +19,22 @@ public class UserNotificationController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Notification>> getMyNotifications(Authentication authentication) {
+    public ResponseEntity<?> getMyNotifications(Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         // Extract role from authentication (ROLE_DRIVER -> DRIVER)
         String role = authentication.getAuthorities().iterator().next().getAuthority().replace("ROLE_", "");
-
-        List<Notification> notifications = notificationRepository.findByTargetRoleOrderByCreatedAtDesc(role);
-        return ResponseEntity.ok(notifications);
+        // the notification screen and bell still take the whole list; paging is opt-in
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(notificationRepository.findByTargetRoleOrderByCreatedAtDesc(role));
+        }
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int size = CursorPage.clampLimit(limit);
+
+        List<Notification> notifications = notificationRepository.findPageByTargetRole(role,
+                after.createdAt(), after.id(), CursorPage.probe(size));
+        return ResponseEntity.ok(CursorPage.of(notifications, size,
+                Notification::getCreatedAt, Notification::getId, n -> n));
     }
 
     @GetMapping("/unread-count")
@@ -0,0 +1,78 @@
+package com.parkease.backend.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list ordered newest first by (createdAt, id). nextCursor is
+ * opaque to clients; pass it back as {@code cursor} for the following page,
+ * it is null on the last page.
+ *
+ * Repositories take the cursor's position and return up to limit + 1 rows
+ * with {@code (createdAt < :ts OR (createdAt = :ts AND id < :id))}, so every
+ * page is one index range scan no matter how deep it is.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /** Position strictly after which the next page starts. */
+    public record Cursor(LocalDateTime createdAt, Long id) {
+
+        // before every real row, so the first page uses the same query
+        public static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+        public static Cursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return START;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        public String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /** Fetches one extra row to learn whether another page exists. */
+    public static Pageable probe(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Builds the page from rows fetched with {@link #probe(int)}.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit,
+            Function<E, LocalDateTime> createdAt, Function<E, Long> id, Function<E, T> mapper) {
+        boolean more = rows.size() > limit;
+        List<E> page = more ? rows.subList(0, limit) : rows;
+
+        String next = null;
+        if (more) {
+            E last = page.get(page.size() - 1);
+            next = new Cursor(createdAt.apply(last), id.apply(last)).encode();
+        }
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+}
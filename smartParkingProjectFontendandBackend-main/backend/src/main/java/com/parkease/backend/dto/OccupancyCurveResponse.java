@@ -0,0 +1,20 @@
+package com.parkease.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OccupancyCurveResponse {
+
+    public Long lotId; // null for the whole platform
+    public LocalDateTime from;
+    public LocalDateTime to;
+    public int bucketMinutes;
+    public int peak;
+    public List<Point> points;
+
+    public static class Point {
+        public LocalDateTime start;
+        public int max;
+        public double average;
+    }
+}
@@ -6,6 +6,12 @@ public class ParkingDurationResponse {
 
     public List<Bucket> buckets;
 
+    // ===== Percentiles (minutes) =====
+    public long totalBookings;
+    public long p50Minutes;
+    public long p90Minutes;
+    public long p99Minutes;
+
     public static class Bucket {
         public String label;
         public long count;
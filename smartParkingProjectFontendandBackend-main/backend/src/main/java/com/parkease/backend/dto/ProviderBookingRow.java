@@ -0,0 +1,59 @@
+package com.parkease.backend.dto;
+
+import com.parkease.backend.enumtype.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for the provider booking lists, filled by a JPQL constructor
+ * expression that joins booking, slot, driver and payment in one statement.
+ * Payment columns are null while the booking has no payment.
+ */
+public class ProviderBookingRow {
+
+    private final Long id;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime endTime;
+    private final String slotNumber;
+    private final BookingStatus status;
+    private final String customer;
+    private final String vehicleNumber;
+    private final String vehicleType;
+    private final Double totalAmount;
+    private final Double providerEarning;
+
+    public ProviderBookingRow(
+            Long id,
+            LocalDateTime createdAt,
+            LocalDateTime endTime,
+            String slotNumber,
+            BookingStatus status,
+            String customer,
+            String vehicleNumber,
+            String vehicleType,
+            Double totalAmount,
+            Double providerEarning
+    ) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.endTime = endTime;
+        this.slotNumber = slotNumber;
+        this.status = status;
+        this.customer = customer;
+        this.vehicleNumber = vehicleNumber;
+        this.vehicleType = vehicleType;
+        this.totalAmount = totalAmount;
+        this.providerEarning = providerEarning;
+    }
+
+    public Long getId() { return id; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public String getSlotNumber() { return slotNumber; }
+    public BookingStatus getStatus() { return status; }
+    public String getCustomer() { return customer; }
+    public String getVehicleNumber() { return vehicleNumber; }
+    public String getVehicleType() { return vehicleType; }
+    public double getTotalAmount() { return totalAmount != null ? totalAmount : 0.0; }
+    public double getProviderEarning() { return providerEarning != null ? providerEarning : 0.0; }
+}
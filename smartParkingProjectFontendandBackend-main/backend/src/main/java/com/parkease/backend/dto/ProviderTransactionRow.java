@@ -0,0 +1,31 @@
+package com.parkease.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for the provider earnings transaction list (payment + slot).
+ */
+public class ProviderTransactionRow {
+
+    private final Long paymentId;
+    private final LocalDateTime paidAt;
+    private final double providerEarning;
+    private final String slotNumber;
+
+    public ProviderTransactionRow(
+            Long paymentId,
+            LocalDateTime paidAt,
+            double providerEarning,
+            String slotNumber
+    ) {
+        this.paymentId = paymentId;
+        this.paidAt = paidAt;
+        this.providerEarning = providerEarning;
+        this.slotNumber = slotNumber;
+    }
+
+    public Long getPaymentId() { return paymentId; }
+    public LocalDateTime getPaidAt() { return paidAt; }
+    public double getProviderEarning() { return providerEarning; }
+    public String getSlotNumber() { return slotNumber; }
+}
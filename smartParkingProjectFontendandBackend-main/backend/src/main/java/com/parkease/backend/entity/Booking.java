@@ -6,7 +6,16 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_provider_created", columnList = "provider_id, created_at"),
+        @Index(name = "idx_bookings_provider_status", columnList = "provider_id, status"),
+        @Index(name = "idx_bookings_provider_start", columnList = "provider_id, start_time"),
+        @Index(name = "idx_bookings_lot_status", columnList = "parking_lot_id, status"),
+        @Index(name = "idx_bookings_lot_start", columnList = "parking_lot_id, start_time"),
+        @Index(name = "idx_bookings_start", columnList = "start_time"),
+        @Index(name = "idx_bookings_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_bookings_driver_created_id", columnList = "driver_id, created_at, id")
+})
 public class Booking {
 
     @Id
@@ -14,18 +23,22 @@ public class Booking {
     private Long id;
 
     // ===== Relations =====
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "driver_id", nullable = false)
     private User driver;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "parking_lot_id", nullable = false)
     private ParkingLot parkingLot;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "parking_slot_id", nullable = false)
     private ParkingSlot parkingSlot;
 
+    // copy of parkingLot.provider.id so provider dashboards filter one table
+    @Column(name = "provider_id")
+    private Long providerId;
+
     // ===== Vehicle =====
     @Column(nullable = false)
     private String vehicleNumber;
@@ -68,6 +81,14 @@ public class Booking {
         this.parkingLot = parkingLot;
     }
 
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(Long providerId) {
+        this.providerId = providerId;
+    }
+
     public ParkingSlot getParkingSlot() {
         return parkingSlot;
     }
@@ -6,7 +6,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "complaints")
+@Table(name = "complaints", indexes = {
+        @Index(name = "idx_complaints_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_complaints_status_created_id", columnList = "status, created_at, id")
+})
 public class Complaint {
 
     @Id
@@ -14,16 +17,16 @@ public class Complaint {
     private Long id;
 
     // ===== Who raised =====
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "reported_by_id")
     private User reportedBy;
 
     // ===== Optional references =====
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id")
     private Booking booking;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parking_lot_id")
     private ParkingLot parkingLot;
 
@@ -111,4 +114,8 @@ public class Complaint {
     public void setResolution(String resolution) {
         this.resolution = resolution;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
 }
@@ -0,0 +1,163 @@
+package com.parkease.backend.entity;
+
+import com.parkease.backend.enumtype.RollupScope;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated counters for one day, either platform-wide or for a single
+ * provider / driver. Maintained incrementally by the write paths and read by
+ * the trend endpoints with a single range scan. Platform and provider days
+ * are spread over several shard rows that readers add up; driver rows use
+ * shard 0.
+ */
+@Entity
+@Table(name = "daily_rollups", uniqueConstraints = @UniqueConstraint(columnNames = { "scope", "owner_id",
+        "rollup_date", "shard" }))
+public class DailyRollup {
+
+    /** ownerId used for PLATFORM rows */
+    public static final long PLATFORM_OWNER = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ===== Key =====
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupScope scope;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(nullable = false)
+    private int shard;
+
+    // ===== Bookings (by booking creation day) =====
+    @Column(nullable = false)
+    private long bookings;
+
+    @Column(nullable = false)
+    private long completedBookings;
+
+    // ===== Wallet movements =====
+    @Column(nullable = false)
+    private double credits;
+
+    @Column(nullable = false)
+    private double debits;
+
+    // ===== Payments (by paid day) =====
+    @Column(nullable = false)
+    private double revenue;
+
+    @Column(nullable = false)
+    private double platformFees;
+
+    // ===== Sign-ups (PLATFORM only) =====
+    @Column(nullable = false)
+    private long newDrivers;
+
+    @Column(nullable = false)
+    private long newProviders;
+
+    public DailyRollup() {
+    }
+
+    public DailyRollup(RollupScope scope, Long ownerId, LocalDate rollupDate) {
+        this.scope = scope;
+        this.ownerId = ownerId;
+        this.rollupDate = rollupDate;
+    }
+
+    // ===== Getters & Setters =====
+
+    public Long getId() {
+        return id;
+    }
+
+    public RollupScope getScope() {
+        return scope;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(long bookings) {
+        this.bookings = bookings;
+    }
+
+    public long getCompletedBookings() {
+        return completedBookings;
+    }
+
+    public void setCompletedBookings(long completedBookings) {
+        this.completedBookings = completedBookings;
+    }
+
+    public double getCredits() {
+        return credits;
+    }
+
+    public void setCredits(double credits) {
+        this.credits = credits;
+    }
+
+    public double getDebits() {
+        return debits;
+    }
+
+    public void setDebits(double debits) {
+        this.debits = debits;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public double getPlatformFees() {
+        return platformFees;
+    }
+
+    public void setPlatformFees(double platformFees) {
+        this.platformFees = platformFees;
+    }
+
+    public long getNewDrivers() {
+        return newDrivers;
+    }
+
+    public void setNewDrivers(long newDrivers) {
+        this.newDrivers = newDrivers;
+    }
+
+    public long getNewProviders() {
+        return newProviders;
+    }
+
+    public void setNewProviders(long newProviders) {
+        this.newProviders = newProviders;
+    }
+}
@@ -0,0 +1,78 @@
+package com.parkease.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Parking-duration histogram (see
+ * {@link com.parkease.backend.service.DurationHistogram}) of the bookings
+ * that started on one day, for one lot or for all lots. Rows of any day
+ * range merge into one distribution, so duration charts and percentiles
+ * never scan the bookings table.
+ */
+@Entity
+@Table(name = "duration_sketches", uniqueConstraints = @UniqueConstraint(columnNames = { "lot_id",
+        "sketch_date" }))
+public class DurationSketch {
+
+    /** lotId used for the all-lots rows */
+    public static final long ALL_LOTS = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ===== Key =====
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Column(name = "sketch_date", nullable = false)
+    private LocalDate sketchDate;
+
+    // ===== Histogram =====
+    @Column(nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false, length = com.parkease.backend.service.DurationHistogram.MAX_ENCODED_BYTES)
+    private byte[] histogram;
+
+    public DurationSketch() {
+    }
+
+    public DurationSketch(Long lotId, LocalDate sketchDate) {
+        this.lotId = lotId;
+        this.sketchDate = sketchDate;
+        this.histogram = new byte[0];
+    }
+
+    // ===== Getters & Setters =====
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public LocalDate getSketchDate() {
+        return sketchDate;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public byte[] getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(byte[] histogram) {
+        this.histogram = histogram;
+    }
+}
@@ -0,0 +1,88 @@
+package com.parkease.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a POST sent with an Idempotency-Key, so a retry of the
+ * same request replays it instead of running again. Keys are scoped to the
+ * caller and expire after a TTL.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = @UniqueConstraint(columnNames = { "owner", "idem_key" }),
+        indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+public class IdempotencyRecord {
+
+    public static final int MAX_BODY_LENGTH = 4000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 191)
+    private String owner;
+
+    @Column(name = "idem_key", nullable = false, length = 128)
+    private String idemKey;
+
+    // SHA-256 of method, path and body; a reused key with another payload is rejected
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(length = MAX_BODY_LENGTH)
+    private String body;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String owner, String idemKey, String requestHash, int status, String contentType,
+            String body) {
+        this.owner = owner;
+        this.idemKey = idemKey;
+        this.requestHash = requestHash;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getIdemKey() {
+        return idemKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
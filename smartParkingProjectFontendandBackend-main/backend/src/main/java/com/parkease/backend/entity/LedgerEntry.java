@@ -0,0 +1,86 @@
+package com.parkease.backend.entity;
+
+import com.parkease.backend.enumtype.LedgerAccountType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One immutable posting of a journal. Amounts are signed integer paise and
+ * the entries of a journal sum to zero; an account's balance is the sum of
+ * its entries, read as latest {@link LedgerSnapshot} plus the entries after it.
+ */
+@Entity
+@org.hibernate.annotations.Immutable
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_account_id", columnList = "account_type, owner_id, id"),
+        @Index(name = "idx_ledger_journal", columnList = "journal_id")
+})
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "journal_id", nullable = false, length = 36)
+    private String journalId;
+
+    // ===== Account =====
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false, length = 24)
+    private LedgerAccountType accountType;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // ===== Posting =====
+    @Column(nullable = false)
+    private long amountPaise;
+
+    // what caused it, e.g. BOOKING:42, TOPUP:7, WITHDRAWAL:3, WITHDRAWAL_SETTLED:3
+    @Column(nullable = false, length = 64)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public LedgerEntry() {
+    }
+
+    public LedgerEntry(String journalId, LedgerAccountType accountType, Long ownerId, long amountPaise,
+            String reference) {
+        this.journalId = journalId;
+        this.accountType = accountType;
+        this.ownerId = ownerId;
+        this.amountPaise = amountPaise;
+        this.reference = reference;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    public LedgerAccountType getAccountType() {
+        return accountType;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public long getAmountPaise() {
+        return amountPaise;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,78 @@
+package com.parkease.backend.entity;
+
+import com.parkease.backend.enumtype.LedgerAccountType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Balance of one ledger account over every entry up to lastEntryId. Written
+ * periodically for accounts that moved, so balance reads only scan the
+ * entries after the latest snapshot.
+ */
+@Entity
+@Table(name = "ledger_snapshots", indexes = {
+        @Index(name = "idx_ledger_snapshot_account", columnList = "account_type, owner_id, last_entry_id"),
+        @Index(name = "idx_ledger_snapshot_as_of", columnList = "account_type, owner_id, as_of")
+})
+public class LedgerSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ===== Account =====
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type", nullable = false, length = 24)
+    private LedgerAccountType accountType;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // ===== Balance =====
+    @Column(name = "last_entry_id", nullable = false)
+    private long lastEntryId;
+
+    // entries at or before this time are all included
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(nullable = false)
+    private long balancePaise;
+
+    public LedgerSnapshot() {
+    }
+
+    public LedgerSnapshot(LedgerAccountType accountType, Long ownerId, long lastEntryId, LocalDateTime asOf,
+            long balancePaise) {
+        this.accountType = accountType;
+        this.ownerId = ownerId;
+        this.lastEntryId = lastEntryId;
+        this.asOf = asOf;
+        this.balancePaise = balancePaise;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LedgerAccountType getAccountType() {
+        return accountType;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public long getBalancePaise() {
+        return balancePaise;
+    }
+}
@@ -0,0 +1,107 @@
+package com.parkease.backend.entity;
+
+import com.parkease.backend.enumtype.VehicleType;
+import jakarta.persistence.*;
+
+/**
+ * Slot counts of one lot for one vehicle type. Adjusted in the same
+ * transaction as the slot change that moves them, so occupancy reads never
+ * have to count the slots table.
+ */
+@Entity
+@Table(name = "lot_occupancy", uniqueConstraints = @UniqueConstraint(columnNames = { "lot_id", "vehicle_type" }),
+        indexes = @Index(name = "idx_lot_occupancy_provider", columnList = "provider_id"))
+public class LotOccupancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ===== Key =====
+    @Column(name = "lot_id", nullable = false)
+    private Long lotId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vehicle_type", nullable = false, length = 16)
+    private VehicleType vehicleType;
+
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    // ===== Counts =====
+    @Column(nullable = false)
+    private long occupied;
+
+    @Column(nullable = false)
+    private long available;
+
+    @Column(nullable = false)
+    private long inactive;
+
+    // occupied slots whose booking is on its way out (subset of occupied)
+    @Column(nullable = false)
+    private long exiting;
+
+    public LotOccupancy() {
+    }
+
+    public LotOccupancy(Long lotId, VehicleType vehicleType, Long providerId) {
+        this.lotId = lotId;
+        this.vehicleType = vehicleType;
+        this.providerId = providerId;
+    }
+
+    // ===== Getters & Setters =====
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(Long providerId) {
+        this.providerId = providerId;
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public void setOccupied(long occupied) {
+        this.occupied = occupied;
+    }
+
+    public long getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(long available) {
+        this.available = available;
+    }
+
+    public long getInactive() {
+        return inactive;
+    }
+
+    public void setInactive(long inactive) {
+        this.inactive = inactive;
+    }
+
+    public long getExiting() {
+        return exiting;
+    }
+
+    public void setExiting(long exiting) {
+        this.exiting = exiting;
+    }
+}
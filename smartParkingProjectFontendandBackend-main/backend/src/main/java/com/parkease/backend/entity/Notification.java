@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_role_read_created", columnList = "target_role, read, created_at"),
+        @Index(name = "idx_notifications_role_created_id", columnList = "target_role, created_at, id")
+})
 public class Notification {
 
     @Id
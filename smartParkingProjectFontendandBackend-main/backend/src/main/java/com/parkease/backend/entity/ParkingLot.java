@@ -1,5 +1,6 @@
 package com.parkease.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,7 +14,7 @@ public class ParkingLot {
     private Long id;
 
     // ===== Ownership =====
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "provider_id")
     private User provider;
 
@@ -27,6 +28,10 @@ public class ParkingLot {
     private String city;
     private String state;
 
+    // ===== Location (WGS84 degrees, optional) =====
+    private Double latitude;
+    private Double longitude;
+
     // ===== Capacity =====
     @Column(nullable = false)
     private int totalSlots;
@@ -43,6 +48,7 @@ public class ParkingLot {
     private LocalDateTime createdAt = LocalDateTime.now();
 
     // ===== Mapping =====
+    @JsonIgnore // lazy inverse side, never part of a response
     @OneToMany(mappedBy = "parkingLot", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ParkingSlot> slots;
 
@@ -90,6 +96,23 @@ public class ParkingLot {
     public void setState(String state) {
         this.state = state;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public int getTotalSlots() {
         return totalSlots;
     }
@@ -13,7 +13,7 @@ public class ParkingSlot {
     private Long id;
 
     // ===== Relation =====
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "parking_lot_id", nullable = false)
     private ParkingLot parkingLot;
 
@@ -37,6 +37,11 @@ public class ParkingSlot {
     @Column(nullable = false)
     private boolean occupied = false;
 
+    // ===== Concurrency =====
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     // ===== Getters & Setters =====
 
     public Long getId() {
@@ -106,6 +111,10 @@ public class ParkingSlot {
         }
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     // ===== Convenience helpers =====
 
     public boolean isActive() {
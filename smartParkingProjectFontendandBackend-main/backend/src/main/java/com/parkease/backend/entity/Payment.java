@@ -6,7 +6,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_status_paid", columnList = "status, paid_at"),
+        @Index(name = "idx_payments_provider_paid", columnList = "provider_id, paid_at")
+})
 public class Payment {
 
     @Id
@@ -14,10 +17,14 @@ public class Payment {
     private Long id;
 
     // ===== Relation =====
-    @OneToOne(optional = false)
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "booking_id", unique = true)
     private Booking booking;
 
+    // copy of booking.parkingLot.provider.id, avoids the double join
+    @Column(name = "provider_id")
+    private Long providerId;
+
     // ===== Amounts =====
     @Column(nullable = false)
     private double totalAmount;
@@ -53,6 +60,14 @@ public class Payment {
         this.booking = booking;
     }
 
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(Long providerId) {
+        this.providerId = providerId;
+    }
+
     public double getTotalAmount() {
         return totalAmount;
     }
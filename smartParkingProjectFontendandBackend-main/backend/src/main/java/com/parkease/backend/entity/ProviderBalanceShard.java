@@ -0,0 +1,54 @@
+package com.parkease.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * One of N credit accumulators of a provider. Booking earnings are added to
+ * a shard picked by booking id instead of the provider's {@code users} row,
+ * so concurrent bookings at one provider do not queue on a single row lock.
+ * A background job folds the shards into {@link User#getWalletBalance()}.
+ */
+@Entity
+@Table(name = "provider_balance_shards", uniqueConstraints = @UniqueConstraint(columnNames = { "provider_id",
+        "shard" }))
+public class ProviderBalanceShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ===== Key =====
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(nullable = false)
+    private int shard;
+
+    // ===== Credits not yet folded into the wallet =====
+    @Column(nullable = false)
+    private double amount;
+
+    public ProviderBalanceShard() {
+    }
+
+    public ProviderBalanceShard(Long providerId, int shard) {
+        this.providerId = providerId;
+        this.shard = shard;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+}
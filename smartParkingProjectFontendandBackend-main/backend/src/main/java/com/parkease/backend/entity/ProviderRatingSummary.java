@@ -0,0 +1,96 @@
+package com.parkease.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Running review totals of one provider: count, sum and a 1-5 star
+ * histogram. Bumped by a single UPDATE when a review is submitted, so a
+ * rating is read from one row instead of aggregating every review.
+ */
+@Entity
+@Table(name = "provider_rating_summary")
+public class ProviderRatingSummary {
+
+    // ===== Key (one row per provider) =====
+    @Id
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    // ===== Totals =====
+    @Column(nullable = false)
+    private long reviewCount;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    // ===== Star histogram =====
+    @Column(nullable = false)
+    private long oneStar;
+
+    @Column(nullable = false)
+    private long twoStars;
+
+    @Column(nullable = false)
+    private long threeStars;
+
+    @Column(nullable = false)
+    private long fourStars;
+
+    @Column(nullable = false)
+    private long fiveStars;
+
+    public ProviderRatingSummary() {
+    }
+
+    public ProviderRatingSummary(Long providerId) {
+        this.providerId = providerId;
+    }
+
+    // ===== Getters & Setters =====
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long getOneStar() {
+        return oneStar;
+    }
+
+    public long getTwoStars() {
+        return twoStars;
+    }
+
+    public long getThreeStars() {
+        return threeStars;
+    }
+
+    public long getFourStars() {
+        return fourStars;
+    }
+
+    public long getFiveStars() {
+        return fiveStars;
+    }
+
+    /** Adds count reviews of the given star rating (backfill). */
+    public void add(int rating, long count) {
+        reviewCount += count;
+        ratingSum += rating * count;
+        switch (rating) {
+            case 1 -> oneStar += count;
+            case 2 -> twoStars += count;
+            case 3 -> threeStars += count;
+            case 4 -> fourStars += count;
+            case 5 -> fiveStars += count;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+    }
+}
@@ -2,13 +2,19 @@ package com.parkease.backend.entity;
 
 import com.parkease.backend.enumtype.Role;
 import com.parkease.backend.enumtype.VerificationStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+// only changed columns are written, so a profile save cannot clobber a concurrent wallet UPDATE
 @Entity
-@Table(name = "users")
+@org.hibernate.annotations.DynamicUpdate
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_created_id", columnList = "role, created_at, id"),
+        @Index(name = "idx_users_role_status_created_id", columnList = "role, approved, enabled, created_at, id")
+})
 public class User {
 
     @Id
@@ -114,6 +120,7 @@ public class User {
      * =====================================================
      */
 
+    @JsonIgnore // lazy inverse side, never part of a response
     @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL)
     private List<ParkingLot> parkingLots;
 
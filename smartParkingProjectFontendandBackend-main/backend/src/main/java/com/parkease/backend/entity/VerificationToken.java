@@ -21,7 +21,7 @@ public class VerificationToken {
     private LocalDateTime expiryTime;
 
     // Many tokens can belong to one user (over time)
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -11,7 +11,7 @@ public class Withdrawal {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "provider_id", nullable = false)
     private User provider;
 
@@ -22,7 +22,10 @@ public class Withdrawal {
     private String upiId;
 
     @Column(nullable = false)
-    private String status = "PENDING"; // PENDING, PROCESSED, REJECTED
+    // PENDING, PROCESSED, REJECTED. Nothing moves a withdrawal out of PENDING
+    // yet; whatever does must post LedgerService.recordWithdrawalSettled or
+    // recordWithdrawalRejected in the same transaction, or the amount stays in PAYOUTS.
+    private String status = "PENDING";
 
     @Column(nullable = false)
     private LocalDateTime requestedAt = LocalDateTime.now();
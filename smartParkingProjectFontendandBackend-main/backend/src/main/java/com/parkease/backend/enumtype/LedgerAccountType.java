@@ -0,0 +1,19 @@
+package com.parkease.backend.enumtype;
+
+/**
+ * Ledger accounts. Per-user accounts are keyed by the user id, platform
+ * accounts by owner 0. EXTERNAL is money entering or leaving the platform
+ * (top-ups, opening balances, settled payouts).
+ *
+ * PROVIDER_PAYABLE is what the platform owes a provider from bookings and
+ * is the only provider balance that can be withdrawn; money a provider adds
+ * to their own wallet sits in PROVIDER_WALLET.
+ */
+public enum LedgerAccountType {
+    DRIVER_WALLET,
+    PROVIDER_PAYABLE,
+    PROVIDER_WALLET,
+    PLATFORM_FEES,
+    PAYOUTS,
+    EXTERNAL
+}
@@ -0,0 +1,12 @@
+package com.parkease.backend.exception;
+
+/**
+ * The wallet cannot cover the amount. Deterministic for the request that
+ * hit it, unlike a lost race for a slot, so callers answer it with 400.
+ */
+public class InsufficientBalanceException extends RuntimeException {
+
+    public InsufficientBalanceException() {
+        super("Insufficient wallet balance");
+    }
+}
@@ -1,40 +1,80 @@
 package com.parkease.backend.repository;
 
+import com.parkease.backend.dto.ProviderBookingRow;
 import com.parkease.backend.entity.Booking;
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.enumtype.BookingStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.LockModeType;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @EntityGraph(attributePaths = { "parkingLot", "parkingSlot" })
     List<Booking> findByDriver(User driver);
 
+    // keyset page, newest first (see CursorPage)
+    @EntityGraph(attributePaths = { "parkingLot", "parkingSlot" })
+    @Query("""
+                SELECT b FROM Booking b
+                WHERE b.driver.id = :driverId
+                  AND (b.createdAt < :ts OR (b.createdAt = :ts AND b.id < :id))
+                ORDER BY b.createdAt DESC, b.id DESC
+            """)
+    List<Booking> findPageByDriver(@Param("driverId") Long driverId, @Param("ts") LocalDateTime ts,
+            @Param("id") Long id, Pageable pageable);
+
     List<Booking> findByParkingLot(ParkingLot parkingLot);
 
     List<Booking> findByStatus(BookingStatus status);
 
-    @Query("""
-                SELECT b
-                FROM Booking b
-                WHERE b.parkingLot.provider.id = :providerId
-                  AND b.status = 'COMPLETED'
-            """)
-    List<Booking> findTodayBookingsForProvider(@Param("providerId") Long providerId);
+    // ---------- LIFECYCLE (ACTIVE -> EXITING -> COMPLETED) ----------
+
+    // (id, status, endTime) of bookings still holding a slot, used to rebuild the lifecycle timers
+    @Query("SELECT b.id, b.status, b.endTime FROM Booking b WHERE b.status IN :statuses")
+    List<Object[]> findLifecycleTimers(@Param("statuses") Collection<BookingStatus> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids")
+    List<Booking> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = { "parkingLot", "parkingSlot" })
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids")
+    List<Booking> findWithLotAndSlotByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to WHERE b.id IN :ids AND b.status = :from")
+    int transitionAll(@Param("ids") Collection<Long> ids,
+            @Param("from") BookingStatus from,
+            @Param("to") BookingStatus to);
 
     @Query("""
                 SELECT b
                 FROM Booking b
-                WHERE b.parkingLot.provider.id = :providerId
+                WHERE b.providerId = :providerId
                   AND b.status = 'COMPLETED'
             """)
     List<Booking> findCompletedBookingsForProvider(@Param("providerId") Long providerId);
 
+    @EntityGraph(attributePaths = { "driver", "parkingSlot" })
     @Query("""
                 SELECT b
                 FROM Booking b
@@ -54,6 +94,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             LocalDateTime start,
             LocalDateTime end);
 
+    @EntityGraph(attributePaths = { "driver", "parkingSlot" })
     @Query("""
                 SELECT b
                 FROM Booking b
@@ -66,7 +107,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("""
                 SELECT b
                 FROM Booking b
-                WHERE b.parkingLot.provider.id = :providerId
+                WHERE b.providerId = :providerId
                   AND b.status = 'COMPLETED'
                   AND b.endTime >= :start
             """)
@@ -74,21 +115,128 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("providerId") Long providerId,
             @Param("start") java.time.LocalDateTime start);
 
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.parkingLot.provider.id = :providerId AND b.status = 'ACTIVE'")
+    // (lotId, vehicleType, count) of bookings in the given status, used to repair the occupancy counters
+    @Query("""
+                SELECT b.parkingLot.id, s.vehicleType, COUNT(b)
+                FROM Booking b JOIN b.parkingSlot s
+                WHERE b.status = :status
+                GROUP BY b.parkingLot.id, s.vehicleType
+            """)
+    List<Object[]> aggregateByLotAndVehicleType(@Param("status") BookingStatus status);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.providerId = :providerId AND b.status = 'ACTIVE'")
     long countActiveBookingsByProvider(@Param("providerId") Long providerId);
 
-    @Query("SELECT b FROM Booking b WHERE b.parkingLot.provider.id = :providerId ORDER BY b.createdAt DESC")
+    @Query("SELECT b FROM Booking b WHERE b.providerId = :providerId ORDER BY b.createdAt DESC")
     List<Booking> findRecentBookingsByProvider(@Param("providerId") Long providerId,
             org.springframework.data.domain.Pageable pageable);
 
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.parkingLot.provider.id = :providerId")
+    // one statement per page: slot, driver and payment come back joined
+    @Query("""
+                SELECT new com.parkease.backend.dto.ProviderBookingRow(
+                       b.id, b.createdAt, b.endTime, s.slotNumber, b.status,
+                       d.fullName, d.vehicleNumber, d.vehicleType, p.totalAmount, p.providerEarning)
+                FROM Booking b
+                JOIN b.parkingSlot s
+                JOIN b.driver d
+                LEFT JOIN Payment p ON p.booking = b
+                WHERE b.providerId = :providerId
+                ORDER BY b.createdAt DESC
+            """)
+    List<ProviderBookingRow> findRecentBookingRowsByProvider(@Param("providerId") Long providerId,
+            org.springframework.data.domain.Pageable pageable);
+
+    @Query("""
+                SELECT new com.parkease.backend.dto.ProviderBookingRow(
+                       b.id, b.createdAt, b.endTime, s.slotNumber, b.status,
+                       d.fullName, d.vehicleNumber, d.vehicleType, p.totalAmount, p.providerEarning)
+                FROM Booking b
+                JOIN b.parkingSlot s
+                JOIN b.driver d
+                LEFT JOIN Payment p ON p.booking = b
+                WHERE b.providerId = :providerId
+                  AND b.createdAt >= :since
+                ORDER BY b.createdAt DESC
+            """)
+    List<ProviderBookingRow> findBookingRowsByProviderSince(@Param("providerId") Long providerId,
+            @Param("since") LocalDateTime since,
+            org.springframework.data.domain.Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.providerId = :providerId")
     long countByProvider(@Param("providerId") Long providerId);
 
-    List<Booking> findByStatusAndEndTimeIsNotNull(BookingStatus status);
+    // (lotId, startTime, endTime) of finished bookings, used to backfill the duration sketches
+    @Query("""
+                SELECT b.parkingLot.id, b.startTime, b.endTime
+                FROM Booking b
+                WHERE b.status = :status
+                  AND b.startTime IS NOT NULL
+                  AND b.endTime IS NOT NULL
+            """)
+    List<Object[]> findDurationRows(@Param("status") BookingStatus status);
+
+    // ---------- OCCUPANCY INTERVALS (lotId, startTime, endTime) overlapping [from, to) ----------
+    // earliest bounds the start_time range scan: longer stays are not counted
+    @Query("""
+                SELECT b.parkingLot.id, b.startTime, b.endTime
+                FROM Booking b
+                WHERE b.status IN :statuses
+                  AND b.startTime >= :earliest AND b.startTime < :to
+                  AND (b.endTime IS NULL OR b.endTime > :from)
+            """)
+    Stream<Object[]> streamIntervals(@Param("statuses") Collection<BookingStatus> statuses,
+            @Param("earliest") LocalDateTime earliest, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("""
+                SELECT b.parkingLot.id, b.startTime, b.endTime
+                FROM Booking b
+                WHERE b.parkingLot.id = :lotId
+                  AND b.status IN :statuses
+                  AND b.startTime >= :earliest AND b.startTime < :to
+                  AND (b.endTime IS NULL OR b.endTime > :from)
+            """)
+    Stream<Object[]> streamLotIntervals(@Param("lotId") Long lotId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("earliest") LocalDateTime earliest, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("""
+                SELECT b.parkingLot.id, b.startTime, b.endTime
+                FROM Booking b
+                WHERE b.providerId = :providerId
+                  AND b.status IN :statuses
+                  AND b.startTime >= :earliest AND b.startTime < :to
+                  AND (b.endTime IS NULL OR b.endTime > :from)
+            """)
+    Stream<Object[]> streamProviderIntervals(@Param("providerId") Long providerId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("earliest") LocalDateTime earliest, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
 
-    long countByParkingLot_Provider_IdAndParkingSlot_VehicleType(Long providerId,
+    long countByProviderIdAndParkingSlot_VehicleType(Long providerId,
             com.parkease.backend.enumtype.VehicleType vehicleType);
 
-    List<Booking> findByParkingLot_Provider_IdAndStartTimeBetween(Long providerId, LocalDateTime start,
+    @EntityGraph(attributePaths = "parkingSlot")
+    List<Booking> findByProviderIdAndStartTimeBetween(Long providerId, LocalDateTime start,
             LocalDateTime end);
+
+    // fills the denormalized provider_id on rows written before the column existed
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE Booking b
+                SET b.providerId = (SELECT l.provider.id FROM ParkingLot l WHERE l.id = b.parkingLot.id)
+                WHERE b.providerId IS NULL
+            """)
+    int backfillProviderIds();
+
+    // (providerId, driverId, day, bookings, completed) for the rollup backfill
+    @Query("""
+                SELECT b.parkingLot.provider.id, b.driver.id, cast(b.createdAt as LocalDate),
+                       COUNT(b), SUM(CASE WHEN b.status = 'COMPLETED' THEN 1 ELSE 0 END)
+                FROM Booking b
+                GROUP BY b.parkingLot.provider.id, b.driver.id, cast(b.createdAt as LocalDate)
+            """)
+    List<Object[]> aggregateDailyBookings();
 }
@@ -2,13 +2,60 @@ package com.parkease.backend.repository;
 
 import com.parkease.backend.entity.Complaint;
 import com.parkease.backend.enumtype.ComplaintStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
 
+    // complaints are serialized as-is by the admin API, so fetch what it renders
+    @Override
+    @EntityGraph(attributePaths = {
+            "reportedBy",
+            "parkingLot", "parkingLot.provider",
+            "booking", "booking.driver", "booking.parkingLot", "booking.parkingLot.provider",
+            "booking.parkingSlot", "booking.parkingSlot.parkingLot"
+    })
+    List<Complaint> findAll();
+
+    @EntityGraph(attributePaths = {
+            "reportedBy",
+            "parkingLot", "parkingLot.provider",
+            "booking", "booking.driver", "booking.parkingLot", "booking.parkingLot.provider",
+            "booking.parkingSlot", "booking.parkingSlot.parkingLot"
+    })
     List<Complaint> findByStatus(ComplaintStatus status);
 
+    @Override
+    @EntityGraph(attributePaths = {
+            "reportedBy",
+            "parkingLot", "parkingLot.provider",
+            "booking", "booking.driver", "booking.parkingLot", "booking.parkingLot.provider",
+            "booking.parkingSlot", "booking.parkingSlot.parkingLot"
+    })
+    Optional<Complaint> findById(Long id);
+
     long countByStatus(ComplaintStatus status);
+
+    // keyset page, newest first (see CursorPage); a null status means all
+    @EntityGraph(attributePaths = {
+            "reportedBy",
+            "parkingLot", "parkingLot.provider",
+            "booking", "booking.driver", "booking.parkingLot", "booking.parkingLot.provider",
+            "booking.parkingSlot", "booking.parkingSlot.parkingLot"
+    })
+    @Query("""
+                SELECT c FROM Complaint c
+                WHERE (:status IS NULL OR c.status = :status)
+                  AND (c.createdAt < :ts OR (c.createdAt = :ts AND c.id < :id))
+                ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<Complaint> findPage(@Param("status") ComplaintStatus status, @Param("ts") LocalDateTime ts,
+            @Param("id") Long id, Pageable pageable);
 }
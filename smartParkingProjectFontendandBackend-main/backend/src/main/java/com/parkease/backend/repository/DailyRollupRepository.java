@@ -0,0 +1,42 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.DailyRollup;
+import com.parkease.backend.enumtype.RollupScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    boolean existsByScopeAndOwnerIdAndRollupDateAndShard(RollupScope scope, Long ownerId, LocalDate rollupDate,
+            int shard);
+
+    // every shard of each day; RollupService adds them up
+    List<DailyRollup> findByScopeAndOwnerIdAndRollupDateBetweenOrderByRollupDate(
+            RollupScope scope, Long ownerId, LocalDate from, LocalDate to);
+
+    // ---------- INCREMENT (row must already exist) ----------
+    // all of one transaction's deltas for the row in a single statement; native because
+    // Hibernate translates a JPQL UPDATE afresh on every execution and this runs per checkout
+    @Modifying
+    @Query(nativeQuery = true, value = """
+                UPDATE daily_rollups
+                SET bookings = bookings + :bookings,
+                    completed_bookings = completed_bookings + :completed,
+                    credits = credits + :credits,
+                    debits = debits + :debits,
+                    revenue = revenue + :revenue,
+                    platform_fees = platform_fees + :fees,
+                    new_drivers = new_drivers + :drivers,
+                    new_providers = new_providers + :providers
+                WHERE scope = :#{#scope.name()} AND owner_id = :ownerId AND rollup_date = :day AND shard = :shard
+            """)
+    int add(@Param("scope") RollupScope scope, @Param("ownerId") Long ownerId, @Param("day") LocalDate day,
+            @Param("shard") int shard, @Param("bookings") long bookings, @Param("completed") long completed,
+            @Param("credits") double credits, @Param("debits") double debits, @Param("revenue") double revenue,
+            @Param("fees") double fees, @Param("drivers") long drivers, @Param("providers") long providers);
+}
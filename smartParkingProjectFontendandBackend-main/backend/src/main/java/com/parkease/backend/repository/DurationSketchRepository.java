@@ -0,0 +1,15 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.DurationSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DurationSketchRepository extends JpaRepository<DurationSketch, Long> {
+
+    Optional<DurationSketch> findByLotIdAndSketchDate(Long lotId, LocalDate sketchDate);
+
+    List<DurationSketch> findByLotIdAndSketchDateBetween(Long lotId, LocalDate from, LocalDate to);
+}
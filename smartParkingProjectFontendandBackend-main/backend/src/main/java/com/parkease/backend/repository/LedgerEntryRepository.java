@@ -0,0 +1,41 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.LedgerEntry;
+import com.parkease.backend.enumtype.LedgerAccountType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // tail after a snapshot
+    @Query("""
+                SELECT COALESCE(SUM(e.amountPaise), 0) FROM LedgerEntry e
+                WHERE e.accountType = :type AND e.ownerId = :ownerId AND e.id > :afterId
+            """)
+    long sumAfter(@Param("type") LedgerAccountType type, @Param("ownerId") Long ownerId,
+            @Param("afterId") long afterId);
+
+    @Query("""
+                SELECT COALESCE(SUM(e.amountPaise), 0) FROM LedgerEntry e
+                WHERE e.accountType = :type AND e.ownerId = :ownerId AND e.id > :afterId
+                  AND e.createdAt <= :at
+            """)
+    long sumAfterUpTo(@Param("type") LedgerAccountType type, @Param("ownerId") Long ownerId,
+            @Param("afterId") long afterId, @Param("at") LocalDateTime at);
+
+    // highest id whose transaction has certainly committed (older than the cut time)
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM LedgerEntry e WHERE e.createdAt < :before")
+    long maxIdBefore(@Param("before") LocalDateTime before);
+
+    // (accountType, ownerId, sum) per account with entries in (afterId, upToId]
+    @Query("""
+                SELECT e.accountType, e.ownerId, SUM(e.amountPaise) FROM LedgerEntry e
+                WHERE e.id > :afterId AND e.id <= :upToId
+                GROUP BY e.accountType, e.ownerId
+            """)
+    List<Object[]> sumByAccountBetween(@Param("afterId") long afterId, @Param("upToId") long upToId);
+}
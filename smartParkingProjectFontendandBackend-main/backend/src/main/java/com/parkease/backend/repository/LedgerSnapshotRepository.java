@@ -0,0 +1,21 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.LedgerSnapshot;
+import com.parkease.backend.enumtype.LedgerAccountType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+
+    Optional<LedgerSnapshot> findFirstByAccountTypeAndOwnerIdOrderByLastEntryIdDesc(
+            LedgerAccountType accountType, Long ownerId);
+
+    Optional<LedgerSnapshot> findFirstByAccountTypeAndOwnerIdAndAsOfLessThanEqualOrderByLastEntryIdDesc(
+            LedgerAccountType accountType, Long ownerId, LocalDateTime asOf);
+
+    @Query("SELECT COALESCE(MAX(s.lastEntryId), 0) FROM LedgerSnapshot s")
+    long maxLastEntryId();
+}
@@ -0,0 +1,32 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.LotOccupancy;
+import com.parkease.backend.enumtype.VehicleType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface LotOccupancyRepository extends JpaRepository<LotOccupancy, Long> {
+
+    Optional<LotOccupancy> findByLotIdAndVehicleType(Long lotId, VehicleType vehicleType);
+
+    boolean existsByLotIdAndVehicleType(Long lotId, VehicleType vehicleType);
+
+    // ---------- INCREMENTS (row must already exist) ----------
+    // native: runs on every slot change, and Hibernate re-translates JPQL UPDATEs per execution
+    @Modifying
+    @Query(nativeQuery = true, value = """
+                UPDATE lot_occupancy
+                SET occupied = occupied + :occupied,
+                    available = available + :available,
+                    inactive = inactive + :inactive,
+                    exiting = exiting + :exiting
+                WHERE lot_id = :lotId AND vehicle_type = :#{#vehicleType.name()}
+            """)
+    int adjust(@Param("lotId") Long lotId, @Param("vehicleType") VehicleType vehicleType,
+            @Param("occupied") long occupied, @Param("available") long available,
+            @Param("inactive") long inactive, @Param("exiting") long exiting);
+}
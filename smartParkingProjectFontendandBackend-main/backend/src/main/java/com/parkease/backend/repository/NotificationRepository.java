@@ -1,8 +1,12 @@
 package com.parkease.backend.repository;
 
 import com.parkease.backend.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -10,5 +14,15 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // ✅ ROLE-BASED NOTIFICATIONS
     List<Notification> findByTargetRoleOrderByCreatedAtDesc(String targetRole);
 
+    // keyset page, newest first (see CursorPage)
+    @Query("""
+                SELECT n FROM Notification n
+                WHERE n.targetRole = :role
+                  AND (n.createdAt < :ts OR (n.createdAt = :ts AND n.id < :id))
+                ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<Notification> findPageByTargetRole(@Param("role") String role, @Param("ts") LocalDateTime ts,
+            @Param("id") Long id, Pageable pageable);
+
     long countByTargetRoleAndReadFalse(String targetRole);
 }
@@ -2,18 +2,36 @@ package com.parkease.backend.repository;
 
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ParkingLotRepository extends JpaRepository<ParkingLot, Long> {
 
     List<ParkingLot> findByProvider(User provider);
 
+    // booking needs the owner to credit the provider and key the rollups
+    @EntityGraph(attributePaths = "provider")
+    Optional<ParkingLot> findWithProviderById(Long id);
+
     long countByActiveTrue();
 
+    // rows for the in-memory geo index: id, name, address, city, latitude, longitude, evSupported
+    @Query("""
+                SELECT p.id, p.name, p.address, p.city, p.latitude, p.longitude, p.evSupported
+                FROM ParkingLot p
+                WHERE p.active = true AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL
+            """)
+    List<Object[]> findGeoRows();
+
+    // rows for the autocomplete index: id, name, address, city, state
+    @Query("SELECT p.id, p.name, p.address, p.city, p.state FROM ParkingLot p WHERE p.active = true")
+    List<Object[]> findSearchRows();
+
     @Query("SELECT COALESCE(SUM(p.totalSlots), 0) FROM ParkingLot p WHERE p.active = true")
     long sumActiveTotalSlots();
 
@@ -4,7 +4,12 @@ import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.ParkingSlot;
 import com.parkease.backend.enumtype.VehicleType;
 import com.parkease.backend.enumtype.SlotStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -14,6 +19,9 @@ public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>
 
     Optional<ParkingSlot> findByIdAndParkingLot(Long id, ParkingLot lot);
 
+    @EntityGraph(attributePaths = "parkingLot")
+    Optional<ParkingSlot> findWithLotById(Long id);
+
     List<ParkingSlot> findByVehicleType(VehicleType vehicleType);
 
     boolean existsBySlotNumberIgnoreCaseAndParkingLot_Id(String slotNumber, Long parkingLotId);
@@ -33,4 +41,42 @@ public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>
     long countByParkingLot(ParkingLot parkingLot);
 
     List<ParkingSlot> findByParkingLotAndVehicleType(ParkingLot parkingLot, VehicleType vehicleType);
+
+    // (slotId, lotId, vehicleType) of every free slot, used to rebuild the availability index
+    @Query("SELECT s.id, s.parkingLot.id, s.vehicleType FROM ParkingSlot s WHERE s.occupied = false AND s.status = :status")
+    List<Object[]> findFreeSlotKeys(@Param("status") SlotStatus status);
+
+    // (lotId, providerId, vehicleType, status, occupied, count), used to repair the occupancy counters
+    @Query("""
+                SELECT l.id, l.provider.id, s.vehicleType, s.status, s.occupied, COUNT(s)
+                FROM ParkingSlot s JOIN s.parkingLot l
+                GROUP BY l.id, l.provider.id, s.vehicleType, s.status, s.occupied
+            """)
+    List<Object[]> aggregateSlotStates();
+
+    // Atomic claim: 1 if this caller took the slot, 0 if it was already taken or inactive;
+    // native, as it runs per checkout (see DailyRollupRepository#add)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(nativeQuery = true, value = """
+                UPDATE parking_slots
+                SET occupied = true, status = :#{#occupiedStatus.name()}, version = version + 1
+                WHERE id = :id
+                  AND occupied = false
+                  AND status = :#{#availableStatus.name()}
+            """)
+    int claimIfFree(@Param("id") Long id,
+            @Param("availableStatus") SlotStatus availableStatus,
+            @Param("occupiedStatus") SlotStatus occupiedStatus);
+
+    // Bulk release of occupied slots whose bookings ended together
+    @Modifying
+    @Query("""
+                UPDATE ParkingSlot s
+                SET s.occupied = false, s.status = :availableStatus, s.version = s.version + 1
+                WHERE s.id IN :ids
+                  AND s.status = :occupiedStatus
+            """)
+    int releaseAll(@Param("ids") Collection<Long> ids,
+            @Param("occupiedStatus") SlotStatus occupiedStatus,
+            @Param("availableStatus") SlotStatus availableStatus);
 }
@@ -1,11 +1,14 @@
 package com.parkease.backend.repository;
 
+import com.parkease.backend.dto.ProviderTransactionRow;
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.Payment;
 import com.parkease.backend.enumtype.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -81,14 +84,14 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
         @Query("""
                             SELECT COALESCE(SUM(p.providerEarning), 0)
                             FROM Payment p
-                            WHERE p.booking.parkingLot.provider.id = :providerId AND p.status = 'PAID'
+                            WHERE p.providerId = :providerId AND p.status = 'PAID'
                         """)
         double sumTotalEarningsByProvider(@Param("providerId") Long providerId);
 
         @Query("""
                             SELECT COALESCE(SUM(p.providerEarning), 0)
                             FROM Payment p
-                            WHERE p.booking.parkingLot.provider.id = :providerId
+                            WHERE p.providerId = :providerId
                               AND p.status = 'PAID'
                               AND p.paidAt BETWEEN :start AND :end
                         """)
@@ -97,9 +100,40 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
                         @Param("end") LocalDateTime end,
                         @Param("providerId") Long providerId);
 
-        @Query("SELECT p FROM Payment p WHERE p.booking.parkingLot.provider.id = :providerId ORDER BY p.paidAt DESC")
+        @Query("SELECT p FROM Payment p WHERE p.providerId = :providerId ORDER BY p.paidAt DESC")
         List<Payment> findRecentPaymentsByProvider(@Param("providerId") Long providerId);
 
+        @Query("""
+                            SELECT new com.parkease.backend.dto.ProviderTransactionRow(
+                                   p.id, p.paidAt, p.providerEarning, s.slotNumber)
+                            FROM Payment p
+                            JOIN p.booking b
+                            JOIN b.parkingSlot s
+                            WHERE p.providerId = :providerId
+                            ORDER BY p.paidAt DESC
+                        """)
+        List<ProviderTransactionRow> findRecentTransactionRowsByProvider(@Param("providerId") Long providerId,
+                        org.springframework.data.domain.Pageable pageable);
+
         Optional<Payment> findByBooking(Booking booking);
 
+        // fills the denormalized provider_id on rows written before the column existed
+        @Transactional
+        @Modifying
+        @Query("""
+                            UPDATE Payment p
+                            SET p.providerId = (SELECT b.providerId FROM Booking b WHERE b.id = p.booking.id)
+                            WHERE p.providerId IS NULL
+                        """)
+        int backfillProviderIds();
+
+        // (providerId, day, revenue, platformFees) for the rollup backfill
+        @Query("""
+                            SELECT p.booking.parkingLot.provider.id, cast(p.paidAt as LocalDate),
+                                   SUM(p.totalAmount), SUM(p.platformFee)
+                            FROM Payment p
+                            WHERE p.status = 'PAID'
+                            GROUP BY p.booking.parkingLot.provider.id, cast(p.paidAt as LocalDate)
+                        """)
+        List<Object[]> aggregateDailyRevenue();
 }
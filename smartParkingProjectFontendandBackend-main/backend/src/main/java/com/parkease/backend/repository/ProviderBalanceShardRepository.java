@@ -0,0 +1,29 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.ProviderBalanceShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProviderBalanceShardRepository extends JpaRepository<ProviderBalanceShard, Long> {
+
+    boolean existsByProviderIdAndShard(Long providerId, int shard);
+
+    // row must already exist; native, as it runs per checkout (see DailyRollupRepository#add)
+    @Modifying
+    @Query(nativeQuery = true, value = """
+                UPDATE provider_balance_shards SET amount = amount + :amount
+                WHERE provider_id = :providerId AND shard = :shard
+            """)
+    int add(@Param("providerId") Long providerId, @Param("shard") int shard, @Param("amount") double amount);
+
+    @Query("SELECT COALESCE(SUM(s.amount), 0) FROM ProviderBalanceShard s WHERE s.providerId = :providerId")
+    double sumByProviderId(@Param("providerId") Long providerId);
+
+    // (providerId, shard, amount) of shards holding unfolded credit
+    @Query("SELECT s.providerId, s.shard, s.amount FROM ProviderBalanceShard s WHERE s.amount <> 0")
+    List<Object[]> findUnfolded();
+}
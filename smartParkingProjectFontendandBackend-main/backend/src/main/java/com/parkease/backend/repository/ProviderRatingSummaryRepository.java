@@ -0,0 +1,25 @@
+package com.parkease.backend.repository;
+
+import com.parkease.backend.entity.ProviderRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProviderRatingSummaryRepository extends JpaRepository<ProviderRatingSummary, Long> {
+
+    // one atomic bump per review; 0 rows when the provider has no summary row yet
+    @Modifying
+    @Query("""
+                UPDATE ProviderRatingSummary s SET
+                    s.reviewCount = s.reviewCount + 1,
+                    s.ratingSum = s.ratingSum + :rating,
+                    s.oneStar = s.oneStar + CASE WHEN :rating = 1 THEN 1 ELSE 0 END,
+                    s.twoStars = s.twoStars + CASE WHEN :rating = 2 THEN 1 ELSE 0 END,
+                    s.threeStars = s.threeStars + CASE WHEN :rating = 3 THEN 1 ELSE 0 END,
+                    s.fourStars = s.fourStars + CASE WHEN :rating = 4 THEN 1 ELSE 0 END,
+                    s.fiveStars = s.fiveStars + CASE WHEN :rating = 5 THEN 1 ELSE 0 END
+                WHERE s.providerId = :providerId
+            """)
+    int addReview(@Param("providerId") Long providerId, @Param("rating") int rating);
+}
@@ -2,11 +2,33 @@ package com.parkease.backend.repository;
 
 import com.parkease.backend.entity.Review;
 import com.parkease.backend.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    @EntityGraph(attributePaths = "driver")
     List<Review> findByProviderOrderByCreatedAtDesc(User provider);
+
+    // keyset page, newest first (see CursorPage)
+    @EntityGraph(attributePaths = "driver")
+    @Query("""
+                SELECT r FROM Review r
+                WHERE r.provider.id = :providerId
+                  AND (r.createdAt < :ts OR (r.createdAt = :ts AND r.id < :id))
+                ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<Review> findPageByProvider(@Param("providerId") Long providerId, @Param("ts") LocalDateTime ts,
+            @Param("id") Long id, Pageable pageable);
+
+    // (providerId, rating, count) for the rating summary backfill
+    @Query("SELECT r.provider.id, r.rating, COUNT(r) FROM Review r GROUP BY r.provider.id, r.rating")
+    List<Object[]> aggregateByProviderAndRating();
 }
@@ -2,7 +2,11 @@ package com.parkease.backend.repository;
 
 import com.parkease.backend.entity.User;
 import com.parkease.backend.enumtype.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +29,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // 🔍 Get all users by role (admin use)
     List<User> findByRole(Role role);
 
+    // admin lists: status filters run in the query; null flags are not filtered on
+    @Query("""
+                SELECT u FROM User u
+                WHERE u.role = :role
+                  AND (:approved IS NULL OR u.approved = :approved)
+                  AND (:enabled IS NULL OR u.enabled = :enabled)
+                ORDER BY u.createdAt DESC, u.id DESC
+            """)
+    List<User> findByRoleAndFlags(@Param("role") Role role, @Param("approved") Boolean approved,
+            @Param("enabled") Boolean enabled);
+
+    // rows for the admin search index: id, role, approved, enabled, email, phone, name
+    @Query("SELECT u.id, u.role, u.approved, u.enabled, u.email, u.phoneNumber, u.fullName FROM User u")
+    List<Object[]> findSearchRows();
+
+    // keyset page, newest first (see CursorPage); null flags are not filtered on
+    @Query("""
+                SELECT u FROM User u
+                WHERE u.role = :role
+                  AND (:approved IS NULL OR u.approved = :approved)
+                  AND (:enabled IS NULL OR u.enabled = :enabled)
+                  AND (u.createdAt < :ts OR (u.createdAt = :ts AND u.id < :id))
+                ORDER BY u.createdAt DESC, u.id DESC
+            """)
+    List<User> findPageByRole(@Param("role") Role role, @Param("approved") Boolean approved,
+            @Param("enabled") Boolean enabled, @Param("ts") LocalDateTime ts, @Param("id") Long id,
+            Pageable pageable);
+
     boolean existsByRole(Role role);
 
     // 🔍 Get providers pending approval (admin use)
@@ -37,4 +69,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRoleAndApprovedTrue(Role role);
 
     long countByRoleAndCreatedAtBefore(Role role, LocalDateTime date);
+
+    // (role, total, created after, created before, not approved) per role, for the admin analytics
+    @Query("""
+                SELECT u.role, COUNT(u),
+                       SUM(CASE WHEN u.createdAt > :after THEN 1 ELSE 0 END),
+                       SUM(CASE WHEN u.createdAt < :before THEN 1 ELSE 0 END),
+                       SUM(CASE WHEN u.approved = false THEN 1 ELSE 0 END)
+                FROM User u
+                GROUP BY u.role
+            """)
+    List<Object[]> countsByRole(@Param("after") LocalDateTime after, @Param("before") LocalDateTime before);
+
+    // (role, day, count) for the rollup backfill
+    @Query("SELECT u.role, cast(u.createdAt as LocalDate), COUNT(u) FROM User u GROUP BY u.role, cast(u.createdAt as LocalDate)")
+    List<Object[]> aggregateDailySignups();
+
+    // ---------- WALLET (atomic, no read-modify-write of the user row) ----------
+    @Query("SELECT COALESCE(u.walletBalance, 0) FROM User u WHERE u.id = :id")
+    double findWalletBalanceById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.walletBalance = COALESCE(u.walletBalance, 0) + :amount WHERE u.id = :id")
+    int creditWallet(@Param("id") Long id, @Param("amount") double amount);
+
+    // 0 rows when the balance does not cover the amount; native, as it runs per checkout
+    // (see DailyRollupRepository#add)
+    @Modifying
+    @Query(nativeQuery = true, value = """
+                UPDATE users SET wallet_balance = wallet_balance - :amount
+                WHERE id = :id AND wallet_balance >= :amount
+            """)
+    int debitWallet(@Param("id") Long id, @Param("amount") double amount);
 }
@@ -2,6 +2,7 @@ package com.parkease.backend.repository;
 
 import com.parkease.backend.entity.User;
 import com.parkease.backend.entity.WalletTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,16 @@ import java.util.List;
 public interface WalletTransactionRepository extends JpaRepository<WalletTransaction, Long> {
     List<WalletTransaction> findByUserOrderByCreatedAtDesc(User user);
 
+    // keyset page, newest first (see CursorPage)
+    @Query("""
+                SELECT t FROM WalletTransaction t
+                WHERE t.user.id = :userId
+                  AND (t.createdAt < :ts OR (t.createdAt = :ts AND t.id < :id))
+                ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<WalletTransaction> findPageByUser(@Param("userId") Long userId, @Param("ts") LocalDateTime ts,
+            @Param("id") Long id, Pageable pageable);
+
     @Query("SELECT SUM(t.amount) FROM WalletTransaction t WHERE t.user.id = :userId AND t.type = 'CREDIT' AND t.createdAt BETWEEN :start AND :end")
     Double sumCreditsBetween(@Param("userId") Long userId, @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
@@ -22,4 +33,12 @@ public interface WalletTransactionRepository extends JpaRepository<WalletTransac
 
     @Query("SELECT SUM(t.amount) FROM WalletTransaction t WHERE t.type = 'CREDIT' AND t.createdAt BETWEEN :start AND :end")
     Double sumAllCreditsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // (userId, role, type, day, amount) for the rollup backfill
+    @Query("""
+                SELECT t.user.id, t.user.role, t.type, cast(t.createdAt as LocalDate), SUM(t.amount)
+                FROM WalletTransaction t
+                GROUP BY t.user.id, t.user.role, t.type, cast(t.createdAt as LocalDate)
+            """)
+    List<Object[]> aggregateDailyTransactions();
 }
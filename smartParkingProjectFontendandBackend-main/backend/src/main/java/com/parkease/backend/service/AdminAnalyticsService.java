@@ -5,19 +5,19 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 
 import com.parkease.backend.dto.AdminAnalyticsResponse;
+import com.parkease.backend.dto.OccupancyCurveResponse;
 import com.parkease.backend.dto.ParkingDurationResponse;
-import com.parkease.backend.entity.Booking;
-import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.entity.DailyRollup;
 import com.parkease.backend.enumtype.Role;
 import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.PaymentRepository;
 import com.parkease.backend.repository.UserRepository;
 import com.parkease.backend.repository.ParkingLotRepository;
-import com.parkease.backend.repository.ParkingSlotRepository;
 
 @Service
 public class AdminAnalyticsService {
@@ -26,22 +26,28 @@ public class AdminAnalyticsService {
         private final BookingRepository bookingRepository;
         private final PaymentRepository paymentRepository;
         private final ParkingLotRepository parkingLotRepository;
-        private final ParkingSlotRepository parkingSlotRepository;
-        private final com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository;
+        private final OccupancyCounters occupancyCounters;
+        private final RollupService rollupService;
+        private final DurationStatsService durationStatsService;
+        private final OccupancyCurveService occupancyCurveService;
 
         public AdminAnalyticsService(
                         UserRepository userRepository,
                         BookingRepository bookingRepository,
                         PaymentRepository paymentRepository,
                         ParkingLotRepository parkingLotRepository,
-                        ParkingSlotRepository parkingSlotRepository,
-                        com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository) {
+                        OccupancyCounters occupancyCounters,
+                        RollupService rollupService,
+                        DurationStatsService durationStatsService,
+                        OccupancyCurveService occupancyCurveService) {
                 this.userRepository = userRepository;
                 this.bookingRepository = bookingRepository;
                 this.paymentRepository = paymentRepository;
                 this.parkingLotRepository = parkingLotRepository;
-                this.parkingSlotRepository = parkingSlotRepository;
-                this.walletTransactionRepository = walletTransactionRepository;
+                this.occupancyCounters = occupancyCounters;
+                this.rollupService = rollupService;
+                this.durationStatsService = durationStatsService;
+                this.occupancyCurveService = occupancyCurveService;
         }
 
         /* ================= MAIN ANALYTICS ================= */
@@ -52,66 +58,62 @@ public class AdminAnalyticsService {
 
                 AdminAnalyticsResponse res = new AdminAnalyticsResponse();
                 LocalDateTime endDateTime = LocalDateTime.now();
-                LocalDateTime startDateTime;
-                int points;
+                LocalDate today = endDateTime.toLocalDate();
                 boolean isAnnual = "YEAR".equalsIgnoreCase(range);
 
+                TrendBuckets buckets;
                 if (isAnnual) {
-                        startDateTime = endDateTime.minusMonths(11).withDayOfMonth(1).toLocalDate()
-                                        .atStartOfDay();
-                        points = 12;
+                        buckets = TrendBuckets.last(TrendBuckets.Granularity.MONTH, 12, today);
                 } else if ("MONTH".equalsIgnoreCase(range)) {
-                        startDateTime = endDateTime.minusDays(29).toLocalDate().atStartOfDay();
-                        points = 30;
+                        buckets = TrendBuckets.last(TrendBuckets.Granularity.DAY, 30, today);
                 } else {
                         // Default to WEEK
-                        startDateTime = endDateTime.minusDays(6).toLocalDate().atStartOfDay();
-                        points = 7;
+                        buckets = TrendBuckets.last(TrendBuckets.Granularity.DAY, 7, today);
                 }
+                int points = buckets.size();
+
+                // one range scan of the platform rollups feeds every trend below
+                LocalDate startDate = buckets.start();
+                LocalDateTime startDateTime = startDate.atStartOfDay();
+                Map<LocalDate, DailyRollup> rollups = rollupService.platformRange(startDate, today);
 
                 /* ===== USER GROWTH (Global) ===== */
                 LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
+                Map<Role, UserCounts> userCounts = userCounts(weekAgo, startDateTime);
+                UserCounts driverCounts = userCounts.getOrDefault(Role.DRIVER, UserCounts.NONE);
+                UserCounts providerCounts = userCounts.getOrDefault(Role.PROVIDER, UserCounts.NONE);
+
                 AdminAnalyticsResponse.UserGrowth growth = new AdminAnalyticsResponse.UserGrowth();
                 growth.growthTrend = new ArrayList<>();
 
                 AdminAnalyticsResponse.UserGrowth.Group drivers = new AdminAnalyticsResponse.UserGrowth.Group();
-                drivers.total = userRepository.countByRole(Role.DRIVER);
-                drivers.newThisWeek = userRepository.countByRoleAndCreatedAtAfter(Role.DRIVER, weekAgo);
+                drivers.total = driverCounts.total();
+                drivers.newThisWeek = driverCounts.createdAfter();
 
                 AdminAnalyticsResponse.UserGrowth.Group providers = new AdminAnalyticsResponse.UserGrowth.Group();
-                providers.total = userRepository.countByRole(Role.PROVIDER);
-                providers.newThisWeek = userRepository.countByRoleAndCreatedAtAfter(Role.PROVIDER, weekAgo);
-
-                if (isAnnual) {
-                        for (int i = 11; i >= 0; i--) {
-                                LocalDateTime monthStart = endDateTime.minusMonths(i).withDayOfMonth(1).toLocalDate()
-                                                .atStartOfDay();
-                                LocalDateTime monthEnd = monthStart.plusMonths(1);
-
-                                AdminAnalyticsResponse.UserGrowthTrend trend = new AdminAnalyticsResponse.UserGrowthTrend();
-                                trend.label = monthStart.getMonth().name().substring(0, 3);
-                                trend.drivers = (int) userRepository.countByRoleAndCreatedAtBefore(Role.DRIVER,
-                                                monthEnd);
-                                trend.providers = (int) userRepository.countByRoleAndCreatedAtBefore(Role.PROVIDER,
-                                                monthEnd);
-                                growth.growthTrend.add(trend);
-                        }
-                } else {
-                        for (int i = points - 1; i >= 0; i--) {
-                                LocalDate day = LocalDate.now().minusDays(i);
-                                LocalDateTime dayEnd = day.atTime(23, 59, 59);
-
-                                AdminAnalyticsResponse.UserGrowthTrend trend = new AdminAnalyticsResponse.UserGrowthTrend();
-                                if (points <= 7) {
-                                        trend.label = day.getDayOfWeek().name().substring(0, 3);
-                                } else {
-                                        trend.label = String.valueOf(day.getDayOfMonth());
-                                }
-                                trend.drivers = (int) userRepository.countByRoleAndCreatedAtBefore(Role.DRIVER, dayEnd);
-                                trend.providers = (int) userRepository.countByRoleAndCreatedAtBefore(Role.PROVIDER,
-                                                dayEnd);
-                                growth.growthTrend.add(trend);
+                providers.total = providerCounts.total();
+                providers.newThisWeek = providerCounts.createdAfter();
+
+                // cumulative totals = users before the range + sign-ups inside it
+                double[] driverTotals = TrendBuckets.cumulative(driverCounts.createdBefore(),
+                                buckets.fold(rollups, DailyRollup::getNewDrivers));
+                double[] providerTotals = TrendBuckets.cumulative(providerCounts.createdBefore(),
+                                buckets.fold(rollups, DailyRollup::getNewProviders));
+
+                for (int i = 0; i < points; i++) {
+                        LocalDate bucketStart = buckets.buckets().get(i).start();
+
+                        AdminAnalyticsResponse.UserGrowthTrend trend = new AdminAnalyticsResponse.UserGrowthTrend();
+                        if (isAnnual) {
+                                trend.label = bucketStart.getMonth().name().substring(0, 3);
+                        } else if (points <= 7) {
+                                trend.label = bucketStart.getDayOfWeek().name().substring(0, 3);
+                        } else {
+                                trend.label = String.valueOf(bucketStart.getDayOfMonth());
                         }
+                        trend.drivers = (int) driverTotals[i];
+                        trend.providers = (int) providerTotals[i];
+                        growth.growthTrend.add(trend);
                 }
 
                 growth.drivers = drivers;
@@ -134,10 +136,11 @@ public class AdminAnalyticsService {
                 /* ===== REVENUE (Calculated for Range) ===== */
                 AdminAnalyticsResponse.Revenue revenue = new AdminAnalyticsResponse.Revenue();
 
-                revenue.total = (long) paymentRepository.sumTotalAmountBetween(startDateTime, endDateTime);
-                revenue.platformFees = (long) paymentRepository.sumPlatformFeeBetween(startDateTime, endDateTime);
-                revenue.providerEarnings = (long) paymentRepository.sumProviderEarningBetween(startDateTime,
-                                endDateTime);
+                double rangeRevenue = RollupService.sum(rollups, startDate, today, DailyRollup::getRevenue);
+                double rangeFees = RollupService.sum(rollups, startDate, today, DailyRollup::getPlatformFees);
+                revenue.total = (long) rangeRevenue;
+                revenue.platformFees = (long) rangeFees;
+                revenue.providerEarnings = (long) (rangeRevenue - rangeFees);
 
                 long rangeDays = ChronoUnit.DAYS.between(startDateTime, endDateTime);
                 if (rangeDays > 0) {
@@ -151,47 +154,34 @@ public class AdminAnalyticsService {
                 /* ===== BOOKING TREND ===== */
                 res.bookingTrend = new ArrayList<>();
 
-                if (isAnnual) {
-                        // Group by Month for the last 12 months
-                        for (int i = points - 1; i >= 0; i--) {
-                                LocalDateTime monthStart = endDateTime.minusMonths(i).withDayOfMonth(1).toLocalDate()
-                                                .atStartOfDay();
-                                LocalDateTime monthEnd = monthStart.plusMonths(1);
-
-                                AdminAnalyticsResponse.BookingTrend bt = new AdminAnalyticsResponse.BookingTrend();
-                                bt.label = monthStart.getMonth().name().substring(0, 3);
-                                bt.value = (int) bookingRepository.countByStatusAndCreatedAtBetween(
-                                                BookingStatus.COMPLETED, monthStart, monthEnd);
-                                bt.revenue = (long) paymentRepository.sumTotalAmountBetween(monthStart, monthEnd);
-                                res.bookingTrend.add(bt);
-                        }
-                } else {
-                        // Group by Day for Week or Month
-                        for (int i = points - 1; i >= 0; i--) {
-                                LocalDate day = LocalDate.now().minusDays(i);
-                                LocalDateTime start = day.atStartOfDay();
-                                LocalDateTime end = start.plusDays(1);
-
-                                AdminAnalyticsResponse.BookingTrend bt = new AdminAnalyticsResponse.BookingTrend();
-                                bt.label = i % 5 == 0 || points <= 7 ? day.getDayOfWeek().name().substring(0, 3)
-                                                : String.valueOf(day.getDayOfMonth());
-                                bt.value = (int) bookingRepository
-                                                .countByStatusAndCreatedAtBetween(BookingStatus.COMPLETED, start, end);
-
-                                Double dailyCredits = walletTransactionRepository.sumAllCreditsBetween(start, end);
-                                if (dailyCredits == null)
-                                        dailyCredits = 0.0;
-
-                                bt.revenue = dailyCredits.longValue();
-                                res.bookingTrend.add(bt);
+                double[] completed = buckets.fold(rollups, DailyRollup::getCompletedBookings);
+                double[] trendRevenue = isAnnual
+                                ? buckets.fold(rollups, DailyRollup::getRevenue)
+                                : buckets.fold(rollups, DailyRollup::getCredits);
+
+                for (int i = 0; i < points; i++) {
+                        LocalDate bucketStart = buckets.buckets().get(i).start();
+                        int daysAgo = points - 1 - i;
+
+                        AdminAnalyticsResponse.BookingTrend bt = new AdminAnalyticsResponse.BookingTrend();
+                        if (isAnnual) {
+                                bt.label = bucketStart.getMonth().name().substring(0, 3);
+                        } else {
+                                bt.label = daysAgo % 5 == 0 || points <= 7
+                                                ? bucketStart.getDayOfWeek().name().substring(0, 3)
+                                                : String.valueOf(bucketStart.getDayOfMonth());
                         }
+                        bt.value = (int) completed[i];
+                        bt.revenue = (long) trendRevenue[i];
+                        res.bookingTrend.add(bt);
                 }
 
                 /* ===== OCCUPANCY (Current State) ===== */
                 AdminAnalyticsResponse.Occupancy occ = new AdminAnalyticsResponse.Occupancy();
                 occ.totalSlots = parkingLotRepository.sumActiveTotalSlots();
-                occ.occupiedSlots = parkingSlotRepository.countByOccupiedTrue();
-                occ.availableSlots = parkingSlotRepository.countByOccupiedFalse();
+                OccupancyCounters.Counts platform = occupancyCounters.platform();
+                occ.occupiedSlots = platform.occupied();
+                occ.availableSlots = platform.available();
                 occ.occupancyPercentage = occ.totalSlots > 0
                                 ? (int) ((occ.occupiedSlots * 100) / occ.totalSlots)
                                 : 0;
@@ -199,10 +189,9 @@ public class AdminAnalyticsService {
 
                 /* ===== SUMMARY METRICS ===== */
                 AdminAnalyticsResponse.SummaryMetrics sm = new AdminAnalyticsResponse.SummaryMetrics();
-                sm.totalProviders = userRepository.countByRole(Role.PROVIDER);
-                sm.pendingApprovals = userRepository.findAll().stream()
-                                .filter(u -> u.getRole() == Role.PROVIDER && !u.isApproved()).count();
-                sm.activeDrivers = userRepository.countByRole(Role.DRIVER);
+                sm.totalProviders = providerCounts.total();
+                sm.pendingApprovals = providerCounts.notApproved();
+                sm.activeDrivers = driverCounts.total();
 
                 LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
                 sm.todaysBookings = bookingRepository.countByCreatedAtAfter(startOfDay);
@@ -218,15 +207,38 @@ public class AdminAnalyticsService {
                 sm.revenueGrowth = (int) (Math.random() * 30);
                 res.summary = sm;
 
-                /* ===== PEAK PARKING HOURS (Mocked Intelligence) ===== */
+                /* ===== PEAK PARKING HOURS (concurrent occupancy over the range) ===== */
+                OccupancySweep.Curve load = occupancyCurveService.platform(startDateTime, endDateTime,
+                                OccupancyCurveService.DEFAULT_BUCKET_MINUTES);
+                long capacity = occupancyCounters.platform().total();
                 res.peakHours = new ArrayList<>();
-                res.peakHours.add(createPeakHour("8-10 AM", 85, (int) (sm.todaysBookings * 0.4)));
-                res.peakHours.add(createPeakHour("12-2 PM", 72, (int) (sm.todaysBookings * 0.3)));
-                res.peakHours.add(createPeakHour("6-8 PM", 94, (int) (sm.todaysBookings * 0.5)));
+                for (OccupancyCurveService.HourLoad hour : occupancyCurveService.busiestHours(load, 3)) {
+                        int pct = capacity > 0
+                                        ? (int) Math.min(100, Math.round(hour.peak() * 100.0 / capacity))
+                                        : 0;
+                        res.peakHours.add(createPeakHour(hour.label(), pct, hour.peak()));
+                }
 
                 return res;
         }
 
+        private record UserCounts(long total, long createdAfter, long createdBefore, long notApproved) {
+                static final UserCounts NONE = new UserCounts(0, 0, 0, 0);
+        }
+
+        // every per-role user count of the page in one grouped query
+        private Map<Role, UserCounts> userCounts(LocalDateTime after, LocalDateTime before) {
+                Map<Role, UserCounts> counts = new java.util.EnumMap<>(Role.class);
+                for (Object[] r : userRepository.countsByRole(after, before)) {
+                        counts.put((Role) r[0], new UserCounts(
+                                        ((Number) r[1]).longValue(),
+                                        ((Number) r[2]).longValue(),
+                                        ((Number) r[3]).longValue(),
+                                        ((Number) r[4]).longValue()));
+                }
+                return counts;
+        }
+
         private AdminAnalyticsResponse.PeakHour createPeakHour(String time, int pct, int count) {
                 AdminAnalyticsResponse.PeakHour ph = new AdminAnalyticsResponse.PeakHour();
                 ph.timeSlot = time;
@@ -235,39 +247,99 @@ public class AdminAnalyticsService {
                 return ph;
         }
 
+        /* ================= OCCUPANCY CURVE ================= */
+
+        /**
+         * Peak and average cars parked per bucket over [from, to), for one
+         * lot or the whole platform (lotId null). Defaults to today in
+         * 15-minute buckets.
+         */
+        public OccupancyCurveResponse getOccupancyCurve(Long lotId, LocalDateTime from, LocalDateTime to,
+                        Integer bucketMinutes) {
+
+                LocalDateTime start = from != null ? from : LocalDate.now().atStartOfDay();
+                LocalDateTime end = to != null ? to : start.plusDays(1);
+                int minutes = bucketMinutes != null ? bucketMinutes : OccupancyCurveService.DEFAULT_BUCKET_MINUTES;
+
+                OccupancySweep.Curve curve = lotId != null
+                                ? occupancyCurveService.lot(lotId, start, end, minutes)
+                                : occupancyCurveService.platform(start, end, minutes);
+
+                OccupancyCurveResponse res = new OccupancyCurveResponse();
+                res.lotId = lotId;
+                res.from = start;
+                res.to = end;
+                res.bucketMinutes = minutes;
+                res.peak = curve.peak();
+                res.points = new ArrayList<>();
+                for (int i = 0; i < curve.size(); i++) {
+                        OccupancyCurveResponse.Point p = new OccupancyCurveResponse.Point();
+                        p.start = start.plusMinutes((long) i * minutes);
+                        p.max = curve.max()[i];
+                        p.average = Math.round(curve.average()[i] * 100.0) / 100.0;
+                        res.points.add(p);
+                }
+                return res;
+        }
+
         /* ================= PARKING DURATION ================= */
 
-        public ParkingDurationResponse getParkingDurationAnalytics() {
+        // bucket bounds (minutes) and labels of the default layout; the last bucket is open
+        private static final long[] DEFAULT_DURATION_BOUNDS = { 30, 60, 120, 240 };
+        private static final String[] DEFAULT_DURATION_LABELS = {
+                        "0–30 min", "30–60 min", "1–2 hrs", "2–4 hrs", "4+ hrs" };
+
+        /**
+         * Duration buckets and percentiles from the merged duration sketches
+         * of one lot (all lots when null) and start-day range (open ends when
+         * null). Custom bounds are ascending minutes; each bucket holds
+         * durations above the previous bound up to and including its own, as
+         * the default 0–30 / 30–60 layout always did. Exact for bounds under
+         * 64 minutes; a larger bound inside a 2-, 4-, ... minute histogram
+         * bucket splits that bucket's count.
+         */
+        public ParkingDurationResponse getParkingDurationAnalytics(Long lotId, LocalDate from, LocalDate to,
+                        List<Long> bounds) {
+
+                long[] limits = DEFAULT_DURATION_BOUNDS;
+                String[] labels = DEFAULT_DURATION_LABELS;
+                if (bounds != null && !bounds.isEmpty()) {
+                        if (bounds.size() > 50) {
+                                throw new IllegalArgumentException("At most 50 bounds are allowed");
+                        }
+                        limits = bounds.stream().mapToLong(Long::longValue).toArray();
+                        for (int i = 0; i < limits.length; i++) {
+                                if (limits[i] <= 0 || (i > 0 && limits[i] <= limits[i - 1])) {
+                                        throw new IllegalArgumentException(
+                                                        "Bounds must be positive and ascending");
+                                }
+                        }
+                        labels = new String[limits.length + 1];
+                        for (int i = 0; i < limits.length; i++) {
+                                labels[i] = (i == 0 ? 0 : limits[i - 1]) + "–" + limits[i] + " min";
+                        }
+                        labels[limits.length] = limits[limits.length - 1] + "+ min";
+                }
+
+                DurationHistogram histogram = durationStatsService.distribution(lotId, from, to);
 
                 ParkingDurationResponse res = new ParkingDurationResponse();
                 List<ParkingDurationResponse.Bucket> buckets = new ArrayList<>();
 
-                buckets.add(bucket("0–30 min"));
-                buckets.add(bucket("30–60 min"));
-                buckets.add(bucket("1–2 hrs"));
-                buckets.add(bucket("2–4 hrs"));
-                buckets.add(bucket("4+ hrs"));
-
-                List<Booking> bookings = bookingRepository.findByStatusAndEndTimeIsNotNull(
-                                BookingStatus.COMPLETED);
-
-                for (Booking b : bookings) {
-                        long minutes = ChronoUnit.MINUTES.between(
-                                        b.getStartTime(), b.getEndTime());
-
-                        if (minutes <= 30)
-                                buckets.get(0).count++;
-                        else if (minutes <= 60)
-                                buckets.get(1).count++;
-                        else if (minutes <= 120)
-                                buckets.get(2).count++;
-                        else if (minutes <= 240)
-                                buckets.get(3).count++;
-                        else
-                                buckets.get(4).count++;
+                long previous = 0;
+                for (int i = 0; i < labels.length; i++) {
+                        long below = i < limits.length ? histogram.countBelow(limits[i] + 1) : histogram.total();
+                        ParkingDurationResponse.Bucket b = bucket(labels[i]);
+                        b.count = below - previous;
+                        buckets.add(b);
+                        previous = below;
                 }
 
                 res.buckets = buckets;
+                res.totalBookings = histogram.total();
+                res.p50Minutes = histogram.percentile(50);
+                res.p90Minutes = histogram.percentile(90);
+                res.p99Minutes = histogram.percentile(99);
                 return res;
         }
 
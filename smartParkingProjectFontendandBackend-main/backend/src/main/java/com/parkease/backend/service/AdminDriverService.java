@@ -4,7 +4,9 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.parkease.backend.config.PrincipalCache;
 import com.parkease.backend.dto.AdminDriverResponse;
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.enumtype.Role;
 import com.parkease.backend.repository.UserRepository;
@@ -13,38 +15,63 @@ import com.parkease.backend.repository.UserRepository;
 public class AdminDriverService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final AdminUserIndex adminUserIndex;
 
-    public AdminDriverService(UserRepository userRepository) {
+    public AdminDriverService(UserRepository userRepository, PrincipalCache principalCache,
+            AdminUserIndex adminUserIndex) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.adminUserIndex = adminUserIndex;
     }
 
     // ===== GET ALL DRIVERS =====
     public List<AdminDriverResponse> getDrivers(String status) {
-        return userRepository.findByRole(Role.DRIVER)
+        return userRepository.findByRoleAndFlags(Role.DRIVER, approvedFlag(status), null)
                 .stream()
-                .filter(u -> {
-                    if ("PENDING".equalsIgnoreCase(status))
-                        return !u.isApproved();
-                    if ("APPROVED".equalsIgnoreCase(status))
-                        return u.isApproved();
-                    return true;
-                })
                 .map(this::map)
                 .toList();
     }
 
+    // ===== SEARCH DRIVERS (email / phone / name prefix) =====
+    public List<AdminDriverResponse> searchDrivers(String query, String status, Integer limit) {
+        List<Long> ids = adminUserIndex.search(query, Role.DRIVER, approvedFlag(status), null,
+                CursorPage.clampLimit(limit));
+
+        java.util.Map<Long, User> byId = new java.util.HashMap<>();
+        userRepository.findAllById(ids).forEach(u -> byId.put(u.getId(), u));
+        return ids.stream()
+                .map(byId::get)
+                .filter(java.util.Objects::nonNull)
+                .map(this::map)
+                .toList();
+    }
+
+    // ===== GET DRIVERS, ONE KEYSET PAGE =====
+    public CursorPage<AdminDriverResponse> getDrivers(String status, String cursor, Integer limit) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int size = CursorPage.clampLimit(limit);
+        List<User> rows = userRepository.findPageByRole(Role.DRIVER, approvedFlag(status), null,
+                after.createdAt(), after.id(), CursorPage.probe(size));
+        return CursorPage.of(rows, size, User::getCreatedAt, User::getId, this::map);
+    }
+
     // ===== APPROVE DRIVER =====
     public void approveDriver(Long id) {
         User u = getDriver(id);
         u.setApproved(true);
         u.setVerificationStatus(com.parkease.backend.enumtype.VerificationStatus.APPROVED);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
+        adminUserIndex.sync(u);
     }
 
     // ===== REJECT DRIVER =====
     public void rejectDriver(Long id) {
         User u = getDriver(id);
         userRepository.delete(u);
+        principalCache.evict(u.getEmail());
+        adminUserIndex.remove(id);
     }
 
     // ===== SUSPEND DRIVER =====
@@ -52,6 +79,8 @@ public class AdminDriverService {
         User u = getDriver(id);
         u.setEnabled(false);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
+        adminUserIndex.sync(u);
     }
 
     // ===== REACTIVATE DRIVER =====
@@ -59,9 +88,19 @@ public class AdminDriverService {
         User u = getDriver(id);
         u.setEnabled(true);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
+        adminUserIndex.sync(u);
     }
 
     // ===== HELPERS =====
+    private static Boolean approvedFlag(String status) {
+        if ("PENDING".equalsIgnoreCase(status))
+            return false;
+        if ("APPROVED".equalsIgnoreCase(status))
+            return true;
+        return null;
+    }
+
     private User getDriver(Long id) {
         User u = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Driver not found"));
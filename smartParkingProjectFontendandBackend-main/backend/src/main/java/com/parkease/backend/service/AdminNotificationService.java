@@ -20,6 +20,19 @@ public class AdminNotificationService {
         return repository.findByTargetRoleOrderByCreatedAtDesc("ADMIN");
     }
 
+    public com.parkease.backend.dto.CursorPage<com.parkease.backend.entity.Notification> getNotifications(
+            String cursor, Integer limit) {
+        com.parkease.backend.dto.CursorPage.Cursor after = com.parkease.backend.dto.CursorPage.Cursor.decode(cursor);
+        int size = com.parkease.backend.dto.CursorPage.clampLimit(limit);
+        return com.parkease.backend.dto.CursorPage.of(
+                repository.findPageByTargetRole("ADMIN", after.createdAt(), after.id(),
+                        com.parkease.backend.dto.CursorPage.probe(size)),
+                size,
+                com.parkease.backend.entity.Notification::getCreatedAt,
+                com.parkease.backend.entity.Notification::getId,
+                n -> n);
+    }
+
     public void markAsRead(Long id) {
         com.parkease.backend.entity.Notification n = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
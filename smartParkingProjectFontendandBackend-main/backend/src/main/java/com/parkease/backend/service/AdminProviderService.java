@@ -6,7 +6,9 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.parkease.backend.config.PrincipalCache;
 import com.parkease.backend.dto.AdminProviderResponse;
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.Notification;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.enumtype.Role;
@@ -20,12 +22,38 @@ public class AdminProviderService {
 
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
+    private final PrincipalCache principalCache;
+    private final AdminUserIndex adminUserIndex;
+    private final RatingSummaryService ratingSummaryService;
+    private final ProviderBalanceService providerBalanceService;
 
     public AdminProviderService(
             UserRepository userRepository,
-            NotificationRepository notificationRepository) {
+            NotificationRepository notificationRepository,
+            PrincipalCache principalCache,
+            AdminUserIndex adminUserIndex,
+            RatingSummaryService ratingSummaryService,
+            ProviderBalanceService providerBalanceService) {
         this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
+        this.principalCache = principalCache;
+        this.adminUserIndex = adminUserIndex;
+        this.ratingSummaryService = ratingSummaryService;
+        this.providerBalanceService = providerBalanceService;
+    }
+
+    // status filter -> (approved, enabled); null means not filtered
+    private record StatusFlags(Boolean approved, Boolean enabled) {
+
+        static StatusFlags of(String status) {
+            if ("PENDING".equalsIgnoreCase(status))
+                return new StatusFlags(false, null);
+            if ("APPROVED".equalsIgnoreCase(status))
+                return new StatusFlags(true, true);
+            if ("SUSPENDED".equalsIgnoreCase(status))
+                return new StatusFlags(true, false);
+            return new StatusFlags(null, null);
+        }
     }
 
     /*
@@ -34,21 +62,47 @@ public class AdminProviderService {
      * =====================================================
      */
     public List<AdminProviderResponse> getProviders(String status) {
-        List<User> providers = userRepository.findByRole(Role.PROVIDER);
-
-        if (status != null) {
-            if ("PENDING".equalsIgnoreCase(status)) {
-                providers = providers.stream().filter(u -> !u.isApproved()).toList();
-            } else if ("APPROVED".equalsIgnoreCase(status)) {
-                providers = providers.stream().filter(u -> u.isApproved() && u.isEnabled()).toList();
-            } else if ("SUSPENDED".equalsIgnoreCase(status)) {
-                providers = providers.stream().filter(u -> u.isApproved() && !u.isEnabled()).toList();
-            }
-        }
+        StatusFlags flags = StatusFlags.of(status);
+        return withRatings(userRepository.findByRoleAndFlags(Role.PROVIDER, flags.approved(), flags.enabled())
+                .stream()
+                .map(this::mapToDto)
+                .toList());
+    }
 
-        return providers.stream()
+    /**
+     * Prefix search on email, phone and name through {@link AdminUserIndex};
+     * only the matching rows are loaded.
+     */
+    @Transactional(readOnly = true)
+    public List<AdminProviderResponse> searchProviders(String query, String status, Integer limit) {
+        StatusFlags flags = StatusFlags.of(status);
+        List<Long> ids = adminUserIndex.search(query, Role.PROVIDER, flags.approved(), flags.enabled(),
+                CursorPage.clampLimit(limit));
+
+        java.util.Map<Long, User> byId = new java.util.HashMap<>();
+        userRepository.findAllById(ids).forEach(u -> byId.put(u.getId(), u));
+        return withRatings(ids.stream()
+                .map(byId::get)
+                .filter(java.util.Objects::nonNull)
                 .map(this::mapToDto)
-                .toList();
+                .toList());
+    }
+
+    /**
+     * Keyset-paged variant of {@link #getProviders(String)}; the status
+     * filter is applied in the query instead of on the loaded list.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AdminProviderResponse> getProviders(String status, String cursor, Integer limit) {
+        StatusFlags flags = StatusFlags.of(status);
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int size = CursorPage.clampLimit(limit);
+        List<User> rows = userRepository.findPageByRole(Role.PROVIDER, flags.approved(), flags.enabled(),
+                after.createdAt(), after.id(), CursorPage.probe(size));
+        CursorPage<AdminProviderResponse> page = CursorPage.of(rows, size, User::getCreatedAt, User::getId,
+                this::mapToDto);
+        withRatings(page.items());
+        return page;
     }
 
     /*
@@ -79,6 +133,10 @@ public class AdminProviderService {
 
         try {
             userRepository.saveAndFlush(provider);
+            providerBalanceService.createShards(provider.getId());
+            ratingSummaryService.createRow(provider.getId());
+            principalCache.evict(provider.getEmail());
+            adminUserIndex.sync(provider);
             System.out.println("DEBUG: Provider " + id + " status updated and flushed.");
         } catch (Exception e) {
             System.err.println("DB ERROR during approval: " + e.getMessage());
@@ -106,6 +164,8 @@ public class AdminProviderService {
         provider.setEnabled(false);
         provider.setVerificationStatus(VerificationStatus.SUSPENDED);
         userRepository.save(provider);
+        principalCache.evict(provider.getEmail());
+        adminUserIndex.sync(provider);
 
         createNotification(
                 "Your provider account has been suspended by admin.",
@@ -123,6 +183,8 @@ public class AdminProviderService {
         provider.setEnabled(true);
         provider.setVerificationStatus(VerificationStatus.APPROVED);
         userRepository.save(provider);
+        principalCache.evict(provider.getEmail());
+        adminUserIndex.sync(provider);
 
         createNotification(
                 "Your provider account has been reactivated by admin.",
@@ -139,6 +201,8 @@ public class AdminProviderService {
 
         provider.setVerificationStatus(VerificationStatus.REJECTED);
         userRepository.delete(provider);
+        principalCache.evict(provider.getEmail());
+        adminUserIndex.remove(id);
 
         createNotification(
                 "A provider application was rejected by admin.",
@@ -177,6 +241,16 @@ public class AdminProviderService {
         notificationRepository.save(notification);
     }
 
+    // ratings for a whole list come from one cache pass (misses in one query)
+    private List<AdminProviderResponse> withRatings(List<AdminProviderResponse> dtos) {
+        java.util.Map<Long, RatingSummaryService.Summary> ratings = ratingSummaryService.summaries(
+                dtos.stream().map(d -> d.id).toList());
+        for (AdminProviderResponse dto : dtos) {
+            dto.rating = ratings.getOrDefault(dto.id, RatingSummaryService.Summary.EMPTY).average();
+        }
+        return dtos;
+    }
+
     private AdminProviderResponse mapToDto(User u) {
         AdminProviderResponse dto = new AdminProviderResponse();
         dto.id = u.getId();
@@ -0,0 +1,305 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory prefix search over users for the admin screens: email, phone
+ * digits and the words of the full name, each a key in
+ * {@link PrefixPostings} under the user's role, so a search only walks
+ * users of the role it asks for. Status flags live next to the keys and
+ * are checked while walking; only the final page of ids is loaded.
+ *
+ * Rebuilt at startup and kept in sync after commit wherever a user is
+ * registered, approved, suspended, reactivated, edited or deleted (the
+ * same places that evict {@link com.parkease.backend.config.PrincipalCache}).
+ */
+@Service
+public class AdminUserIndex {
+
+    private static final int MIN_QUERY_LENGTH = 2;
+
+    private static final String EMAIL = "e:";
+    private static final String PHONE = "p:";
+    private static final String NAME = "n:";
+
+    private record Doc(Role role, boolean approved, boolean enabled, String[] keys) {
+    }
+
+    private record Match(long id, int score) {
+    }
+
+    // best first: exact key matches, then newest
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score).reversed()
+            .thenComparing(Comparator.comparingLong(Match::id).reversed());
+
+    private final UserRepository userRepository;
+
+    private final PrefixPostings postings = new PrefixPostings();
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+
+    public AdminUserIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /* ================= REBUILD ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, List<Long>> fresh = new HashMap<>();
+        docs.clear();
+
+        for (Object[] row : userRepository.findSearchRows()) {
+            Long id = (Long) row[0];
+            Doc doc = doc((Role) row[1], (Boolean) row[2], (Boolean) row[3],
+                    (String) row[4], (String) row[5], (String) row[6]);
+            docs.put(id, doc);
+            for (String key : doc.keys()) {
+                fresh.computeIfAbsent(scoped(doc.role(), key), k -> new ArrayList<>()).add(id);
+            }
+        }
+        postings.load(fresh);
+
+        Map<String, Object> stats = stats();
+        System.out.println("Admin user index: " + stats.get("users") + " users, " + stats.get("keys")
+                + " keys, ~" + stats.get("estimatedKb") + " KB");
+    }
+
+    /* ================= MUTATIONS ================= */
+
+    /** Re-indexes the user as it stands once the surrounding transaction commits. */
+    public void sync(User user) {
+        Long id = user.getId();
+        Doc doc = doc(user.getRole(), user.isApproved(), user.isEnabled(),
+                user.getEmail(), user.getPhoneNumber(), user.getFullName());
+        afterCommit(() -> put(id, doc));
+    }
+
+    public void remove(Long userId) {
+        afterCommit(() -> put(userId, null));
+    }
+
+    /* ================= SEARCH ================= */
+
+    /**
+     * Ids of up to k users of the role whose email, phone or name words
+     * start with the query, best first. Null flags are not filtered on.
+     * Multi-word queries match names only, every word against some name
+     * word.
+     */
+    public List<Long> search(String query, Role role, Boolean approved, Boolean enabled, int k) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (k <= 0 || q.length() < MIN_QUERY_LENGTH) {
+            return List.of();
+        }
+
+        List<String> terms = q.contains(" ") ? words(q) : List.of();
+        List<String> exact = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+
+        if (terms.size() <= 1) {
+            // one term: email, phone or a single name word
+            exact.add(EMAIL + q);
+            prefixes.add(EMAIL + q);
+            List<String> name = words(q);
+            if (name.size() == 1) {
+                exact.add(NAME + name.get(0));
+                prefixes.add(NAME + name.get(0));
+            }
+            String digits = q.replaceAll("\\D", "");
+            if (digits.length() >= MIN_QUERY_LENGTH && q.matches("[+\\d\\s().-]+")) {
+                exact.add(PHONE + digits);
+                prefixes.add(PHONE + digits);
+            }
+        } else {
+            // walk the rarest word's postings, check the other words per user
+            String rarest = terms.stream()
+                    .min(Comparator.comparingLong(t -> postings.count(scoped(role, NAME + t))))
+                    .orElseThrow();
+            prefixes.add(NAME + rarest);
+        }
+
+        // worst of the current top k at the head; an id met again under another
+        // key scores the same, so one already in the heap is skipped and one
+        // evicted from it is evicted again
+        PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed());
+        Set<Long> inBest = new HashSet<>();
+        for (String prefix : prefixes) {
+            for (long[] ids : postings.range(scoped(role, prefix))) {
+                for (long id : ids) {
+                    if (inBest.contains(id)) {
+                        continue;
+                    }
+                    Doc doc = docs.get(id);
+                    if (doc == null || doc.role() != role
+                            || (approved != null && doc.approved() != approved)
+                            || (enabled != null && doc.enabled() != enabled)
+                            || (terms.size() > 1 && !allNameWordsMatch(doc, terms))) {
+                        continue;
+                    }
+                    Match match = new Match(id, isExact(doc, exact, terms) ? 1 : 0);
+                    if (best.size() < k) {
+                        best.add(match);
+                        inBest.add(id);
+                    } else if (RANKING.compare(match, best.peek()) < 0) {
+                        inBest.remove(best.poll().id());
+                        best.add(match);
+                        inBest.add(id);
+                    }
+                }
+            }
+        }
+
+        return best.stream().sorted(RANKING).map(Match::id).toList();
+    }
+
+    /** Sizes plus a rough heap estimate (keys, id arrays, map nodes, per-user docs). */
+    public Map<String, Object> stats() {
+        long bytes = postings.estimatedBytes();
+        for (Doc doc : docs.values()) {
+            bytes += 64 + 16 + 4L * doc.keys().length; // map entry + record + key array
+        }
+        return Map.of(
+                "users", docs.size(),
+                "keys", postings.words(),
+                "postings", postings.ids(),
+                "estimatedKb", bytes / 1024);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private static boolean allNameWordsMatch(Doc doc, List<String> terms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String key : doc.keys()) {
+                if (key.startsWith(NAME) && key.startsWith(term, NAME.length())) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isExact(Doc doc, List<String> exact, List<String> terms) {
+        if (terms.size() > 1) {
+            for (String term : terms) {
+                if (!contains(doc.keys(), NAME + term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (String key : exact) {
+            if (contains(doc.keys(), key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(String[] keys, String key) {
+        for (String k : keys) {
+            if (k.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void put(Long id, Doc doc) {
+        Doc old = doc != null ? docs.put(id, doc) : docs.remove(id);
+        Set<String> before = scopedKeys(old);
+        Set<String> after = scopedKeys(doc);
+
+        for (String key : before) {
+            if (!after.contains(key)) {
+                postings.remove(key, id);
+            }
+        }
+        for (String key : after) {
+            if (!before.contains(key)) {
+                postings.add(key, id);
+            }
+        }
+    }
+
+    // postings keys carry the role, so a role change moves every key
+    private static String scoped(Role role, String key) {
+        return role + "|" + key;
+    }
+
+    private static Set<String> scopedKeys(Doc doc) {
+        Set<String> keys = new HashSet<>();
+        if (doc != null) {
+            for (String key : doc.keys()) {
+                keys.add(scoped(doc.role(), key));
+            }
+        }
+        return keys;
+    }
+
+    private static Doc doc(Role role, Boolean approved, Boolean enabled,
+            String email, String phone, String fullName) {
+        Set<String> keys = new HashSet<>();
+        if (email != null && !email.isBlank()) {
+            keys.add(EMAIL + email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (phone != null) {
+            String digits = phone.replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                keys.add(PHONE + digits);
+            }
+        }
+        if (fullName != null) {
+            for (String word : words(fullName.toLowerCase(Locale.ROOT))) {
+                keys.add(NAME + word);
+            }
+        }
+        return new Doc(role, Boolean.TRUE.equals(approved), Boolean.TRUE.equals(enabled),
+                keys.toArray(String[]::new));
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !words.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
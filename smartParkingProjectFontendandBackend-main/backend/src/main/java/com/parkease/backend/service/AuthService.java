@@ -15,6 +15,7 @@ import com.parkease.backend.repository.VerificationTokenRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Random;
@@ -40,11 +41,21 @@ public class AuthService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private com.parkease.backend.config.PrincipalCache principalCache;
+
+    @Autowired
+    private AdminUserIndex adminUserIndex;
+
     /*
      * =====================================================
      * REGISTER
      * =====================================================
      */
+    @Transactional
     public AuthResponse register(RegisterRequest request) {
 
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -98,6 +109,8 @@ public class AuthService {
         }
 
         userRepository.save(user);
+        rollupService.recordNewUser(user);
+        adminUserIndex.sync(user);
 
         /* 🔔 NOTIFY ADMIN ON REGISTRATION */
         if (request.getRole() == Role.PROVIDER || request.getRole() == Role.DRIVER) {
@@ -261,6 +274,7 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
 
         verificationTokenRepository.deleteByUser(user);
     }
@@ -0,0 +1,259 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves bookings through their lifecycle on time: ACTIVE becomes EXITING at
+ * its end time, EXITING becomes COMPLETED (and releases the slot) after a
+ * grace period. Deadlines live in an in-memory {@link TimingWheel} keyed by
+ * booking id; due bookings are handled in batches with bulk UPDATEs.
+ *
+ * The database stays the source of truth: a firing timer re-reads the
+ * booking's status, so a stale timer is harmless. Timers are rebuilt from
+ * the ACTIVE / EXITING bookings at startup.
+ */
+@Service
+public class BookingLifecycleScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLifecycleScheduler.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final long RETRY_MILLIS = 30_000;
+
+    private final BookingRepository bookingRepository;
+    private final ParkingSlotRepository slotRepository;
+    private final OccupancyCounters occupancyCounters;
+    private final RollupService rollupService;
+    private final DurationStatsService durationStatsService;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final LiveStatusHub liveStatusHub;
+    private final TransactionTemplate transaction;
+    private final long exitGraceMillis;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(1000, System.currentTimeMillis());
+    private volatile boolean ready;
+
+    public BookingLifecycleScheduler(
+            BookingRepository bookingRepository,
+            ParkingSlotRepository slotRepository,
+            OccupancyCounters occupancyCounters,
+            RollupService rollupService,
+            DurationStatsService durationStatsService,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            LiveStatusHub liveStatusHub,
+            PlatformTransactionManager transactionManager,
+            @Value("${parkease.booking.exit-grace-minutes:10}") long exitGraceMinutes) {
+        this.bookingRepository = bookingRepository;
+        this.slotRepository = slotRepository;
+        this.occupancyCounters = occupancyCounters;
+        this.rollupService = rollupService;
+        this.durationStatsService = durationStatsService;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.liveStatusHub = liveStatusHub;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.exitGraceMillis = exitGraceMinutes * 60_000;
+    }
+
+    /* ================= TIMERS ================= */
+
+    /**
+     * Arms the timer for an ACTIVE booking once the surrounding transaction
+     * commits.
+     */
+    public void track(Long bookingId, LocalDateTime endTime) {
+        afterCommit(() -> wheel.schedule(bookingId, toMillis(endTime)));
+    }
+
+    public void cancel(Long bookingId) {
+        afterCommit(() -> wheel.cancel(bookingId));
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        int count = 0;
+        for (Object[] row : bookingRepository.findLifecycleTimers(
+                List.of(BookingStatus.ACTIVE, BookingStatus.EXITING))) {
+            Long id = (Long) row[0];
+            BookingStatus status = (BookingStatus) row[1];
+            LocalDateTime endTime = (LocalDateTime) row[2];
+            if (endTime == null) {
+                continue;
+            }
+            wheel.schedule(id, deadline(status, endTime));
+            count++;
+        }
+        ready = true;
+        log.info("Booking lifecycle: rehydrated {} timers", count);
+    }
+
+    /* ================= TICK ================= */
+
+    @Scheduled(fixedDelay = 1000)
+    public void tick() {
+        if (!ready) {
+            return;
+        }
+
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + BATCH_SIZE));
+            try {
+                transaction.executeWithoutResult(status -> process(batch));
+            } catch (RuntimeException e) {
+                log.warn("Booking lifecycle batch of {} failed, retrying later", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + RETRY_MILLIS;
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    private void process(List<Long> ids) {
+        long now = System.currentTimeMillis();
+
+        // row locks keep a concurrent endBooking from racing the bulk updates
+        List<Booking> bookings = bookingRepository.lockByIdIn(ids);
+        bookingRepository.findWithLotAndSlotByIdIn(ids); // resolves lot / slot in this session
+
+        List<Booking> toExit = new ArrayList<>();
+        List<Booking> toComplete = new ArrayList<>();
+
+        for (Booking b : bookings) {
+            if (b.getEndTime() == null) {
+                continue;
+            }
+            long deadline = deadline(b.getStatus(), b.getEndTime());
+            if (b.getStatus() == BookingStatus.ACTIVE) {
+                if (deadline <= now) {
+                    toExit.add(b);
+                } else {
+                    track(b.getId(), b.getEndTime()); // end time was extended
+                }
+            } else if (b.getStatus() == BookingStatus.EXITING) {
+                if (deadline <= now) {
+                    toComplete.add(b);
+                } else {
+                    afterCommit(() -> wheel.schedule(b.getId(), deadline));
+                }
+            }
+        }
+
+        if (!toExit.isEmpty()) {
+            startExiting(toExit);
+        }
+        if (!toComplete.isEmpty()) {
+            complete(toComplete);
+        }
+    }
+
+    private void startExiting(List<Booking> bookings) {
+        bookingRepository.transitionAll(ids(bookings), BookingStatus.ACTIVE, BookingStatus.EXITING);
+
+        for (Map.Entry<GroupKey, List<Booking>> group : byLotAndType(bookings).entrySet()) {
+            ParkingLot lot = group.getValue().get(0).getParkingLot();
+            occupancyCounters.adjust(lot, group.getKey().type(), 0, 0, 0, group.getValue().size());
+        }
+
+        for (Booking b : bookings) {
+            long deadline = deadline(BookingStatus.EXITING, b.getEndTime());
+            afterCommit(() -> wheel.schedule(b.getId(), deadline));
+            liveStatusHub.publish(b.getParkingLot().getId(), "booking-exiting", Map.of(
+                    "bookingId", b.getId(),
+                    "slotId", b.getParkingSlot().getId(),
+                    "slot", b.getParkingSlot().getSlotNumber(),
+                    "status", "departing"));
+        }
+    }
+
+    private void complete(List<Booking> bookings) {
+        bookingRepository.transitionAll(ids(bookings), BookingStatus.EXITING, BookingStatus.COMPLETED);
+        slotRepository.releaseAll(
+                bookings.stream().map(b -> b.getParkingSlot().getId()).toList(),
+                SlotStatus.OCCUPIED, SlotStatus.AVAILABLE);
+
+        for (Map.Entry<GroupKey, List<Booking>> group : byLotAndType(bookings).entrySet()) {
+            ParkingLot lot = group.getValue().get(0).getParkingLot();
+            long n = group.getValue().size();
+            occupancyCounters.adjust(lot, group.getKey().type(), -n, n, 0, -n);
+        }
+
+        for (Booking b : bookings) {
+            ParkingSlot slot = b.getParkingSlot();
+            rollupService.recordCompletion(b);
+            durationStatsService.recordCompletion(b);
+            slotAvailabilityIndex.markFree(b.getParkingLot().getId(), slot.getVehicleType(), slot.getId());
+            liveStatusHub.publish(b.getParkingLot().getId(), "slot-freed", Map.of(
+                    "bookingId", b.getId(),
+                    "slotId", slot.getId(),
+                    "slot", slot.getSlotNumber()));
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    private long deadline(BookingStatus status, LocalDateTime endTime) {
+        long end = toMillis(endTime);
+        return status == BookingStatus.EXITING ? end + exitGraceMillis : end;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).toList();
+    }
+
+    private static Map<GroupKey, List<Booking>> byLotAndType(List<Booking> bookings) {
+        Map<GroupKey, List<Booking>> groups = new LinkedHashMap<>();
+        for (Booking b : bookings) {
+            GroupKey key = new GroupKey(b.getParkingLot().getId(), b.getParkingSlot().getVehicleType());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(b);
+        }
+        return groups;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record GroupKey(Long lotId, VehicleType type) {
+    }
+}
@@ -5,6 +5,8 @@ import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.ParkingSlot;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
 import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.ParkingSlotRepository;
 
@@ -12,52 +14,131 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class BookingService {
 
     private final BookingRepository bookingRepository;
     private final ParkingSlotRepository slotRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final RollupService rollupService;
+    private final DurationStatsService durationStatsService;
+    private final OccupancyCounters occupancyCounters;
+    private final LiveStatusHub liveStatusHub;
+    private final BookingLifecycleScheduler bookingLifecycle;
 
     public BookingService(
             BookingRepository bookingRepository,
-            ParkingSlotRepository slotRepository
+            ParkingSlotRepository slotRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            RollupService rollupService,
+            DurationStatsService durationStatsService,
+            OccupancyCounters occupancyCounters,
+            LiveStatusHub liveStatusHub,
+            BookingLifecycleScheduler bookingLifecycle
     ) {
         this.bookingRepository = bookingRepository;
         this.slotRepository = slotRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.rollupService = rollupService;
+        this.durationStatsService = durationStatsService;
+        this.occupancyCounters = occupancyCounters;
+        this.liveStatusHub = liveStatusHub;
+        this.bookingLifecycle = bookingLifecycle;
     }
 
+    /**
+     * Allocates any free slot of the lot. Candidates come from the
+     * availability index; each one is claimed with a conditional UPDATE, and
+     * a candidate someone else won is skipped in favour of the next one.
+     */
     @Transactional
-    public Booking startBooking(User driver, ParkingLot lot, ParkingSlot slot) {
+    public Booking startBooking(User driver, ParkingLot lot, VehicleType vehicleType,
+                                String vehicleNumber, LocalDateTime endTime) {
 
-        if (slot.isOccupied()) {
-            throw new IllegalStateException("Slot already occupied");
-        }
+        while (true) {
+            Optional<Long> candidate = slotAvailabilityIndex.pollFreeSlot(lot.getId(), vehicleType);
+            if (candidate.isEmpty()) {
+                throw new IllegalStateException("No available slots found in this lot");
+            }
 
-        // occupy slot
-        slot.setOccupied(true);
-        slotRepository.save(slot);
+            if (slotRepository.claimIfFree(candidate.get(), SlotStatus.AVAILABLE, SlotStatus.OCCUPIED) == 0) {
+                continue; // lost the race or stale index entry
+            }
 
-        Booking booking = new Booking();
-        booking.setDriver(driver);
-        booking.setParkingLot(lot);
-        booking.setParkingSlot(slot);
-        booking.setStartTime(LocalDateTime.now());
-        booking.setStatus(BookingStatus.ACTIVE);
-
-        return bookingRepository.save(booking);
+            return createBooking(driver, lot, candidate.get(), vehicleNumber, endTime);
+        }
     }
 
     @Transactional
-    public void endBooking(Booking booking) {
+    public void endBooking(Booking detached) {
+
+        // re-read under a row lock so the lifecycle scheduler cannot complete it concurrently
+        Booking booking = bookingRepository.lockById(detached.getId())
+                .orElseThrow(() -> new IllegalStateException("Booking not found"));
+
+        BookingStatus status = booking.getStatus();
+        if (status != BookingStatus.ACTIVE && status != BookingStatus.EXITING) {
+            return; // already completed
+        }
 
         booking.setStatus(BookingStatus.COMPLETED);
         booking.setEndTime(LocalDateTime.now());
 
+        // versioned write: fails instead of clobbering a concurrent slot change
         ParkingSlot slot = booking.getParkingSlot();
+        OccupancyCounters.SlotState before = OccupancyCounters.SlotState.of(slot);
         slot.setOccupied(false);
 
         slotRepository.save(slot);
         bookingRepository.save(booking);
+        rollupService.recordCompletion(booking);
+        durationStatsService.recordCompletion(booking);
+        occupancyCounters.slotChanged(booking.getParkingLot(), slot.getVehicleType(),
+                before, OccupancyCounters.SlotState.of(slot));
+        if (status == BookingStatus.EXITING) {
+            occupancyCounters.exitingChanged(booking.getParkingLot(), slot.getVehicleType(), -1);
+        }
+        slotAvailabilityIndex.markFree(slot);
+        bookingLifecycle.cancel(booking.getId());
+        liveStatusHub.publish(booking.getParkingLot().getId(), "slot-freed", Map.of(
+                "bookingId", booking.getId(),
+                "slotId", slot.getId(),
+                "slot", slot.getSlotNumber()));
+    }
+
+    private Booking createBooking(User driver, ParkingLot lot, Long claimedSlotId,
+                                  String vehicleNumber, LocalDateTime endTime) {
+
+        // reload after the bulk UPDATE so the entity carries the new version
+        ParkingSlot slot = slotRepository.findById(claimedSlotId)
+                .orElseThrow(() -> new IllegalStateException("Slot not found"));
+        slotAvailabilityIndex.claim(slot);
+        occupancyCounters.slotChanged(lot, slot.getVehicleType(),
+                OccupancyCounters.SlotState.AVAILABLE, OccupancyCounters.SlotState.OCCUPIED);
+
+        Booking booking = new Booking();
+        booking.setDriver(driver);
+        booking.setParkingLot(lot);
+        booking.setParkingSlot(slot);
+        booking.setProviderId(lot.getProvider().getId());
+        booking.setVehicleNumber(vehicleNumber);
+        booking.setStartTime(LocalDateTime.now());
+        booking.setEndTime(endTime);
+        booking.setStatus(BookingStatus.ACTIVE);
+
+        Booking saved = bookingRepository.save(booking);
+        rollupService.recordBooking(saved);
+        bookingLifecycle.track(saved.getId(), endTime);
+        liveStatusHub.publish(lot.getId(), "slot-occupied", Map.of(
+                "bookingId", saved.getId(),
+                "slotId", slot.getId(),
+                "slot", slot.getSlotNumber(),
+                "user", driver.getFullName() != null ? driver.getFullName() : "",
+                "startTime", saved.getStartTime().toString(),
+                "status", "parking"));
+        return saved;
     }
 }
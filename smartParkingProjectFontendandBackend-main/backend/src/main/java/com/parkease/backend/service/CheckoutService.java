@@ -0,0 +1,45 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * One booking checkout in one transaction: slot claim, booking, payment and
+ * both wallet movements commit or roll back together. Previously the booking
+ * and the payment committed separately, so a failed payment left a booked,
+ * unpaid slot behind.
+ */
+@Service
+public class CheckoutService {
+
+    private final BookingService bookingService;
+    private final PaymentService paymentService;
+
+    public CheckoutService(BookingService bookingService, PaymentService paymentService) {
+        this.bookingService = bookingService;
+        this.paymentService = paymentService;
+    }
+
+    /**
+     * The lot must be loaded with its provider; driver and lot may be
+     * detached, only their ids and loaded fields are used.
+     */
+    @Transactional
+    public Booking checkout(User driver, ParkingLot lot, VehicleType vehicleType, String vehicleNumber,
+            LocalDateTime endTime, double totalAmount, double platformFee, String method) {
+
+        if (totalAmount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+
+        Booking booking = bookingService.startBooking(driver, lot, vehicleType, vehicleNumber, endTime);
+        paymentService.createPayment(booking, totalAmount, platformFee, method);
+        return booking;
+    }
+}
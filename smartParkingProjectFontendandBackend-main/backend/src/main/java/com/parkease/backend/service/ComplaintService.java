@@ -1,11 +1,11 @@
 package com.parkease.backend.service;
 
+import com.parkease.backend.dto.CursorPage;
 import com.parkease.backend.entity.Complaint;
 import com.parkease.backend.enumtype.ComplaintStatus;
 import com.parkease.backend.repository.ComplaintRepository;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 
 @Service
 public class ComplaintService {
@@ -16,12 +16,14 @@ public class ComplaintService {
         this.repository = repository;
     }
 
-    public List<Complaint> getAll() {
-        return repository.findAll();
-    }
-
-    public List<Complaint> getByStatus(ComplaintStatus status) {
-        return repository.findByStatus(status);
+    /**
+     * One keyset page, newest first; a null status lists every complaint.
+     */
+    public CursorPage<Complaint> getPage(ComplaintStatus status, String cursor, Integer limit) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(repository.findPage(status, after.createdAt(), after.id(), CursorPage.probe(size)),
+                size, Complaint::getCreatedAt, Complaint::getId, c -> c);
     }
 
     public Complaint resolve(Long id, String resolution) {
@@ -31,6 +33,7 @@ public class ComplaintService {
         complaint.setResolution(resolution);
         complaint.setStatus(ComplaintStatus.RESOLVED);
 
-        return repository.save(complaint);
+        repository.save(complaint);
+        return complaint; // the loaded copy has its associations fetched for rendering
     }
 }
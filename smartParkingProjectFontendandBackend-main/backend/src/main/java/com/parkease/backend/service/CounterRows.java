@@ -0,0 +1,75 @@
+package com.parkease.backend.service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Creates the zero row a counter UPDATE needs, inside the caller's
+ * transaction. The INSERT goes through JDBC on the connection the
+ * transaction already holds, so a booking never borrows a second pooled
+ * connection (a REQUIRES_NEW template here could drain the pool under
+ * load). A duplicate key means another transaction created the row first:
+ * the database waits for that transaction, rejects only the statement, and
+ * the caller's UPDATE then sees the committed row. A JPA save would have
+ * marked the whole transaction rollback-only instead.
+ */
+@Component
+public class CounterRows {
+
+    private static final int MAX_KNOWN_ROWS = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CounterRows(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the row unless the key is known to exist or exists already.
+     * The key is remembered only after commit, so a rolled-back insert is
+     * retried by the next writer.
+     */
+    public <K> void ensure(Set<K> knownRows, K key, BooleanSupplier exists, String insertSql, Object... args) {
+        if (knownRows.contains(key)) {
+            return;
+        }
+        if (!exists.getAsBoolean()) {
+            insertIfAbsent(insertSql, args);
+        }
+        afterCommit(() -> {
+            if (knownRows.size() >= MAX_KNOWN_ROWS) {
+                knownRows.clear();
+            }
+            knownRows.add(key);
+        });
+    }
+
+    /** Runs the INSERT; false when the row was created concurrently. */
+    public boolean insertIfAbsent(String insertSql, Object... args) {
+        try {
+            jdbcTemplate.update(insertSql, args);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.parkease.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the independent read-only queries behind a dashboard concurrently, so
+ * the endpoint costs the slowest widget rather than the sum of all of them.
+ * A widget that fails or runs past its timeout falls back to a default value
+ * and is listed as degraded instead of failing the whole response. A timed
+ * out widget is also cancelled: dropped if it is still queued, interrupted
+ * if it is running, so slow queries do not pile up on the pool.
+ */
+@Service
+public class DashboardComposer {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardComposer.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long widgetTimeoutMillis;
+
+    public DashboardComposer(
+            @Value("${parkease.dashboard.threads:16}") int threads,
+            @Value("${parkease.dashboard.widget-timeout-ms:2000}") long widgetTimeoutMillis) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                r -> {
+                    Thread t = new Thread(r, "dashboard-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // saturated: run on the request thread, i.e. plain sequential
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.widgetTimeoutMillis = widgetTimeoutMillis;
+    }
+
+    public Composition start() {
+        return new Composition();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /* ===== ONE DASHBOARD REQUEST ===== */
+
+    public final class Composition {
+
+        private final List<CompletableFuture<?>> widgets = new ArrayList<>();
+        private final List<String> degraded = Collections.synchronizedList(new ArrayList<>());
+
+        private Composition() {
+        }
+
+        /**
+         * Starts the query right away. The returned future never completes
+         * exceptionally: errors and timeouts resolve to the fallback.
+         */
+        public <T> CompletableFuture<T> widget(String name, Supplier<T> query, T fallback) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Future<?> task = executor.submit(() -> {
+                try {
+                    result.complete(query.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+
+            CompletableFuture<T> future = result
+                    .orTimeout(widgetTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> {
+                        if (ex instanceof TimeoutException) {
+                            task.cancel(true);
+                            log.warn("Dashboard widget '{}' timed out after {} ms", name, widgetTimeoutMillis);
+                        } else {
+                            log.warn("Dashboard widget '{}' degraded", name, ex);
+                        }
+                        degraded.add(name);
+                        return fallback;
+                    });
+            widgets.add(future);
+            return future;
+        }
+
+        /**
+         * Waits for every widget (each bounded by its own timeout) and
+         * returns the names of those that fell back.
+         */
+        public List<String> await() {
+            CompletableFuture.allOf(widgets.toArray(new CompletableFuture<?>[0])).join();
+            synchronized (degraded) {
+                return List.copyOf(degraded);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.parkease.backend.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Log-linear histogram of parking durations in minutes, in the style of an
+ * HDR histogram: exact below 64 minutes, then 32 sub-buckets per power of
+ * two (at most ~3% relative error) up to about 91 days, where values are
+ * clamped. A fixed 416 counters (~3.3 KB) whatever the sample count, and
+ * two histograms merge by adding counters, so per-lot / per-day sketches
+ * combine into any range.
+ *
+ * Not a bean; callers own the instances. Methods are synchronized so a
+ * query can merge a histogram that is still being recorded into.
+ */
+public final class DurationHistogram {
+
+    private static final int LINEAR_BITS = 6;
+    private static final int LINEAR = 1 << LINEAR_BITS;   // exact minutes below this
+    private static final int SUB_BITS = 5;
+    private static final int SUBS = 1 << SUB_BITS;        // buckets per power of two
+    private static final int MAX_MAGNITUDE = 17;          // values below 2^17 minutes
+
+    public static final int BUCKETS = LINEAR + (MAX_MAGNITUDE - LINEAR_BITS) * SUBS;
+    public static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+    /** Upper bound of {@link #encode()} output: (short index, long count) per bucket. */
+    public static final int MAX_ENCODED_BYTES = BUCKETS * 10;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    /* ===== RECORDING ===== */
+
+    public synchronized void record(long minutes) {
+        record(minutes, 1);
+    }
+
+    public synchronized void record(long minutes, long count) {
+        counts[index(minutes)] += count;
+        total += count;
+    }
+
+    public synchronized void merge(DurationHistogram other) {
+        long[] theirs;
+        synchronized (other) {
+            theirs = other.counts.clone();
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += theirs[i];
+            total += theirs[i];
+        }
+    }
+
+    /* ===== QUERIES ===== */
+
+    public synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Samples shorter than the given minutes. Exact when the bound starts a
+     * bucket (any minute up to 64, even minutes up to 128, multiples of 4 up
+     * to 256 ...), interpolated inside the bucket otherwise.
+     */
+    public synchronized long countBelow(long minutes) {
+        if (minutes <= 0) {
+            return 0;
+        }
+        if (minutes > MAX_VALUE) {
+            return total;
+        }
+        int at = index(minutes);
+        long below = 0;
+        for (int i = 0; i < at; i++) {
+            below += counts[i];
+        }
+        long lower = lowerBound(at);
+        long width = upperBound(at) - lower + 1;
+        return below + Math.round(counts[at] * (double) (minutes - lower) / width);
+    }
+
+    /**
+     * Smallest duration (bucket upper bound) with at least percentile% of
+     * the samples at or below it; 0 when empty.
+     */
+    public synchronized long percentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    /* ===== PERSISTENCE ===== */
+
+    /** Non-empty buckets as (short index, long count) pairs. */
+    public synchronized byte[] encode() {
+        int used = 0;
+        for (long c : counts) {
+            if (c != 0) {
+                used++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(used * 10);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                buffer.putShort((short) i);
+                buffer.putLong(counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static DurationHistogram decode(byte[] bytes) {
+        DurationHistogram histogram = new DurationHistogram();
+        if (bytes == null) {
+            return histogram;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.remaining() >= 10) {
+            int i = buffer.getShort();
+            long count = buffer.getLong();
+            if (i >= 0 && i < BUCKETS) {
+                histogram.counts[i] += count;
+                histogram.total += count;
+            }
+        }
+        return histogram;
+    }
+
+    /* ===== HELPERS ===== */
+
+    private static int index(long minutes) {
+        long v = Math.min(Math.max(minutes, 0), MAX_VALUE);
+        if (v < LINEAR) {
+            return (int) v;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) ((v >> (magnitude - SUB_BITS)) & (SUBS - 1));
+        return LINEAR + (magnitude - LINEAR_BITS) * SUBS + sub;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int magnitude = (index - LINEAR) / SUBS + LINEAR_BITS;
+        int sub = (index - LINEAR) % SUBS;
+        return (1L << magnitude) + ((long) sub << (magnitude - SUB_BITS));
+    }
+
+    private static long upperBound(int index) {
+        return index == BUCKETS - 1 ? MAX_VALUE : lowerBound(index + 1) - 1;
+    }
+}
@@ -0,0 +1,209 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.DurationSketch;
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.DurationSketchRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parking-duration distributions kept as {@link DurationSketch} rows, one
+ * per (lot, start day) plus an all-lots row per day.
+ *
+ * A completed booking is recorded after commit into an in-memory delta
+ * histogram; a scheduled flush merges the deltas into the rows, so the
+ * completion path never writes a sketch itself. Readers merge the rows of
+ * a day range with the pending deltas, which is at most a few hundred
+ * counters per day instead of one row per booking.
+ */
+@Service
+public class DurationStatsService {
+
+    private record Key(long lotId, LocalDate day) {
+    }
+
+    private final DurationSketchRepository sketchRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transaction;
+
+    // recorded but not yet flushed
+    private final Map<Key, DurationHistogram> pending = new ConcurrentHashMap<>();
+
+    public DurationStatsService(
+            DurationSketchRepository sketchRepository,
+            BookingRepository bookingRepository,
+            PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.bookingRepository = bookingRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /* ================= WRITE SIDE ================= */
+
+    /** Counts a completed booking once the surrounding transaction commits. */
+    public void recordCompletion(Booking booking) {
+        LocalDateTime start = booking.getStartTime();
+        LocalDateTime end = booking.getEndTime();
+        if (start == null || end == null || booking.getParkingLot() == null) {
+            return;
+        }
+
+        Long lotId = booking.getParkingLot().getId();
+        LocalDate day = start.toLocalDate();
+        long minutes = ChronoUnit.MINUTES.between(start, end);
+
+        afterCommit(() -> {
+            add(new Key(lotId, day), minutes);
+            add(new Key(DurationSketch.ALL_LOTS, day), minutes);
+        });
+    }
+
+    /**
+     * Merges every pending delta into its row, one short transaction per
+     * row. A delta whose write fails goes back into the pending map.
+     */
+    @Scheduled(fixedDelayString = "${parkease.duration.flush-ms:60000}")
+    public synchronized void flush() {
+        for (Key key : new ArrayList<>(pending.keySet())) {
+            DurationHistogram delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                transaction.executeWithoutResult(status -> {
+                    DurationSketch row = sketchRepository.findByLotIdAndSketchDate(key.lotId(), key.day())
+                            .orElseGet(() -> new DurationSketch(key.lotId(), key.day()));
+                    DurationHistogram merged = DurationHistogram.decode(row.getHistogram());
+                    merged.merge(delta);
+                    row.setHistogram(merged.encode());
+                    row.setSampleCount(merged.total());
+                    sketchRepository.save(row);
+                });
+            } catch (RuntimeException e) {
+                pending.compute(key, (k, histogram) -> {
+                    DurationHistogram h = histogram != null ? histogram : new DurationHistogram();
+                    h.merge(delta);
+                    return h;
+                });
+                System.err.println("Duration sketch flush failed for lot " + key.lotId() + " on " + key.day()
+                        + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /* ================= READ SIDE ================= */
+
+    /**
+     * Distribution of the bookings started between the two days
+     * (inclusive) at one lot, or at all lots when lotId is null. Null days
+     * leave that end of the range open. A delta that is being flushed at
+     * that moment is briefly missing from the result.
+     */
+    public DurationHistogram distribution(Long lotId, LocalDate from, LocalDate to) {
+        long key = lotId != null ? lotId : DurationSketch.ALL_LOTS;
+        LocalDate first = from != null ? from : LocalDate.of(2000, 1, 1);
+        LocalDate last = to != null ? to : LocalDate.of(9999, 12, 31);
+
+        DurationHistogram histogram = new DurationHistogram();
+        for (DurationSketch row : sketchRepository.findByLotIdAndSketchDateBetween(key, first, last)) {
+            histogram.merge(DurationHistogram.decode(row.getHistogram()));
+        }
+        pending.forEach((k, delta) -> {
+            if (k.lotId() == key && !k.day().isBefore(first) && !k.day().isAfter(last)) {
+                histogram.merge(delta);
+            }
+        });
+        return histogram;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "pendingSketches", pending.size(),
+                "storedSketches", sketchRepository.count());
+    }
+
+    /* ================= BACKFILL ================= */
+
+    /**
+     * Builds the sketch rows from existing completed bookings the first
+     * time the table is empty.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void backfillIfEmpty() {
+        if (sketchRepository.count() > 0) {
+            return;
+        }
+
+        Map<Key, DurationHistogram> histograms = new HashMap<>();
+        for (Object[] r : bookingRepository.findDurationRows(BookingStatus.COMPLETED)) {
+            Long lotId = (Long) r[0];
+            LocalDateTime start = (LocalDateTime) r[1];
+            LocalDateTime end = (LocalDateTime) r[2];
+            long minutes = ChronoUnit.MINUTES.between(start, end);
+            LocalDate day = start.toLocalDate();
+
+            histograms.computeIfAbsent(new Key(lotId, day), k -> new DurationHistogram()).record(minutes);
+            histograms.computeIfAbsent(new Key(DurationSketch.ALL_LOTS, day), k -> new DurationHistogram())
+                    .record(minutes);
+        }
+
+        if (!histograms.isEmpty()) {
+            List<DurationSketch> rows = new ArrayList<>();
+            histograms.forEach((key, histogram) -> {
+                DurationSketch row = new DurationSketch(key.lotId(), key.day());
+                row.setHistogram(histogram.encode());
+                row.setSampleCount(histogram.total());
+                rows.add(row);
+            });
+            transaction.executeWithoutResult(status -> sketchRepository.saveAll(rows));
+            System.out.println("Duration sketches: backfilled " + rows.size() + " rows");
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    // inside compute, so a concurrent flush cannot remove the delta between lookup and record
+    private void add(Key key, long minutes) {
+        pending.compute(key, (k, histogram) -> {
+            DurationHistogram h = histogram != null ? histogram : new DurationHistogram();
+            h.record(minutes);
+            return h;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.LedgerEntry;
+import com.parkease.backend.entity.LedgerSnapshot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.LedgerAccountType;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.repository.LedgerEntryRepository;
+import com.parkease.backend.repository.LedgerSnapshotRepository;
+import com.parkease.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Double-entry ledger of every money movement, in integer paise. Each
+ * journal is a set of {@link LedgerEntry} rows summing to zero; entries are
+ * never updated. Balances read the account's latest {@link LedgerSnapshot}
+ * and add the entries after it, so the cost does not grow with history.
+ *
+ * Sign convention: a positive amount increases what the account holds
+ * (wallets, provider payable, fees earned, payouts in flight); EXTERNAL
+ * is the counterpart for money entering or leaving the platform.
+ *
+ * users.wallet_balance (plus the provider balance shards) is kept beside
+ * it, because the checkout debit is a conditional UPDATE on that column.
+ * Every path that moves it posts here in the same transaction, so a
+ * driver's column equals DRIVER_WALLET and a provider's equals
+ * PROVIDER_PAYABLE + PROVIDER_WALLET + PAYOUTS (a withdrawal request
+ * never came off the users row).
+ */
+@Service
+public class LedgerService {
+
+    private static final long PLATFORM_OWNER = 0L;
+
+    private final LedgerEntryRepository entryRepository;
+    private final LedgerSnapshotRepository snapshotRepository;
+    private final UserRepository userRepository;
+    private final ProviderBalanceService providerBalanceService;
+    private final long snapshotLagSeconds;
+
+    public record Posting(LedgerAccountType account, Long ownerId, long amountPaise) {
+    }
+
+    public LedgerService(
+            LedgerEntryRepository entryRepository,
+            LedgerSnapshotRepository snapshotRepository,
+            UserRepository userRepository,
+            ProviderBalanceService providerBalanceService,
+            @Value("${parkease.ledger.snapshot-lag-seconds:60}") long snapshotLagSeconds) {
+        this.entryRepository = entryRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.userRepository = userRepository;
+        this.providerBalanceService = providerBalanceService;
+        this.snapshotLagSeconds = snapshotLagSeconds;
+    }
+
+    /* ================= POSTING ================= */
+
+    @Transactional
+    public String post(String reference, List<Posting> postings) {
+        long sum = 0;
+        for (Posting p : postings) {
+            sum += p.amountPaise();
+        }
+        if (postings.isEmpty() || sum != 0) {
+            throw new IllegalStateException("Unbalanced journal for " + reference + ": " + sum);
+        }
+
+        String journalId = UUID.randomUUID().toString();
+        List<LedgerEntry> entries = new ArrayList<>(postings.size());
+        for (Posting p : postings) {
+            if (p.amountPaise() != 0) {
+                entries.add(new LedgerEntry(journalId, p.account(), p.ownerId(), p.amountPaise(), reference));
+            }
+        }
+        entryRepository.saveAll(entries);
+        return journalId;
+    }
+
+    /**
+     * Driver pays the total; the provider is owed total minus fee, the
+     * platform keeps the fee.
+     */
+    public void recordBookingPayment(Long bookingId, Long driverId, Long providerId, double total,
+            double platformFee) {
+        long totalPaise = toPaise(total);
+        long feePaise = toPaise(platformFee);
+        post("BOOKING:" + bookingId, List.of(
+                new Posting(LedgerAccountType.DRIVER_WALLET, driverId, -totalPaise),
+                new Posting(LedgerAccountType.PROVIDER_PAYABLE, providerId, totalPaise - feePaise),
+                new Posting(LedgerAccountType.PLATFORM_FEES, PLATFORM_OWNER, feePaise)));
+    }
+
+    public void recordTopUp(User user, double amount) {
+        long paise = toPaise(amount);
+        post("TOPUP:" + user.getId(), List.of(
+                new Posting(walletOf(user.getRole()), user.getId(), paise),
+                new Posting(LedgerAccountType.EXTERNAL, PLATFORM_OWNER, -paise)));
+    }
+
+    /**
+     * A requested payout leaves the provider's payable balance and sits in
+     * PAYOUTS until it is settled or rejected.
+     */
+    public void recordWithdrawalRequest(Long withdrawalId, Long providerId, double amount) {
+        long paise = toPaise(amount);
+        post("WITHDRAWAL:" + withdrawalId, List.of(
+                new Posting(LedgerAccountType.PROVIDER_PAYABLE, providerId, -paise),
+                new Posting(LedgerAccountType.PAYOUTS, providerId, paise)));
+    }
+
+    /** The payout was sent: it leaves PAYOUTS and the platform. */
+    public void recordWithdrawalSettled(Long withdrawalId, Long providerId, double amount) {
+        long paise = toPaise(amount);
+        post("WITHDRAWAL_SETTLED:" + withdrawalId, List.of(
+                new Posting(LedgerAccountType.PAYOUTS, providerId, -paise),
+                new Posting(LedgerAccountType.EXTERNAL, PLATFORM_OWNER, paise)));
+    }
+
+    /** The payout was refused: the amount is payable to the provider again. */
+    public void recordWithdrawalRejected(Long withdrawalId, Long providerId, double amount) {
+        long paise = toPaise(amount);
+        post("WITHDRAWAL_REJECTED:" + withdrawalId, List.of(
+                new Posting(LedgerAccountType.PAYOUTS, providerId, -paise),
+                new Posting(LedgerAccountType.PROVIDER_PAYABLE, providerId, paise)));
+    }
+
+    /* ================= BALANCES ================= */
+
+    public double balance(LedgerAccountType account, Long ownerId) {
+        return balancePaise(account, ownerId) / 100.0;
+    }
+
+    public long balancePaise(LedgerAccountType account, Long ownerId) {
+        Optional<LedgerSnapshot> snapshot = snapshotRepository
+                .findFirstByAccountTypeAndOwnerIdOrderByLastEntryIdDesc(account, ownerId);
+        long base = snapshot.map(LedgerSnapshot::getBalancePaise).orElse(0L);
+        long after = snapshot.map(LedgerSnapshot::getLastEntryId).orElse(0L);
+        return base + entryRepository.sumAfter(account, ownerId, after);
+    }
+
+    /**
+     * Balance including every entry created at or before the given time.
+     */
+    public double balanceAt(LedgerAccountType account, Long ownerId, LocalDateTime at) {
+        Optional<LedgerSnapshot> snapshot = snapshotRepository
+                .findFirstByAccountTypeAndOwnerIdAndAsOfLessThanEqualOrderByLastEntryIdDesc(account, ownerId, at);
+        long base = snapshot.map(LedgerSnapshot::getBalancePaise).orElse(0L);
+        long after = snapshot.map(LedgerSnapshot::getLastEntryId).orElse(0L);
+        return (base + entryRepository.sumAfterUpTo(account, ownerId, after, at)) / 100.0;
+    }
+
+    /* ================= SNAPSHOTS ================= */
+
+    /**
+     * Snapshots every account that moved since the last run. Only entries
+     * older than the lag are covered, so a transaction still in flight
+     * cannot commit an entry below the new watermark.
+     */
+    @Scheduled(fixedDelayString = "${parkease.ledger.snapshot-ms:300000}")
+    @Transactional
+    public void snapshot() {
+        LocalDateTime cut = LocalDateTime.now().minusSeconds(snapshotLagSeconds);
+        long from = snapshotRepository.maxLastEntryId();
+        long upTo = entryRepository.maxIdBefore(cut);
+        if (upTo <= from) {
+            return;
+        }
+
+        List<LedgerSnapshot> snapshots = new ArrayList<>();
+        for (Object[] r : entryRepository.sumByAccountBetween(from, upTo)) {
+            LedgerAccountType account = (LedgerAccountType) r[0];
+            Long ownerId = (Long) r[1];
+            long delta = ((Number) r[2]).longValue();
+
+            // no entries of this account since its last snapshot except the ones just summed
+            long previous = snapshotRepository.findFirstByAccountTypeAndOwnerIdOrderByLastEntryIdDesc(account, ownerId)
+                    .map(LedgerSnapshot::getBalancePaise).orElse(0L);
+            snapshots.add(new LedgerSnapshot(account, ownerId, upTo, cut, previous + delta));
+        }
+        snapshotRepository.saveAll(snapshots);
+    }
+
+    /* ================= OPENING BALANCES ================= */
+
+    /**
+     * On an empty ledger, posts each user's current wallet as an opening
+     * balance so ledger balances start out equal to the legacy ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void openBalancesIfEmpty() {
+        if (entryRepository.count() > 0) {
+            return;
+        }
+
+        List<Posting> postings = new ArrayList<>();
+        long external = 0;
+        for (User u : userRepository.findByRole(Role.DRIVER)) {
+            long paise = toPaise(u.getWalletBalance() != null ? u.getWalletBalance() : 0.0);
+            postings.add(new Posting(LedgerAccountType.DRIVER_WALLET, u.getId(), paise));
+            external -= paise;
+        }
+        for (User u : userRepository.findByRole(Role.PROVIDER)) {
+            long paise = toPaise(providerBalanceService.balance(u.getId()));
+            postings.add(new Posting(LedgerAccountType.PROVIDER_PAYABLE, u.getId(), paise));
+            external -= paise;
+        }
+        if (external != 0) {
+            postings.add(new Posting(LedgerAccountType.EXTERNAL, PLATFORM_OWNER, external));
+            post("OPENING", postings);
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    public static long toPaise(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static LedgerAccountType walletOf(Role role) {
+        return role == Role.PROVIDER ? LedgerAccountType.PROVIDER_WALLET : LedgerAccountType.DRIVER_WALLET;
+    }
+}
@@ -0,0 +1,212 @@
+package com.parkease.backend.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent event fan-out of live lot status. A subscriber gets one
+ * snapshot, then small delta events published by the booking write paths
+ * after commit. Every delta carries the lot's counts from
+ * {@link OccupancyCounters}, so keeping screens current costs no queries.
+ *
+ * Each subscriber has a bounded buffer drained on a small sender pool; a
+ * subscriber whose buffer overflows is too slow to keep up and is dropped
+ * (the client reconnects and gets a fresh snapshot).
+ */
+@Service
+public class LiveStatusHub {
+
+    private static final int BUFFER_SIZE = 64;
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final OccupancyCounters occupancyCounters;
+
+    private final Map<Long, Set<Subscriber>> byLot = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public LiveStatusHub(OccupancyCounters occupancyCounters) {
+        this.occupancyCounters = occupancyCounters;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "live-status-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "live-status-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats,
+                HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /* ================= SUBSCRIBE ================= */
+
+    /**
+     * Registers before building the snapshot, so nothing published in
+     * between is missed; deltas are idempotent, a duplicate is harmless.
+     */
+    public SseEmitter subscribe(Long lotId, Supplier<Object> snapshot) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(lotId, emitter);
+
+        byLot.compute(lotId, (id, subs) -> {
+            Set<Subscriber> set = subs != null ? subs : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+
+        try {
+            subscriber.offer(SseEmitter.event().name("snapshot").data(snapshot.get()));
+        } catch (RuntimeException e) {
+            subscriber.remove();
+            throw e;
+        }
+        return emitter;
+    }
+
+    /* ================= PUBLISH ================= */
+
+    /**
+     * Sends a delta to every subscriber of the lot once the surrounding
+     * transaction commits (immediately when there is none).
+     */
+    public void publish(Long lotId, String event, Map<String, Object> data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut(lotId, event, data);
+                }
+            });
+        } else {
+            fanOut(lotId, event, data);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int subscribers = byLot.values().stream().mapToInt(Set::size).sum();
+        return Map.of(
+                "lots", byLot.size(),
+                "subscribers", subscribers,
+                "published", published.sum(),
+                "evicted", evicted.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        byLot.values().forEach(subs -> subs.forEach(s -> s.emitter.complete()));
+    }
+
+    /* ================= HELPERS ================= */
+
+    private void fanOut(Long lotId, String event, Map<String, Object> data) {
+        Set<Subscriber> subscribers = byLot.get(lotId);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        // counters were updated by an earlier afterCommit of the same transaction
+        OccupancyCounters.Counts counts = occupancyCounters.lot(lotId);
+        Map<String, Object> payload = new HashMap<>(data);
+        payload.put("stats", Map.of(
+                "occupied", counts.occupied() - counts.exiting(),
+                "available", counts.available(),
+                "exiting", counts.exiting()));
+
+        published.increment();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().name(event).data(payload));
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscriber> subscribers : byLot.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long lotId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long lotId, SseEmitter emitter) {
+            this.lotId = lotId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!buffer.offer(event)) {
+                evicted.increment();
+                remove();
+                emitter.complete(); // slow consumer
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // something may have been queued after the last poll
+            if (!buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void remove() {
+            // atomic per lot, so a concurrent subscribe cannot land in a dropped set
+            byLot.computeIfPresent(lotId, (id, subs) -> {
+                subs.remove(this);
+                return subs.isEmpty() ? null : subs;
+            });
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -20,26 +21,46 @@ public class LiveStatusService {
     private final UserRepository userRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final BookingRepository bookingRepository;
+    private final LiveStatusHub liveStatusHub;
+    private final OccupancyCounters occupancyCounters;
 
     public LiveStatusService(
             UserRepository userRepository,
             ParkingLotRepository parkingLotRepository,
-            BookingRepository bookingRepository
+            BookingRepository bookingRepository,
+            LiveStatusHub liveStatusHub,
+            OccupancyCounters occupancyCounters
     ) {
         this.userRepository = userRepository;
         this.parkingLotRepository = parkingLotRepository;
         this.bookingRepository = bookingRepository;
+        this.liveStatusHub = liveStatusHub;
+        this.occupancyCounters = occupancyCounters;
     }
 
     public LiveStatusResponse getLiveStatus(String email) {
+        return snapshot(providerLot(email));
+    }
+
+    /**
+     * Snapshot first, then deltas pushed by {@link LiveStatusHub}.
+     */
+    public SseEmitter subscribe(String email) {
+        ParkingLot lot = providerLot(email);
+        return liveStatusHub.subscribe(lot.getId(), () -> snapshot(lot));
+    }
 
+    private ParkingLot providerLot(String email) {
         User provider = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-        ParkingLot lot = parkingLotRepository.findByProvider(provider)
+        return parkingLotRepository.findByProvider(provider)
                 .stream()
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("Parking lot not found"));
+    }
+
+    private LiveStatusResponse snapshot(ParkingLot lot) {
 
         List<Booking> activeBookings =
           bookingRepository.findActiveBookingsForLot(
@@ -49,15 +70,11 @@ public class LiveStatusService {
 
 
 
-        int occupied = (int) activeBookings.stream()
-                .filter(b -> b.getStatus() == BookingStatus.ACTIVE)
-                .count();
-
-        int exiting = (int) activeBookings.stream()
-                .filter(b -> b.getStatus() == BookingStatus.EXITING)
-                .count();
-
-        int available = lot.getTotalSlots() - occupied;
+        // same counters the stream deltas carry
+        OccupancyCounters.Counts counts = occupancyCounters.lot(lot.getId());
+        int exiting = (int) counts.exiting();
+        int occupied = (int) counts.occupied() - exiting;
+        int available = (int) counts.available();
 
         List<ActiveBookingResponse> bookings = activeBookings.stream().map(b -> {
 
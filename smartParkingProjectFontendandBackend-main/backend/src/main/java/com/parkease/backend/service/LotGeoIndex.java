@@ -0,0 +1,246 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.repository.ParkingLotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index of the active lots that have coordinates: a
+ * uniform grid of square cells (cell-degrees on a side) keyed by row and
+ * column. A nearest-lots query scans rings of cells outward from the
+ * caller's cell and stops as soon as the next ring cannot hold anything
+ * closer than the k-th hit, so it touches a few cells however many lots
+ * exist. Rings never leave the box of rows and columns that can hold a
+ * point within the radius; near a pole that box spans every column and is
+ * wider than the grid itself, so the occupied cells are scanned instead.
+ *
+ * Entries carry what a search result shows, so a search runs no queries.
+ * The database stays the source of truth: the grid is rebuilt at startup
+ * and kept in sync after commit when a lot is created, updated or
+ * deactivated. The grid does not wrap at the antimeridian.
+ */
+@Service
+public class LotGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    public record Entry(Long id, String name, String address, String city,
+            double latitude, double longitude, boolean evSupported) {
+    }
+
+    public record Hit(Entry lot, double distanceKm) {
+    }
+
+    private final ParkingLotRepository parkingLotRepository;
+    private final double cellDegrees;
+
+    // reads are lock-free; writes are rare and serialized on this
+    private final Map<Long, List<Entry>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    public LotGeoIndex(
+            ParkingLotRepository parkingLotRepository,
+            @Value("${parkease.geo.cell-degrees:0.01}") double cellDegrees) {
+        this.parkingLotRepository = parkingLotRepository;
+        this.cellDegrees = cellDegrees;
+    }
+
+    /* ================= REBUILD ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        cells.clear();
+        byId.clear();
+        for (Object[] row : parkingLotRepository.findGeoRows()) {
+            put((Long) row[0], new Entry(
+                    (Long) row[0],
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    (Double) row[4],
+                    (Double) row[5],
+                    (Boolean) row[6]));
+        }
+        System.out.println("Lot geo index: " + byId.size() + " lots in " + cells.size() + " cells");
+    }
+
+    /* ================= MUTATIONS ================= */
+
+    /**
+     * Re-indexes a lot once the surrounding transaction commits; an inactive
+     * lot or one without coordinates is dropped from the grid.
+     */
+    public void sync(ParkingLot lot) {
+        Long id = lot.getId();
+        Entry entry = lot.isActive() && lot.getLatitude() != null && lot.getLongitude() != null
+                ? new Entry(id, lot.getName(), lot.getAddress(), lot.getCity(),
+                        lot.getLatitude(), lot.getLongitude(), lot.isEvSupported())
+                : null;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(id, entry);
+                }
+            });
+        } else {
+            put(id, entry);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /* ================= SEARCH ================= */
+
+    /**
+     * Up to k lots within radiusKm that pass the filter, nearest first. The
+     * filter only runs for lots close enough to make the result.
+     */
+    public List<Hit> nearest(double latitude, double longitude, double radiusKm, int k, Predicate<Entry> filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        // max-heap on distance holding the best k so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm).reversed());
+        int row0 = cell(latitude);
+        int col0 = cell(longitude);
+
+        // rows and columns that can hold a point within the radius (+1 for the caller's offset in its cell)
+        int rowReach = (int) Math.ceil(radiusKm / KM_PER_DEGREE / cellDegrees) + 1;
+        int colReach = (int) Math.min(Math.ceil(longitudeReach(latitude, radiusKm) / cellDegrees) + 1,
+                Math.ceil(360 / cellDegrees));
+
+        if ((2L * rowReach + 1) * (2L * colReach + 1) > cells.size()) {
+            // the box has more cells than the grid holds: walk the occupied ones
+            for (Map.Entry<Long, List<Entry>> occupied : cells.entrySet()) {
+                int row = (int) (occupied.getKey() >> 32);
+                int col = (int) (long) occupied.getKey();
+                if (Math.abs(row - row0) <= rowReach && Math.abs(col - col0) <= colReach) {
+                    scan(occupied.getValue(), latitude, longitude, radiusKm, k, filter, best);
+                }
+            }
+        } else {
+            int rings = Math.max(rowReach, colReach);
+            for (int ring = 0; ring <= rings; ring++) {
+                for (int dr = -Math.min(ring, rowReach); dr <= Math.min(ring, rowReach); dr++) {
+                    if (Math.abs(dr) == ring) {
+                        for (int dc = -Math.min(ring, colReach); dc <= Math.min(ring, colReach); dc++) {
+                            scan(row0 + dr, col0 + dc, latitude, longitude, radiusKm, k, filter, best);
+                        }
+                    } else if (ring <= colReach) {
+                        scan(row0 + dr, col0 - ring, latitude, longitude, radiusKm, k, filter, best);
+                        scan(row0 + dr, col0 + ring, latitude, longitude, radiusKm, k, filter, best);
+                    }
+                }
+
+                // anything in an unscanned ring is at least this far away
+                double gapKm = Math.min(
+                        ring < rowReach ? ring * cellDegrees * KM_PER_DEGREE : Double.MAX_VALUE,
+                        ring < colReach ? meridianGapKm(latitude, ring * cellDegrees) : Double.MAX_VALUE);
+                if (gapKm >= radiusKm || (best.size() == k && best.peek().distanceKm() <= gapKm)) {
+                    break;
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /* ================= HELPERS ================= */
+
+    // widest longitude difference, in degrees, of a point within radiusKm; 180 once a pole is in reach
+    private static double longitudeReach(double latitude, double radiusKm) {
+        double angle = radiusKm / EARTH_RADIUS_KM;
+        double toPole = Math.toRadians(90 - Math.abs(latitude));
+        if (angle >= toPole) {
+            return 180;
+        }
+        return Math.toDegrees(Math.asin(Math.min(1, Math.sin(angle) / Math.cos(Math.toRadians(latitude)))));
+    }
+
+    // shortest distance from the caller to any point at least this many degrees of longitude away
+    private static double meridianGapKm(double latitude, double degrees) {
+        double sin = Math.sin(Math.toRadians(Math.min(degrees, 90)));
+        return EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.cos(Math.toRadians(latitude)) * sin));
+    }
+
+    private void scan(int row, int col, double latitude, double longitude, double radiusKm, int k,
+            Predicate<Entry> filter, PriorityQueue<Hit> best) {
+        List<Entry> entries = cells.get(key(row, col));
+        if (entries != null) {
+            scan(entries, latitude, longitude, radiusKm, k, filter, best);
+        }
+    }
+
+    private static void scan(List<Entry> entries, double latitude, double longitude, double radiusKm, int k,
+            Predicate<Entry> filter, PriorityQueue<Hit> best) {
+        for (Entry e : entries) {
+            double d = distanceKm(latitude, longitude, e.latitude(), e.longitude());
+            if (d > radiusKm || (best.size() == k && d >= best.peek().distanceKm())) {
+                continue;
+            }
+            if (!filter.test(e)) {
+                continue;
+            }
+            best.add(new Hit(e, d));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+    }
+
+    private synchronized void put(Long id, Entry entry) {
+        Entry old = entry != null ? byId.put(id, entry) : byId.remove(id);
+        if (old != null) {
+            cells.computeIfPresent(key(old), (key, list) -> {
+                list.remove(old);
+                return list.isEmpty() ? null : list;
+            });
+        }
+        if (entry != null) {
+            cells.computeIfAbsent(key(entry), key -> new CopyOnWriteArrayList<>()).add(entry);
+        }
+    }
+
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private long key(Entry e) {
+        return key(cell(e.latitude()), cell(e.longitude()));
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
@@ -0,0 +1,268 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.repository.ParkingLotRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory autocomplete over active lots' name, city, state and address.
+ * Every word maps to a sorted array of lot ids in {@link PrefixPostings},
+ * so the lots matching a typed prefix are one range of the map instead of
+ * a {@code LIKE '%x%'} scan over the address column.
+ *
+ * A query expands only the word with the fewest postings through the map;
+ * every lot under it is scored against the other words using the lot's own
+ * words: name matches outrank city, state and address, and whole-word
+ * matches outrank prefixes.
+ *
+ * Rebuilt at startup and kept in sync after commit by lot changes.
+ */
+@Service
+public class LotSearchIndex {
+
+    private static final int MIN_QUERY_LENGTH = 2;
+    private static final int MAX_QUERY_TERMS = 6;
+
+    private enum Field {
+        NAME(4), CITY(3), STATE(2), ADDRESS(1);
+
+        private final int weight;
+
+        Field(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    public record Doc(Long id, String name, String address, String city, String state, String[][] words) {
+    }
+
+    public record Match(Doc lot, int score) {
+    }
+
+    // best first: score, then shorter name, then id
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score).reversed()
+            .thenComparingInt(m -> m.lot().name() != null ? m.lot().name().length() : Integer.MAX_VALUE)
+            .thenComparing(m -> m.lot().id());
+
+    private final ParkingLotRepository parkingLotRepository;
+
+    private final PrefixPostings postings = new PrefixPostings();
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+
+    public LotSearchIndex(ParkingLotRepository parkingLotRepository) {
+        this.parkingLotRepository = parkingLotRepository;
+    }
+
+    /* ================= REBUILD ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, List<Long>> fresh = new HashMap<>();
+        docs.clear();
+
+        for (Object[] row : parkingLotRepository.findSearchRows()) {
+            Doc doc = doc((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            docs.put(doc.id(), doc);
+            for (String word : distinctWords(doc)) {
+                fresh.computeIfAbsent(word, w -> new ArrayList<>()).add(doc.id());
+            }
+        }
+
+        postings.load(fresh);
+
+        Map<String, Object> stats = stats();
+        System.out.println("Lot search index: " + stats.get("lots") + " lots, " + stats.get("words")
+                + " words, ~" + stats.get("estimatedKb") + " KB");
+    }
+
+    /* ================= MUTATIONS ================= */
+
+    /**
+     * Re-indexes a lot once the surrounding transaction commits; an inactive
+     * lot is dropped.
+     */
+    public void sync(ParkingLot lot) {
+        Long id = lot.getId();
+        Doc doc = lot.isActive()
+                ? doc(id, lot.getName(), lot.getAddress(), lot.getCity(), lot.getState())
+                : null;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(id, doc);
+                }
+            });
+        } else {
+            put(id, doc);
+        }
+    }
+
+    /* ================= SEARCH ================= */
+
+    /**
+     * Top k lots in which every query word prefixes some word of the lot,
+     * best first.
+     */
+    public List<Match> search(String query, int k) {
+        List<String> terms = tokenize(query);
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        String driver = terms.stream()
+                .filter(t -> t.length() >= MIN_QUERY_LENGTH)
+                .min(Comparator.comparingLong(postings::count))
+                .orElse(null);
+        if (k <= 0 || driver == null) {
+            return List.of();
+        }
+
+        // worst of the current top k at the head; a lot listed under several
+        // words of the range scores the same each time, so one already in the
+        // heap is skipped and one evicted from it is evicted again
+        PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed());
+        Set<Long> inBest = new HashSet<>();
+        for (long[] ids : postings.range(driver)) {
+            for (long id : ids) {
+                if (inBest.contains(id)) {
+                    continue;
+                }
+                Doc doc = docs.get(id);
+                if (doc == null) {
+                    continue;
+                }
+                int score = score(doc, terms);
+                if (score <= 0) {
+                    continue;
+                }
+                Match match = new Match(doc, score);
+                if (best.size() < k) {
+                    best.add(match);
+                    inBest.add(id);
+                } else if (RANKING.compare(match, best.peek()) < 0) {
+                    inBest.remove(best.poll().lot().id());
+                    best.add(match);
+                    inBest.add(id);
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        return matches;
+    }
+
+    /**
+     * Sizes plus a rough heap estimate (word keys, id arrays, map nodes
+     * and the per-lot word arrays).
+     */
+    public Map<String, Object> stats() {
+        long bytes = postings.estimatedBytes();
+        for (Doc doc : docs.values()) {
+            bytes += 64; // map entry + record
+            for (String[] field : doc.words()) {
+                bytes += 16 + 4L * field.length;
+                for (String word : field) {
+                    bytes += 48 + word.length();
+                }
+            }
+        }
+        return Map.of(
+                "lots", docs.size(),
+                "words", postings.words(),
+                "postings", postings.ids(),
+                "estimatedKb", bytes / 1024);
+    }
+
+    /* ================= HELPERS ================= */
+
+    private static int score(Doc doc, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (Field field : Field.values()) {
+                String[] words = doc.words()[field.ordinal()];
+                for (int i = 0; i < words.length; i++) {
+                    if (!words[i].startsWith(term)) {
+                        continue;
+                    }
+                    int s = field.weight * (words[i].length() == term.length() ? 3 : 2);
+                    if (field == Field.NAME && i == 0) {
+                        s += 2; // name starts with it
+                    }
+                    best = Math.max(best, s);
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private synchronized void put(Long id, Doc doc) {
+        Doc old = doc != null ? docs.put(id, doc) : docs.remove(id);
+        Set<String> before = old != null ? distinctWords(old) : Set.of();
+        Set<String> after = doc != null ? distinctWords(doc) : Set.of();
+
+        for (String word : before) {
+            if (!after.contains(word)) {
+                postings.remove(word, id);
+            }
+        }
+        for (String word : after) {
+            if (!before.contains(word)) {
+                postings.add(word, id);
+            }
+        }
+    }
+
+    private static Doc doc(Long id, String name, String address, String city, String state) {
+        String[][] words = new String[Field.values().length][];
+        words[Field.NAME.ordinal()] = tokenize(name).toArray(String[]::new);
+        words[Field.CITY.ordinal()] = tokenize(city).toArray(String[]::new);
+        words[Field.STATE.ordinal()] = tokenize(state).toArray(String[]::new);
+        words[Field.ADDRESS.ordinal()] = tokenize(address).toArray(String[]::new);
+        return new Doc(id, name, address, city, state, words);
+    }
+
+    private static Set<String> distinctWords(Doc doc) {
+        Set<String> words = new HashSet<>();
+        for (String[] field : doc.words()) {
+            words.addAll(Arrays.asList(field));
+        }
+        return words;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+}
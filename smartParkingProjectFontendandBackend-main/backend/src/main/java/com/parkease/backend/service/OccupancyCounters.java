@@ -0,0 +1,357 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.LotOccupancy;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.LotOccupancyRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per lot / vehicle type slot counts. Slot mutations adjust the
+ * {@link LotOccupancy} row inside their own transaction and, once committed,
+ * an in-memory mirror that serves every occupancy read without touching the
+ * database. A periodic job recounts the slots table and repairs any drift.
+ */
+@Service
+public class OccupancyCounters {
+
+    public enum SlotState {
+        OCCUPIED, AVAILABLE, INACTIVE;
+
+        public static SlotState of(ParkingSlot slot) {
+            if (slot.isOccupied() || slot.getStatus() == SlotStatus.OCCUPIED) {
+                return OCCUPIED;
+            }
+            return slot.getStatus() == SlotStatus.INACTIVE ? INACTIVE : AVAILABLE;
+        }
+    }
+
+    public record Counts(long occupied, long available, long inactive, long exiting) {
+
+        public static final Counts ZERO = new Counts(0, 0, 0, 0);
+
+        public long total() {
+            return occupied + available + inactive;
+        }
+
+        public int occupancyPercent() {
+            long usable = occupied + available;
+            return usable > 0 ? (int) (occupied * 100 / usable) : 0;
+        }
+
+        Counts plus(Counts o) {
+            return new Counts(occupied + o.occupied, available + o.available, inactive + o.inactive,
+                    exiting + o.exiting);
+        }
+    }
+
+    private static final int EXITING = 3; // delta index after the three SlotStates
+
+    private static final String INSERT_ROW = """
+            INSERT INTO lot_occupancy (lot_id, vehicle_type, provider_id, occupied, available, inactive, exiting)
+            VALUES (?, ?, ?, 0, 0, 0, 0)
+            """;
+
+    private final LotOccupancyRepository occupancyRepository;
+    private final ParkingSlotRepository parkingSlotRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transaction;
+    private final CounterRows counterRows;
+
+    private final Set<CellKey> knownRows = ConcurrentHashMap.newKeySet();
+    private final Mirror mirror = new Mirror();
+
+    public OccupancyCounters(
+            LotOccupancyRepository occupancyRepository,
+            ParkingSlotRepository parkingSlotRepository,
+            BookingRepository bookingRepository,
+            PlatformTransactionManager transactionManager,
+            CounterRows counterRows) {
+        this.occupancyRepository = occupancyRepository;
+        this.parkingSlotRepository = parkingSlotRepository;
+        this.bookingRepository = bookingRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.counterRows = counterRows;
+    }
+
+    /* ================= WRITE SIDE ================= */
+
+    /**
+     * A slot of the lot moved between states. from is null for a new slot,
+     * to is null for a deleted one. The lot must have its provider id
+     * available (loaded entity or proxy).
+     */
+    @Transactional
+    public void slotChanged(ParkingLot lot, VehicleType type, SlotState from, SlotState to) {
+        if (from == to) {
+            return;
+        }
+        long[] delta = new long[4];
+        if (from != null) {
+            delta[from.ordinal()]--;
+        }
+        if (to != null) {
+            delta[to.ordinal()]++;
+        }
+        apply(lot, type, delta);
+    }
+
+    /**
+     * An occupied slot's booking entered (+1) or left (-1) EXITING.
+     */
+    @Transactional
+    public void exitingChanged(ParkingLot lot, VehicleType type, int delta) {
+        long[] d = new long[4];
+        d[EXITING] = delta;
+        apply(lot, type, d);
+    }
+
+    /**
+     * Raw adjustment, for batches that move several slots of one lot and type
+     * at once.
+     */
+    @Transactional
+    public void adjust(ParkingLot lot, VehicleType type, long occupied, long available, long inactive,
+            long exiting) {
+        long[] d = new long[4];
+        d[SlotState.OCCUPIED.ordinal()] = occupied;
+        d[SlotState.AVAILABLE.ordinal()] = available;
+        d[SlotState.INACTIVE.ordinal()] = inactive;
+        d[EXITING] = exiting;
+        apply(lot, type, d);
+    }
+
+    private void apply(ParkingLot lot, VehicleType type, long[] delta) {
+        CellKey key = new CellKey(lot.getId(), type);
+        Long providerId = lot.getProvider() != null ? lot.getProvider().getId() : null;
+
+        ensureRow(key, providerId);
+        occupancyRepository.adjust(key.lotId(), key.type(),
+                delta[SlotState.OCCUPIED.ordinal()], delta[SlotState.AVAILABLE.ordinal()],
+                delta[SlotState.INACTIVE.ordinal()], delta[EXITING]);
+
+        afterCommit(() -> mirror.add(key, providerId, delta));
+    }
+
+    /* ================= READ SIDE (in-memory) ================= */
+
+    public Counts lot(Long lotId) {
+        return mirror.sum(mirror.byLot.get(lotId));
+    }
+
+    public Counts lot(Long lotId, VehicleType type) {
+        Cell cell = mirror.cells.get(new CellKey(lotId, type));
+        return cell != null ? cell.snapshot() : Counts.ZERO;
+    }
+
+    public Counts provider(Long providerId) {
+        return mirror.sum(mirror.byProvider.get(providerId));
+    }
+
+    public Counts platform() {
+        return mirror.platform.snapshot();
+    }
+
+    /* ================= DRIFT REPAIR ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        repairDrift();
+    }
+
+    @Scheduled(fixedDelayString = "${parkease.occupancy.repair-ms:300000}",
+            initialDelayString = "${parkease.occupancy.repair-ms:300000}")
+    public void repairDrift() {
+        Integer drifted = transaction.execute(status -> repair());
+        if (drifted != null && drifted > 0) {
+            System.out.println("Occupancy counters: repaired " + drifted + " drifted rows");
+        }
+    }
+
+    /**
+     * Recounts the slots table and corrects every row, and every mirror
+     * cell, that disagrees by the difference: the row through the same
+     * increment slot changes use, the mirror after commit. A slot change
+     * committing while the recount runs keeps its own increment instead of
+     * being overwritten by an absolute value; one that lands between the
+     * recount and the read of the row leaves the correction off by that
+     * change, and the next run takes it back. Returns the number of
+     * existing rows fixed.
+     */
+    private int repair() {
+        Map<CellKey, long[]> actual = new HashMap<>();
+        Map<CellKey, Long> providers = new HashMap<>();
+
+        for (Object[] r : parkingSlotRepository.aggregateSlotStates()) {
+            CellKey key = new CellKey((Long) r[0], (VehicleType) r[2]);
+            providers.put(key, (Long) r[1]);
+
+            SlotStatus status = (SlotStatus) r[3];
+            boolean occupied = (Boolean) r[4];
+            SlotState state = occupied || status == SlotStatus.OCCUPIED ? SlotState.OCCUPIED
+                    : status == SlotStatus.INACTIVE ? SlotState.INACTIVE : SlotState.AVAILABLE;
+            actual.computeIfAbsent(key, k -> new long[4])[state.ordinal()] += ((Number) r[5]).longValue();
+        }
+        for (Object[] r : bookingRepository.aggregateByLotAndVehicleType(BookingStatus.EXITING)) {
+            CellKey key = new CellKey((Long) r[0], (VehicleType) r[1]);
+            actual.computeIfAbsent(key, k -> new long[4])[EXITING] += ((Number) r[2]).longValue();
+        }
+
+        Map<CellKey, LotOccupancy> rows = new HashMap<>();
+        for (LotOccupancy row : occupancyRepository.findAll()) {
+            rows.put(new CellKey(row.getLotId(), row.getVehicleType()), row);
+        }
+
+        // cells whose slots are all gone count down to zero
+        Set<CellKey> keys = new HashSet<>(actual.keySet());
+        keys.addAll(rows.keySet());
+        keys.addAll(mirror.cells.keySet());
+
+        int drifted = 0;
+        for (CellKey key : keys) {
+            long[] want = actual.getOrDefault(key, new long[4]);
+            LotOccupancy row = rows.get(key);
+            Long providerId = row != null ? row.getProviderId() : providers.get(key);
+
+            long[] rowDelta = minus(want, row != null ? counts(row) : new long[4]);
+            if (rowDelta != null) {
+                if (row == null) {
+                    ensureRow(key, providerId);
+                } else {
+                    drifted++;
+                }
+                occupancyRepository.adjust(key.lotId(), key.type(),
+                        rowDelta[SlotState.OCCUPIED.ordinal()], rowDelta[SlotState.AVAILABLE.ordinal()],
+                        rowDelta[SlotState.INACTIVE.ordinal()], rowDelta[EXITING]);
+            }
+
+            Cell cell = mirror.cells.get(key);
+            long[] mirrorDelta = minus(want, counts(cell != null ? cell.snapshot() : Counts.ZERO));
+            if (mirrorDelta != null) {
+                afterCommit(() -> mirror.add(key, providerId, mirrorDelta));
+            }
+        }
+        return drifted;
+    }
+
+    // want - have, or null when they agree
+    private static long[] minus(long[] want, long[] have) {
+        long[] delta = new long[want.length];
+        boolean differs = false;
+        for (int i = 0; i < delta.length; i++) {
+            delta[i] = want[i] - have[i];
+            differs |= delta[i] != 0;
+        }
+        return differs ? delta : null;
+    }
+
+    private static long[] counts(LotOccupancy row) {
+        return new long[] { row.getOccupied(), row.getAvailable(), row.getInactive(), row.getExiting() };
+    }
+
+    private static long[] counts(Counts counts) {
+        return new long[] { counts.occupied(), counts.available(), counts.inactive(), counts.exiting() };
+    }
+
+    /* ================= HELPERS ================= */
+
+    /**
+     * Creates the zero row in the caller's transaction (see
+     * {@link CounterRows}) so the adjustment below always finds it.
+     */
+    private void ensureRow(CellKey key, Long providerId) {
+        counterRows.ensure(knownRows, key,
+                () -> occupancyRepository.existsByLotIdAndVehicleType(key.lotId(), key.type()),
+                INSERT_ROW, key.lotId(), key.type().name(), providerId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record CellKey(Long lotId, VehicleType type) {
+    }
+
+    private static final class Cell {
+
+        private final LongAdder[] counts = {
+                new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder() };
+
+        void add(long[] delta) {
+            for (int i = 0; i < delta.length; i++) {
+                if (delta[i] != 0) {
+                    counts[i].add(delta[i]);
+                }
+            }
+        }
+
+        Counts snapshot() {
+            return new Counts(
+                    counts[SlotState.OCCUPIED.ordinal()].sum(),
+                    counts[SlotState.AVAILABLE.ordinal()].sum(),
+                    counts[SlotState.INACTIVE.ordinal()].sum(),
+                    counts[EXITING].sum());
+        }
+    }
+
+    private static final class Mirror {
+
+        private final Map<CellKey, Cell> cells = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Cell>> byLot = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Cell>> byProvider = new ConcurrentHashMap<>();
+        private final Cell platform = new Cell();
+
+        void add(CellKey key, Long providerId, long[] delta) {
+            Cell cell = cells.computeIfAbsent(key, k -> {
+                Cell c = new Cell();
+                byLot.computeIfAbsent(k.lotId(), id -> ConcurrentHashMap.newKeySet()).add(c);
+                if (providerId != null) {
+                    byProvider.computeIfAbsent(providerId, id -> ConcurrentHashMap.newKeySet()).add(c);
+                }
+                return c;
+            });
+            cell.add(delta);
+            platform.add(delta);
+        }
+
+        Counts sum(Set<Cell> group) {
+            if (group == null) {
+                return Counts.ZERO;
+            }
+            Counts total = Counts.ZERO;
+            for (Cell cell : group) {
+                total = total.plus(cell.snapshot());
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * How many cars are parked over time: bookings' [start, end) intervals
+ * streamed from the database into primitive arrays and swept by
+ * {@link OccupancySweep} into peak and average concurrent occupancy per
+ * bucket (15 minutes unless asked otherwise), for one lot, one provider
+ * or the whole platform.
+ *
+ * Cancelled and no-show bookings never held a slot and are skipped;
+ * active ones count until their planned end. Stays longer than
+ * parkease.occupancy.max-stay-hours are left out so the start-time range
+ * scan stays bounded.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OccupancyCurveService {
+
+    public static final int DEFAULT_BUCKET_MINUTES = 15;
+    private static final int MAX_BUCKETS = 40_000; // a year of 15-minute buckets
+
+    private static final Set<BookingStatus> PARKED = Set.of(
+            BookingStatus.ACTIVE, BookingStatus.EXITING, BookingStatus.COMPLETED);
+
+    /** Peak and average occupancy of one hour of the day across the window. */
+    public record HourLoad(int hour, int peak, double average) {
+
+        public String label() {
+            return hourLabel(hour) + " - " + hourLabel((hour + 1) % 24);
+        }
+
+        private static String hourLabel(int h) {
+            if (h == 0) {
+                return "12 AM";
+            }
+            if (h == 12) {
+                return "12 PM";
+            }
+            return h > 12 ? (h - 12) + " PM" : h + " AM";
+        }
+    }
+
+    private final BookingRepository bookingRepository;
+    private final long maxStayHours;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public OccupancyCurveService(
+            BookingRepository bookingRepository,
+            @Value("${parkease.occupancy.max-stay-hours:168}") long maxStayHours) {
+        this.bookingRepository = bookingRepository;
+        this.maxStayHours = maxStayHours;
+    }
+
+    /* ================= CURVES ================= */
+
+    public OccupancySweep.Curve platform(LocalDateTime from, LocalDateTime to, int bucketMinutes) {
+        check(from, to, bucketMinutes);
+        try (Stream<Object[]> rows = bookingRepository.streamIntervals(PARKED, earliest(from), from, to)) {
+            return sweep(collect(rows, to), from, to, bucketMinutes);
+        }
+    }
+
+    public OccupancySweep.Curve lot(Long lotId, LocalDateTime from, LocalDateTime to, int bucketMinutes) {
+        check(from, to, bucketMinutes);
+        try (Stream<Object[]> rows = bookingRepository.streamLotIntervals(lotId, PARKED, earliest(from), from,
+                to)) {
+            return sweep(collect(rows, to), from, to, bucketMinutes);
+        }
+    }
+
+    public OccupancySweep.Curve provider(Long providerId, LocalDateTime from, LocalDateTime to,
+            int bucketMinutes) {
+        check(from, to, bucketMinutes);
+        try (Stream<Object[]> rows = bookingRepository.streamProviderIntervals(providerId, PARKED,
+                earliest(from), from, to)) {
+            return sweep(collect(rows, to), from, to, bucketMinutes);
+        }
+    }
+
+    /* ================= HOURLY VIEW ================= */
+
+    /**
+     * Folds a curve into the 24 hours of the day: the peak of every bucket
+     * starting in that hour and the mean of their averages. Hours the
+     * window does not cover are left out.
+     */
+    public List<HourLoad> hourly(OccupancySweep.Curve curve) {
+        int[] peak = new int[24];
+        double[] sum = new double[24];
+        int[] buckets = new int[24];
+
+        for (int i = 0; i < curve.size(); i++) {
+            int hour = LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(curve.bucketStart(i)), zone)
+                    .getHour();
+            peak[hour] = Math.max(peak[hour], curve.max()[i]);
+            sum[hour] += curve.average()[i];
+            buckets[hour]++;
+        }
+
+        List<HourLoad> hours = new ArrayList<>();
+        for (int h = 0; h < 24; h++) {
+            if (buckets[h] > 0) {
+                hours.add(new HourLoad(h, peak[h], sum[h] / buckets[h]));
+            }
+        }
+        return hours;
+    }
+
+    /** The n busiest hours by average occupancy, then peak; idle hours are skipped. */
+    public List<HourLoad> busiestHours(OccupancySweep.Curve curve, int n) {
+        return hourly(curve).stream()
+                .filter(h -> h.peak() > 0)
+                .sorted(Comparator.comparingDouble(HourLoad::average).reversed()
+                        .thenComparing(Comparator.comparingInt(HourLoad::peak).reversed()))
+                .limit(n)
+                .toList();
+    }
+
+    /* ================= HELPERS ================= */
+
+    private OccupancySweep.Intervals collect(Stream<Object[]> rows, LocalDateTime to) {
+        OccupancySweep.Intervals intervals = new OccupancySweep.Intervals();
+        rows.forEach(r -> intervals.add(millis((LocalDateTime) r[1]),
+                millis(r[2] != null ? (LocalDateTime) r[2] : to)));
+        return intervals;
+    }
+
+    private OccupancySweep.Curve sweep(OccupancySweep.Intervals intervals, LocalDateTime from, LocalDateTime to,
+            int bucketMinutes) {
+        return OccupancySweep.sweep(intervals, millis(from), millis(to), bucketMinutes * 60_000L);
+    }
+
+    private void check(LocalDateTime from, LocalDateTime to, int bucketMinutes) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (bucketMinutes < 1) {
+            throw new IllegalArgumentException("Bucket must be at least one minute");
+        }
+        long minutes = java.time.Duration.between(from, to).toMinutes();
+        if (minutes / bucketMinutes > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Window too large for the bucket size");
+        }
+    }
+
+    private LocalDateTime earliest(LocalDateTime from) {
+        return from.minusHours(maxStayHours);
+    }
+
+    private long millis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
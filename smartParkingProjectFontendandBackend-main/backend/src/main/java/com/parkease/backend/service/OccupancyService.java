@@ -3,7 +3,6 @@ package com.parkease.backend.service;
 import com.parkease.backend.entity.ParkingLot;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.repository.ParkingLotRepository;
-import com.parkease.backend.repository.ParkingSlotRepository;
 import com.parkease.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
@@ -14,16 +13,16 @@ import java.util.Map;
 public class OccupancyService {
 
     private final ParkingLotRepository parkingLotRepository;
-    private final ParkingSlotRepository parkingSlotRepository;
+    private final OccupancyCounters occupancyCounters;
     private final UserRepository userRepository;
 
     public OccupancyService(
             ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository,
+            OccupancyCounters occupancyCounters,
             UserRepository userRepository
     ) {
         this.parkingLotRepository = parkingLotRepository;
-        this.parkingSlotRepository = parkingSlotRepository;
+        this.occupancyCounters = occupancyCounters;
         this.userRepository = userRepository;
     }
 
@@ -41,18 +40,13 @@ public class OccupancyService {
 
         ParkingLot lot = lots.get(0); // use primary lot
 
-        long occupied =
-                parkingSlotRepository.countByParkingLotAndOccupiedTrue(lot);
-
-        long available =
-                parkingSlotRepository.countByParkingLotAndOccupiedFalse(lot);
-
-        long total = occupied + available;
+        // in-memory counters, no slot scan
+        OccupancyCounters.Counts counts = occupancyCounters.lot(lot.getId());
 
         return Map.of(
-                "occupied", occupied,
-                "available", available,
-                "total", total
+                "occupied", counts.occupied(),
+                "available", counts.available(),
+                "total", counts.total()
         );
     }
 }
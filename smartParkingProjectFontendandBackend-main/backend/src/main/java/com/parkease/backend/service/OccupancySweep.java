@@ -0,0 +1,152 @@
+package com.parkease.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Concurrent-occupancy curve of a set of [start, end) intervals in epoch
+ * millis: peak and time-weighted average number of overlapping intervals
+ * per fixed-width bucket of a window.
+ *
+ * Starts and ends are sorted separately in primitive arrays and walked
+ * like a merge, so n intervals cost O(n log n) for the sorts plus
+ * O(n + buckets) for the sweep, with no per-interval objects. An end and
+ * a start at the same instant do not overlap.
+ *
+ * Not a bean; callers fill an {@link Intervals} and call {@link #sweep}.
+ */
+public final class OccupancySweep {
+
+    private OccupancySweep() {
+    }
+
+    /** Growable pair of primitive arrays. */
+    public static final class Intervals {
+
+        private long[] starts;
+        private long[] ends;
+        private int size;
+
+        public Intervals() {
+            this(64);
+        }
+
+        public Intervals(int capacity) {
+            starts = new long[Math.max(capacity, 1)];
+            ends = new long[Math.max(capacity, 1)];
+        }
+
+        public void add(long start, long end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Bucket i covers [from + i * bucketMillis, from + (i + 1) * bucketMillis) clipped to the window. */
+    public record Curve(long from, long bucketMillis, int[] max, double[] average) {
+
+        public int size() {
+            return max.length;
+        }
+
+        public long bucketStart(int i) {
+            return from + i * bucketMillis;
+        }
+
+        public int peak() {
+            int peak = 0;
+            for (int m : max) {
+                peak = Math.max(peak, m);
+            }
+            return peak;
+        }
+    }
+
+    /**
+     * Sweeps the intervals over [from, to). The intervals are clipped to
+     * the window and sorted in place, so they are consumed by the call.
+     */
+    public static Curve sweep(Intervals intervals, long from, long to, long bucketMillis) {
+        if (bucketMillis <= 0 || to <= from) {
+            throw new IllegalArgumentException("Empty window or bucket");
+        }
+        long buckets = (to - from + bucketMillis - 1) / bucketMillis;
+        if (buckets > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many buckets");
+        }
+        int[] max = new int[(int) buckets];
+        long[] area = new long[(int) buckets]; // occupied interval-millis
+
+        long[] starts = intervals.starts;
+        long[] ends = intervals.ends;
+
+        // clip to the window and drop what falls outside it
+        int n = 0;
+        for (int i = 0; i < intervals.size; i++) {
+            long s = Math.max(starts[i], from);
+            long e = Math.min(ends[i], to);
+            if (s < e) {
+                starts[n] = s;
+                ends[n] = e;
+                n++;
+            }
+        }
+        intervals.size = n;
+        Arrays.sort(starts, 0, n);
+        Arrays.sort(ends, 0, n);
+
+        // merge-walk: ends first on ties, level is constant between events
+        int i = 0;
+        int j = 0;
+        int level = 0;
+        long t = from;
+        while (j < n) {
+            boolean end = i >= n || ends[j] <= starts[i];
+            long next = end ? ends[j] : starts[i];
+            if (next > t) {
+                if (level > 0) {
+                    spread(t, next, level, from, bucketMillis, max, area);
+                }
+                t = next;
+            }
+            if (end) {
+                level--;
+                j++;
+            } else {
+                level++;
+                i++;
+            }
+        }
+
+        double[] average = new double[max.length];
+        for (int b = 0; b < average.length; b++) {
+            long start = from + b * bucketMillis;
+            long width = Math.min(to, start + bucketMillis) - start;
+            average[b] = (double) area[b] / width;
+        }
+        return new Curve(from, bucketMillis, max, average);
+    }
+
+    // adds a constant level over [t, next) to every bucket it touches
+    private static void spread(long t, long next, int level, long from, long bucketMillis,
+            int[] max, long[] area) {
+        int b = (int) ((t - from) / bucketMillis);
+        while (t < next) {
+            long segmentEnd = Math.min(next, from + (b + 1) * bucketMillis);
+            area[b] += level * (segmentEnd - t);
+            if (level > max[b]) {
+                max[b] = level;
+            }
+            t = segmentEnd;
+            b++;
+        }
+    }
+}
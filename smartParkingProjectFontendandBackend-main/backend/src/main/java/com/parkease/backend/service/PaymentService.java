@@ -5,6 +5,9 @@ import com.parkease.backend.entity.Payment;
 import com.parkease.backend.enumtype.PaymentStatus;
 import com.parkease.backend.repository.PaymentRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
 public class PaymentService {
@@ -12,15 +15,30 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository;
     private final com.parkease.backend.repository.UserRepository userRepository;
+    private final RollupService rollupService;
+    private final ProviderBalanceService providerBalanceService;
+    private final LedgerService ledgerService;
 
     public PaymentService(PaymentRepository paymentRepository,
             com.parkease.backend.repository.WalletTransactionRepository walletTransactionRepository,
-            com.parkease.backend.repository.UserRepository userRepository) {
+            com.parkease.backend.repository.UserRepository userRepository,
+            RollupService rollupService,
+            ProviderBalanceService providerBalanceService,
+            LedgerService ledgerService) {
         this.paymentRepository = paymentRepository;
         this.walletTransactionRepository = walletTransactionRepository;
         this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.providerBalanceService = providerBalanceService;
+        this.ledgerService = ledgerService;
     }
 
+    /**
+     * Records the payment and moves both balances with conditional UPDATEs;
+     * the driver's debit fails (and rolls the caller back) when the wallet
+     * no longer covers the amount.
+     */
+    @Transactional
     public Payment createPayment(
             Booking booking,
             double totalAmount,
@@ -35,31 +53,31 @@ public class PaymentService {
         payment.setPaymentMethod(method);
         payment.setStatus(PaymentStatus.PAID);
 
+        // the caller loads the lot together with its provider (associations are lazy)
+        com.parkease.backend.entity.User provider = booking.getParkingLot().getProvider();
+        com.parkease.backend.entity.User driver = booking.getDriver();
+        payment.setProviderId(provider.getId());
+
+        // debit first: a short wallet aborts before anything else is written
+        if (userRepository.debitWallet(driver.getId(), totalAmount) == 0) {
+            throw new com.parkease.backend.exception.InsufficientBalanceException();
+        }
+        // sharded, so a busy provider's bookings do not serialize on its users row
+        providerBalanceService.credit(provider.getId(), booking.getId(), payment.getProviderEarning());
+
         Payment savedPayment = paymentRepository.save(payment);
 
-        // Record for Provider (Graph update)
-        com.parkease.backend.entity.User provider = booking.getParkingSlot().getParkingLot().getProvider();
-        
-        // Update Provider Balance
-        double currentProviderBalance = provider.getWalletBalance() != null ? provider.getWalletBalance() : 0.0;
-        provider.setWalletBalance(currentProviderBalance + payment.getProviderEarning());
-        userRepository.save(provider);
-        
         com.parkease.backend.entity.WalletTransaction providerTx = new com.parkease.backend.entity.WalletTransaction(
                 provider, payment.getProviderEarning(), "CREDIT", "Earnings from Booking #" + booking.getId());
-        walletTransactionRepository.save(providerTx);
-
-        // Record for Driver (Spending)
-        com.parkease.backend.entity.User driver = booking.getDriver();
-        
-        // Update Driver Balance
-        double currentDriverBalance = driver.getWalletBalance() != null ? driver.getWalletBalance() : 0.0;
-        driver.setWalletBalance(currentDriverBalance - payment.getTotalAmount());
-        userRepository.save(driver);
-        
         com.parkease.backend.entity.WalletTransaction driverTx = new com.parkease.backend.entity.WalletTransaction(
                 driver, payment.getTotalAmount(), "DEBIT", "Payment for Booking #" + booking.getId());
-        walletTransactionRepository.save(driverTx);
+        walletTransactionRepository.saveAll(List.of(providerTx, driverTx));
+        ledgerService.recordBookingPayment(booking.getId(), driver.getId(), provider.getId(),
+                totalAmount, platformFee);
+
+        rollupService.recordPayment(savedPayment, provider.getId());
+        rollupService.recordWalletTransaction(providerTx);
+        rollupService.recordWalletTransaction(driverTx);
 
         return savedPayment;
     }
@@ -1,59 +1,56 @@
 package com.parkease.backend.service;
 
-import com.parkease.backend.entity.Booking;
 import com.parkease.backend.entity.User;
-import com.parkease.backend.repository.BookingRepository;
 import com.parkease.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.*;
 
 @Service
 public class PeakHoursService {
 
-    private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final OccupancyCurveService occupancyCurveService;
 
     public PeakHoursService(
-            BookingRepository bookingRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            OccupancyCurveService occupancyCurveService
     ) {
-        this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
+        this.occupancyCurveService = occupancyCurveService;
     }
 
+    /**
+     * Today's hours by how many cars were parked at once (peak of the
+     * 15-minute buckets), busiest first; percentage is relative to the
+     * busiest hour.
+     */
     public List<Map<String, Object>> getPeakHours(String email) {
 
         User provider = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-        List<Booking> bookings =
-                bookingRepository.findTodayBookingsForProvider(provider.getId());
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        OccupancySweep.Curve load = occupancyCurveService.provider(provider.getId(), startOfDay,
+                startOfDay.plusDays(1), OccupancyCurveService.DEFAULT_BUCKET_MINUTES);
 
-        Map<Integer, Integer> hourCount = new HashMap<>();
-        LocalDate today = LocalDate.now();
+        List<OccupancyCurveService.HourLoad> hours = occupancyCurveService.hourly(load).stream()
+                .filter(h -> h.peak() > 0)
+                .toList();
 
-        for (Booking b : bookings) {
-            if (!b.getStartTime().toLocalDate().equals(today)) continue;
-
-            int hour = b.getStartTime().getHour();
-            hourCount.put(hour, hourCount.getOrDefault(hour, 0) + 1);
-        }
-
-        int max = hourCount.values().stream()
-                .max(Integer::compareTo)
-                .orElse(1);
+        int max = Math.max(1, load.peak());
 
         List<Map<String, Object>> result = new ArrayList<>();
 
-        hourCount.forEach((hour, count) -> {
+        for (OccupancyCurveService.HourLoad h : hours) {
             result.add(Map.of(
-                    "hour", String.format("%02d:00 - %02d:00", hour, hour + 1),
-                    "bookings", count,
-                    "percentage", (count * 100) / max
+                    "hour", String.format("%02d:00 - %02d:00", h.hour(), h.hour() + 1),
+                    "bookings", h.peak(),
+                    "percentage", (h.peak() * 100) / max
             ));
-        });
+        }
 
         result.sort((a, b) ->
                 ((Integer) b.get("bookings"))
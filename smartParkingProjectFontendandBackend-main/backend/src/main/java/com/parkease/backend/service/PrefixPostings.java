@@ -0,0 +1,92 @@
+package com.parkease.backend.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted word -> sorted id array map behind the in-memory search indexes.
+ * Every id for words starting with a prefix is one range of the map. Id
+ * arrays are replaced, never mutated, so readers need no lock; writers
+ * must be serialized by the owner.
+ */
+final class PrefixPostings {
+
+    private final ConcurrentSkipListMap<String, long[]> postings = new ConcurrentSkipListMap<>();
+
+    /** Id arrays of every word that starts with the prefix, in word order. */
+    Collection<long[]> range(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+    }
+
+    /**
+     * Postings under the prefix, counting an id once per word; an upper
+     * bound of the distinct ids, used to pick the most selective term.
+     */
+    long count(String prefix) {
+        long n = 0;
+        for (long[] ids : range(prefix)) {
+            n += ids.length;
+        }
+        return n;
+    }
+
+    void add(String word, long id) {
+        postings.merge(word, new long[] { id }, (ids, single) -> {
+            int at = Arrays.binarySearch(ids, id);
+            if (at >= 0) {
+                return ids;
+            }
+            int insert = -at - 1;
+            long[] next = new long[ids.length + 1];
+            System.arraycopy(ids, 0, next, 0, insert);
+            next[insert] = id;
+            System.arraycopy(ids, insert, next, insert + 1, ids.length - insert);
+            return next;
+        });
+    }
+
+    void remove(String word, long id) {
+        postings.computeIfPresent(word, (w, ids) -> {
+            int at = Arrays.binarySearch(ids, id);
+            if (at < 0) {
+                return ids;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] next = new long[ids.length - 1];
+            System.arraycopy(ids, 0, next, 0, at);
+            System.arraycopy(ids, at + 1, next, at, ids.length - at - 1);
+            return next;
+        });
+    }
+
+    /** Replaces everything; cheaper than one add per id for a full rebuild. */
+    void load(Map<String, List<Long>> words) {
+        postings.clear();
+        words.forEach((word, ids) -> postings.put(word,
+                ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray()));
+    }
+
+    int words() {
+        return postings.size();
+    }
+
+    long ids() {
+        return postings.values().stream().mapToLong(ids -> ids.length).sum();
+    }
+
+    /** Rough heap estimate: word strings, id arrays and skip list nodes. */
+    long estimatedBytes() {
+        long bytes = 0;
+        for (Map.Entry<String, long[]> e : postings.entrySet()) {
+            bytes += 48 + e.getKey().length()      // String + latin-1 bytes
+                    + 16 + 8L * e.getValue().length // long[]
+                    + 48;                           // skip list node and index share
+        }
+        return bytes;
+    }
+}
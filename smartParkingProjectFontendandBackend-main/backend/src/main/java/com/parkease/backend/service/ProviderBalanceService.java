@@ -0,0 +1,125 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.ProviderBalanceShard;
+import com.parkease.backend.repository.ProviderBalanceShardRepository;
+import com.parkease.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provider wallet credits spread over {@link ProviderBalanceShard} rows.
+ * Readers get wallet balance plus the unfolded shards; a scheduled fold
+ * moves shard amounts into the wallet, touching the provider row once per
+ * run instead of once per booking.
+ */
+@Service
+public class ProviderBalanceService {
+
+    private static final String INSERT_SHARD = """
+            INSERT INTO provider_balance_shards (provider_id, shard, amount)
+            VALUES (?, ?, 0)
+            """;
+
+    private final ProviderBalanceShardRepository shardRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final CounterRows counterRows;
+    private final int shards;
+
+    // shard rows known to exist, so the hot path skips the existence check
+    private final Set<Long> knownShards = ConcurrentHashMap.newKeySet();
+
+    public ProviderBalanceService(
+            ProviderBalanceShardRepository shardRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            CounterRows counterRows,
+            @Value("${parkease.balance.shards:16}") int shards) {
+        this.shardRepository = shardRepository;
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.counterRows = counterRows;
+        this.shards = shards;
+    }
+
+    /* ================= WRITE SIDE ================= */
+
+    /**
+     * Adds a credit inside the caller's transaction. The salt (booking id)
+     * picks the shard, so concurrent bookings land on different rows.
+     */
+    public void credit(Long providerId, long salt, double amount) {
+        int shard = (int) Math.floorMod(salt, (long) shards);
+        ensureShard(providerId, shard);
+        shardRepository.add(providerId, shard, amount);
+    }
+
+    /**
+     * Creates all of the provider's shard rows, called when a provider is
+     * approved so bookings normally find them in place. Safe to repeat.
+     */
+    public void createShards(Long providerId) {
+        for (int shard = 0; shard < shards; shard++) {
+            ensureShard(providerId, shard);
+        }
+    }
+
+    /* ================= READ SIDE ================= */
+
+    public double balance(Long providerId) {
+        return userRepository.findWalletBalanceById(providerId) + shardRepository.sumByProviderId(providerId);
+    }
+
+    /* ================= FOLD ================= */
+
+    /**
+     * Subtracts exactly what was read from each shard, so credits added
+     * while folding stay in the shard for the next run.
+     */
+    @Scheduled(fixedDelayString = "${parkease.balance.fold-ms:60000}")
+    public void fold() {
+        Map<Long, List<Object[]>> byProvider = new HashMap<>();
+        for (Object[] r : shardRepository.findUnfolded()) {
+            byProvider.computeIfAbsent((Long) r[0], k -> new ArrayList<>()).add(r);
+        }
+
+        for (Map.Entry<Long, List<Object[]>> e : byProvider.entrySet()) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    double total = 0;
+                    for (Object[] r : e.getValue()) {
+                        double amount = ((Number) r[2]).doubleValue();
+                        shardRepository.add(e.getKey(), (Integer) r[1], -amount);
+                        total += amount;
+                    }
+                    userRepository.creditWallet(e.getKey(), total);
+                });
+            } catch (RuntimeException ex) {
+                System.err.println("Balance fold failed for provider " + e.getKey() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    /**
+     * Creates a missing shard in the caller's transaction (see
+     * {@link CounterRows}); covers providers approved before the shards
+     * were pre-created and a change to parkease.balance.shards.
+     */
+    private void ensureShard(Long providerId, int shard) {
+        counterRows.ensure(knownShards, providerId * shards + shard,
+                () -> shardRepository.existsByProviderIdAndShard(providerId, shard),
+                INSERT_SHARD, providerId, shard);
+    }
+}
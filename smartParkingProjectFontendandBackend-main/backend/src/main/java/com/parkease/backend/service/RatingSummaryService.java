@@ -0,0 +1,200 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.ProviderRatingSummary;
+import com.parkease.backend.repository.ProviderRatingSummaryRepository;
+import com.parkease.backend.repository.ReviewRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Provider ratings from the provider_rating_summary rows, behind a
+ * read-through cache. Submitting a review bumps the row with one UPDATE in
+ * the review's transaction and evicts the cached copy after commit, so any
+ * screen showing a rating reads it in O(1).
+ */
+@Service
+public class RatingSummaryService {
+
+    private static final int MAX_ENTRIES = 50_000;
+
+    private static final String INSERT_ROW = """
+            INSERT INTO provider_rating_summary (provider_id, review_count, rating_sum, one_star, two_stars,
+                three_stars, four_stars, five_stars)
+            VALUES (?, 0, 0, 0, 0, 0, 0, 0)
+            """;
+
+    public record Summary(long count, long sum, long oneStar, long twoStars, long threeStars,
+            long fourStars, long fiveStars) {
+
+        public static final Summary EMPTY = new Summary(0, 0, 0, 0, 0, 0, 0);
+
+        static Summary of(ProviderRatingSummary row) {
+            return new Summary(row.getReviewCount(), row.getRatingSum(), row.getOneStar(), row.getTwoStars(),
+                    row.getThreeStars(), row.getFourStars(), row.getFiveStars());
+        }
+
+        /** Average rounded to one decimal, 0 without reviews. */
+        public double average() {
+            return count == 0 ? 0 : Math.round((double) sum / count * 10.0) / 10.0;
+        }
+    }
+
+    private final ProviderRatingSummaryRepository summaryRepository;
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transaction;
+    private final CounterRows counterRows;
+
+    private final Map<Long, Summary> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RatingSummaryService(
+            ProviderRatingSummaryRepository summaryRepository,
+            ReviewRepository reviewRepository,
+            PlatformTransactionManager transactionManager,
+            CounterRows counterRows) {
+        this.summaryRepository = summaryRepository;
+        this.reviewRepository = reviewRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.counterRows = counterRows;
+    }
+
+    /* ================= WRITE SIDE ================= */
+
+    /**
+     * Counts one review inside the caller's transaction.
+     */
+    public void record(Long providerId, int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+
+        if (summaryRepository.addReview(providerId, rating) == 0) {
+            // providers approved before the rows were created up front
+            counterRows.insertIfAbsent(INSERT_ROW, providerId);
+            summaryRepository.addReview(providerId, rating);
+        }
+        evict(providerId);
+    }
+
+    /** Creates the provider's empty summary row; called on approval, safe to repeat. */
+    public void createRow(Long providerId) {
+        counterRows.insertIfAbsent(INSERT_ROW, providerId);
+    }
+
+    /* ================= READ SIDE ================= */
+
+    public Summary summary(Long providerId) {
+        Summary cached = cache.get(providerId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        Summary loaded = summaryRepository.findById(providerId).map(Summary::of).orElse(Summary.EMPTY);
+        put(providerId, loaded);
+        return loaded;
+    }
+
+    /** Same as {@link #summary(Long)} for a list screen: misses load in one query. */
+    public Map<Long, Summary> summaries(Collection<Long> providerIds) {
+        Map<Long, Summary> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : providerIds) {
+            Summary cached = cache.get(id);
+            if (cached != null) {
+                hits.increment();
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            for (ProviderRatingSummary row : summaryRepository.findAllById(missing)) {
+                result.put(row.getProviderId(), Summary.of(row));
+            }
+            for (Long id : missing) {
+                Summary loaded = result.computeIfAbsent(id, k -> Summary.EMPTY);
+                put(id, loaded);
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "entries", cache.size(),
+                "hits", hits.sum(),
+                "misses", misses.sum());
+    }
+
+    /* ================= BACKFILL ================= */
+
+    /**
+     * Builds the summary rows from existing reviews the first time the
+     * table is empty.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (summaryRepository.count() > 0) {
+            return;
+        }
+
+        Map<Long, ProviderRatingSummary> rows = new HashMap<>();
+        for (Object[] r : reviewRepository.aggregateByProviderAndRating()) {
+            Long providerId = (Long) r[0];
+            int rating = ((Number) r[1]).intValue();
+            long count = ((Number) r[2]).longValue();
+            if (rating >= 1 && rating <= 5) {
+                rows.computeIfAbsent(providerId, ProviderRatingSummary::new).add(rating, count);
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            transaction.executeWithoutResult(status -> summaryRepository.saveAll(rows.values()));
+            System.out.println("Rating summaries: backfilled " + rows.size() + " providers");
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    private void put(Long providerId, Summary summary) {
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+        cache.put(providerId, summary);
+    }
+
+    /**
+     * Drops the entry now and again after commit, so a read racing the
+     * write cannot re-cache the old totals.
+     */
+    private void evict(Long providerId) {
+        cache.remove(providerId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(providerId);
+                }
+            });
+        }
+    }
+}
@@ -8,7 +8,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.TextStyle;
 import java.util.*;
 
 @Service
@@ -30,38 +29,34 @@ public class RevenueTrendService {
         User provider = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-        LocalDate today = LocalDate.now();
-        LocalDateTime start = today.minusDays(6).atStartOfDay();
+        TrendBuckets buckets = TrendBuckets.last(TrendBuckets.Granularity.DAY, 7, LocalDate.now());
+        LocalDateTime start = buckets.start().atStartOfDay();
 
         List<Booking> bookings =
                 bookingRepository.findCompletedBookingsAfter(
                         provider.getId(), start
                 );
 
-        Map<LocalDate, Integer> dailyRevenue = new LinkedHashMap<>();
-
-        for (int i = 6; i >= 0; i--) {
-            dailyRevenue.put(today.minusDays(i), 0);
-        }
+        int[] dailyRevenue = new int[buckets.size()];
 
         for (Booking b : bookings) {
-            LocalDate date = b.getEndTime().toLocalDate();
-            int amount = calculateAmount(b);
-            dailyRevenue.put(date, dailyRevenue.get(date) + amount);
+            int idx = buckets.indexOf(b.getEndTime().toLocalDate());
+            if (idx >= 0) {
+                dailyRevenue[idx] += calculateAmount(b);
+            }
         }
 
         List<Map<String, Object>> trend = new ArrayList<>();
         int total = 0;
         int peak = 0;
 
-        for (Map.Entry<LocalDate, Integer> e : dailyRevenue.entrySet()) {
-            int amt = e.getValue();
+        for (int i = 0; i < dailyRevenue.length; i++) {
+            int amt = dailyRevenue[i];
             total += amt;
             peak = Math.max(peak, amt);
 
             trend.add(Map.of(
-                    "day", e.getKey().getDayOfWeek()
-                            .getDisplayName(TextStyle.SHORT, Locale.ENGLISH),
+                    "day", buckets.buckets().get(i).label(),
                     "amount", amt
             ));
         }
@@ -0,0 +1,404 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.DailyRollup;
+import com.parkease.backend.entity.Payment;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.entity.WalletTransaction;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.enumtype.RollupScope;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.DailyRollupRepository;
+import com.parkease.backend.repository.PaymentRepository;
+import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.repository.WalletTransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Maintains {@link DailyRollup} rows. Write paths call the record* methods
+ * inside their own transaction; the deltas collect per row and are written
+ * with one UPDATE per row just before that transaction commits, so a rollup
+ * only moves if the business write commits and holds its row lock only for
+ * the commit. The platform and provider rows of a day are split over
+ * shards, one picked per transaction, so concurrent checkouts do not queue
+ * on them. Readers fetch a
+ * day range once and fold it into chart buckets.
+ */
+@Service
+public class RollupService {
+
+    private static final String INSERT_ROW = """
+            INSERT INTO daily_rollups (scope, owner_id, rollup_date, shard, bookings, completed_bookings, credits, debits,
+                revenue, platform_fees, new_drivers, new_providers)
+            VALUES (?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, 0)
+            """;
+
+    // one lock order for every transaction, so two flushes cannot deadlock
+    private static final Comparator<RollupKey> LOCK_ORDER = Comparator.comparing(RollupKey::scope)
+            .thenComparing(RollupKey::ownerId).thenComparing(RollupKey::day);
+
+    private final DailyRollupRepository rollupRepository;
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final WalletTransactionRepository walletTransactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final CounterRows counterRows;
+    private final int shards;
+
+    // rows known to exist, so the hot path skips the existence check
+    private final Set<ShardKey> knownRows = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public RollupService(
+            DailyRollupRepository rollupRepository,
+            BookingRepository bookingRepository,
+            PaymentRepository paymentRepository,
+            WalletTransactionRepository walletTransactionRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            CounterRows counterRows,
+            @Value("${parkease.rollup.shards:8}") int shards) {
+        this.rollupRepository = rollupRepository;
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.walletTransactionRepository = walletTransactionRepository;
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.counterRows = counterRows;
+        this.shards = shards;
+    }
+
+    /* ================= WRITE SIDE ================= */
+
+    public void recordBooking(Booking booking) {
+        LocalDate day = booking.getCreatedAt().toLocalDate();
+        record(rows -> {
+            for (RollupKey key : bookingKeys(booking, day)) {
+                DailyRollup row = row(rows, key);
+                row.setBookings(row.getBookings() + 1);
+            }
+        });
+    }
+
+    public void recordCompletion(Booking booking) {
+        LocalDate day = booking.getCreatedAt().toLocalDate();
+        record(rows -> {
+            for (RollupKey key : bookingKeys(booking, day)) {
+                DailyRollup row = row(rows, key);
+                row.setCompletedBookings(row.getCompletedBookings() + 1);
+            }
+        });
+    }
+
+    public void recordPayment(Payment payment, Long providerId) {
+        LocalDate day = payment.getPaidAt().toLocalDate();
+        record(rows -> {
+            for (RollupKey key : List.of(platformKey(day), new RollupKey(RollupScope.PROVIDER, providerId, day))) {
+                DailyRollup row = row(rows, key);
+                row.setRevenue(row.getRevenue() + payment.getTotalAmount());
+                row.setPlatformFees(row.getPlatformFees() + payment.getPlatformFee());
+            }
+        });
+    }
+
+    public void recordWalletTransaction(WalletTransaction tx) {
+        LocalDate day = tx.getCreatedAt().toLocalDate();
+        boolean credit = "CREDIT".equals(tx.getType());
+        RollupScope userScope = scopeOf(tx.getUser().getRole());
+
+        record(rows -> {
+            accumulateWallet(row(rows, platformKey(day)), credit, tx.getAmount());
+            if (userScope != null) {
+                accumulateWallet(row(rows, new RollupKey(userScope, tx.getUser().getId(), day)), credit,
+                        tx.getAmount());
+            }
+        });
+    }
+
+    public void recordNewUser(User user) {
+        if (user.getRole() == Role.ADMIN) {
+            return;
+        }
+        record(rows -> {
+            DailyRollup row = row(rows, platformKey(user.getCreatedAt().toLocalDate()));
+            if (user.getRole() == Role.DRIVER) {
+                row.setNewDrivers(row.getNewDrivers() + 1);
+            } else if (user.getRole() == Role.PROVIDER) {
+                row.setNewProviders(row.getNewProviders() + 1);
+            }
+        });
+    }
+
+    /* ================= READ SIDE ================= */
+
+    /**
+     * One range scan; the shards of a day are added up, days without
+     * activity are simply absent from the map.
+     */
+    public Map<LocalDate, DailyRollup> range(RollupScope scope, Long ownerId, LocalDate from, LocalDate to) {
+        Map<LocalDate, DailyRollup> byDay = new LinkedHashMap<>();
+        for (DailyRollup r : rollupRepository.findByScopeAndOwnerIdAndRollupDateBetweenOrderByRollupDate(
+                scope, ownerId, from, to)) {
+            byDay.merge(r.getRollupDate(), r, RollupService::plus);
+        }
+        return byDay;
+    }
+
+    public Map<LocalDate, DailyRollup> platformRange(LocalDate from, LocalDate to) {
+        return range(RollupScope.PLATFORM, DailyRollup.PLATFORM_OWNER, from, to);
+    }
+
+    /**
+     * Sum of one metric over [from, to], both inclusive.
+     */
+    public static double sum(Map<LocalDate, DailyRollup> rows, LocalDate from, LocalDate to,
+            ToDoubleFunction<DailyRollup> metric) {
+        double total = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            DailyRollup r = rows.get(d);
+            if (r != null) {
+                total += metric.applyAsDouble(r);
+            }
+        }
+        return total;
+    }
+
+    /* ================= BACKFILL ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            transaction.executeWithoutResult(status -> backfill());
+        }
+    }
+
+    /**
+     * Rebuilds every rollup row from the source tables with grouped queries.
+     */
+    @Transactional
+    public void backfill() {
+        Map<RollupKey, DailyRollup> rows = new HashMap<>();
+
+        for (Object[] r : bookingRepository.aggregateDailyBookings()) {
+            Long providerId = (Long) r[0];
+            Long driverId = (Long) r[1];
+            LocalDate day = (LocalDate) r[2];
+            long count = ((Number) r[3]).longValue();
+            long completed = r[4] != null ? ((Number) r[4]).longValue() : 0;
+
+            for (RollupKey key : List.of(platformKey(day),
+                    new RollupKey(RollupScope.PROVIDER, providerId, day),
+                    new RollupKey(RollupScope.DRIVER, driverId, day))) {
+                DailyRollup row = row(rows, key);
+                row.setBookings(row.getBookings() + count);
+                row.setCompletedBookings(row.getCompletedBookings() + completed);
+            }
+        }
+
+        for (Object[] r : paymentRepository.aggregateDailyRevenue()) {
+            Long providerId = (Long) r[0];
+            LocalDate day = (LocalDate) r[1];
+            double revenue = ((Number) r[2]).doubleValue();
+            double fees = ((Number) r[3]).doubleValue();
+
+            for (RollupKey key : List.of(platformKey(day), new RollupKey(RollupScope.PROVIDER, providerId, day))) {
+                DailyRollup row = row(rows, key);
+                row.setRevenue(row.getRevenue() + revenue);
+                row.setPlatformFees(row.getPlatformFees() + fees);
+            }
+        }
+
+        for (Object[] r : walletTransactionRepository.aggregateDailyTransactions()) {
+            Long userId = (Long) r[0];
+            RollupScope userScope = scopeOf((Role) r[1]);
+            boolean credit = "CREDIT".equals(r[2]);
+            LocalDate day = (LocalDate) r[3];
+            double amount = ((Number) r[4]).doubleValue();
+
+            accumulateWallet(row(rows, platformKey(day)), credit, amount);
+            if (userScope != null) {
+                accumulateWallet(row(rows, new RollupKey(userScope, userId, day)), credit, amount);
+            }
+        }
+
+        for (Object[] r : userRepository.aggregateDailySignups()) {
+            Role role = (Role) r[0];
+            LocalDate day = (LocalDate) r[1];
+            long count = ((Number) r[2]).longValue();
+
+            DailyRollup row = row(rows, platformKey(day));
+            if (role == Role.DRIVER) {
+                row.setNewDrivers(row.getNewDrivers() + count);
+            } else if (role == Role.PROVIDER) {
+                row.setNewProviders(row.getNewProviders() + count);
+            }
+        }
+
+        rollupRepository.deleteAllInBatch();
+        knownRows.clear();
+        rollupRepository.saveAll(rows.values());
+    }
+
+    /* ================= PER-TRANSACTION DELTAS ================= */
+
+    /**
+     * Adds deltas to the current transaction's pending rows. Outside a
+     * transaction they are written straight away in one of their own.
+     */
+    private void record(Consumer<Map<RollupKey, DailyRollup>> deltas) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            Map<RollupKey, DailyRollup> rows = new HashMap<>();
+            deltas.accept(rows);
+            transaction.executeWithoutResult(status -> write(rows, pickShard()));
+            return;
+        }
+        deltas.accept(pending().rows);
+    }
+
+    // looked up among the synchronizations, which are suspended with their transaction
+    private Pending pending() {
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sync instanceof Pending pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        Pending pending = new Pending(pickShard());
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    // round robin, so transactions running side by side land on different shards
+    private int pickShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), shards);
+    }
+
+    /**
+     * One UPDATE per row, rows in {@link #LOCK_ORDER}.
+     */
+    private void write(Map<RollupKey, DailyRollup> rows, int shard) {
+        List<RollupKey> keys = new ArrayList<>(rows.keySet());
+        keys.sort(LOCK_ORDER);
+        for (RollupKey key : keys) {
+            DailyRollup d = rows.get(key);
+            int rowShard = shardOf(key, shard);
+            ensureRow(key, rowShard);
+            rollupRepository.add(key.scope(), key.ownerId(), key.day(), rowShard,
+                    d.getBookings(), d.getCompletedBookings(), d.getCredits(), d.getDebits(),
+                    d.getRevenue(), d.getPlatformFees(), d.getNewDrivers(), d.getNewProviders());
+        }
+    }
+
+    /** Deltas of one transaction; written in beforeCommit, still inside it. */
+    private final class Pending implements TransactionSynchronization {
+
+        private final int shard;
+        private final Map<RollupKey, DailyRollup> rows = new HashMap<>();
+
+        Pending(int shard) {
+            this.shard = shard;
+        }
+
+        RollupService owner() {
+            return RollupService.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(rows, shard);
+            rows.clear();
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    // platform and provider rows are shared by many checkouts; a driver's own rows stay whole
+    private static int shardOf(RollupKey key, int shard) {
+        return key.scope() == RollupScope.DRIVER ? 0 : shard;
+    }
+
+    /**
+     * Creates the zero row in the caller's transaction (see
+     * {@link CounterRows}) so the increment always finds it.
+     */
+    private void ensureRow(RollupKey key, int shard) {
+        counterRows.ensure(knownRows, new ShardKey(key, shard),
+                () -> rollupRepository.existsByScopeAndOwnerIdAndRollupDateAndShard(key.scope(), key.ownerId(),
+                        key.day(), shard),
+                INSERT_ROW, key.scope().name(), key.ownerId(), key.day(), shard);
+    }
+
+    // a new, unmanaged row, so adding up shards never dirties a loaded entity
+    private static DailyRollup plus(DailyRollup a, DailyRollup b) {
+        DailyRollup sum = new DailyRollup(a.getScope(), a.getOwnerId(), a.getRollupDate());
+        sum.setBookings(a.getBookings() + b.getBookings());
+        sum.setCompletedBookings(a.getCompletedBookings() + b.getCompletedBookings());
+        sum.setCredits(a.getCredits() + b.getCredits());
+        sum.setDebits(a.getDebits() + b.getDebits());
+        sum.setRevenue(a.getRevenue() + b.getRevenue());
+        sum.setPlatformFees(a.getPlatformFees() + b.getPlatformFees());
+        sum.setNewDrivers(a.getNewDrivers() + b.getNewDrivers());
+        sum.setNewProviders(a.getNewProviders() + b.getNewProviders());
+        return sum;
+    }
+
+    private static void accumulateWallet(DailyRollup row, boolean credit, double amount) {
+        if (credit) {
+            row.setCredits(row.getCredits() + amount);
+        } else {
+            row.setDebits(row.getDebits() + amount);
+        }
+    }
+
+    private List<RollupKey> bookingKeys(Booking booking, LocalDate day) {
+        return List.of(
+                platformKey(day),
+                new RollupKey(RollupScope.PROVIDER, booking.getParkingLot().getProvider().getId(), day),
+                new RollupKey(RollupScope.DRIVER, booking.getDriver().getId(), day));
+    }
+
+    private static RollupKey platformKey(LocalDate day) {
+        return new RollupKey(RollupScope.PLATFORM, DailyRollup.PLATFORM_OWNER, day);
+    }
+
+    private static RollupScope scopeOf(Role role) {
+        if (role == Role.PROVIDER) {
+            return RollupScope.PROVIDER;
+        }
+        if (role == Role.DRIVER) {
+            return RollupScope.DRIVER;
+        }
+        return null;
+    }
+
+    private static DailyRollup row(Map<RollupKey, DailyRollup> rows, RollupKey key) {
+        return rows.computeIfAbsent(key, k -> new DailyRollup(k.scope(), k.ownerId(), k.day()));
+    }
+
+    private record RollupKey(RollupScope scope, Long ownerId, LocalDate day) {
+    }
+
+    private record ShardKey(RollupKey key, int shard) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.parkease.backend.service;
+
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory free-slot index: lot id -> vehicle type -> ids of slots that are
+ * active and not occupied. Lets a booking pick a slot in O(1) and load only
+ * that slot, instead of hydrating every slot of the lot.
+ *
+ * The database stays the source of truth; the index is kept in sync by
+ * booking start/end and slot mutations and reconciled against it at
+ * startup and then periodically.
+ */
+@Service
+public class SlotAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotAvailabilityIndex.class);
+
+    private final ParkingSlotRepository parkingSlotRepository;
+
+    private final Map<Long, Map<VehicleType, LinkedHashSet<Long>>> freeSlots = new ConcurrentHashMap<>();
+
+    public SlotAvailabilityIndex(ParkingSlotRepository parkingSlotRepository) {
+        this.parkingSlotRepository = parkingSlotRepository;
+    }
+
+    /* ================= RECONCILE ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        reconcile();
+    }
+
+    /**
+     * Brings the index back in line with the slots table: free slots it is
+     * missing are added and ids the table no longer shows as free are
+     * dropped, lot by lot under the lot's lock, so a slot missed by a
+     * failed after-commit hook or a manual change is bookable again within
+     * one period. Adding a slot that is being claimed right now is
+     * harmless, the conditional claim skips it; a slot freed after the
+     * query may be dropped here and is added back by the next run.
+     */
+    @Scheduled(fixedDelayString = "${parkease.slot-index.reconcile-ms:300000}",
+            initialDelayString = "${parkease.slot-index.reconcile-ms:300000}")
+    public void reconcile() {
+        Map<Long, Map<VehicleType, Set<Long>>> fresh = new HashMap<>();
+
+        for (Object[] row : parkingSlotRepository.findFreeSlotKeys(SlotStatus.AVAILABLE)) {
+            Long slotId = (Long) row[0];
+            Long lotId = (Long) row[1];
+            VehicleType type = (VehicleType) row[2];
+
+            fresh.computeIfAbsent(lotId, id -> new EnumMap<>(VehicleType.class))
+                    .computeIfAbsent(type, t -> new HashSet<>())
+                    .add(slotId);
+        }
+
+        Set<Long> lots = new HashSet<>(fresh.keySet());
+        lots.addAll(freeSlots.keySet());
+
+        int added = 0;
+        int dropped = 0;
+        for (Long lotId : lots) {
+            Map<VehicleType, Set<Long>> want = fresh.getOrDefault(lotId, Map.of());
+            Map<VehicleType, LinkedHashSet<Long>> byType = freeSlots.computeIfAbsent(
+                    lotId, id -> new EnumMap<>(VehicleType.class));
+
+            synchronized (byType) {
+                for (Map.Entry<VehicleType, LinkedHashSet<Long>> e : byType.entrySet()) {
+                    Set<Long> free = want.getOrDefault(e.getKey(), Set.of());
+                    int before = e.getValue().size();
+                    e.getValue().removeIf(id -> !free.contains(id));
+                    dropped += before - e.getValue().size();
+                }
+                for (Map.Entry<VehicleType, Set<Long>> e : want.entrySet()) {
+                    LinkedHashSet<Long> ids = byType.computeIfAbsent(e.getKey(), t -> new LinkedHashSet<>());
+                    for (Long id : e.getValue()) {
+                        if (ids.add(id)) {
+                            added++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (added + dropped > 0) {
+            log.info("Slot availability index: added {}, dropped {} slots", added, dropped);
+        }
+    }
+
+    /* ================= LOOKUP ================= */
+
+    /**
+     * Removes and returns a free slot id for the lot. A null vehicle type
+     * accepts any type.
+     */
+    public Optional<Long> pollFreeSlot(Long lotId, VehicleType vehicleType) {
+        Map<VehicleType, LinkedHashSet<Long>> byType = freeSlots.get(lotId);
+        if (byType == null) {
+            return Optional.empty();
+        }
+
+        synchronized (byType) {
+            if (vehicleType != null) {
+                return pollFirst(byType.get(vehicleType));
+            }
+            for (LinkedHashSet<Long> ids : byType.values()) {
+                Optional<Long> slotId = pollFirst(ids);
+                if (slotId.isPresent()) {
+                    return slotId;
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    public int freeCount(Long lotId) {
+        Map<VehicleType, LinkedHashSet<Long>> byType = freeSlots.get(lotId);
+        if (byType == null) {
+            return 0;
+        }
+        synchronized (byType) {
+            return byType.values().stream().mapToInt(LinkedHashSet::size).sum();
+        }
+    }
+
+    /* ================= MUTATIONS ================= */
+
+    /**
+     * Slot taken by a booking. Removed now so no one else picks it, and put
+     * back if the surrounding transaction rolls back.
+     */
+    public void claim(ParkingSlot slot) {
+        evict(slot);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        add(slot);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Slot became free (booking ended, slot added or re-activated). Published
+     * only once the change is committed.
+     */
+    public void markFree(ParkingSlot slot) {
+        if (slot.isOccupied() || slot.getStatus() != SlotStatus.AVAILABLE) {
+            return;
+        }
+
+        markFree(slot.getParkingLot().getId(), slot.getVehicleType(), slot.getId());
+    }
+
+    /**
+     * Same as {@link #markFree(ParkingSlot)} for a slot released by a bulk
+     * UPDATE, where the loaded entity still shows the old state.
+     */
+    public void markFree(Long lotId, VehicleType vehicleType, Long slotId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(lotId, vehicleType, slotId);
+                }
+            });
+        } else {
+            add(lotId, vehicleType, slotId);
+        }
+    }
+
+    /**
+     * Slot deactivated or deleted.
+     */
+    public void evict(ParkingSlot slot) {
+        Map<VehicleType, LinkedHashSet<Long>> byType = freeSlots.get(slot.getParkingLot().getId());
+        if (byType == null) {
+            return;
+        }
+        synchronized (byType) {
+            for (LinkedHashSet<Long> ids : byType.values()) {
+                ids.remove(slot.getId());
+            }
+        }
+    }
+
+    /* ================= HELPERS ================= */
+
+    private void add(ParkingSlot slot) {
+        add(slot.getParkingLot().getId(), slot.getVehicleType(), slot.getId());
+    }
+
+    private void add(Long lotId, VehicleType vehicleType, Long slotId) {
+        Map<VehicleType, LinkedHashSet<Long>> byType = freeSlots.computeIfAbsent(
+                lotId, id -> new EnumMap<>(VehicleType.class));
+
+        synchronized (byType) {
+            byType.computeIfAbsent(vehicleType, t -> new LinkedHashSet<>())
+                    .add(slotId);
+        }
+    }
+
+    private Optional<Long> pollFirst(LinkedHashSet<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Optional.empty();
+        }
+        Iterator<Long> it = ids.iterator();
+        Long slotId = it.next();
+        it.remove();
+        return Optional.of(slotId);
+    }
+}
@@ -11,6 +11,7 @@ import com.parkease.backend.repository.ParkingLotRepository;
 import com.parkease.backend.repository.ParkingSlotRepository;
 import com.parkease.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,15 +21,21 @@ public class SpaceManagementService {
     private final UserRepository userRepository;
     private final ParkingLotRepository parkingLotRepository;
     private final ParkingSlotRepository parkingSlotRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final OccupancyCounters occupancyCounters;
 
     public SpaceManagementService(
             UserRepository userRepository,
             ParkingLotRepository parkingLotRepository,
-            ParkingSlotRepository parkingSlotRepository
+            ParkingSlotRepository parkingSlotRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex,
+            OccupancyCounters occupancyCounters
     ) {
         this.userRepository = userRepository;
         this.parkingLotRepository = parkingLotRepository;
         this.parkingSlotRepository = parkingSlotRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.occupancyCounters = occupancyCounters;
     }
 
     /* ================= HELPER METHODS ================= */
@@ -69,6 +76,7 @@ public class SpaceManagementService {
                 .toList();
     }
 
+    @Transactional
     public void addSlot(String email, CreateParkingSlotRequest req) {
         ParkingLot lot = getProviderLot(email);
 
@@ -88,14 +96,18 @@ public class SpaceManagementService {
         slot.setParkingLot(lot);
 
         parkingSlotRepository.save(slot);
+        slotAvailabilityIndex.markFree(slot);
+        occupancyCounters.slotChanged(lot, slot.getVehicleType(), null, OccupancyCounters.SlotState.of(slot));
     }
 
+    @Transactional
     public void toggleSlot(String email, Long slotId) {
         ParkingLot lot = getProviderLot(email);
 
         ParkingSlot slot = parkingSlotRepository
                 .findByIdAndParkingLot(slotId, lot)
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
+        OccupancyCounters.SlotState before = OccupancyCounters.SlotState.of(slot);
 
         if (slot.getStatus() == SlotStatus.AVAILABLE) {
             slot.setStatus(SlotStatus.INACTIVE);               // ✅ FIXED
@@ -104,8 +116,16 @@ public class SpaceManagementService {
         }
 
         parkingSlotRepository.save(slot);
+        occupancyCounters.slotChanged(lot, slot.getVehicleType(), before, OccupancyCounters.SlotState.of(slot));
+
+        if (slot.isActive()) {
+            slotAvailabilityIndex.markFree(slot);
+        } else {
+            slotAvailabilityIndex.evict(slot);
+        }
     }
 
+    @Transactional
     public void deleteSlot(String email, Long slotId) {
         ParkingLot lot = getProviderLot(email);
 
@@ -114,5 +134,7 @@ public class SpaceManagementService {
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
 
         parkingSlotRepository.delete(slot);
+        slotAvailabilityIndex.evict(slot);
+        occupancyCounters.slotChanged(lot, slot.getVehicleType(), OccupancyCounters.SlotState.of(slot), null);
     }
 }
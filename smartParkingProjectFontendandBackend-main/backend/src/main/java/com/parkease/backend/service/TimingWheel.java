@@ -0,0 +1,166 @@
+package com.parkease.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, so with a one-second
+ * tick it covers about 194 days before a timer has to be re-cascaded.
+ * Schedule and cancel are O(1) (a doubly linked slot list plus a key map);
+ * advancing costs one slot per elapsed tick plus the timers that cascade
+ * down or expire. Timers are keyed, scheduling an existing key moves it.
+ *
+ * Not a bean: the owner drives {@link #advance(long)} from its own clock.
+ */
+public final class TimingWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS); // ticks covered by all levels
+
+    private final long tickMillis;
+    private final Node<K>[][] wheel;
+    private final Map<K, Node<K>> timers = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.wheel = new Node[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Node<K> head = new Node<>(null, 0);
+                head.prev = head;
+                head.next = head;
+                wheel[level][slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Fires at the first tick at or after deadlineMillis; a deadline already
+     * in the past fires on the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Node<K> existing = timers.remove(key);
+        if (existing != null) {
+            existing.unlink();
+        }
+
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadlineMillis, tickMillis));
+        Node<K> node = new Node<>(key, deadlineTick);
+        timers.put(key, node);
+        place(node);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K> node = timers.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Moves the wheel up to nowMillis and returns the keys that expired, in
+     * deadline order.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+
+        while (currentTick < target) {
+            currentTick++;
+
+            // cascade higher levels whenever the level below wraps around
+            for (int level = 1; level < LEVELS; level++) {
+                if (((currentTick >> (SLOT_BITS * (level - 1))) & MASK) != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >> (SLOT_BITS * level)) & MASK));
+            }
+
+            Node<K> head = wheel[0][(int) (currentTick & MASK)];
+            while (head.next != head) {
+                Node<K> node = head.next;
+                node.unlink();
+                timers.remove(node.key);
+                expired.add(node.key);
+            }
+        }
+        return expired;
+    }
+
+    /* ===== HELPERS ===== */
+
+    private void cascade(int level, int slot) {
+        Node<K> head = wheel[level][slot];
+        while (head.next != head) {
+            Node<K> node = head.next;
+            node.unlink();
+            place(node);
+        }
+    }
+
+    private void place(Node<K> node) {
+        long delta = node.deadlineTick - currentTick;
+        long tick = node.deadlineTick;
+
+        if (delta >= SPAN) {
+            // beyond the top level: park at the far edge and re-place when it cascades
+            tick = currentTick + SPAN - 1;
+            delta = SPAN - 1;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = delta <= 0
+                ? (int) (currentTick & MASK) // already due: the slot being expired now
+                : (int) ((tick >> (SLOT_BITS * level)) & MASK);
+
+        node.linkBefore(wheel[level][slot]);
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private static final class Node<K> {
+
+        private final K key;
+        private final long deadlineTick;
+        private Node<K> prev;
+        private Node<K> next;
+
+        Node(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+
+        void linkBefore(Node<K> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.parkease.backend.service;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Consecutive day / month / year buckets ending today, shared by every trend
+ * endpoint. A series is fetched once as per-day rows (rollups or a grouped
+ * query), folded into the buckets in a single pass, and buckets without rows
+ * stay at zero.
+ */
+public final class TrendBuckets {
+
+    public enum Granularity {
+        DAY, MONTH, YEAR
+    }
+
+    public record Bucket(LocalDate start, LocalDate end, String label) {
+    }
+
+    private final Granularity granularity;
+    private final List<Bucket> buckets;
+
+    private TrendBuckets(Granularity granularity, List<Bucket> buckets) {
+        this.granularity = granularity;
+        this.buckets = buckets;
+    }
+
+    /**
+     * The last {@code points} buckets, oldest first; the newest one contains
+     * {@code today}.
+     */
+    public static TrendBuckets last(Granularity granularity, int points, LocalDate today) {
+        if (points <= 0) {
+            throw new IllegalArgumentException("points must be positive");
+        }
+
+        List<Bucket> buckets = new ArrayList<>(points);
+        for (int i = points - 1; i >= 0; i--) {
+            switch (granularity) {
+                case DAY -> {
+                    LocalDate day = today.minusDays(i);
+                    buckets.add(new Bucket(day, day,
+                            day.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH)));
+                }
+                case MONTH -> {
+                    LocalDate first = today.minusMonths(i).withDayOfMonth(1);
+                    buckets.add(new Bucket(first, first.withDayOfMonth(first.lengthOfMonth()),
+                            first.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH)));
+                }
+                case YEAR -> {
+                    LocalDate first = today.minusYears(i).withDayOfYear(1);
+                    buckets.add(new Bucket(first, first.withDayOfYear(first.lengthOfYear()),
+                            String.valueOf(first.getYear())));
+                }
+            }
+        }
+        return new TrendBuckets(granularity, Collections.unmodifiableList(buckets));
+    }
+
+    public Granularity granularity() {
+        return granularity;
+    }
+
+    public List<Bucket> buckets() {
+        return buckets;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /** First day covered, i.e. the lower bound for the backing range query. */
+    public LocalDate start() {
+        return buckets.get(0).start();
+    }
+
+    /** Last day covered. */
+    public LocalDate end() {
+        return buckets.get(buckets.size() - 1).end();
+    }
+
+    /**
+     * Index of the bucket containing {@code day}, or -1 when it falls outside.
+     */
+    public int indexOf(LocalDate day) {
+        if (day.isBefore(start()) || day.isAfter(end())) {
+            return -1;
+        }
+
+        int lo = 0;
+        int hi = buckets.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (buckets.get(mid).start().isAfter(day)) {
+                hi = mid - 1;
+            } else {
+                lo = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Sums one metric of the per-day rows into the buckets. Days missing from
+     * the map contribute nothing, which is how gaps get filled.
+     */
+    public <T> double[] fold(Map<LocalDate, T> byDay, ToDoubleFunction<T> metric) {
+        double[] values = new double[buckets.size()];
+        for (Map.Entry<LocalDate, T> e : byDay.entrySet()) {
+            int idx = indexOf(e.getKey());
+            if (idx >= 0) {
+                values[idx] += metric.applyAsDouble(e.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Running totals of {@code values}, each starting from {@code base}.
+     */
+    public static double[] cumulative(double base, double[] values) {
+        double[] out = new double[values.length];
+        double running = base;
+        for (int i = 0; i < values.length; i++) {
+            running += values[i];
+            out[i] = running;
+        }
+        return out;
+    }
+
+    /**
+     * The chart shape used across the dashboards: [{label, value}, ...].
+     */
+    public List<Map<String, Object>> series(double[] values) {
+        List<Map<String, Object>> list = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("label", buckets.get(i).label());
+            map.put("value", (int) values[i]);
+            list.add(map);
+        }
+        return list;
+    }
+}
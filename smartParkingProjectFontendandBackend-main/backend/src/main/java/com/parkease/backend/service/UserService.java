@@ -1,5 +1,6 @@
 package com.parkease.backend.service;
 
+import com.parkease.backend.config.PrincipalCache;
 import com.parkease.backend.entity.User;
 import com.parkease.backend.enumtype.Role;
 import com.parkease.backend.repository.UserRepository;
@@ -14,6 +15,18 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private AdminUserIndex adminUserIndex;
+
+    @Autowired
+    private ProviderBalanceService providerBalanceService;
+
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
     // ================= GET USER BY ID =================
     public User getUserById(Long id) {
         return userRepository.findById(id)
@@ -42,6 +55,8 @@ public class UserService {
         User user = getUserById(userId);
         user.setEnabled(enabled);
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        adminUserIndex.sync(user);
     }
 
     // ================= APPROVE PROVIDER =================
@@ -55,6 +70,10 @@ public class UserService {
 
         user.setApproved(true);
         userRepository.save(user);
+        providerBalanceService.createShards(user.getId());
+        ratingSummaryService.createRow(user.getId());
+        principalCache.evict(user.getEmail());
+        adminUserIndex.sync(user);
     }
 
     // ================= DELETE USER =================
@@ -62,5 +81,7 @@ public class UserService {
 
         User user = getUserById(userId);
         userRepository.delete(user);
+        principalCache.evict(user.getEmail());
+        adminUserIndex.remove(userId);
     }
 }
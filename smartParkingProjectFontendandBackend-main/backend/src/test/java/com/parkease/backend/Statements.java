@@ -0,0 +1,38 @@
+package com.parkease.backend;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while a call runs, for the
+ * tests that pin how many queries an endpoint or write path costs.
+ */
+public final class Statements {
+
+    private static final int RUNS = 3;
+
+    private Statements() {
+    }
+
+    /**
+     * Fewest statements over a few runs, so a scheduled job firing meanwhile
+     * does not count.
+     */
+    public static long count(EntityManagerFactory entityManagerFactory, Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            long fewest = Long.MAX_VALUE;
+            for (int i = 0; i < RUNS; i++) {
+                statistics.clear();
+                call.run();
+                fewest = Math.min(fewest, statistics.getPrepareStatementCount());
+            }
+            return fewest;
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.parkease.backend;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.ParkingLotRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+import com.parkease.backend.repository.UserRepository;
+
+/**
+ * Fixture rows for the Spring tests. Every call creates fresh users and
+ * lots with unique emails and phone numbers, so tests sharing the
+ * in-memory database never see each other's data by key.
+ */
+public class TestData {
+
+    private final UserRepository userRepository;
+    private final ParkingLotRepository lotRepository;
+    private final ParkingSlotRepository slotRepository;
+
+    public TestData(UserRepository userRepository, ParkingLotRepository lotRepository,
+            ParkingSlotRepository slotRepository) {
+        this.userRepository = userRepository;
+        this.lotRepository = lotRepository;
+        this.slotRepository = slotRepository;
+    }
+
+    public User provider() {
+        return user(Role.PROVIDER, "provider");
+    }
+
+    public User driver() {
+        return user(Role.DRIVER, "driver");
+    }
+
+    public User driver(double walletBalance) {
+        User driver = driver();
+        driver.setWalletBalance(walletBalance);
+        return userRepository.save(driver);
+    }
+
+    public User user(Role role, String name) {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setFullName(name + " " + unique);
+        user.setEmail(name + "-" + unique + "@test.parkease");
+        user.setPhoneNumber(String.valueOf(Math.abs(UUID.randomUUID().getMostSignificantBits())));
+        user.setPassword("{noop}secret");
+        user.setRole(role);
+        user.setApproved(true);
+        user.setEnabled(true);
+        user.setCreatedAt(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+
+    public ParkingLot lot(User provider, String name, double latitude, double longitude) {
+        ParkingLot lot = new ParkingLot();
+        lot.setProvider(provider);
+        lot.setName(name);
+        lot.setAddress(name + " street");
+        lot.setCity("Testville");
+        lot.setLatitude(latitude);
+        lot.setLongitude(longitude);
+        lot.setActive(true);
+        return lotRepository.save(lot);
+    }
+
+    public List<ParkingSlot> slots(ParkingLot lot, VehicleType type, int count) {
+        List<ParkingSlot> slots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ParkingSlot slot = new ParkingSlot();
+            slot.setParkingLot(lot);
+            slot.setSlotNumber(type.name().charAt(0) + String.valueOf(i + 1));
+            slot.setVehicleType(type);
+            slots.add(slot);
+        }
+        return slotRepository.saveAll(slots);
+    }
+}
@@ -0,0 +1,154 @@
+package com.parkease.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import com.parkease.backend.repository.IdempotencyRecordRepository;
+
+import jakarta.servlet.FilterChain;
+
+class IdempotencyFilterTest {
+
+    private static final String PATH = "/api/driver/dashboard/add-money";
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    // duplicates wait at most 200 ms for the first execution
+    private final IdempotencyStore store = new IdempotencyStore(repository, 24, 100, 200);
+    private final IdempotencyFilter filter = new IdempotencyFilter();
+    private final AtomicInteger executions = new AtomicInteger();
+    private SecurityContext context;
+
+    {
+        when(repository.findByOwnerAndIdemKey(anyString(), anyString())).thenReturn(Optional.empty());
+        ReflectionTestUtils.setField(filter, "idempotencyStore", store);
+    }
+
+    @BeforeEach
+    void authenticate() {
+        context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken("driver@test.parkease", null,
+                List.of(new SimpleGrantedAuthority("ROLE_DRIVER"))));
+        SecurityContextHolder.setContext(context);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aRetryGetsTheFirstResponseReplayed() throws Exception {
+        MockHttpServletResponse first = post("k1", "{\"amount\":50}", echo());
+        MockHttpServletResponse retry = post("k1", "{\"amount\":50}", echo());
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getContentAsString()).isEqualTo("credited {\"amount\":50}");
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader("Idempotent-Replayed")).isEqualTo("true");
+    }
+
+    @Test
+    void theSameKeyWithADifferentBodyIsRejected() throws Exception {
+        post("k2", "{\"amount\":50}", echo());
+
+        MockHttpServletResponse other = post("k2", "{\"amount\":500}", echo());
+
+        assertThat(other.getStatus()).isEqualTo(422);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void aDuplicateOfARequestStillRunningGets409() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            running.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            echo().doFilter(request, response);
+        };
+
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+            SecurityContextHolder.setContext(context);
+            try {
+                return post("k3", "{\"amount\":50}", slow);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse duplicate = post("k3", "{\"amount\":50}", echo());
+        release.countDown();
+
+        assertThat(duplicate.getStatus()).isEqualTo(409);
+        assertThat(duplicate.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(first.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void aRequestThatThrowsReleasesItsKey() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("database down");
+        };
+
+        assertThatThrownBy(() -> post("k4", "{\"amount\":50}", failing))
+                .isInstanceOf(IllegalStateException.class).hasMessage("database down");
+        MockHttpServletResponse retry = post("k4", "{\"amount\":50}", echo());
+
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getHeader("Idempotent-Replayed")).isNull();
+        assertThat(executions).hasValue(2);
+    }
+
+    // the handler reads the body the filter already consumed for hashing
+    private FilterChain echo() {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            String body = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+            response.setContentType("text/plain");
+            response.getOutputStream().write(("credited " + body).getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private MockHttpServletResponse post(String key, String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,68 @@
+package com.parkease.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.parkease.backend.entity.IdempotencyRecord;
+import com.parkease.backend.repository.IdempotencyRecordRepository;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final IdempotencyStore store = new IdempotencyStore(repository, 24, 100, 100);
+
+    {
+        when(repository.findByOwnerAndIdemKey(anyString(), anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void successAndValidationErrorsAreReplayed() {
+        for (int status : new int[] { 200, 201, 400, 404, 422 }) {
+            String key = "k" + status;
+            complete(key, status);
+
+            IdempotencyStore.Claim again = store.begin("driver", key, "hash");
+            assertThat(again.outcome()).as("status %d", status).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+            assertThat(again.response().status()).isEqualTo(status);
+        }
+    }
+
+    @Test
+    void transientFailuresAreNotKept() {
+        for (int status : new int[] { 408, 409, 423, 425, 429, 500, 503 }) {
+            String key = "k" + status;
+            complete(key, status);
+
+            assertThat(store.begin("driver", key, "hash").outcome()).as("status %d", status)
+                    .isEqualTo(IdempotencyStore.Outcome.EXECUTE);
+        }
+        verify(repository, never()).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void onlyFinalStatusesCount() {
+        assertThat(IdempotencyStore.isFinal(200)).isTrue();
+        assertThat(IdempotencyStore.isFinal(400)).isTrue();
+        assertThat(IdempotencyStore.isFinal(302)).isFalse();
+        assertThat(IdempotencyStore.isFinal(409)).isFalse();
+        assertThat(IdempotencyStore.isFinal(429)).isFalse();
+        assertThat(IdempotencyStore.isFinal(500)).isFalse();
+    }
+
+    private void complete(String key, int status) {
+        IdempotencyStore.Claim claim = store.begin("driver", key, "hash");
+        assertThat(claim.outcome()).isEqualTo(IdempotencyStore.Outcome.EXECUTE);
+        store.complete(claim, new IdempotencyStore.StoredResponse("hash", status, "application/json",
+                "{}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.parkease.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = new JwtService();
+    private final PrincipalCache principalCache = mock(PrincipalCache.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+    private final User driver = new User();
+
+    {
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "principalCache", principalCache);
+        ReflectionTestUtils.setField(driver, "id", 42L);
+        driver.setEmail("filter@test.parkease");
+        driver.setRole(Role.DRIVER);
+        driver.setEnabled(true);
+        when(principalCache.get(driver.getEmail())).thenReturn(Optional.of(AuthPrincipal.from(driver)));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aValidTokenAuthenticatesTheRequest() throws Exception {
+        Authentication auth = run("Bearer " + jwtService.generateToken(driver));
+
+        assertThat(auth).isNotNull();
+        assertThat(auth.getPrincipal()).isEqualTo(AuthPrincipal.from(driver));
+        assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_DRIVER");
+    }
+
+    @Test
+    void aTamperedTokenOfACachedOneDoesNotAuthenticate() throws Exception {
+        String token = jwtService.generateToken(driver);
+        assertThat(run("Bearer " + token)).isNotNull();
+        SecurityContextHolder.clearContext();
+
+        String tampered = JwtServiceTest.flipCharacter(token, token.length() - 10);
+
+        assertThat(run("Bearer " + tampered)).isNull();
+    }
+
+    @Test
+    void unknownUsersAndOtherSchemesPassThroughUnauthenticated() throws Exception {
+        User stranger = new User();
+        stranger.setEmail("nobody@test.parkease");
+        stranger.setRole(Role.DRIVER);
+        when(principalCache.get(stranger.getEmail())).thenReturn(Optional.empty());
+
+        assertThat(run("Bearer " + jwtService.generateToken(stranger))).isNull();
+        assertThat(run("Basic abc")).isNull();
+        assertThat(run(null)).isNull();
+    }
+
+    // the authentication the filter left behind; the chain always continues
+    private Authentication run(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/driver/dashboard");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
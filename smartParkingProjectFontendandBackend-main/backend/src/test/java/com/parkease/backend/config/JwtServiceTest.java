@@ -0,0 +1,104 @@
+package com.parkease.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+
+class JwtServiceTest {
+
+    private final JwtService jwtService = new JwtService();
+
+    @Test
+    void aVerifiedTokenIsReusedUntilItExpires() throws Exception {
+        String token = jwtService.generateToken(driver("cache@test.parkease"), 1_500);
+
+        JwtService.VerifiedToken first = jwtService.verify(token).orElseThrow();
+        assertThat(first.username()).isEqualTo("cache@test.parkease");
+        assertThat(first.role()).isEqualTo("ROLE_DRIVER");
+        // served from the cache, not parsed again
+        assertThat(jwtService.verify(token)).containsSame(first);
+
+        // exp has second precision; wait until it has certainly passed
+        Thread.sleep(first.expiresAt().getTime() - System.currentTimeMillis() + 100);
+        assertThat(jwtService.verify(token)).isEmpty();
+        assertThat(jwtService.verify(token)).isEmpty(); // and not revived once dropped from the cache
+    }
+
+    @Test
+    void aTamperedTokenIsRejectedEvenAfterTheGenuineOneIsCached() {
+        String token = jwtService.generateToken(driver("tamper@test.parkease"));
+        assertThat(jwtService.verify(token)).isPresent();
+
+        // same header and payload, different signature
+        String badSignature = flipCharacter(token, token.length() - 10); // the last one may be padding bits
+        // same header, payload swapped for another user's, original signature
+        String[] parts = token.split("\\.");
+        String otherPayload = jwtService.generateToken(driver("other@test.parkease")).split("\\.")[1];
+        String swappedPayload = parts[0] + "." + otherPayload + "." + parts[2];
+
+        assertThat(jwtService.verify(badSignature)).isEmpty();
+        assertThat(jwtService.verify(swappedPayload)).isEmpty();
+        assertThat(jwtService.verify("garbage")).isEmpty();
+        assertThat(jwtService.verify(token)).isPresent();
+    }
+
+    @Test
+    void isTokenValidChecksTheUser() {
+        User driver = driver("valid@test.parkease");
+        JwtService.VerifiedToken token = jwtService.verify(jwtService.generateToken(driver)).orElseThrow();
+
+        assertThat(jwtService.isTokenValid(token, AuthPrincipal.from(driver))).isTrue();
+        assertThat(jwtService.isTokenValid(token, AuthPrincipal.from(driver("someone@test.parkease")))).isFalse();
+    }
+
+    /**
+     * A repeat request costs a hash and a map lookup instead of a parse and
+     * an HMAC check.
+     */
+    @Test
+    void aCachedVerifyIsCheaperThanAFirstParse() {
+        int tokens = 2_000;
+        List<String> fresh = new ArrayList<>(tokens);
+        for (int i = 0; i < tokens; i++) {
+            fresh.add(jwtService.generateToken(driver("bench" + i + "@test.parkease")));
+        }
+        String repeated = jwtService.generateToken(driver("repeat@test.parkease"));
+        jwtService.verify(repeated);
+        for (int i = 0; i < tokens; i++) {
+            jwtService.verify(repeated); // warm up the cached path
+        }
+
+        long started = System.nanoTime();
+        for (String token : fresh) {
+            jwtService.verify(token);
+        }
+        double parseMicros = (System.nanoTime() - started) / 1e3 / tokens;
+
+        started = System.nanoTime();
+        for (int i = 0; i < tokens; i++) {
+            jwtService.verify(repeated);
+        }
+        double cachedMicros = (System.nanoTime() - started) / 1e3 / tokens;
+
+        assertThat(cachedMicros).as("µs per verify: cached %.1f, first parse %.1f", cachedMicros, parseMicros)
+                .isLessThan(parseMicros);
+    }
+
+    static String flipCharacter(String token, int at) {
+        char c = token.charAt(at);
+        return token.substring(0, at) + (c == 'A' ? 'B' : 'A') + token.substring(at + 1);
+    }
+
+    private static User driver(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setRole(Role.DRIVER);
+        return user;
+    }
+}
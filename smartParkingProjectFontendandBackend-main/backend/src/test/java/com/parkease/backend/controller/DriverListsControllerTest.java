@@ -0,0 +1,93 @@
+package com.parkease.backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.parkease.backend.TestData;
+import com.parkease.backend.config.AuthPrincipal;
+import com.parkease.backend.dto.CursorPage;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.service.CheckoutService;
+import com.parkease.backend.service.SlotAvailabilityIndex;
+
+/**
+ * The driver app reads these lists as plain arrays; the paged shape is only
+ * returned when the caller passes cursor or limit.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class DriverListsControllerTest {
+
+    @Autowired
+    private DriverBookingController bookingController;
+
+    @Autowired
+    private DriverDashboardController dashboardController;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void bookingsAreAnArrayUnlessPaged() {
+        Authentication driver = driverWithBookings(3);
+
+        List<?> all = (List<?>) bookingController.getMyBookings(driver, null, null).getBody();
+        assertThat(all).hasSize(3);
+        // the bookings screen reads the nested lot and slot
+        Map<?, ?> first = (Map<?, ?>) all.get(0);
+        assertThat(((Map<?, ?>) first.get("parkingLot")).get("name")).isEqualTo("Driver lists lot");
+        assertThat(((Map<?, ?>) first.get("parkingSlot")).get("slotNumber")).isNotNull();
+
+        CursorPage<?> page = (CursorPage<?>) bookingController.getMyBookings(driver, null, 2).getBody();
+        assertThat(page.items()).hasSize(2);
+        CursorPage<?> rest = (CursorPage<?>) bookingController.getMyBookings(driver, page.nextCursor(), 2).getBody();
+        assertThat(rest.items()).hasSize(1);
+        assertThat(rest.nextCursor()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transactionsAreAnArrayUnlessPaged() {
+        Authentication driver = driverWithBookings(2);
+
+        List<?> all = (List<?>) dashboardController.getTransactions(driver, null, null).getBody();
+        assertThat(all).hasSize(2);
+        assertThat((Map<String, Object>) all.get(0)).containsKeys("id", "type", "title", "amount", "date");
+
+        CursorPage<?> page = (CursorPage<?>) dashboardController.getTransactions(driver, null, 1).getBody();
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNotNull();
+    }
+
+    private Authentication driverWithBookings(int bookings) {
+        ParkingLot lot = testData.lot(testData.provider(), "Driver lists lot", 13.0, 78.0);
+        testData.slots(lot, VehicleType.CAR, bookings);
+        slotAvailabilityIndex.reconcile();
+        User driver = testData.driver(100);
+        for (int i = 0; i < bookings; i++) {
+            checkoutService.checkout(driver, lot, VehicleType.CAR, "KA02-" + i,
+                    LocalDateTime.now().plusHours(1), 20, 2, "WALLET");
+        }
+        return new UsernamePasswordAuthenticationToken(AuthPrincipal.from(driver), null,
+                List.of(new SimpleGrantedAuthority("ROLE_DRIVER")));
+    }
+}
@@ -0,0 +1,93 @@
+package com.parkease.backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.parkease.backend.Statements;
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.service.CheckoutService;
+import com.parkease.backend.service.SlotAvailabilityIndex;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Import(TestData.class)
+class ProviderDashboardControllerTest {
+
+    @Autowired
+    private ProviderDashboardController controller;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * The lists used to load payment, slot and driver per booking; the
+     * projections read them in one statement, so the count does not move
+     * with the number of bookings.
+     */
+    @Test
+    void listsRunTheSameStatementsForFewOrManyBookings() {
+        Authentication few = providerWithBookings(3);
+        Authentication many = providerWithBookings(40);
+        // the controller is guarded by hasRole('PROVIDER'); either provider passes
+        SecurityContextHolder.getContext().setAuthentication(many);
+        try {
+            assertConstantStatements(few, many);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void assertConstantStatements(Authentication few, Authentication many) {
+        List<Function<Authentication, ResponseEntity<?>>> endpoints = List.of(
+                controller::getHistory, controller::getTodayBookings, controller::getEarnings);
+        for (Function<Authentication, ResponseEntity<?>> endpoint : endpoints) {
+            long forFew = Statements.count(entityManagerFactory, () -> endpoint.apply(few));
+            long forMany = Statements.count(entityManagerFactory, () -> endpoint.apply(many));
+            assertThat(forMany).isEqualTo(forFew);
+        }
+
+        // the provider lookup plus the projection
+        assertThat(Statements.count(entityManagerFactory, () -> controller.getHistory(many))).isEqualTo(2);
+        assertThat(Statements.count(entityManagerFactory, () -> controller.getTodayBookings(many))).isEqualTo(2);
+        assertThat(((List<?>) controller.getHistory(many).getBody())).hasSize(40);
+    }
+
+    private Authentication providerWithBookings(int bookings) {
+        User provider = testData.provider();
+        ParkingLot lot = testData.lot(provider, "History lot", 12.0, 77.0);
+        testData.slots(lot, VehicleType.CAR, bookings);
+        slotAvailabilityIndex.reconcile();
+        for (int i = 0; i < bookings; i++) {
+            checkoutService.checkout(testData.driver(100), lot, VehicleType.CAR, "KA01-" + i,
+                    LocalDateTime.now().plusHours(1), 50, 5, "WALLET");
+        }
+        return new UsernamePasswordAuthenticationToken(provider.getEmail(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_PROVIDER")));
+    }
+}
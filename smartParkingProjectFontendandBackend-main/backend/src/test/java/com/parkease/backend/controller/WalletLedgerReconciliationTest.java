@@ -0,0 +1,148 @@
+package com.parkease.backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.parkease.backend.TestData;
+import com.parkease.backend.config.AuthPrincipal;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.LedgerAccountType;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.UserRepository;
+import com.parkease.backend.service.LedgerService;
+import com.parkease.backend.service.ProviderBalanceService;
+import com.parkease.backend.service.SlotAvailabilityIndex;
+
+/**
+ * The checkout and withdrawal checks read users.wallet_balance (plus the
+ * provider balance shards); the dashboards read the ledger. Both must
+ * move together on every money path.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class WalletLedgerReconciliationTest {
+
+    @Autowired
+    private DriverDashboardController driverDashboard;
+
+    @Autowired
+    private DriverBookingController driverBookings;
+
+    @Autowired
+    private ProviderDashboardController providerDashboard;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ProviderBalanceService providerBalanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void driverWalletAgreesWithTheLedgerAfterTopUpAndCheckouts() {
+        User provider = testData.provider();
+        ParkingLot lot = lot(provider, "Reconcile driver lot", 3);
+        User driver = testData.driver();
+        Authentication auth = auth(driver, "ROLE_DRIVER");
+
+        driverDashboard.addMoney(Map.of("amount", 100.0), auth);
+        assertDriverAgrees(driver, auth, 100.0);
+
+        assertThat(book(lot, auth, 35.5).getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(book(lot, auth, 40.25).getStatusCode().is2xxSuccessful()).isTrue();
+        assertDriverAgrees(driver, auth, 24.25);
+
+        // a short wallet rolls back both sides
+        assertThat(book(lot, auth, 50.0).getStatusCode().value()).isEqualTo(400);
+        assertDriverAgrees(driver, auth, 24.25);
+    }
+
+    @Test
+    void providerBalanceAgreesWithTheLedgerAfterEarningsTopUpAndWithdrawal() {
+        User provider = testData.provider();
+        ParkingLot lot = lot(provider, "Reconcile provider lot", 2);
+        User driver = testData.driver();
+        Authentication driverAuth = auth(driver, "ROLE_DRIVER");
+        Authentication providerAuth = auth(provider, "ROLE_PROVIDER");
+        driverDashboard.addMoney(Map.of("amount", 500.0), driverAuth);
+        book(lot, driverAuth, 200.0); // 180 payable after the 10% fee
+
+        SecurityContextHolder.getContext().setAuthentication(providerAuth); // provider endpoints are @PreAuthorize
+        try {
+            providerDashboard.addMoney(Map.of("amount", 50.0), providerAuth);
+            assertProviderAgrees(provider, 230.0);
+
+            assertThat(providerDashboard.requestWithdrawal(Map.of("amount", 100.0, "upiId", "p@upi"), providerAuth)
+                    .getStatusCode().is2xxSuccessful()).isTrue();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        // a pending payout left PROVIDER_PAYABLE but was never taken off the users row
+        assertThat(ledgerService.balance(LedgerAccountType.PROVIDER_PAYABLE, provider.getId())).isEqualTo(80.0);
+        assertProviderAgrees(provider, 230.0);
+
+        providerBalanceService.fold();
+        assertProviderAgrees(provider, 230.0);
+    }
+
+    private void assertDriverAgrees(User driver, Authentication auth, double expected) {
+        double legacy = userRepository.findWalletBalanceById(driver.getId());
+        double ledger = ledgerService.balance(LedgerAccountType.DRIVER_WALLET, driver.getId());
+        Object shown = ((Map<?, ?>) driverDashboard.getDashboard(auth, "MONTH").getBody()).get("balance");
+
+        assertThat(legacy).isEqualTo(expected);
+        assertThat(ledger).isEqualTo(expected);
+        assertThat(shown).isEqualTo(expected);
+    }
+
+    private void assertProviderAgrees(User provider, double expected) {
+        Long id = provider.getId();
+        double ledger = ledgerService.balance(LedgerAccountType.PROVIDER_PAYABLE, id)
+                + ledgerService.balance(LedgerAccountType.PROVIDER_WALLET, id)
+                + ledgerService.balance(LedgerAccountType.PAYOUTS, id);
+
+        assertThat(providerBalanceService.balance(id)).isEqualTo(expected);
+        assertThat(ledger).isEqualTo(expected);
+    }
+
+    private org.springframework.http.ResponseEntity<?> book(ParkingLot lot, Authentication auth, double amount) {
+        return driverBookings.createBooking(Map.of(
+                "parkingLotId", lot.getId(),
+                "totalAmount", amount,
+                "vehicleNumber", "KA04-RC",
+                "endTime", LocalDateTime.now().plusHours(1).toString()), auth);
+    }
+
+    private ParkingLot lot(User provider, String name, int slots) {
+        ParkingLot lot = testData.lot(provider, name, 12.7, 77.4);
+        testData.slots(lot, VehicleType.CAR, slots);
+        slotAvailabilityIndex.reconcile();
+        return lot;
+    }
+
+    private static Authentication auth(User user, String role) {
+        return new UsernamePasswordAuthenticationToken(AuthPrincipal.from(user), null,
+                List.of(new SimpleGrantedAuthority(role)));
+    }
+}
@@ -0,0 +1,171 @@
+package com.parkease.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.parkease.backend.Statements;
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Measured on 100k bookings of one lot spread over 50 drivers and 200
+ * slots, deleted again afterwards so the other tests do not scan them.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class BookingRepositoryTest {
+
+    private static final int BOOKINGS = 100_000;
+    private static final int DRIVERS = 50;
+    private static final int SLOTS = 200;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestData testData;
+
+    private ParkingLot lot;
+
+    @AfterEach
+    void deleteBookings() {
+        if (lot != null) {
+            jdbcTemplate.update("DELETE FROM bookings WHERE parking_lot_id = ?", lot.getId());
+        }
+    }
+
+    /**
+     * With eager to-one associations every listed booking pulled in its
+     * driver, lot, lot owner and slot: one select per distinct row, run
+     * whether or not the caller used them. Touching them all now costs the
+     * same, which is what the old list paid up front; not touching them
+     * costs the one query.
+     */
+    @Test
+    void listingBookingsLoadsOnlyTheBookings() {
+        lot = lotWithBookings();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long listOnly = Statements.count(entityManagerFactory,
+                () -> tx.executeWithoutResult(status -> bookingRepository.findByParkingLot(lot)));
+        assertThat(listOnly).isEqualTo(1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            tx.executeWithoutResult(status -> {
+                List<Booking> bookings = bookingRepository.findByParkingLot(lot);
+                assertThat(bookings).hasSize(BOOKINGS);
+                assertThat(statistics.getEntityLoadCount()).as("entities loaded by the list").isEqualTo(BOOKINGS);
+                assertThat(Hibernate.isInitialized(bookings.get(0).getDriver())).isFalse();
+                assertThat(Hibernate.isInitialized(bookings.get(0).getParkingSlot())).isFalse();
+
+                bookings.forEach(b -> {
+                    Hibernate.initialize(b.getDriver());
+                    Hibernate.initialize(b.getParkingLot().getProvider());
+                    Hibernate.initialize(b.getParkingSlot());
+                });
+            });
+            // lot + owner + 50 drivers + 200 slots on top of the list
+            assertThat(statistics.getPrepareStatementCount()).isGreaterThanOrEqualTo(1 + 2 + DRIVERS + SLOTS);
+            assertThat(statistics.getEntityLoadCount()).isGreaterThanOrEqualTo(BOOKINGS + 2 + DRIVERS + SLOTS);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    /**
+     * A small provider's dashboard counts among 100k bookings of another:
+     * the (provider_id, ...) indexes make it a range read of its own rows,
+     * the same query without them scans the table.
+     */
+    @Test
+    void providerQueriesReadTheirIndexInsteadOfScanning() {
+        lot = lotWithBookings();
+        User small = testData.provider();
+        String byStatus = "SELECT COUNT(*) FROM bookings %s WHERE provider_id = " + small.getId()
+                + " AND status = 'COMPLETED'";
+        String byCreated = "SELECT COUNT(*) FROM bookings %s WHERE provider_id = " + small.getId()
+                + " AND created_at >= TIMESTAMP '2089-01-01 00:00:00'";
+
+        assertThat(plan(byStatus.formatted(""))).contains("IDX_BOOKINGS_PROVIDER_STATUS");
+        assertThat(plan(byCreated.formatted(""))).contains("IDX_BOOKINGS_PROVIDER_CREATED");
+        assertThat(plan(byStatus.formatted("USE INDEX ()"))).contains("tableScan");
+
+        String timed = "SELECT COUNT(*) FROM bookings %s WHERE provider_id = " + small.getId()
+                + " AND created_at >= ?";
+        double indexed = medianMillis(timed.formatted(""));
+        double scanned = medianMillis(timed.formatted("USE INDEX ()"));
+        assertThat(indexed).as("median ms, indexed %.3f vs scan %.3f", indexed, scanned).isLessThan(scanned / 10);
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    // a different bound each run: H2 reuses the last result of an unchanged query
+    private double medianMillis(String sql) {
+        List<Double> millis = new ArrayList<>();
+        for (int i = 0; i < 41; i++) {
+            Timestamp from = Timestamp.valueOf(LocalDateTime.of(2088, 1, 1, 0, 0).plusMinutes(i));
+            long started = System.nanoTime();
+            jdbcTemplate.queryForObject(sql, Long.class, from);
+            millis.add((System.nanoTime() - started) / 1e6);
+        }
+        millis.sort(null);
+        return millis.get(millis.size() / 2);
+    }
+
+    private ParkingLot lotWithBookings() {
+        ParkingLot lot = testData.lot(testData.provider(), "Hundred thousand lot", 12.2, 77.2);
+        List<ParkingSlot> slots = testData.slots(lot, VehicleType.CAR, SLOTS);
+        List<User> drivers = new ArrayList<>();
+        for (int i = 0; i < DRIVERS; i++) {
+            drivers.add(testData.driver());
+        }
+
+        Timestamp start = Timestamp.valueOf(LocalDateTime.of(2089, 1, 1, 8, 0));
+        Timestamp end = Timestamp.valueOf(LocalDateTime.of(2089, 1, 1, 9, 0));
+        List<Object[]> rows = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            rows.add(new Object[] { drivers.get(i % DRIVERS).getId(), lot.getId(), slots.get(i % SLOTS).getId(),
+                    lot.getProvider().getId(), start, end, start });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (driver_id, parking_lot_id, parking_slot_id, provider_id, "
+                + "vehicle_number, start_time, end_time, status, created_at) "
+                + "VALUES (?, ?, ?, ?, 'KA06-HK', ?, ?, 'COMPLETED', ?)", rows);
+        return lot;
+    }
+}
@@ -0,0 +1,66 @@
+package com.parkease.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.User;
+
+@SpringBootTest
+@Import(TestData.class)
+@Transactional
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void debitWalletTakesTheAmountWhenCovered() {
+        User driver = testData.driver(50);
+
+        assertThat(userRepository.debitWallet(driver.getId(), 20)).isEqualTo(1);
+        assertThat(userRepository.findWalletBalanceById(driver.getId())).isEqualTo(30);
+    }
+
+    @Test
+    void debitWalletLeavesAShortWalletAlone() {
+        User driver = testData.driver(10);
+
+        assertThat(userRepository.debitWallet(driver.getId(), 20)).isZero();
+        assertThat(userRepository.findWalletBalanceById(driver.getId())).isEqualTo(10);
+    }
+
+    @Test
+    void creditWalletAdds() {
+        User driver = testData.driver(10);
+
+        assertThat(userRepository.creditWallet(driver.getId(), 2.5)).isEqualTo(1);
+        assertThat(userRepository.findWalletBalanceById(driver.getId())).isEqualTo(12.5);
+    }
+
+    /**
+     * The (role, created_at) lookups behind the signup counts are served by
+     * the (role, created_at, id) index; its leading columns are the same,
+     * which is why the shorter index was dropped.
+     */
+    @Test
+    void roleAndSignupDateLookupsUseTheKeysetIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT COUNT(*) FROM users WHERE role = 'DRIVER' "
+                + "AND created_at BETWEEN TIMESTAMP '2026-01-01 00:00:00' AND TIMESTAMP '2026-02-01 00:00:00'",
+                String.class);
+
+        assertThat(plan).contains("IDX_USERS_ROLE_CREATED_ID");
+    }
+}
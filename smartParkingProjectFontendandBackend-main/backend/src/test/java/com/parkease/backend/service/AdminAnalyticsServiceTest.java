@@ -0,0 +1,83 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.parkease.backend.Statements;
+import com.parkease.backend.TestData;
+import com.parkease.backend.dto.AdminAnalyticsResponse;
+import com.parkease.backend.dto.ParkingDurationResponse;
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.ParkingLot;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Import(TestData.class)
+class AdminAnalyticsServiceTest {
+
+    @Autowired
+    private AdminAnalyticsService adminAnalyticsService;
+
+    @Autowired
+    private DurationStatsService durationStatsService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * The per-bucket loops ran about 125 statements for a 30-day range; the
+     * rollup range scan and the grouped queries keep it under 10 whatever
+     * the range.
+     */
+    @Test
+    void monthRangeRunsAHandfulOfStatements() {
+        for (int i = 0; i < 5; i++) {
+            testData.provider();
+            testData.driver();
+        }
+
+        long month = Statements.count(entityManagerFactory, () -> adminAnalyticsService.getAnalytics("MONTH"));
+        long year = Statements.count(entityManagerFactory, () -> adminAnalyticsService.getAnalytics("YEAR"));
+
+        assertThat(month).isLessThan(10);
+        assertThat(year).isEqualTo(month);
+    }
+
+    @Test
+    void durationBucketsIncludeTheirUpperBound() {
+        ParkingLot lot = testData.lot(testData.provider(), "Duration bounds lot", 12.1, 77.1);
+        for (long minutes : new long[] { 5, 30, 31, 60, 61 }) {
+            completed(lot, minutes);
+        }
+
+        ParkingDurationResponse standard = adminAnalyticsService.getParkingDurationAnalytics(lot.getId(), null, null,
+                null);
+        ParkingDurationResponse custom = adminAnalyticsService.getParkingDurationAnalytics(lot.getId(), null, null,
+                List.of(30L, 61L));
+
+        // 30 is in "0–30 min" and 60 in "30–60 min", as the per-booking loop counted them
+        assertThat(standard.buckets).extracting(b -> b.count).containsExactly(2L, 2L, 1L, 0L, 0L);
+        assertThat(custom.buckets).extracting(b -> b.label).containsExactly("0–30 min", "30–61 min", "61+ min");
+        assertThat(custom.buckets).extracting(b -> b.count).containsExactly(2L, 3L, 0L);
+    }
+
+    private void completed(ParkingLot lot, long minutes) {
+        LocalDateTime start = LocalDateTime.of(2090, 5, 1, 9, 0);
+        Booking booking = new Booking();
+        booking.setParkingLot(lot);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusMinutes(minutes));
+        durationStatsService.recordCompletion(booking);
+    }
+}
@@ -0,0 +1,83 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.Role;
+
+class AdminUserIndexTest {
+
+    private final AdminUserIndex index = new AdminUserIndex(null);
+
+    @Test
+    void otherRolesDoNotCrowdOutTheRequestedOne() {
+        for (long id = 1; id <= 12_000; id++) {
+            index.sync(user(id, Role.DRIVER, "Alex Driver" + id, true, true));
+        }
+        index.sync(user(20_001, Role.PROVIDER, "Alex Provider", true, true));
+        index.sync(user(20_002, Role.PROVIDER, "Alexa Parking", true, true));
+
+        assertThat(index.search("alex", Role.PROVIDER, null, null, 10)).containsExactly(20_001L, 20_002L);
+    }
+
+    @Test
+    void statusFiltersApplyBeforeTheLimit() {
+        for (long id = 1; id <= 50; id++) {
+            index.sync(user(id, Role.PROVIDER, "Sam Pending" + id, false, true));
+        }
+        index.sync(user(100, Role.PROVIDER, "Sam Approved", true, true));
+        index.sync(user(101, Role.PROVIDER, "Sam Suspended", true, false));
+
+        assertThat(index.search("sam", Role.PROVIDER, true, true, 5)).containsExactly(100L);
+        assertThat(index.search("sam", Role.PROVIDER, false, null, 5)).hasSize(5);
+    }
+
+    @Test
+    void exactMatchesRankFirstThenNewestAndIdsAppearOnce() {
+        index.sync(user(1, Role.DRIVER, "Ann Old", true, true));
+        index.sync(user(2, Role.DRIVER, "Annabel New", true, true));
+        index.sync(user(3, Role.DRIVER, "Anne Newer", true, true));
+
+        // user 1 matches "ann" on both its email and its name word
+        List<Long> ids = index.search("ann", Role.DRIVER, null, null, 10);
+        assertThat(ids).containsExactly(1L, 3L, 2L);
+        assertThat(index.search("ann", Role.DRIVER, null, null, 2)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void multiWordQueriesMatchEveryWord() {
+        for (long id = 1; id <= 200; id++) {
+            index.sync(user(id, Role.DRIVER, "Maria Common" + id, true, true));
+        }
+        index.sync(user(500, Role.DRIVER, "Maria Zed", true, true));
+
+        assertThat(index.search("maria zed", Role.DRIVER, null, null, 10)).containsExactly(500L);
+        assertThat(index.search("zed maria", Role.DRIVER, null, null, 10)).containsExactly(500L);
+    }
+
+    @Test
+    void roleChangeMovesTheUser() {
+        index.sync(user(7, Role.DRIVER, "Robin Switch", true, true));
+        index.sync(user(7, Role.PROVIDER, "Robin Switch", true, true));
+
+        assertThat(index.search("robin", Role.DRIVER, null, null, 10)).isEmpty();
+        assertThat(index.search("robin", Role.PROVIDER, null, null, 10)).containsExactly(7L);
+    }
+
+    private static User user(long id, Role role, String name, boolean approved, boolean enabled) {
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        user.setRole(role);
+        user.setFullName(name);
+        user.setEmail(name.toLowerCase().replace(' ', '.') + "@test.parkease");
+        user.setPhoneNumber(String.valueOf(9_000_000_000L + id));
+        user.setApproved(approved);
+        user.setEnabled(enabled);
+        return user;
+    }
+}
@@ -0,0 +1,114 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.enumtype.BookingStatus;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.ParkingSlotRepository;
+
+@SpringBootTest
+@Import(TestData.class)
+class BookingLifecycleSchedulerTest {
+
+    private static final long EXIT_GRACE_MINUTES = 10;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ParkingSlotRepository slotRepository;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private DurationStatsService durationStatsService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private LiveStatusHub liveStatusHub;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void aRestartRebuildsTheTimersFromTheDatabase() throws Exception {
+        ParkingLot lot = testData.lot(testData.provider(), "Lifecycle restart lot", 12.9, 77.6);
+        List<ParkingSlot> slots = testData.slots(lot, VehicleType.CAR, 3);
+        LocalDateTime now = LocalDateTime.now();
+        // written straight to the table, so only a scheduler that reads it back knows them
+        Booking overdue = booking(lot, slots.get(0), BookingStatus.ACTIVE, now.minusMinutes(1));
+        Booking leaving = booking(lot, slots.get(1), BookingStatus.EXITING, now.minusMinutes(EXIT_GRACE_MINUTES + 5));
+        Booking running = booking(lot, slots.get(2), BookingStatus.ACTIVE, now.plusHours(2));
+
+        BookingLifecycleScheduler restarted = newScheduler();
+        restarted.tick(); // not ready until rehydrated
+        assertThat(restarted.pending()).isZero();
+
+        restarted.rehydrate();
+        assertThat(restarted.pending()).isGreaterThanOrEqualTo(3);
+
+        // the wheel ticks once a second; past deadlines fire on the next tick
+        long giveUp = System.currentTimeMillis() + 5_000;
+        while (status(leaving) != BookingStatus.COMPLETED && System.currentTimeMillis() < giveUp) {
+            Thread.sleep(200);
+            restarted.tick();
+        }
+
+        assertThat(status(overdue)).isEqualTo(BookingStatus.EXITING);
+        assertThat(status(leaving)).isEqualTo(BookingStatus.COMPLETED);
+        assertThat(slotRepository.findById(slots.get(1).getId()).orElseThrow().getStatus())
+                .isEqualTo(SlotStatus.AVAILABLE);
+        assertThat(status(running)).isEqualTo(BookingStatus.ACTIVE);
+    }
+
+    private BookingLifecycleScheduler newScheduler() {
+        return new BookingLifecycleScheduler(bookingRepository, slotRepository, occupancyCounters, rollupService,
+                durationStatsService, slotAvailabilityIndex, liveStatusHub, transactionManager,
+                EXIT_GRACE_MINUTES);
+    }
+
+    private Booking booking(ParkingLot lot, ParkingSlot slot, BookingStatus status, LocalDateTime endTime) {
+        slot.setOccupied(true);
+        slot.setStatus(SlotStatus.OCCUPIED);
+        slotRepository.save(slot);
+
+        Booking booking = new Booking();
+        booking.setDriver(testData.driver());
+        booking.setParkingLot(lot);
+        booking.setProviderId(lot.getProvider().getId());
+        booking.setParkingSlot(slot);
+        booking.setVehicleNumber("KA03-LC");
+        booking.setStartTime(endTime.minusHours(1));
+        booking.setEndTime(endTime);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    private BookingStatus status(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,183 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.repository.ParkingSlotRepository;
+
+@SpringBootTest
+@Import(TestData.class)
+class BookingServiceTest {
+
+    private static final int THREADS = 24;
+
+    // far below what the claim path sustains on one core; a floor, not a target
+    private static final int MIN_BOOKINGS_PER_SECOND = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ParkingSlotRepository slotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Eight drivers per slot race for a lot; each slot is booked exactly once. */
+    @Test
+    void concurrentDriversNeverShareASlot() throws Exception {
+        User provider = testData.provider();
+        User driver = testData.driver();
+        for (int round = 0; round < 5; round++) {
+            ParkingLot lot = testData.lot(provider, "Contended lot " + round, 12.0, 77.0);
+            testData.slots(lot, VehicleType.CAR, 12);
+            slotAvailabilityIndex.reconcile();
+
+            List<Long> slotIds = race(driver, lot, 96);
+
+            assertThat(slotIds).hasSize(12).doesNotHaveDuplicates();
+            assertBookedOnce(lot, 12);
+        }
+    }
+
+    /** Slots taken behind the index's back are skipped, not double-booked. */
+    @Test
+    void staleIndexEntriesAreSkipped() throws Exception {
+        User driver = testData.driver();
+        ParkingLot lot = testData.lot(testData.provider(), "Stale lot", 12.0, 77.0);
+        List<ParkingSlot> slots = testData.slots(lot, VehicleType.CAR, 6);
+        slotAvailabilityIndex.reconcile();
+        for (ParkingSlot slot : slots.subList(0, 3)) {
+            jdbcTemplate.update("UPDATE parking_slots SET occupied = true WHERE id = ?", slot.getId());
+        }
+
+        List<Long> slotIds = race(driver, lot, 6);
+
+        assertThat(slotIds).containsExactlyInAnyOrderElementsOf(
+                slots.subList(3, 6).stream().map(ParkingSlot::getId).toList());
+        assertBookedOnce(lot, 3);
+    }
+
+    /**
+     * Every thread holds the same (stale) index entry and claims it
+     * directly: the conditional UPDATE lets exactly one through.
+     */
+    @Test
+    void oneOfManyClaimsOnTheSameSlotWins() throws Exception {
+        ParkingLot lot = testData.lot(testData.provider(), "Same slot lot", 12.0, 77.0);
+        Long slotId = testData.slots(lot, VehicleType.CAR, 1).get(0).getId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        int claimed = 0;
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return tx.execute(status -> slotRepository.claimIfFree(slotId, SlotStatus.AVAILABLE,
+                            SlotStatus.OCCUPIED));
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> f : futures) {
+                claimed += f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(claimed).isEqualTo(1);
+        ParkingSlot slot = slotRepository.findById(slotId).orElseThrow();
+        assertThat(slot.isOccupied()).isTrue();
+        assertThat(slot.getStatus()).isEqualTo(SlotStatus.OCCUPIED);
+    }
+
+    @Test
+    void concurrentBookingKeepsAFloorOfBookingsPerSecond() throws Exception {
+        int slots = 480;
+        User driver = testData.driver();
+        ParkingLot lot = testData.lot(testData.provider(), "Throughput lot", 12.0, 77.0);
+        testData.slots(lot, VehicleType.CAR, slots);
+        slotAvailabilityIndex.reconcile();
+
+        long started = System.nanoTime();
+        List<Long> slotIds = race(driver, lot, slots);
+        double perSecond = slots / ((System.nanoTime() - started) / 1e9);
+
+        assertThat(slotIds).hasSize(slots).doesNotHaveDuplicates();
+        assertThat(perSecond).as("bookings/sec with %s threads", THREADS).isGreaterThan(MIN_BOOKINGS_PER_SECOND);
+    }
+
+    // slot ids of the bookings that went through; every other attempt must find the lot full
+    private List<Long> race(User driver, ParkingLot lot, int attempts) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return bookingService.startBooking(driver, lot, VehicleType.CAR, "KA01",
+                            LocalDateTime.now().plusHours(1)).getParkingSlot().getId();
+                }));
+            }
+            start.countDown();
+
+            List<Long> slotIds = new ArrayList<>();
+            for (Future<Long> f : futures) {
+                try {
+                    slotIds.add(f.get(60, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class)
+                            .hasMessage("No available slots found in this lot");
+                }
+            }
+            return slotIds;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void assertBookedOnce(ParkingLot lot, int expected) {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE parking_lot_id = ?", Integer.class, lot.getId()))
+                .isEqualTo(expected);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT parking_slot_id) FROM bookings WHERE parking_lot_id = ?", Integer.class,
+                lot.getId())).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,114 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.parkease.backend.Statements;
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.exception.InsufficientBalanceException;
+import com.parkease.backend.repository.BookingRepository;
+import com.parkease.backend.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Import(TestData.class)
+class CheckoutServiceTest {
+
+    /*
+     * A warm checkout (rows for the driver, lot and day already exist):
+     * slot claim UPDATE + reload SELECT, occupancy UPDATE, booking INSERT,
+     * driver debit UPDATE, provider shard UPDATE, payment INSERT, two wallet
+     * transaction INSERTs, three ledger INSERTs and three rollup UPDATEs.
+     */
+    private static final long WARM_CHECKOUT_STATEMENTS = 15;
+
+    // well under the single-threaded rate on a one-core runner; catches a
+    // checkout that falls back to per-row reads or re-translated queries
+    private static final int MIN_BOOKINGS_PER_SECOND = 50;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void aWarmCheckoutIssuesAFixedNumberOfStatements() {
+        ParkingLot lot = lotWithSlots("Checkout statements lot", 40);
+        User driver = testData.driver(1_000);
+        // one pass over every balance and rollup shard creates their rows
+        for (int i = 0; i < 32; i++) {
+            book(driver, lot);
+        }
+
+        long statements = Statements.count(entityManagerFactory, () -> book(driver, lot));
+
+        assertThat(statements).isEqualTo(WARM_CHECKOUT_STATEMENTS);
+    }
+
+    @Test
+    void aShortWalletRollsTheWholeCheckoutBack() {
+        ParkingLot lot = lotWithSlots("Checkout short wallet lot", 1);
+        User driver = testData.driver(5);
+
+        assertThatThrownBy(() -> book(driver, lot)).isInstanceOf(InsufficientBalanceException.class);
+
+        assertThat(userRepository.findById(driver.getId()).orElseThrow().getWalletBalance()).isEqualTo(5.0);
+        assertThat(bookingRepository.findByParkingLot(lot)).isEmpty();
+        // the slot went back to the index, so the next driver can have it
+        book(testData.driver(100), lot);
+    }
+
+    @Test
+    void sustainsAFloorOfBookingsPerSecond() {
+        int bookings = 500;
+        ParkingLot lot = lotWithSlots("Checkout throughput lot", bookings + 50);
+        User driver = testData.driver(1_000_000);
+        for (int i = 0; i < 50; i++) {
+            book(driver, lot);
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < bookings; i++) {
+            book(driver, lot);
+        }
+        double perSecond = bookings / ((System.nanoTime() - started) / 1e9);
+
+        assertThat(perSecond).as("bookings/sec").isGreaterThan(MIN_BOOKINGS_PER_SECOND);
+    }
+
+    private ParkingLot lotWithSlots(String name, int slots) {
+        ParkingLot lot = testData.lot(testData.provider(), name, 12.5, 77.5);
+        testData.slots(lot, VehicleType.CAR, slots);
+        slotAvailabilityIndex.reconcile();
+        return lot;
+    }
+
+    private void book(User driver, ParkingLot lot) {
+        checkoutService.checkout(driver, lot, VehicleType.CAR, "KA01-CK",
+                LocalDateTime.now().plusHours(1), 20, 2, "WALLET");
+    }
+}
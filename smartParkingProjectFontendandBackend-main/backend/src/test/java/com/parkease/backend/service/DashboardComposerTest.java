@@ -0,0 +1,152 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DashboardComposerTest {
+
+    private static final long TIMEOUT_MS = 200;
+
+    private DashboardComposer composer;
+
+    @AfterEach
+    void shutdown() {
+        if (composer != null) {
+            composer.shutdown();
+        }
+    }
+
+    @Test
+    void widgetsRunConcurrentlyAndReturnTheirValues() {
+        composer = new DashboardComposer(4, TIMEOUT_MS);
+        DashboardComposer.Composition widgets = composer.start();
+
+        CompletableFuture<String> a = widgets.widget("a", () -> "A", "-");
+        CompletableFuture<Integer> b = widgets.widget("b", () -> 7, 0);
+
+        assertThat(widgets.await()).isEmpty();
+        assertThat(a.join()).isEqualTo("A");
+        assertThat(b.join()).isEqualTo(7);
+    }
+
+    @Test
+    void aFailingWidgetFallsBackAndIsListedDegraded() {
+        composer = new DashboardComposer(4, TIMEOUT_MS);
+        DashboardComposer.Composition widgets = composer.start();
+
+        CompletableFuture<Double> balance = widgets.widget("balance", () -> {
+            throw new IllegalStateException("ledger unavailable");
+        }, 12.5);
+        CompletableFuture<String> other = widgets.widget("other", () -> "ok", "-");
+
+        assertThat(widgets.await()).containsExactly("balance");
+        assertThat(balance.join()).isEqualTo(12.5);
+        assertThat(other.join()).isEqualTo("ok");
+    }
+
+    @Test
+    void aTimedOutWidgetIsInterrupted() throws Exception {
+        composer = new DashboardComposer(1, TIMEOUT_MS);
+        DashboardComposer.Composition widgets = composer.start();
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        long started = System.nanoTime();
+        CompletableFuture<String> slow = widgets.widget("slow", () -> {
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }, "fallback");
+
+        assertThat(widgets.await()).containsExactly("slow");
+        assertThat((System.nanoTime() - started) / 1e6).isLessThan(TIMEOUT_MS * 10);
+        assertThat(slow.join()).isEqualTo("fallback");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).as("slow widget interrupted").isTrue();
+
+        // the freed thread takes new work
+        DashboardComposer.Composition next = composer.start();
+        CompletableFuture<String> after = next.widget("after", () -> "ran", "-");
+        assertThat(next.await()).isEmpty();
+        assertThat(after.join()).isEqualTo("ran");
+    }
+
+    @Test
+    void aWidgetThatTimesOutInTheQueueNeverRuns() {
+        composer = new DashboardComposer(1, TIMEOUT_MS);
+        DashboardComposer.Composition widgets = composer.start();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+
+        // holds the only pool thread and ignores the interrupt until released
+        widgets.widget("stuck", () -> {
+            boolean done = false;
+            while (!done) {
+                try {
+                    done = release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // keep holding the thread
+                }
+            }
+            return "late";
+        }, "fallback");
+        widgets.widget("queued", () -> queuedRan.getAndSet(true), false);
+
+        assertThat(widgets.await()).containsExactlyInAnyOrder("stuck", "queued");
+        release.countDown();
+
+        DashboardComposer.Composition next = composer.start();
+        CompletableFuture<String> after = next.widget("after", () -> "ran", "-");
+        assertThat(next.await()).isEmpty();
+        assertThat(after.join()).isEqualTo("ran");
+        assertThat(queuedRan).isFalse();
+    }
+
+    /**
+     * Four 20 ms widgets: run one after another a dashboard would take 80 ms;
+     * composed, its p50 is the slowest widget plus overhead.
+     */
+    @Test
+    void composedLatencyIsTheSlowestWidgetNotTheSum() {
+        composer = new DashboardComposer(16, 2_000);
+        int requests = 100;
+        List<Double> millis = new ArrayList<>();
+
+        for (int i = 0; i < requests + 10; i++) {
+            long started = System.nanoTime();
+            DashboardComposer.Composition widgets = composer.start();
+            for (int w = 0; w < 4; w++) {
+                widgets.widget("w" + w, () -> sleep(20), null);
+            }
+            assertThat(widgets.await()).isEmpty();
+            if (i >= 10) {
+                millis.add((System.nanoTime() - started) / 1e6);
+            }
+        }
+        millis.sort(null);
+        double p50 = millis.get(requests / 2);
+        double p99 = millis.get(requests * 99 / 100);
+
+        assertThat(p50).as("p50 %.1f ms, p99 %.1f ms", p50, p99).isLessThan(60);
+        assertThat(p99).as("p99 %.1f ms", p99).isLessThan(2_000);
+    }
+
+    private static Void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
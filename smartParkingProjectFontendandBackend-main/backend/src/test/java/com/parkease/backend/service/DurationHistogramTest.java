@@ -0,0 +1,93 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DurationHistogramTest {
+
+    @Test
+    void shortDurationsAreExact() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int minutes = 0; minutes < 64; minutes++) {
+            histogram.record(minutes);
+        }
+
+        assertThat(histogram.total()).isEqualTo(64);
+        assertThat(histogram.percentile(50)).isEqualTo(31);
+        assertThat(histogram.percentile(100)).isEqualTo(63);
+        assertThat(histogram.countBelow(15)).isEqualTo(15);
+    }
+
+    @Test
+    void percentilesStayWithinThreePercentOfTheExactOnes() {
+        Random random = new Random(3);
+        long[] samples = new long[100_000];
+        DurationHistogram histogram = new DurationHistogram();
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (long) Math.exp(3 + random.nextGaussian() * 1.5); // a few minutes to days
+            histogram.record(samples[i]);
+        }
+        Arrays.sort(samples);
+
+        for (double p : new double[] { 10, 50, 90, 99, 99.9 }) {
+            long exact = samples[(int) Math.ceil(p / 100 * samples.length) - 1];
+            assertThat(histogram.percentile(p)).as("p%s", p)
+                    .isBetween(exact, Math.max(exact, (long) Math.ceil(exact * 1.0325)));
+        }
+    }
+
+    @Test
+    void countBelowIsExactOnBucketBoundaries() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int minutes = 0; minutes < 1_000; minutes++) {
+            histogram.record(minutes);
+        }
+
+        assertThat(histogram.countBelow(64)).isEqualTo(64);
+        assertThat(histogram.countBelow(128)).isEqualTo(128);
+        assertThat(histogram.countBelow(256)).isEqualTo(256);
+        assertThat(histogram.countBelow(0)).isZero();
+        assertThat(histogram.countBelow(Long.MAX_VALUE)).isEqualTo(1_000);
+    }
+
+    @Test
+    void mergeAndEncodingKeepEveryCount() {
+        DurationHistogram a = new DurationHistogram();
+        DurationHistogram b = new DurationHistogram();
+        for (int i = 0; i < 500; i++) {
+            a.record(i * 7L);
+            b.record(i * 13L, 2);
+        }
+        b.record(DurationHistogram.MAX_VALUE * 10); // clamped, still counted
+
+        DurationHistogram merged = new DurationHistogram();
+        merged.merge(a);
+        merged.merge(b);
+        byte[] bytes = merged.encode();
+        DurationHistogram decoded = DurationHistogram.decode(bytes);
+
+        assertThat(decoded.total()).isEqualTo(1_501);
+        assertThat(bytes.length).isLessThanOrEqualTo(DurationHistogram.MAX_ENCODED_BYTES);
+        for (double p : new double[] { 1, 25, 50, 75, 99, 100 }) {
+            assertThat(decoded.percentile(p)).isEqualTo(merged.percentile(p));
+        }
+        assertThat(decoded.percentile(100)).isEqualTo(DurationHistogram.MAX_VALUE);
+        assertThat(DurationHistogram.decode(null).total()).isZero();
+    }
+
+    @Test
+    void sizeDoesNotGrowWithSamples() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int i = 0; i < 1_000_000; i++) {
+            histogram.record(i % 100_000);
+        }
+
+        assertThat(DurationHistogram.BUCKETS).isEqualTo(416);
+        assertThat(histogram.encode().length).isLessThanOrEqualTo(DurationHistogram.MAX_ENCODED_BYTES);
+        assertThat(histogram.total()).isEqualTo(1_000_000);
+    }
+}
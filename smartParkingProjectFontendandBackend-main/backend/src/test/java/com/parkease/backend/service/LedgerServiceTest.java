@@ -0,0 +1,87 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.parkease.backend.entity.LedgerEntry;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.LedgerAccountType;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.repository.LedgerEntryRepository;
+
+@SpringBootTest
+class LedgerServiceTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository entryRepository;
+
+    @Test
+    void everyJournalSumsToZero() {
+        long driverId = 9_300_001L;
+        long providerId = 9_300_002L;
+
+        ledgerService.recordTopUp(user(driverId, Role.DRIVER), 500.0);
+        ledgerService.recordTopUp(user(providerId, Role.PROVIDER), 75.5);
+        ledgerService.recordBookingPayment(1L, driverId, providerId, 120.0, 12.0);
+        ledgerService.recordWithdrawalRequest(1L, providerId, 40.0);
+        ledgerService.recordWithdrawalSettled(1L, providerId, 40.0);
+        ledgerService.recordWithdrawalRequest(2L, providerId, 30.0);
+        ledgerService.recordWithdrawalRejected(2L, providerId, 30.0);
+
+        Map<String, Long> journals = new HashMap<>();
+        for (LedgerEntry e : entryRepository.findAll()) {
+            journals.merge(e.getJournalId(), e.getAmountPaise(), Long::sum);
+        }
+        assertThat(journals).isNotEmpty().allSatisfy((journal, sum) -> assertThat(sum).isZero());
+
+        assertThatThrownBy(() -> ledgerService.post("BROKEN", List.of(
+                new LedgerService.Posting(LedgerAccountType.DRIVER_WALLET, driverId, 100))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void providerTopUpsAreNotWithdrawable() {
+        long providerId = 9_300_101L;
+
+        ledgerService.recordBookingPayment(2L, 9_300_102L, providerId, 100.0, 10.0);
+        ledgerService.recordTopUp(user(providerId, Role.PROVIDER), 250.0);
+
+        assertThat(ledgerService.balance(LedgerAccountType.PROVIDER_PAYABLE, providerId)).isEqualTo(90.0);
+        assertThat(ledgerService.balance(LedgerAccountType.PROVIDER_WALLET, providerId)).isEqualTo(250.0);
+    }
+
+    @Test
+    void settledPayoutsLeaveAndRejectedOnesReturn() {
+        long providerId = 9_300_201L;
+        ledgerService.recordBookingPayment(3L, 9_300_202L, providerId, 100.0, 0.0);
+
+        ledgerService.recordWithdrawalRequest(10L, providerId, 60.0);
+        assertThat(ledgerService.balance(LedgerAccountType.PAYOUTS, providerId)).isEqualTo(60.0);
+        ledgerService.recordWithdrawalSettled(10L, providerId, 60.0);
+
+        ledgerService.recordWithdrawalRequest(11L, providerId, 25.0);
+        ledgerService.recordWithdrawalRejected(11L, providerId, 25.0);
+
+        assertThat(ledgerService.balance(LedgerAccountType.PAYOUTS, providerId)).isZero();
+        assertThat(ledgerService.balance(LedgerAccountType.PROVIDER_PAYABLE, providerId)).isEqualTo(40.0);
+    }
+
+    private static User user(long id, Role role) {
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        user.setRole(role);
+        return user;
+    }
+}
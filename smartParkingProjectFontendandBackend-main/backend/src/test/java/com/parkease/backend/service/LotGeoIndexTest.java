@@ -0,0 +1,122 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.parkease.backend.entity.ParkingLot;
+
+class LotGeoIndexTest {
+
+    private static final double[][] CITIES = { { 12.97, 77.59 }, { 19.08, 72.88 }, { 13.08, 80.27 },
+            { 18.52, 73.86 }, { 28.61, 77.21 }, { 17.39, 78.49 }, { 22.57, 88.36 }, { 26.91, 75.79 },
+            { 9.93, 76.27 }, { 12.30, 76.64 } };
+
+    private final LotGeoIndex index = new LotGeoIndex(null, 0.01);
+
+    @Test
+    void nearAPoleEveryMeridianIsReached() {
+        index.sync(lot(1, 89.995, 0));
+        index.sync(lot(2, 89.995, 150));
+        index.sync(lot(3, 89.995, -100));
+        index.sync(lot(4, 89.90, 40)); // ~11 km away
+        for (long id = 10; id < 2_010; id++) {
+            index.sync(lot(id, 12 + id * 1e-4, 77));
+        }
+
+        long t0 = System.nanoTime();
+        List<LotGeoIndex.Hit> hits = index.nearest(89.999, 30, 5, 10, e -> true);
+        long micros = (System.nanoTime() - t0) / 1_000;
+
+        assertThat(hits).extracting(h -> h.lot().id()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(micros).isLessThan(50_000);
+    }
+
+    @Test
+    void matchesAFullScanAtEveryLatitude() {
+        Random random = new Random(7);
+        List<LotGeoIndex.Entry> all = new ArrayList<>();
+        long id = 1;
+        for (double centre = -88; centre <= 88; centre += 8) {
+            for (int i = 0; i < 300; i++) {
+                ParkingLot lot = lot(id++, centre + random.nextGaussian() * 0.2, random.nextGaussian() * 2);
+                index.sync(lot);
+                all.add(new LotGeoIndex.Entry(lot.getId(), null, null, null, lot.getLatitude(),
+                        lot.getLongitude(), false));
+            }
+        }
+
+        for (int q = 0; q < 300; q++) {
+            double lat = Math.max(-90, Math.min(90, -90 + random.nextDouble() * 180));
+            double lng = random.nextGaussian() * 2;
+            double radius = 1 + random.nextDouble() * 49;
+
+            List<Long> expected = all.stream()
+                    .filter(e -> LotGeoIndex.distanceKm(lat, lng, e.latitude(), e.longitude()) <= radius)
+                    .sorted(Comparator.comparingDouble(e -> LotGeoIndex.distanceKm(lat, lng, e.latitude(),
+                            e.longitude())))
+                    .limit(5)
+                    .map(LotGeoIndex.Entry::id)
+                    .toList();
+            assertThat(index.nearest(lat, lng, radius, 5, e -> true)).extracting(h -> h.lot().id())
+                    .as("lat %f lng %f radius %f", lat, lng, radius)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    /** Latency report at 100k lots; the bound is the target for the nearby endpoint. */
+    @Test
+    void latencyAt100kLots() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 100_000; id++) {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            index.sync(lot(id, city[0] + random.nextGaussian() * 0.1, city[1] + random.nextGaussian() * 0.1));
+        }
+
+        double[][] queries = new double[1_000][];
+        for (int i = 0; i < queries.length; i++) {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            queries[i] = new double[] { city[0] + random.nextGaussian() * 0.2, city[1] + random.nextGaussian() * 0.2,
+                    i % 10 == 0 ? 50 : 5 };
+        }
+        for (double[] q : queries) {
+            index.nearest(q[0], q[1], q[2], 10, e -> true); // warm up
+        }
+        List<Long> nanos = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            for (double[] q : queries) {
+                long t0 = System.nanoTime();
+                index.nearest(q[0], q[1], q[2], 10, e -> true);
+                nanos.add(System.nanoTime() - t0);
+            }
+        }
+        double polar = Double.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            long t0 = System.nanoTime();
+            index.nearest(89.9, 0, 50, 10, e -> true);
+            polar = Math.min(polar, (System.nanoTime() - t0) / 1e6);
+        }
+
+        nanos.sort(null);
+        double p99 = nanos.get(nanos.size() * 99 / 100) / 1e6;
+        assertThat(p99).isLessThan(5);
+        // a query near the pole scans whole latitude rows, not the whole grid
+        assertThat(polar).isLessThan(50);
+    }
+
+    private static ParkingLot lot(long id, double latitude, double longitude) {
+        ParkingLot lot = new ParkingLot();
+        ReflectionTestUtils.setField(lot, "id", id);
+        lot.setName("Lot " + id);
+        lot.setLatitude(latitude);
+        lot.setLongitude(longitude);
+        lot.setActive(true);
+        return lot;
+    }
+}
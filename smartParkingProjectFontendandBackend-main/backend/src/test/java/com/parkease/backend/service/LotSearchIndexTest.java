@@ -0,0 +1,117 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.repository.ParkingLotRepository;
+
+class LotSearchIndexTest {
+
+    private static final String[] CITIES = { "Bengaluru", "Mumbai", "Chennai", "Pune", "Delhi", "Hyderabad",
+            "Kolkata", "Jaipur", "Kochi", "Mysuru" };
+    private static final String[] WORDS = { "central", "city", "mall", "plaza", "station", "market", "tower",
+            "metro", "garden", "square", "airport", "park", "hub", "point", "gate" };
+
+    private final LotSearchIndex index = new LotSearchIndex(null);
+
+    @Test
+    void everyWordMustMatchAndNameOutranksAddress() {
+        index.sync(lot(1, "Central Mall Parking", "12 Main Road", "Bengaluru"));
+        index.sync(lot(2, "Station Lot", "Central Avenue", "Bengaluru"));
+        index.sync(lot(3, "Central Plaza", "4 Ring Road", "Mumbai"));
+
+        assertThat(ids(index.search("central beng", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("cent", 10))).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void bestMatchIsFoundAmongManyCandidates() {
+        // 8,000 lots share the long word; the best one is the last inserted
+        for (long id = 1; id <= 8_000; id++) {
+            index.sync(lot(id, "Parking " + id, "Longwordstreet " + id, "Pune"));
+        }
+        index.sync(lot(9_000, "Zed", "Longwordstreet 1", "Pune"));
+
+        // old behaviour expanded the longest word and capped it at 5,000 candidates
+        assertThat(ids(index.search("longwordstreet zed", 3))).containsExactly(9_000L);
+        assertThat(ids(index.search("longwordstreet", 1))).containsExactly(9_000L);
+    }
+
+    @Test
+    void aLotUnderSeveralWordsOfTheRangeIsListedOnce() {
+        index.sync(lot(1, "Mall Mallard", "Malleshwaram", "Bengaluru"));
+        index.sync(lot(2, "Mall Road", "1 Ring Road", "Pune"));
+
+        assertThat(ids(index.search("mall", 5))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.search("mall", 1))).hasSize(1);
+    }
+
+    @Test
+    void inactiveLotsAreDropped() {
+        ParkingLot lot = lot(1, "Garden Lot", "Lake Road", "Kochi");
+        index.sync(lot);
+        lot.setActive(false);
+        index.sync(lot);
+
+        assertThat(index.search("garden", 5)).isEmpty();
+    }
+
+    /** Memory and latency report at 100k lots; the bounds only catch regressions. */
+    @Test
+    void memoryAndLatencyAt100kLots() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                    + id;
+            rows.add(new Object[] { id, name, random.nextInt(500) + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " road", CITIES[random.nextInt(CITIES.length)], "KA" });
+        }
+        ParkingLotRepository repository = mock(ParkingLotRepository.class);
+        when(repository.findSearchRows()).thenReturn(rows);
+        LotSearchIndex index = new LotSearchIndex(repository);
+        index.rebuild();
+
+        String[] queries = { "ce", "central", "mall be", "pla", "station mum", "park", "metro pune", "gar",
+                "airport del", "hub ko" };
+        for (int i = 0; i < 100; i++) {
+            index.search(queries[i % queries.length], 10); // warm up
+        }
+        List<Long> nanos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long t0 = System.nanoTime();
+            index.search(queries[i % queries.length], 10);
+            nanos.add(System.nanoTime() - t0);
+        }
+        nanos.sort(null);
+
+        Map<String, Object> stats = index.stats();
+        double p99 = nanos.get(nanos.size() * 99 / 100) / 1e6;
+        assertThat((Long) stats.get("estimatedKb")).isLessThan(256 * 1024);
+        assertThat(p99).isLessThan(250);
+    }
+
+    private static List<Long> ids(List<LotSearchIndex.Match> matches) {
+        return matches.stream().map(m -> m.lot().id()).toList();
+    }
+
+    private static ParkingLot lot(long id, String name, String address, String city) {
+        ParkingLot lot = new ParkingLot();
+        ReflectionTestUtils.setField(lot, "id", id);
+        lot.setName(name);
+        lot.setAddress(address);
+        lot.setCity(city);
+        lot.setActive(true);
+        return lot;
+    }
+}
@@ -0,0 +1,73 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.enumtype.VehicleType;
+import com.parkease.backend.service.OccupancyCounters.Counts;
+import com.parkease.backend.service.OccupancyCounters.SlotState;
+
+@SpringBootTest
+@Import(TestData.class)
+class OccupancyCountersTest {
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repairCreatesMissingRowsAndFixesDriftByDifference() {
+        ParkingLot lot = testData.lot(testData.provider(), "Drift lot", 12.0, 77.0);
+        testData.slots(lot, VehicleType.CAR, 3);
+
+        occupancyCounters.repairDrift();
+        assertThat(occupancyCounters.lot(lot.getId(), VehicleType.CAR)).isEqualTo(new Counts(0, 3, 0, 0));
+        assertThat(storedAvailable(lot)).isEqualTo(3);
+
+        // the row drifts in the database only
+        jdbcTemplate.update("UPDATE lot_occupancy SET available = 10 WHERE lot_id = ?", lot.getId());
+        occupancyCounters.repairDrift();
+
+        assertThat(storedAvailable(lot)).isEqualTo(3);
+        assertThat(occupancyCounters.lot(lot.getId(), VehicleType.CAR)).isEqualTo(new Counts(0, 3, 0, 0));
+    }
+
+    @Test
+    void repairFixesTheMirrorWhenOnlyItDrifted() {
+        ParkingLot lot = testData.lot(testData.provider(), "Mirror lot", 12.0, 77.0);
+        testData.slots(lot, VehicleType.BIKE, 2);
+        occupancyCounters.repairDrift();
+
+        // counted, but never written to the slots table
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            occupancyCounters.slotChanged(lot, VehicleType.BIKE, SlotState.AVAILABLE, SlotState.OCCUPIED);
+        });
+        assertThat(occupancyCounters.lot(lot.getId(), VehicleType.BIKE)).isEqualTo(new Counts(1, 1, 0, 0));
+
+        occupancyCounters.repairDrift();
+        assertThat(occupancyCounters.lot(lot.getId(), VehicleType.BIKE)).isEqualTo(new Counts(0, 2, 0, 0));
+        assertThat(storedAvailable(lot)).isEqualTo(2);
+    }
+
+    private long storedAvailable(ParkingLot lot) {
+        return jdbcTemplate.queryForObject("SELECT available FROM lot_occupancy WHERE lot_id = ?", Long.class,
+                lot.getId());
+    }
+}
@@ -0,0 +1,100 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class OccupancySweepTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void backToBackStaysDoNotOverlap() {
+        OccupancySweep.Intervals intervals = new OccupancySweep.Intervals();
+        intervals.add(0, 30 * MINUTE);
+        intervals.add(30 * MINUTE, 60 * MINUTE);
+
+        OccupancySweep.Curve curve = OccupancySweep.sweep(intervals, 0, 60 * MINUTE, 60 * MINUTE);
+
+        assertThat(curve.max()).containsExactly(1);
+        assertThat(curve.average()[0]).isEqualTo(1.0);
+    }
+
+    @Test
+    void intervalsAreClippedToTheWindowAndTheLastBucketIsPartial() {
+        OccupancySweep.Intervals intervals = new OccupancySweep.Intervals();
+        intervals.add(-100 * MINUTE, 10 * MINUTE); // started before the window
+        intervals.add(5 * MINUTE, 500 * MINUTE);  // runs past it
+        intervals.add(200 * MINUTE, 300 * MINUTE); // entirely outside
+
+        OccupancySweep.Curve curve = OccupancySweep.sweep(intervals, 0, 40 * MINUTE, 15 * MINUTE);
+
+        assertThat(curve.size()).isEqualTo(3);
+        assertThat(curve.max()).containsExactly(2, 1, 1);
+        assertThat(curve.average()[0]).isCloseTo((10 + 10) / 15.0, within(1e-9));
+        assertThat(curve.average()[2]).isEqualTo(1.0); // 10-minute bucket, fully occupied
+        assertThat(curve.bucketStart(2)).isEqualTo(30 * MINUTE);
+        assertThat(curve.peak()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesCountingEveryMillisecond() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            int from = random.nextInt(100);
+            int to = from + 1 + random.nextInt(2_000);
+            int bucket = 1 + random.nextInt(300);
+            int n = random.nextInt(200);
+
+            int[] level = new int[to - from];
+            OccupancySweep.Intervals intervals = new OccupancySweep.Intervals(1);
+            for (int i = 0; i < n; i++) {
+                int s = random.nextInt(2_200) - 50;
+                int e = s + random.nextInt(400);
+                intervals.add(s, e);
+                for (int t = Math.max(s, from); t < Math.min(e, to); t++) {
+                    level[t - from]++;
+                }
+            }
+
+            OccupancySweep.Curve curve = OccupancySweep.sweep(intervals, from, to, bucket);
+
+            assertThat(curve.size()).isEqualTo((level.length + bucket - 1) / bucket);
+            for (int b = 0; b < curve.size(); b++) {
+                int max = 0;
+                long area = 0;
+                int end = Math.min(level.length, (b + 1) * bucket);
+                for (int t = b * bucket; t < end; t++) {
+                    max = Math.max(max, level[t]);
+                    area += level[t];
+                }
+                assertThat(curve.max()[b]).isEqualTo(max);
+                assertThat(curve.average()[b]).isCloseTo((double) area / (end - b * bucket), within(1e-9));
+            }
+        }
+    }
+
+    /** Benchmark: three million stays over 30 days in 15-minute buckets. */
+    @Test
+    void sweepsMillionsOfIntervals() {
+        int n = 3_000_000;
+        long window = 30L * 24 * 60 * MINUTE;
+        Random random = new Random(5);
+        OccupancySweep.Intervals intervals = new OccupancySweep.Intervals(n);
+        for (int i = 0; i < n; i++) {
+            long start = (long) (random.nextDouble() * window);
+            intervals.add(start, start + (15 + random.nextInt(6 * 60)) * MINUTE);
+        }
+
+        long t0 = System.nanoTime();
+        OccupancySweep.Curve curve = OccupancySweep.sweep(intervals, 0, window, 15 * MINUTE);
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        assertThat(curve.size()).isEqualTo(30 * 24 * 4);
+        // ~4,166 arrivals an hour staying ~3.25 hours on average
+        assertThat(curve.average()[curve.size() / 2]).isBetween(12_000.0, 15_000.0);
+        assertThat(millis).isLessThan(10_000);
+    }
+}
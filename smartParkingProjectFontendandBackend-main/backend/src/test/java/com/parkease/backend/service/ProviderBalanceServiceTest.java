@@ -0,0 +1,237 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.VehicleType;
+
+@SpringBootTest
+@Import(TestData.class)
+class ProviderBalanceServiceTest {
+
+    private static final int BOOKINGS = 200;
+    private static final int THREADS = 32; // more than the connection pool
+    private static final double PRICE = 100;
+    private static final double FEE = 10;
+    private static final long HOLD_MS = 500;
+
+    @Autowired
+    private ProviderBalanceService providerBalanceService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void createShardsIsIdempotent() {
+        User provider = testData.provider();
+
+        providerBalanceService.createShards(provider.getId());
+        providerBalanceService.createShards(provider.getId());
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM provider_balance_shards WHERE provider_id = ?", Integer.class,
+                provider.getId())).isEqualTo(16);
+    }
+
+    /**
+     * 200 bookings paid concurrently against one provider that has no shard
+     * rows yet. Every booking must succeed and every credit must land.
+     */
+    @Test
+    void concurrentBookingsAgainstOneProvider() throws Exception {
+        User provider = testData.provider();
+        ParkingLot lot = testData.lot(provider, "Busy lot", 12.0, 77.0);
+        testData.slots(lot, VehicleType.CAR, BOOKINGS);
+        slotAvailabilityIndex.reconcile();
+
+        List<User> drivers = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            drivers.add(testData.driver(PRICE));
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (User driver : drivers) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    tx.executeWithoutResult(status -> {
+                        Booking booking = bookingService.startBooking(driver, lot, VehicleType.CAR, "KA01",
+                                LocalDateTime.now().plusHours(2));
+                        paymentService.createPayment(booking, PRICE, FEE, "WALLET");
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double earned = BOOKINGS * (PRICE - FEE);
+        assertThat(providerBalanceService.balance(provider.getId())).isCloseTo(earned, within(1e-6));
+
+        providerBalanceService.fold();
+        assertThat(providerBalanceService.balance(provider.getId())).isCloseTo(earned, within(1e-6));
+        assertThat(jdbcTemplate.queryForObject("SELECT wallet_balance FROM users WHERE id = ?", Double.class,
+                provider.getId())).isCloseTo(earned, within(1e-6));
+    }
+
+    /**
+     * With the balance and the provider's rollup row sharded, a checkout does
+     * not wait for another checkout of the same provider that is still open.
+     */
+    @Test
+    void checkoutDoesNotWaitForAnOpenCheckoutOfTheSameProvider() throws Exception {
+        User provider = testData.provider();
+
+        long waited = secondCheckoutMillis(provider, testData, slotAvailabilityIndex, checkoutService,
+                new TransactionTemplate(transactionManager));
+
+        assertThat(waited).isLessThan(HOLD_MS);
+        assertThat(providerBalanceService.balance(provider.getId())).isCloseTo(2 * (PRICE - FEE), within(1e-6));
+    }
+
+    /**
+     * The same two checkouts with one balance row and one rollup row per
+     * provider and day, as before sharding: the second one queues until
+     * the first commits.
+     */
+    @Nested
+    @TestPropertySource(properties = { "parkease.balance.shards=1", "parkease.rollup.shards=1" })
+    class Unsharded {
+
+        @Autowired
+        private ProviderBalanceService unshardedBalance;
+
+        @Autowired
+        private CheckoutService unshardedCheckout;
+
+        @Autowired
+        private SlotAvailabilityIndex unshardedIndex;
+
+        @Autowired
+        private TestData unshardedData;
+
+        @Autowired
+        private PlatformTransactionManager unshardedTransactions;
+
+        @Test
+        void checkoutWaitsForAnOpenCheckoutOfTheSameProvider() throws Exception {
+            User provider = unshardedData.provider();
+
+            long waited = secondCheckoutMillis(provider, unshardedData, unshardedIndex, unshardedCheckout,
+                    new TransactionTemplate(unshardedTransactions));
+
+            assertThat(waited).isGreaterThanOrEqualTo(HOLD_MS);
+            assertThat(unshardedBalance.balance(provider.getId())).isCloseTo(2 * (PRICE - FEE), within(1e-6));
+        }
+    }
+
+    /**
+     * Runs one checkout that stays open after all of its writes, then a
+     * second checkout of the same provider at another lot, by another
+     * driver. The first commits after the second one finishes or after
+     * HOLD_MS, whichever comes first. Returns how long the second one took.
+     */
+    private static long secondCheckoutMillis(User provider, TestData testData, SlotAvailabilityIndex index,
+            CheckoutService checkoutService, TransactionTemplate tx) throws Exception {
+        ParkingLot first = testData.lot(provider, "Open checkout lot", 12.0, 77.0);
+        ParkingLot second = testData.lot(provider, "Waiting checkout lot", 12.1, 77.1);
+        testData.slots(first, VehicleType.CAR, 1);
+        testData.slots(second, VehicleType.CAR, 1);
+        index.reconcile();
+        User firstDriver = testData.driver(PRICE);
+        User secondDriver = testData.driver(PRICE);
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> open = pool.submit(() -> tx.executeWithoutResult(status -> {
+                checkoutService.checkout(firstDriver, first, VehicleType.CAR, "KA01-1",
+                        LocalDateTime.now().plusHours(1), PRICE, FEE, "WALLET");
+                // registered last, so it runs after the rollup rows are written
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        written.countDown();
+                        try {
+                            release.await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            }));
+            assertThat(written.await(30, TimeUnit.SECONDS)).isTrue();
+
+            long t0 = System.nanoTime();
+            Future<?> waiting = pool.submit(() -> checkoutService.checkout(secondDriver, second, VehicleType.CAR,
+                    "KA01-2", LocalDateTime.now().plusHours(1), PRICE, FEE, "WALLET"));
+            try {
+                waiting.get(HOLD_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                release.countDown();
+                waiting.get(30, TimeUnit.SECONDS);
+            }
+            long millis = (System.nanoTime() - t0) / 1_000_000;
+
+            release.countDown();
+            open.get(30, TimeUnit.SECONDS);
+            return millis;
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+}
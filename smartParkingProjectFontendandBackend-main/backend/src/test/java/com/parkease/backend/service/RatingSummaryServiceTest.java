@@ -0,0 +1,72 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class RatingSummaryServiceTest {
+
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentFirstReviewsAreAllCounted() throws Exception {
+        long providerId = 9_100_001L;
+        int reviews = 20;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < reviews; i++) {
+                int rating = i % 5 + 1;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    tx.executeWithoutResult(status -> ratingSummaryService.record(providerId, rating));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        RatingSummaryService.Summary summary = ratingSummaryService.summary(providerId);
+        assertThat(summary.count()).isEqualTo(reviews);
+        assertThat(summary.sum()).isEqualTo(60);
+        assertThat(summary.fiveStars()).isEqualTo(4);
+        assertThat(summary.average()).isEqualTo(3.0);
+    }
+
+    @Test
+    void rowCreatedOnApprovalTakesReviews() {
+        long providerId = 9_100_002L;
+        ratingSummaryService.createRow(providerId);
+        ratingSummaryService.createRow(providerId);
+
+        assertThat(ratingSummaryService.summary(providerId)).isEqualTo(RatingSummaryService.Summary.EMPTY);
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> ratingSummaryService.record(providerId, 4));
+        assertThat(ratingSummaryService.summary(providerId).count()).isEqualTo(1);
+        assertThat(ratingSummaryService.summary(providerId).fourStars()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,182 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.parkease.backend.Statements;
+import com.parkease.backend.entity.Booking;
+import com.parkease.backend.entity.DailyRollup;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.Payment;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.entity.WalletTransaction;
+import com.parkease.backend.enumtype.Role;
+import com.parkease.backend.enumtype.RollupScope;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class RollupServiceTest {
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentFirstWritesOfADayAreAllCounted() throws Exception {
+        LocalDate day = LocalDate.of(2091, 3, 1);
+        int writers = 16;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    tx.executeWithoutResult(status -> rollupService.recordNewUser(driverCreatedOn(day)));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        DailyRollup row = rollupService.platformRange(day, day).get(day);
+        assertThat(row).isNotNull();
+        assertThat(row.getNewDrivers()).isEqualTo(writers);
+    }
+
+    @Test
+    void rolledBackFirstWriteDoesNotHideTheRow() {
+        LocalDate day = LocalDate.of(2091, 3, 2);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            rollupService.recordNewUser(driverCreatedOn(day));
+            status.setRollbackOnly();
+        });
+        assertThat(rollupService.platformRange(day, day)).isEmpty();
+
+        tx.executeWithoutResult(status -> rollupService.recordNewUser(driverCreatedOn(day)));
+        assertThat(rollupService.platformRange(day, day).get(day).getNewDrivers()).isEqualTo(1);
+    }
+
+    @Test
+    void paymentsAddRevenueAndFees() {
+        LocalDate day = LocalDate.of(2091, 3, 3);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        for (int i = 0; i < 2; i++) {
+            Payment payment = new Payment();
+            payment.setTotalAmount(120.5);
+            payment.setPlatformFee(12.25);
+            payment.setPaidAt(day.atTime(10, 0));
+            tx.executeWithoutResult(status -> rollupService.recordPayment(payment, 424242L));
+        }
+
+        DailyRollup row = rollupService.platformRange(day, day).get(day);
+        assertThat(row.getRevenue()).isEqualTo(241.0);
+        assertThat(row.getPlatformFees()).isEqualTo(24.5);
+    }
+
+    @Test
+    void platformDayIsSpreadOverShardsAndAddedUp() {
+        LocalDate day = LocalDate.of(2091, 3, 4);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        for (int i = 0; i < 20; i++) {
+            tx.executeWithoutResult(status -> rollupService.recordNewUser(driverCreatedOn(day)));
+        }
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM daily_rollups WHERE scope = 'PLATFORM' AND rollup_date = ?", Integer.class,
+                day)).isEqualTo(8);
+        assertThat(rollupService.platformRange(day, day).get(day).getNewDrivers()).isEqualTo(20);
+    }
+
+    /**
+     * A checkout records a booking, a payment and two wallet movements; they
+     * used to cost nine UPDATEs, five of them on the platform row. Now each
+     * of the three rows it touches is written once, at commit.
+     */
+    @Test
+    void aCheckoutWritesEachRowOnce() {
+        User provider = userWithId(Role.PROVIDER, 880_001L);
+        User driver = userWithId(Role.DRIVER, 880_002L);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Runnable checkout = () -> tx.executeWithoutResult(status -> recordCheckout(provider, driver));
+
+        // every platform shard of today created and known
+        for (int i = 0; i < 8; i++) {
+            checkout.run();
+        }
+
+        assertThat(Statements.count(entityManagerFactory, checkout)).isEqualTo(3);
+        LocalDate today = LocalDate.now();
+        DailyRollup providerRow = rollupService.range(RollupScope.PROVIDER,
+                provider.getId(), today, today).get(today);
+        assertThat(providerRow.getBookings()).isEqualTo(11);
+        assertThat(providerRow.getCredits()).isEqualTo(11 * 90.0);
+        assertThat(providerRow.getRevenue()).isEqualTo(11 * 100.0);
+    }
+
+    private void recordCheckout(User provider, User driver) {
+        ParkingLot lot = new ParkingLot();
+        lot.setProvider(provider);
+        Booking booking = new Booking();
+        booking.setParkingLot(lot);
+        booking.setDriver(driver);
+        Payment payment = new Payment();
+        payment.setTotalAmount(100.0);
+        payment.setPlatformFee(10.0);
+        payment.setPaidAt(LocalDateTime.now());
+
+        rollupService.recordBooking(booking);
+        rollupService.recordPayment(payment, provider.getId());
+        rollupService.recordWalletTransaction(new WalletTransaction(provider, 90.0, "CREDIT", "earning"));
+        rollupService.recordWalletTransaction(new WalletTransaction(driver, 100.0, "DEBIT", "payment"));
+    }
+
+    private static User userWithId(Role role, long id) {
+        User user = new User();
+        user.setRole(role);
+        ReflectionTestUtils.setField(user, "id", id);
+        return user;
+    }
+
+    private static User driverCreatedOn(LocalDate day) {
+        User user = new User();
+        user.setRole(Role.DRIVER);
+        user.setCreatedAt(day.atStartOfDay());
+        return user;
+    }
+}
@@ -0,0 +1,186 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.parkease.backend.Statements;
+import com.parkease.backend.TestData;
+import com.parkease.backend.entity.ParkingLot;
+import com.parkease.backend.entity.ParkingSlot;
+import com.parkease.backend.entity.User;
+import com.parkease.backend.enumtype.SlotStatus;
+import com.parkease.backend.enumtype.VehicleType;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Import(TestData.class)
+class SlotAvailabilityIndexTest {
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reconcileAddsMissingAndDropsStaleSlots() {
+        ParkingLot lot = testData.lot(testData.provider(), "Reconcile lot", 12.0, 77.0);
+        List<ParkingSlot> slots = testData.slots(lot, VehicleType.CAR, 3);
+
+        // saved behind the index's back
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isZero();
+
+        slotAvailabilityIndex.reconcile();
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isEqualTo(3);
+
+        jdbcTemplate.update("UPDATE parking_slots SET occupied = TRUE WHERE id = ?", slots.get(0).getId());
+        slotAvailabilityIndex.reconcile();
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isEqualTo(2);
+        assertThat(slotAvailabilityIndex.pollFreeSlot(lot.getId(), VehicleType.CAR))
+                .hasValueSatisfying(id -> assertThat(id).isNotEqualTo(slots.get(0).getId()));
+    }
+
+    @Test
+    void pollsByTypeOrAnyTypeWhenNull() {
+        ParkingLot lot = testData.lot(testData.provider(), "Typed lot", 12.0, 77.0);
+        ParkingSlot bike = testData.slots(lot, VehicleType.BIKE, 1).get(0);
+        slotAvailabilityIndex.reconcile();
+
+        assertThat(slotAvailabilityIndex.pollFreeSlot(lot.getId(), VehicleType.CAR)).isEmpty();
+        assertThat(slotAvailabilityIndex.pollFreeSlot(lot.getId(), null)).hasValue(bike.getId());
+        assertThat(slotAvailabilityIndex.pollFreeSlot(lot.getId(), null)).isEmpty();
+        assertThat(slotAvailabilityIndex.pollFreeSlot(-1L, null)).isEmpty();
+    }
+
+    @Test
+    void aRolledBackClaimPutsTheSlotBack() {
+        ParkingLot lot = testData.lot(testData.provider(), "Rollback claim lot", 12.0, 77.0);
+        ParkingSlot slot = testData.slots(lot, VehicleType.CAR, 1).get(0);
+        slotAvailabilityIndex.reconcile();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            slotAvailabilityIndex.claim(slot);
+            assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isZero();
+            status.setRollbackOnly();
+        });
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isEqualTo(1);
+
+        tx.executeWithoutResult(status -> slotAvailabilityIndex.claim(slot));
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isZero();
+    }
+
+    @Test
+    void aFreedSlotIsPublishedOnlyOnCommit() {
+        ParkingLot lot = testData.lot(testData.provider(), "Commit free lot", 12.0, 77.0);
+        ParkingSlot slot = testData.slots(lot, VehicleType.CAR, 1).get(0);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            slotAvailabilityIndex.markFree(slot);
+            status.setRollbackOnly();
+        });
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isZero();
+
+        tx.executeWithoutResult(status -> {
+            slotAvailabilityIndex.markFree(slot);
+            assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isZero();
+        });
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isEqualTo(1);
+
+        slotAvailabilityIndex.evict(slot);
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isZero();
+    }
+
+    @Test
+    void occupiedOrInactiveSlotsAreNotMarkedFree() {
+        ParkingLot lot = testData.lot(testData.provider(), "Not free lot", 12.0, 77.0);
+        List<ParkingSlot> slots = testData.slots(lot, VehicleType.CAR, 2);
+        slots.get(0).setOccupied(true);
+        slots.get(1).setStatus(SlotStatus.INACTIVE);
+
+        slots.forEach(slotAvailabilityIndex::markFree);
+
+        assertThat(slotAvailabilityIndex.freeCount(lot.getId())).isZero();
+    }
+
+    /**
+     * Picking a slot loads that slot only: the statements per booking are
+     * the same for 100, 5k and 50k slots, and the time stays flat (the
+     * per-lot scan this replaced grew with the slot count).
+     */
+    @Test
+    void bookingCostDoesNotGrowWithTheLot() {
+        User driver = testData.driver();
+        int[] sizes = { 100, 5_000, 50_000 };
+        long[] statements = new long[sizes.length];
+        double[] medianMillis = new double[sizes.length];
+
+        for (int i = 0; i < sizes.length; i++) {
+            ParkingLot lot = lotWithSlots("Sized lot " + sizes[i], sizes[i]);
+            for (int warm = 0; warm < 20; warm++) {
+                book(driver, lot);
+            }
+            statements[i] = Statements.count(entityManagerFactory, () -> book(driver, lot));
+            medianMillis[i] = medianBookingMillis(driver, lot, 50);
+        }
+
+        assertThat(statements[1]).isEqualTo(statements[0]);
+        assertThat(statements[2]).isEqualTo(statements[0]);
+        assertThat(medianMillis[2]).as("median ms per booking, 100 vs 50k slots: %s", Arrays.toString(medianMillis))
+                .isLessThan(medianMillis[0] * 5 + 2);
+    }
+
+    private double medianBookingMillis(User driver, ParkingLot lot, int bookings) {
+        List<Double> millis = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            long started = System.nanoTime();
+            book(driver, lot);
+            millis.add((System.nanoTime() - started) / 1e6);
+        }
+        millis.sort(null);
+        return millis.get(bookings / 2);
+    }
+
+    // bulk insert: 50k slots through JPA would dominate the test
+    private ParkingLot lotWithSlots(String name, int slots) {
+        ParkingLot lot = testData.lot(testData.provider(), name, 12.0, 77.0);
+        List<Object[]> rows = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            rows.add(new Object[] { lot.getId(), "C" + (i + 1) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO parking_slots (parking_lot_id, slot_number, vehicle_type, ev_only, "
+                + "status, occupied, version) VALUES (?, ?, 'CAR', FALSE, 'AVAILABLE', FALSE, 0)", rows);
+        slotAvailabilityIndex.reconcile();
+        return lot;
+    }
+
+    private void book(User driver, ParkingLot lot) {
+        bookingService.startBooking(driver, lot, VehicleType.CAR, "KA05-SZ", LocalDateTime.now().plusHours(1));
+    }
+}
@@ -0,0 +1,143 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    // one-millisecond ticks, so deadlines below are tick numbers
+    private static final long LEVEL_1 = 64;
+    private static final long LEVEL_2 = 64 * 64;
+    private static final long LEVEL_3 = 64 * 64 * 64;
+    private static final long SPAN = 64L * 64 * 64 * 64;
+
+    @Test
+    void expiresInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        wheel.schedule("c", 30);
+        wheel.schedule("a", 10);
+        wheel.schedule("d", 5_000);
+        wheel.schedule("b", 20);
+
+        assertThat(wheel.advance(9)).isEmpty();
+        assertThat(wheel.advance(30)).containsExactly("a", "b", "c");
+        assertThat(wheel.advance(10_000)).containsExactly("d");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesEachTimerOnItsOwnTickAcrossLevelBoundaries() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        List<Long> deadlines = new ArrayList<>();
+        for (long boundary : new long[] { LEVEL_1, LEVEL_2, LEVEL_3 }) {
+            for (long d = boundary - 2; d <= boundary + 2; d++) {
+                deadlines.add(d);
+            }
+            deadlines.add(2 * boundary);
+            deadlines.add(2 * boundary - 1);
+        }
+        deadlines.forEach(d -> wheel.schedule(d, d));
+
+        // not a single tick early or late: step just before and onto each deadline
+        for (long d : deadlines.stream().sorted().toList()) {
+            assertThat(wheel.advance(d - 1)).as("before %s", d).doesNotContain(d);
+            assertThat(wheel.advance(d)).as("at %s", d).containsExactly(d);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesTimersScheduledPartWayThroughASlot() {
+        Random random = new Random(14);
+        long start = LEVEL_2 + 37; // not aligned to any level
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, start);
+        long[] deadlines = new long[2_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = start + 1 + (long) (random.nextDouble() * 3 * LEVEL_3);
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = start; wheel.size() > 0; now += 997) {
+            for (int key : wheel.advance(now)) {
+                assertThat(deadlines[key]).as("timer %s", key).isBetween(now - 996, now);
+                fired.add(key);
+            }
+        }
+        assertThat(fired).hasSize(deadlines.length)
+                .isSortedAccordingTo(Comparator.comparingLong(key -> deadlines[key]));
+    }
+
+    @Test
+    void cancelAndRescheduleMoveTheTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        wheel.schedule("cancelled", 100);
+        wheel.schedule("earlier", 5_000);
+        wheel.schedule("later", 50);
+
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.cancel("cancelled")).isFalse();
+        wheel.schedule("earlier", 40);
+        wheel.schedule("later", 9_000);
+
+        assertThat(wheel.size()).isEqualTo(2);
+        assertThat(wheel.advance(100)).containsExactly("earlier");
+        assertThat(wheel.advance(8_999)).isEmpty();
+        assertThat(wheel.advance(9_000)).containsExactly("later");
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 10_500);
+        wheel.schedule("late", 2_000);
+
+        assertThat(wheel.advance(10_999)).isEmpty();
+        assertThat(wheel.advance(11_000)).containsExactly("late");
+    }
+
+    @Test
+    void deadlineBeyondTheWheelSpanWaitsForIt() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 5);
+        long far = 3 * SPAN + 12_345;
+        wheel.schedule("far", far);
+        wheel.schedule("near", SPAN - 1);
+
+        assertThat(wheel.advance(SPAN)).containsExactly("near");
+        assertThat(wheel.advance(2 * SPAN)).isEmpty();
+        assertThat(wheel.advance(far - 1)).isEmpty();
+        assertThat(wheel.advance(far)).containsExactly("far");
+    }
+
+    @Test
+    void handlesAMillionTimers() {
+        int timers = 1_000_000;
+        long hour = 3_600_000;
+        Random random = new Random(1);
+        TimingWheel<Integer> wheel = new TimingWheel<>(1_000, 0);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < timers; i++) {
+            wheel.schedule(i, random.nextLong(hour));
+        }
+        for (int i = 0; i < timers; i += 10) {
+            wheel.cancel(i);
+        }
+        int fired = 0;
+        for (long now = 0; now <= hour; now += 1_000) {
+            fired += wheel.advance(now).size();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertThat(fired).isEqualTo(timers - timers / 10);
+        assertThat(wheel.size()).isZero();
+        // schedule, cancel a tenth and expire the rest: well under a second on
+        // one core; the bound only catches a regression to per-tick scans
+        assertThat(seconds).as("seconds for %s timers", timers).isLessThan(10);
+    }
+}
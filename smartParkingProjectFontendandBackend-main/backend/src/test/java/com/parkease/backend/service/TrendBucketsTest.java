@@ -0,0 +1,68 @@
+package com.parkease.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TrendBucketsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    @Test
+    void daysEndTodayOldestFirst() {
+        TrendBuckets buckets = TrendBuckets.last(TrendBuckets.Granularity.DAY, 7, TODAY);
+
+        assertThat(buckets.size()).isEqualTo(7);
+        assertThat(buckets.start()).isEqualTo(LocalDate.of(2024, 3, 9));
+        assertThat(buckets.end()).isEqualTo(TODAY);
+        assertThat(buckets.buckets().get(6).label()).isEqualTo("Fri");
+    }
+
+    @Test
+    void monthsCoverWholeMonthsAcrossAYearAndALeapFebruary() {
+        TrendBuckets buckets = TrendBuckets.last(TrendBuckets.Granularity.MONTH, 5, TODAY);
+
+        assertThat(buckets.buckets()).extracting(TrendBuckets.Bucket::label)
+                .containsExactly("Nov", "Dec", "Jan", "Feb", "Mar");
+        assertThat(buckets.start()).isEqualTo(LocalDate.of(2023, 11, 1));
+        assertThat(buckets.end()).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(buckets.buckets().get(3).end()).isEqualTo(LocalDate.of(2024, 2, 29));
+    }
+
+    @Test
+    void indexOfFindsTheBucketOrMinusOne() {
+        TrendBuckets buckets = TrendBuckets.last(TrendBuckets.Granularity.MONTH, 3, TODAY);
+
+        assertThat(buckets.indexOf(LocalDate.of(2024, 1, 1))).isZero();
+        assertThat(buckets.indexOf(LocalDate.of(2024, 2, 29))).isEqualTo(1);
+        assertThat(buckets.indexOf(LocalDate.of(2024, 3, 31))).isEqualTo(2);
+        assertThat(buckets.indexOf(LocalDate.of(2023, 12, 31))).isEqualTo(-1);
+        assertThat(buckets.indexOf(LocalDate.of(2024, 4, 1))).isEqualTo(-1);
+    }
+
+    @Test
+    void foldSumsDaysIntoBucketsAndLeavesGapsAtZero() {
+        TrendBuckets buckets = TrendBuckets.last(TrendBuckets.Granularity.YEAR, 3, TODAY);
+        Map<LocalDate, Double> byDay = Map.of(
+                LocalDate.of(2022, 1, 1), 1.0,
+                LocalDate.of(2022, 12, 31), 2.0,
+                LocalDate.of(2024, 3, 15), 4.0,
+                LocalDate.of(2021, 12, 31), 100.0); // before the range
+
+        double[] values = buckets.fold(byDay, Double::doubleValue);
+
+        assertThat(values).containsExactly(3.0, 0.0, 4.0);
+        assertThat(TrendBuckets.cumulative(10, values)).containsExactly(13.0, 13.0, 17.0);
+        assertThat(buckets.series(values)).extracting(m -> m.get("label")).containsExactly("2022", "2023", "2024");
+    }
+
+    @Test
+    void pointsMustBePositive() {
+        assertThatThrownBy(() -> TrendBuckets.last(TrendBuckets.Granularity.DAY, 0, TODAY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}